@@ -0,0 +1,392 @@
+package com.dslplatform.json;
+
+import org.openjdk.jmh.annotations.*;
+import org.w3c.dom.Element;
+
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.URI;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization of arrays through every builtin converter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+	@Param({"1000"})
+	public int size;
+
+	private final JsonWriter writer = new JsonWriter(null);
+
+	private int[] ints;
+	private long[] longs;
+	private double[] doubles;
+	private float[] floats;
+	private List<BigDecimal> decimals;
+	private boolean[] bools;
+	private List<String> strings;
+	private List<UUID> uuids;
+	private List<byte[]> binaries;
+	private List<Map<String, String>> maps;
+	private List<URI> uris;
+	private List<InetAddress> ips;
+	private List<Point2D> locations;
+	private List<Point> points;
+	private List<Rectangle2D> rectangles;
+	private List<Element> elements;
+	private List<Map<String, Object>> documents;
+
+	private byte[] intsJson;
+	private byte[] longsJson;
+	private byte[] doublesJson;
+	private byte[] floatsJson;
+	private byte[] decimalsJson;
+	private byte[] boolsJson;
+	private byte[] stringsJson;
+	private byte[] uuidsJson;
+	private byte[] binariesJson;
+	private byte[] mapsJson;
+	private byte[] urisJson;
+	private byte[] ipsJson;
+	private byte[] locationsJson;
+	private byte[] pointsJson;
+	private byte[] rectanglesJson;
+	private byte[] elementsJson;
+	private byte[] documentsJson;
+
+	@Setup
+	public void setup() throws IOException {
+		final Random random = new Random(42);
+		ints = new int[size];
+		longs = Corpus.longs(size);
+		doubles = Corpus.doubles(size);
+		floats = new float[size];
+		bools = new boolean[size];
+		decimals = Corpus.decimals(size);
+		strings = Corpus.unicodeStrings(size);
+		uuids = new ArrayList<UUID>(size);
+		binaries = new ArrayList<byte[]>(size);
+		maps = new ArrayList<Map<String, String>>(size);
+		uris = new ArrayList<URI>(size);
+		ips = new ArrayList<InetAddress>(size);
+		locations = new ArrayList<Point2D>(size);
+		points = new ArrayList<Point>(size);
+		rectangles = new ArrayList<Rectangle2D>(size);
+		elements = new ArrayList<Element>(size);
+		for (int i = 0; i < size; i++) {
+			ints[i] = random.nextInt();
+			floats[i] = (float) doubles[i];
+			bools[i] = random.nextBoolean();
+			uuids.add(new UUID(random.nextLong(), random.nextLong()));
+			final byte[] bytes = new byte[random.nextInt(64)];
+			random.nextBytes(bytes);
+			binaries.add(bytes);
+			final Map<String, String> map = new HashMap<String, String>();
+			map.put("key", strings.get(i));
+			map.put("index", Integer.toString(i));
+			maps.add(map);
+			uris.add(URI.create("https://dsl-platform.com/path/" + i + "?q=" + random.nextInt(100)));
+			ips.add(InetAddress.getByAddress(new byte[]{10, (byte) random.nextInt(), (byte) random.nextInt(), (byte) i}));
+			locations.add(new Point2D.Double(random.nextDouble(), random.nextDouble()));
+			points.add(new Point(random.nextInt(1000), random.nextInt(1000)));
+			rectangles.add(new Rectangle2D.Double(random.nextInt(100), random.nextInt(100), random.nextInt(100), random.nextInt(100)));
+			if (i < 100) {
+				final Map<String, Object> xml = new HashMap<String, Object>();
+				final Map<String, Object> content = new HashMap<String, Object>();
+				content.put("#text", strings.get(i));
+				xml.put("root", content);
+				elements.add(XmlConverter.mapToXml(xml));
+			}
+		}
+		documents = Corpus.documents(size);
+		intsJson = serializeInts();
+		longsJson = serializeLongs();
+		doublesJson = serializeDoubles();
+		floatsJson = serializeFloats();
+		decimalsJson = serializeDecimals();
+		boolsJson = serializeBools();
+		stringsJson = serializeStrings();
+		uuidsJson = serializeUuids();
+		binariesJson = serializeBinaries();
+		mapsJson = serializeMaps();
+		urisJson = serializeUris();
+		ipsJson = serializeIps();
+		locationsJson = serializeLocations();
+		pointsJson = serializePoints();
+		rectanglesJson = serializeRectangles();
+		elementsJson = serializeXml();
+		documentsJson = serializeObjects();
+	}
+
+	private static JsonReader<Object> array(final byte[] input) throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(input, null);
+		reader.getNextToken();
+		reader.getNextToken();
+		return reader;
+	}
+
+	private interface Item<T> {
+		void write(T value, JsonWriter sw);
+	}
+
+	private <T> byte[] serialize(final Collection<T> values, final Item<T> item) {
+		writer.reset();
+		writer.writeByte(JsonWriter.ARRAY_START);
+		boolean first = true;
+		for (final T value : values) {
+			if (!first) writer.writeByte(JsonWriter.COMMA);
+			first = false;
+			item.write(value, writer);
+		}
+		writer.writeByte(JsonWriter.ARRAY_END);
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] serializeInts() {
+		writer.reset();
+		NumberConverter.serialize(ints, writer);
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public int[] deserializeInts() throws IOException {
+		return NumberConverter.deserializeIntArray(array(intsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeLongs() {
+		writer.reset();
+		NumberConverter.serialize(longs, writer);
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public long[] deserializeLongs() throws IOException {
+		return NumberConverter.deserializeLongArray(array(longsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeDoubles() {
+		writer.reset();
+		NumberConverter.serialize(doubles, writer);
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public double[] deserializeDoubles() throws IOException {
+		return NumberConverter.deserializeDoubleArray(array(doublesJson));
+	}
+
+	@Benchmark
+	public byte[] serializeFloats() {
+		writer.reset();
+		NumberConverter.serialize(floats, writer);
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public float[] deserializeFloats() throws IOException {
+		return NumberConverter.deserializeFloatArray(array(floatsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeDecimals() {
+		return serialize(decimals, new Item<BigDecimal>() {
+			@Override
+			public void write(BigDecimal value, JsonWriter sw) {
+				NumberConverter.serialize(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<BigDecimal> deserializeDecimals() throws IOException {
+		return NumberConverter.deserializeDecimalCollection(array(decimalsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeBools() {
+		writer.reset();
+		BoolConverter.serialize(bools, writer);
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public boolean[] deserializeBools() throws IOException {
+		return BoolConverter.deserializeBoolArray(array(boolsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeStrings() {
+		writer.reset();
+		StringConverter.serialize(strings, writer);
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public List<String> deserializeStrings() throws IOException {
+		return StringConverter.deserializeCollection(array(stringsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeUuids() {
+		return serialize(uuids, new Item<UUID>() {
+			@Override
+			public void write(UUID value, JsonWriter sw) {
+				UUIDConverter.serialize(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<UUID> deserializeUuids() throws IOException {
+		return UUIDConverter.deserializeCollection(array(uuidsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeBinaries() {
+		return serialize(binaries, new Item<byte[]>() {
+			@Override
+			public void write(byte[] value, JsonWriter sw) {
+				BinaryConverter.serialize(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<byte[]> deserializeBinaries() throws IOException {
+		return BinaryConverter.deserializeCollection(array(binariesJson));
+	}
+
+	@Benchmark
+	public byte[] serializeMaps() {
+		return serialize(maps, new Item<Map<String, String>>() {
+			@Override
+			public void write(Map<String, String> value, JsonWriter sw) {
+				MapConverter.serialize(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<Map<String, String>> deserializeMaps() throws IOException {
+		return MapConverter.deserializeCollection(array(mapsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeUris() {
+		return serialize(uris, new Item<URI>() {
+			@Override
+			public void write(URI value, JsonWriter sw) {
+				NetConverter.serialize(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<URI> deserializeUris() throws IOException {
+		return NetConverter.deserializeUriCollection(array(urisJson));
+	}
+
+	@Benchmark
+	public byte[] serializeIps() {
+		return serialize(ips, new Item<InetAddress>() {
+			@Override
+			public void write(InetAddress value, JsonWriter sw) {
+				NetConverter.serialize(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<InetAddress> deserializeIps() throws IOException {
+		return NetConverter.deserializeIpCollection(array(ipsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeLocations() {
+		return serialize(locations, new Item<Point2D>() {
+			@Override
+			public void write(Point2D value, JsonWriter sw) {
+				JavaGeomConverter.serializeLocation(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<Point2D> deserializeLocations() throws IOException {
+		return JavaGeomConverter.deserializeLocationCollection(array(locationsJson));
+	}
+
+	@Benchmark
+	public byte[] serializePoints() {
+		return serialize(points, new Item<Point>() {
+			@Override
+			public void write(Point value, JsonWriter sw) {
+				JavaGeomConverter.serializePoint(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<Point> deserializePoints() throws IOException {
+		return JavaGeomConverter.deserializePointCollection(array(pointsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeRectangles() {
+		return serialize(rectangles, new Item<Rectangle2D>() {
+			@Override
+			public void write(Rectangle2D value, JsonWriter sw) {
+				JavaGeomConverter.serializeRectangle(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<Rectangle2D> deserializeRectangles() throws IOException {
+		return JavaGeomConverter.deserializeRectangleCollection(array(rectanglesJson));
+	}
+
+	@Benchmark
+	public byte[] serializeXml() {
+		return serialize(elements, new Item<Element>() {
+			@Override
+			public void write(Element value, JsonWriter sw) {
+				XmlConverter.serialize(value, sw);
+			}
+		});
+	}
+
+	@Benchmark
+	public List<Element> deserializeXml() throws IOException {
+		return XmlConverter.deserializeCollection(array(elementsJson));
+	}
+
+	@Benchmark
+	public byte[] serializeObjects() throws IOException {
+		writer.reset();
+		ObjectConverter.serializeObject(documents, writer);
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public Object deserializeObjects() throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(documentsJson, null);
+		reader.getNextToken();
+		return ObjectConverter.deserializeObject(reader);
+	}
+}
@@ -0,0 +1,279 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.generated.GA0A0Lc;
+
+import java.awt.geom.Point2D;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Deterministic payloads used across benchmarks.
+ * Everything is generated from a fixed seed, so results are comparable between runs
+ * and no large files need to be kept in the repository.
+ */
+public abstract class Corpus {
+
+	public enum Kind {
+		/** single object with a nested object and an array of points */
+		SMALL_OBJECT,
+		/** large array of objects with strings, numbers, booleans and nested arrays */
+		LARGE_ARRAY,
+		/** same as LARGE_ARRAY, but pretty printed */
+		PRETTY_ARRAY,
+		/** array of strings with multibyte UTF-8 characters and escapes */
+		UNICODE_STRINGS,
+		/** array of mixed integers, decimals and doubles in scientific notation */
+		NUMBERS
+	}
+
+	private static final String[] WORDS = {
+			"alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta", "iota", "kappa", "lambda", "omicron"
+	};
+
+	private static final String[] UNICODE = {
+			"čćžšđ", "Ünïcödé", "日本語テキスト", "русский текст", "ελληνικά", "עברית", "🙂👍🚀", "naïve café", "\"quoted\"", "tab\tand\nnew line"
+	};
+
+	public static byte[] get(final Kind kind, final int size) {
+		switch (kind) {
+			case SMALL_OBJECT:
+				return serialize(smallObject(new Random(42)));
+			case LARGE_ARRAY:
+				return largeArray(size, false);
+			case PRETTY_ARRAY:
+				return largeArray(size, true);
+			case UNICODE_STRINGS:
+				return serialize(unicodeStrings(size));
+			default:
+				return numbers(size);
+		}
+	}
+
+	private static final DslJson<Object> JSON = new DslJson<Object>();
+
+	static byte[] serialize(final Object value) {
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		try {
+			JSON.serialize(value, os);
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		return os.toByteArray();
+	}
+
+	/**
+	 * Wraps the document into a single element array.
+	 * Skipping a top level value reads past the end of input,
+	 * so benchmarks skip the only element of the wrapping array instead.
+	 */
+	public static byte[] wrap(final byte[] document) {
+		final byte[] result = new byte[document.length + 2];
+		result[0] = '[';
+		System.arraycopy(document, 0, result, 1, document.length);
+		result[result.length - 1] = ']';
+		return result;
+	}
+
+	public static GA0A0Lc smallObject(final Random random) {
+		final Point2D[] points = new Point2D[8];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new Point2D.Double(random.nextDouble() * 1000 - 500, random.nextGaussian());
+		}
+		// generated constructors with arguments don't assign identifiers, so setters are used instead
+		final GA0A0Lc result = new GA0A0Lc();
+		result.getGE0A0Lc().setP0A0Lc(points);
+		return result;
+	}
+
+	public static List<GA0A0Lc> smallObjects(final int size) {
+		final Random random = new Random(42);
+		final List<GA0A0Lc> result = new ArrayList<GA0A0Lc>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(smallObject(random));
+		}
+		return result;
+	}
+
+	public static List<String> asciiStrings(final int size) {
+		final Random random = new Random(42);
+		final List<String> result = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			final StringBuilder sb = new StringBuilder();
+			final int words = 1 + random.nextInt(10);
+			for (int j = 0; j < words; j++) {
+				if (j > 0) sb.append(' ');
+				sb.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			result.add(sb.toString());
+		}
+		return result;
+	}
+
+	public static List<String> unicodeStrings(final int size) {
+		final Random random = new Random(42);
+		final List<String> result = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			final StringBuilder sb = new StringBuilder();
+			final int words = 1 + random.nextInt(10);
+			for (int j = 0; j < words; j++) {
+				if (j > 0) sb.append(' ');
+				sb.append(random.nextBoolean() ? UNICODE[random.nextInt(UNICODE.length)] : WORDS[random.nextInt(WORDS.length)]);
+			}
+			result.add(sb.toString());
+		}
+		return result;
+	}
+
+	public static List<Map<String, Object>> documents(final int size) {
+		final Random random = new Random(42);
+		final List<Map<String, Object>> result = new ArrayList<Map<String, Object>>(size);
+		for (int i = 0; i < size; i++) {
+			final Map<String, Object> map = new LinkedHashMap<String, Object>();
+			map.put("id", (long) i);
+			map.put("name", WORDS[random.nextInt(WORDS.length)] + " " + i);
+			map.put("active", random.nextBoolean());
+			map.put("price", BigDecimal.valueOf(random.nextInt(1000000), 2));
+			map.put("score", random.nextDouble() * 100);
+			final List<Object> tags = new ArrayList<Object>();
+			for (int j = random.nextInt(5); j >= 0; j--) {
+				tags.add(WORDS[random.nextInt(WORDS.length)]);
+			}
+			map.put("tags", tags);
+			final Map<String, Object> nested = new LinkedHashMap<String, Object>();
+			nested.put("x", random.nextInt(1000));
+			nested.put("y", random.nextInt(1000));
+			nested.put("label", random.nextBoolean() ? null : UNICODE[random.nextInt(UNICODE.length)]);
+			map.put("position", nested);
+			result.add(map);
+		}
+		return result;
+	}
+
+	private static byte[] largeArray(final int size, final boolean pretty) {
+		final byte[] compact = serialize(documents(size));
+		if (!pretty) {
+			return compact;
+		}
+		return prettyPrint(new String(compact, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+	}
+
+	static String prettyPrint(final String json) {
+		final StringBuilder sb = new StringBuilder(json.length() * 2);
+		int indent = 0;
+		boolean inString = false;
+		for (int i = 0; i < json.length(); i++) {
+			final char c = json.charAt(i);
+			if (inString) {
+				sb.append(c);
+				if (c == '\\') {
+					sb.append(json.charAt(++i));
+				} else if (c == '"') {
+					inString = false;
+				}
+				continue;
+			}
+			switch (c) {
+				case '"':
+					inString = true;
+					sb.append(c);
+					break;
+				case '{':
+				case '[':
+					sb.append(c).append('\n');
+					indent++;
+					indent(sb, indent);
+					break;
+				case '}':
+				case ']':
+					sb.append('\n');
+					indent--;
+					indent(sb, indent);
+					sb.append(c);
+					break;
+				case ',':
+					sb.append(c).append('\n');
+					indent(sb, indent);
+					break;
+				case ':':
+					sb.append(": ");
+					break;
+				default:
+					sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void indent(final StringBuilder sb, final int indent) {
+		for (int i = 0; i < indent; i++) {
+			sb.append("    ");
+		}
+	}
+
+	public static double[] doubles(final int size) {
+		final Random random = new Random(42);
+		final double[] result = new double[size];
+		for (int i = 0; i < size; i++) {
+			switch (i % 4) {
+				case 0:
+					result[i] = random.nextInt(100000) / 100.0;
+					break;
+				case 1:
+					result[i] = random.nextDouble();
+					break;
+				case 2:
+					result[i] = random.nextGaussian() * 1e20;
+					break;
+				default:
+					result[i] = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+			}
+		}
+		return result;
+	}
+
+	public static long[] longs(final int size) {
+		final Random random = new Random(42);
+		final long[] result = new long[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = i % 2 == 0 ? random.nextInt(10000) : random.nextLong();
+		}
+		return result;
+	}
+
+	public static List<BigDecimal> decimals(final int size) {
+		final Random random = new Random(42);
+		final List<BigDecimal> result = new ArrayList<BigDecimal>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(BigDecimal.valueOf(random.nextLong() % 100000000000L, random.nextInt(10)));
+		}
+		return result;
+	}
+
+	private static byte[] numbers(final int size) {
+		final Random random = new Random(42);
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) sb.append(',');
+			switch (i % 5) {
+				case 0:
+					sb.append(random.nextInt());
+					break;
+				case 1:
+					sb.append(random.nextInt(1000000) / 100.0);
+					break;
+				case 2:
+					sb.append(random.nextDouble());
+					break;
+				case 3:
+					sb.append(random.nextInt(1000)).append('.').append(random.nextInt(1000)).append("e-").append(random.nextInt(30));
+					break;
+				default:
+					sb.append(random.nextGaussian() * 1e200);
+			}
+		}
+		return sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,120 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.generated.GA0A0Lc;
+import com.dslplatform.json.generated.types.StaticJson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end usage through the DslJson API on generated test models and on generic maps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DslJsonBenchmark {
+
+	@Param({"1000"})
+	public int size;
+
+	private final DslJson<Object> json = new DslJson<Object>();
+	private final StaticJson.JsonSerialization generated = StaticJson.getSerialization();
+	private final ByteArrayOutputStream os = new ByteArrayOutputStream();
+	private final JsonWriter writer = new JsonWriter(null);
+	private final byte[] buffer = new byte[4096];
+
+	private GA0A0Lc object;
+	private List<GA0A0Lc> objects;
+	private byte[] objectJson;
+	private byte[] objectsJson;
+	private byte[] documentsJson;
+
+	@Setup
+	public void setup() {
+		objects = Corpus.smallObjects(size);
+		object = objects.get(0);
+		objectJson = Corpus.serialize(object);
+		objectsJson = Corpus.serialize(objects);
+		documentsJson = Corpus.get(Corpus.Kind.LARGE_ARRAY, size);
+	}
+
+	@Benchmark
+	public GA0A0Lc deserialize() throws IOException {
+		return json.deserialize(GA0A0Lc.class, objectJson, objectJson.length);
+	}
+
+	@Benchmark
+	public List<GA0A0Lc> deserializeList() throws IOException {
+		return json.deserializeList(GA0A0Lc.class, objectsJson, objectsJson.length);
+	}
+
+	@Benchmark
+	public List<Map> deserializeMaps() throws IOException {
+		return json.deserializeList(Map.class, documentsJson, documentsJson.length);
+	}
+
+	@Benchmark
+	public List<Map> deserializeMapsParallel() throws IOException {
+		return json.deserializeListParallel(Map.class, documentsJson, documentsJson.length, ForkJoinPool.commonPool());
+	}
+
+	@Benchmark
+	public void iterateOver(final Blackhole bh) throws IOException {
+		final Iterator<GA0A0Lc> iterator = json.iterateOver(GA0A0Lc.class, new ByteArrayInputStream(objectsJson), buffer);
+		while (iterator.hasNext()) {
+			bh.consume(iterator.next());
+		}
+	}
+
+	@Benchmark
+	public int serialize() throws IOException {
+		os.reset();
+		json.serialize(object, os);
+		return os.size();
+	}
+
+	@Benchmark
+	public int serializeList() throws IOException {
+		os.reset();
+		json.serialize(objects, os);
+		return os.size();
+	}
+
+	@Benchmark
+	public int serializeListParallel() throws IOException {
+		os.reset();
+		json.serializeParallel(objects, os, ForkJoinPool.commonPool());
+		return os.size();
+	}
+
+	@Benchmark
+	public int serializeWriter() {
+		writer.reset();
+		json.serialize(writer, objects);
+		return writer.size();
+	}
+
+	@Benchmark
+	public int iterateOverWriter() throws IOException {
+		os.reset();
+		json.iterateOver(objects.iterator(), os, writer);
+		return os.size();
+	}
+
+	@Benchmark
+	public GA0A0Lc generatedRoundtrip() throws IOException {
+		final StaticJson.Bytes bytes = generated.serialize(object);
+		return generated.deserialize(GA0A0Lc.class, bytes.content, bytes.length);
+	}
+}
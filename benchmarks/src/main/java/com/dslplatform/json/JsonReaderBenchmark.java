@@ -0,0 +1,83 @@
+package com.dslplatform.json;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonReaderBenchmark {
+
+	@Param({"SMALL_OBJECT", "LARGE_ARRAY", "PRETTY_ARRAY", "UNICODE_STRINGS", "NUMBERS"})
+	public Corpus.Kind corpus;
+
+	@Param({"1000"})
+	public int size;
+
+	private byte[] input;
+	private byte[] wrapped;
+	private byte[] strings;
+	private JsonReader<Object> reuse;
+
+	@Setup
+	public void setup() {
+		input = Corpus.get(corpus, size);
+		wrapped = Corpus.wrap(input);
+		strings = Corpus.serialize(Corpus.asciiStrings(size));
+		reuse = new JsonReader<Object>(new byte[0], null);
+	}
+
+	@Benchmark
+	public byte skip() throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(wrapped, null);
+		reader.getNextToken();
+		reader.getNextToken();
+		return reader.skip();
+	}
+
+	@Benchmark
+	public int tokens() throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(input, null);
+		int count = 0;
+		while (reader.getCurrentIndex() < reader.length()) {
+			final byte token = reader.getNextToken();
+			if (token == '"') {
+				reader.calcHash();
+			}
+			count++;
+		}
+		return count;
+	}
+
+	@Benchmark
+	public Object deserializeObject() throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(input, null);
+		reader.getNextToken();
+		return ObjectConverter.deserializeObject(reader);
+	}
+
+	@Benchmark
+	public void readStrings(final Blackhole bh) throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(strings, null);
+		reader.getNextToken();
+		reader.getNextToken();
+		bh.consume(reader.readString());
+		while (reader.getNextToken() == ',') {
+			reader.getNextToken();
+			bh.consume(reader.readString());
+		}
+	}
+
+	@Benchmark
+	public Object reuseReader() throws IOException {
+		reuse = new JsonReader<Object>(input, null, reuse.chars);
+		reuse.getNextToken();
+		return ObjectConverter.deserializeObject(reuse);
+	}
+}
@@ -0,0 +1,70 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.generated.GA0A0Lc;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonStreamReaderBenchmark {
+
+	@Param({"LARGE_ARRAY", "PRETTY_ARRAY", "UNICODE_STRINGS", "NUMBERS"})
+	public Corpus.Kind corpus;
+
+	@Param({"1000"})
+	public int size;
+
+	@Param({"4096", "65536"})
+	public int bufferSize;
+
+	private final DslJson<Object> json = new DslJson<Object>();
+	private byte[] input;
+	private byte[] wrapped;
+	private byte[] objects;
+	private byte[] buffer;
+
+	@Setup
+	public void setup() {
+		input = Corpus.get(corpus, size);
+		wrapped = Corpus.wrap(input);
+		objects = Corpus.serialize(Corpus.smallObjects(size));
+		buffer = new byte[bufferSize];
+	}
+
+	@Benchmark
+	public byte skip() throws IOException {
+		final JsonStreamReader<Object> reader = new JsonStreamReader<Object>(new ByteArrayInputStream(wrapped), buffer, null);
+		reader.getNextToken();
+		reader.getNextToken();
+		return reader.skip();
+	}
+
+	@Benchmark
+	public Object deserializeObject() throws IOException {
+		final JsonStreamReader<Object> reader = new JsonStreamReader<Object>(new ByteArrayInputStream(input), buffer, null);
+		reader.getNextToken();
+		return ObjectConverter.deserializeObject(reader);
+	}
+
+	@Benchmark
+	public Object deserializeList() throws IOException {
+		return json.deserializeList(GA0A0Lc.class, new ByteArrayInputStream(objects), buffer);
+	}
+
+	@Benchmark
+	public void iterateOver(final Blackhole bh) throws IOException {
+		final Iterator<GA0A0Lc> iterator = json.iterateOver(GA0A0Lc.class, new ByteArrayInputStream(objects), buffer);
+		while (iterator.hasNext()) {
+			bh.consume(iterator.next());
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.dslplatform.json;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonWriterBenchmark {
+
+	@Param({"1000"})
+	public int size;
+
+	private List<String> ascii;
+	private List<String> unicode;
+	private final JsonWriter writer = new JsonWriter(null);
+	private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+	@Setup
+	public void setup() {
+		ascii = Corpus.asciiStrings(size);
+		unicode = Corpus.unicodeStrings(size);
+	}
+
+	@Benchmark
+	public int asciiStrings() {
+		writer.reset();
+		writer.writeByte(JsonWriter.ARRAY_START);
+		for (final String value : ascii) {
+			writer.writeString(value);
+			writer.writeByte(JsonWriter.COMMA);
+		}
+		writer.writeByte(JsonWriter.ARRAY_END);
+		return writer.size();
+	}
+
+	@Benchmark
+	public int unicodeStrings() {
+		writer.reset();
+		writer.writeByte(JsonWriter.ARRAY_START);
+		for (final String value : unicode) {
+			writer.writeString(value);
+			writer.writeByte(JsonWriter.COMMA);
+		}
+		writer.writeByte(JsonWriter.ARRAY_END);
+		return writer.size();
+	}
+
+	@Benchmark
+	public int asciiNames() {
+		writer.reset();
+		for (int i = 0; i < size; i++) {
+			writer.writeAscii("\"name\":");
+			writer.writeNull();
+			writer.writeByte(JsonWriter.COMMA);
+		}
+		return writer.size();
+	}
+
+	@Benchmark
+	public int toStream() throws IOException {
+		asciiStrings();
+		stream.reset();
+		writer.toStream(stream);
+		return stream.size();
+	}
+
+	@Benchmark
+	public byte[] toByteArray() {
+		unicodeStrings();
+		return writer.toByteArray();
+	}
+
+	@Benchmark
+	public int newWriter() {
+		final JsonWriter fresh = new JsonWriter(null);
+		for (final String value : ascii) {
+			fresh.writeString(value);
+		}
+		return fresh.size();
+	}
+}
@@ -0,0 +1,136 @@
+package com.dslplatform.json;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares word at a time scanning with the byte at a time loops it replaced.
+ * Benchmark lives in the library package so it can reach the package private scanners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanningBenchmark {
+
+	@Param({"4", "16", "64", "512"})
+	public int length;
+
+	private byte[] whitespace;
+	private byte[] string;
+	private byte[] prettyDocument;
+	private byte[] compactDocument;
+
+	private static final boolean[] ASCII_WHITESPACE = new boolean[256];
+
+	static {
+		ASCII_WHITESPACE[' '] = true;
+		ASCII_WHITESPACE['\t'] = true;
+		ASCII_WHITESPACE['\n'] = true;
+		ASCII_WHITESPACE['\r'] = true;
+	}
+
+	@Setup
+	public void setup() {
+		final StringBuilder ws = new StringBuilder("\n");
+		final StringBuilder str = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			ws.append(' ');
+			str.append((char) ('a' + i % 26));
+		}
+		whitespace = (ws + "{        ").getBytes(StandardCharsets.UTF_8);
+		string = (str + "\"        ").getBytes(StandardCharsets.UTF_8);
+		final StringBuilder pretty = new StringBuilder("[\n");
+		final StringBuilder compact = new StringBuilder("[");
+		for (int i = 0; i < 100; i++) {
+			if (i > 0) {
+				pretty.append(",\n");
+				compact.append(',');
+			}
+			pretty.append("    {\n        \"name\": \"").append(str).append("\",\n        \"value\": ").append(i).append("\n    }");
+			compact.append("{\"name\":\"").append(str).append("\",\"value\":").append(i).append('}');
+		}
+		prettyDocument = pretty.append("\n]").toString().getBytes(StandardCharsets.UTF_8);
+		compactDocument = compact.append(']').toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public int skipWhitespaceScalar() {
+		final byte[] buf = whitespace;
+		int i = 0;
+		while (i < buf.length && ASCII_WHITESPACE[buf[i] & 0xFF]) {
+			i++;
+		}
+		return i;
+	}
+
+	@Benchmark
+	public int skipWhitespaceSwar() {
+		final byte[] buf = whitespace;
+		// new line is followed by the indentation run
+		int i = Swar.skipRepeated(buf, 1, buf.length, buf[1]);
+		while (i < buf.length && ASCII_WHITESPACE[buf[i] & 0xFF]) {
+			i++;
+		}
+		return i;
+	}
+
+	@Benchmark
+	public int findQuoteScalar() {
+		final byte[] buf = string;
+		int i = 0;
+		while (i < buf.length && buf[i] != '"') {
+			i++;
+		}
+		return i;
+	}
+
+	@Benchmark
+	public int findQuoteSwar() {
+		final byte[] buf = string;
+		int i = Swar.findQuote(buf, 0, buf.length);
+		while (i < buf.length && buf[i] != '"') {
+			i++;
+		}
+		return i;
+	}
+
+	@Benchmark
+	public void skipPrettyDocument(final Blackhole bh) throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(prettyDocument, null);
+		reader.getNextToken();
+		bh.consume(reader.skip());
+	}
+
+	@Benchmark
+	public void skipCompactDocument(final Blackhole bh) throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(compactDocument, null);
+		reader.getNextToken();
+		bh.consume(reader.skip());
+	}
+
+	@Benchmark
+	public void readPrettyDocument(final Blackhole bh) throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(prettyDocument, null);
+		reader.getNextToken();
+		while (reader.getNextToken() == '{') {
+			reader.getNextToken();
+			reader.fillName();
+			reader.getNextToken();
+			bh.consume(reader.readString());
+			reader.getNextToken();
+			reader.getNextToken();
+			reader.fillName();
+			reader.getNextToken();
+			bh.consume(NumberConverter.deserializeInt(reader));
+			reader.getNextToken();
+			if (reader.getNextToken() != ',') break;
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * java.util.stream API over JSON arrays.
+ * Core library targets Java 6, so streams are created through this class instead of DslJson.
+ * <p>
+ * Errors during lazy deserialization are reported with UncheckedIOException.
+ * JSON null is returned as an empty stream.
+ */
+public abstract class JsonStreams {
+
+	private static final int CHUNK_SIZE = 16 * 1024;
+
+	/**
+	 * Stream elements of a JSON array from an input stream.
+	 * Elements are deserialized lazily, as the stream is consumed.
+	 * Stream is processed in chunks of specified buffer byte[] (see {@link DslJson#iterateOver(Class, InputStream, byte[])}).
+	 * Input stream is not closed.
+	 * <p>
+	 * Parallel streams are supported by buffering batches of deserialized elements,
+	 * but parsing itself stays sequential.
+	 *
+	 * @param json     DslJson instance with registered readers
+	 * @param manifest type of elements
+	 * @param stream   JSON data stream
+	 * @param buffer   size of processing chunk
+	 * @param <T>      type of elements
+	 * @return ordered stream of elements
+	 * @throws IOException if reader is not found or there is an error reading the first chunk
+	 */
+	public static <T> Stream<T> streamOver(
+			final DslJson<?> json,
+			final Class<T> manifest,
+			final InputStream stream,
+			final byte[] buffer) throws IOException {
+		final Iterator<T> iterator = json.iterateOver(manifest, stream, buffer);
+		if (iterator == null) {
+			return Stream.empty();
+		}
+		return StreamSupport.stream(new IteratorSpliterator<>(iterator), false);
+	}
+
+	/**
+	 * Stream elements of a fully buffered JSON array.
+	 * Input is scanned for element boundaries (only brackets, commas and strings are tracked)
+	 * and elements are deserialized lazily, chunk by chunk, as the stream is consumed.
+	 * Spliterator is SIZED and splits at chunk boundaries, so parallel streams divide the parsing work.
+	 *
+	 * @param json     DslJson instance with registered readers
+	 * @param manifest type of elements
+	 * @param body     input JSON
+	 * @param size     length of input
+	 * @param <T>      type of elements
+	 * @return ordered and sized stream of elements
+	 * @throws IOException if input is not a valid array or reader for the type is not found
+	 */
+	public static <T> Stream<T> streamOver(
+			final DslJson<?> json,
+			final Class<T> manifest,
+			final byte[] body,
+			final int size) throws IOException {
+		final DslJson.ArrayChunks<T> chunks = json.splitArray(manifest, body, size, CHUNK_SIZE);
+		if (chunks == null) {
+			// empty arrays, nulls, invalid input and types handled by fallback
+			final List<T> list = json.deserializeList(manifest, body, size);
+			return list == null ? Stream.empty() : list.stream();
+		}
+		final long[] offsets = new long[chunks.count() + 1];
+		for (int i = 0; i < chunks.count(); i++) {
+			offsets[i + 1] = offsets[i] + chunks.elements(i);
+		}
+		return StreamSupport.stream(new ChunkSpliterator<>(chunks, offsets, 0, chunks.count()), false);
+	}
+
+	private static final class IteratorSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+		private final Iterator<T> iterator;
+
+		IteratorSpliterator(final Iterator<T> iterator) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED);
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super T> action) {
+			try {
+				if (!iterator.hasNext()) {
+					return false;
+				}
+				action.accept(iterator.next());
+				return true;
+			} catch (RuntimeException ex) {
+				// stream iterators wrap IO errors
+				if (ex.getCause() instanceof IOException) {
+					throw new UncheckedIOException((IOException) ex.getCause());
+				}
+				throw ex;
+			}
+		}
+	}
+
+	private static final class ChunkSpliterator<T> implements Spliterator<T> {
+		private final DslJson.ArrayChunks<T> chunks;
+		private final long[] offsets;
+		private int next;
+		private final int end;
+		private List<T> current;
+		private int index;
+
+		ChunkSpliterator(
+				final DslJson.ArrayChunks<T> chunks,
+				final long[] offsets,
+				final int next,
+				final int end) {
+			this.chunks = chunks;
+			this.offsets = offsets;
+			this.next = next;
+			this.end = end;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super T> action) {
+			if (current == null || index == current.size()) {
+				if (next == end) {
+					return false;
+				}
+				try {
+					current = chunks.deserialize(next);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				next++;
+				index = 0;
+			}
+			action.accept(current.get(index++));
+			return true;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			final int mid = (next + end) >>> 1;
+			if (mid == next) {
+				return null;
+			}
+			// prefix is split off, so the order of elements is kept
+			final ChunkSpliterator<T> prefix = new ChunkSpliterator<>(chunks, offsets, next, mid);
+			prefix.current = current;
+			prefix.index = index;
+			current = null;
+			next = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			final long buffered = current == null ? 0 : current.size() - index;
+			return buffered + offsets[end] - offsets[next];
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+}
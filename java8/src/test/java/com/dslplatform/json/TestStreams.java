@@ -0,0 +1,103 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TestStreams {
+
+	private final DslJson<Object> json = new DslJson<>();
+
+	private static byte[] documents(int size) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) sb.append(',');
+			if (i % 100 == 50) {
+				sb.append("null");
+			} else {
+				sb.append("{\"id\":").append(i).append(",\"name\":\"a,]\\\"").append(i).append("\"}");
+			}
+		}
+		return sb.append(']').toString().getBytes();
+	}
+
+	@Test
+	public void streamFromInputStream() throws IOException {
+		byte[] input = documents(1000);
+		Stream<Map> stream = JsonStreams.streamOver(json, Map.class, new ByteArrayInputStream(input), new byte[256]);
+		List<Map> result = stream.collect(Collectors.toList());
+		Assert.assertEquals(1000, result.size());
+		Assert.assertNull(result.get(50));
+		Assert.assertEquals(999L, result.get(999).get("id"));
+	}
+
+	@Test
+	public void bufferedStreamIsSizedAndSplits() throws IOException {
+		byte[] input = documents(20000);
+		Spliterator<Map> spliterator = JsonStreams.streamOver(json, Map.class, input, input.length).spliterator();
+		Assert.assertEquals(20000, spliterator.getExactSizeIfKnown());
+		Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.SUBSIZED));
+		Spliterator<Map> prefix = spliterator.trySplit();
+		Assert.assertNotNull(prefix);
+		Assert.assertEquals(20000, prefix.estimateSize() + spliterator.estimateSize());
+		List<Object> ids = new ArrayList<>();
+		prefix.forEachRemaining(m -> ids.add(m == null ? null : m.get("id")));
+		spliterator.forEachRemaining(m -> ids.add(m == null ? null : m.get("id")));
+		Assert.assertEquals(20000, ids.size());
+		Assert.assertEquals(0L, ids.get(0));
+		Assert.assertEquals(19999L, ids.get(19999));
+	}
+
+	@Test
+	public void parallelStreamKeepsOrder() throws IOException {
+		byte[] input = documents(20000);
+		List<Object> sequential = JsonStreams.streamOver(json, Map.class, input, input.length)
+				.map(m -> m == null ? -1L : m.get("id")).collect(Collectors.toList());
+		List<Object> parallel = JsonStreams.streamOver(json, Map.class, input, input.length).parallel()
+				.map(m -> m == null ? -1L : m.get("id")).collect(Collectors.toList());
+		Assert.assertEquals(sequential, parallel);
+		Assert.assertEquals(20000, parallel.size());
+	}
+
+	@Test
+	public void partiallyConsumedSplit() throws IOException {
+		byte[] input = documents(20000);
+		Spliterator<Map> spliterator = JsonStreams.streamOver(json, Map.class, input, input.length).spliterator();
+		List<Object> ids = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			spliterator.tryAdvance(m -> ids.add(m.get("id")));
+		}
+		Spliterator<Map> prefix = spliterator.trySplit();
+		Assert.assertEquals(19990, prefix.estimateSize() + spliterator.estimateSize());
+		prefix.forEachRemaining(m -> ids.add(m == null ? null : m.get("id")));
+		spliterator.forEachRemaining(m -> ids.add(m == null ? null : m.get("id")));
+		Assert.assertEquals(20000, ids.size());
+		Assert.assertEquals(10L, ids.get(10));
+	}
+
+	@Test
+	public void smallAndEmptyInputs() throws IOException {
+		Assert.assertEquals(0, JsonStreams.streamOver(json, Long.class, "[]".getBytes(), 2).count());
+		Assert.assertEquals(0, JsonStreams.streamOver(json, Long.class, "null".getBytes(), 4).count());
+		Assert.assertEquals(Arrays.asList(1L, 2L), JsonStreams.streamOver(json, Long.class, "[1,2]".getBytes(), 5).collect(Collectors.toList()));
+		Assert.assertEquals(0, JsonStreams.streamOver(json, Long.class, new ByteArrayInputStream("[]".getBytes()), new byte[64]).count());
+	}
+
+	@Test(expected = UncheckedIOException.class)
+	public void errorsAreUnchecked() throws IOException {
+		byte[] input = "[1,2,x]".getBytes();
+		JsonStreams.streamOver(json, Long.class, new ByteArrayInputStream(input), new byte[64]).count();
+	}
+
+	@Test(expected = UncheckedIOException.class)
+	public void bufferedErrorsAreUnchecked() throws IOException {
+		byte[] input = "[1,2,x]".getBytes();
+		JsonStreams.streamOver(json, Long.class, input, input.length).forEach(l -> {});
+	}
+}
@@ -0,0 +1,118 @@
+package com.dslplatform.json;
+
+import java.util.Arrays;
+
+/**
+ * Structural pre-scan of a top level JSON array.
+ * Only brackets, commas and strings are tracked, so scanning is much cheaper than parsing.
+ * Result is used to split the array into chunks of whole elements which can be parsed independently.
+ * <p>
+ * Scan doesn't validate elements. It only finds boundaries,
+ * so parsers of the individual chunks are still responsible for reporting invalid JSON.
+ */
+abstract class ArraySplitter {
+
+	/**
+	 * Split array into chunks of roughly the same size.
+	 * Chunks are returned as pairs of (start, element count) where start is the index
+	 * right after the opening bracket or after the comma which ends the previous chunk.
+	 * Every chunk except the last one is followed by a comma, the last one by the closing bracket.
+	 *
+	 * @param body      input JSON
+	 * @param size      length of input
+	 * @param chunkSize preferred size of a chunk in bytes
+	 * @return chunk starts and counts, or null if input is not a non empty array which can be split
+	 */
+	static int[] split(final byte[] body, final int size, final int chunkSize) {
+		int i = 0;
+		while (i < size && isWhitespace(body[i])) {
+			i++;
+		}
+		if (i == size || body[i] != '[') {
+			return null;
+		}
+		i++;
+		int[] chunks = new int[16];
+		int found = 0;
+		int start = i;
+		int count = 0;
+		int depth = 1;
+		boolean hasValue = false;
+		while (i < size) {
+			final byte b = body[i];
+			switch (b) {
+				case '"':
+					i = skipString(body, i + 1, size);
+					if (i < 0) {
+						return null;
+					}
+					hasValue = true;
+					continue;
+				case '{':
+				case '[':
+					depth++;
+					hasValue = true;
+					break;
+				case '}':
+				case ']':
+					depth--;
+					if (depth == 0) {
+						if (b != ']' || !hasValue) {
+							return null;
+						}
+						if (found + 2 > chunks.length) {
+							chunks = Arrays.copyOf(chunks, chunks.length * 2);
+						}
+						chunks[found] = start;
+						chunks[found + 1] = count + 1;
+						return Arrays.copyOf(chunks, found + 2);
+					}
+					break;
+				case ',':
+					if (depth == 1) {
+						if (!hasValue) {
+							return null;
+						}
+						count++;
+						hasValue = false;
+						if (i - start >= chunkSize) {
+							if (found + 2 > chunks.length) {
+								chunks = Arrays.copyOf(chunks, chunks.length * 2);
+							}
+							chunks[found] = start;
+							chunks[found + 1] = count;
+							found += 2;
+							start = i + 1;
+							count = 0;
+						}
+					}
+					break;
+				default:
+					if (!isWhitespace(b)) {
+						hasValue = true;
+					}
+			}
+			i++;
+		}
+		return null;
+	}
+
+	private static boolean isWhitespace(final byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+	}
+
+	private static int skipString(final byte[] body, int i, final int size) {
+		while (i < size) {
+			i = Swar.findQuoteOrEscape(body, i, size);
+			if (i >= size) {
+				break;
+			}
+			final byte b = body[i];
+			if (b == '"') {
+				return i + 1;
+			}
+			i += b == '\\' ? 2 : 1;
+		}
+		return -1;
+	}
+}
@@ -161,6 +161,13 @@ abstract class Base64 {
 		return sArr.length;
 	}
 
+	static int findEnd(final byte[] sArr, final int start, final int end) {
+		for (int i = start; i < end; i++)
+			if (IA[sArr[i] & 0xff] < 0)
+				return i;
+		return end;
+	}
+
 	private final static byte[] EMPTY_ARRAY = new byte[0];
 
 	static byte[] decodeFast(final byte[] sArr, final int start, final int end) {
@@ -23,4 +23,22 @@ public @interface CompiledJson {
 	 * @return should JSON properties use short names
 	 */
 	boolean minified() default false;
+
+	/**
+	 * Name of the property which holds the type of the object.
+	 * Used on abstract classes and interfaces for which polymorphic converters are created.
+	 * Discriminator is expected to be the first property in the object which allows for the fastest processing,
+	 * but it's also supported in other positions (in which case object is buffered until discriminator is found).
+	 *
+	 * @return discriminator property name
+	 */
+	String discriminator() default "$type";
+
+	/**
+	 * Discriminator value which identifies this implementation.
+	 * When not specified, fully qualified class name is used.
+	 *
+	 * @return type name written into discriminator property
+	 */
+	String name() default "";
 }
\ No newline at end of file
@@ -12,8 +12,15 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Main DSL-JSON class.
@@ -22,6 +29,8 @@ import java.util.concurrent.ConcurrentMap;
  * <p>
  * During initialization DslJson will use ServiceLoader API to load registered services.
  * This is done through `META-INF/services/com.dslplatform.json.CompiledJson` file.
+ * Converters generated for @CompiledJson classes are registered lazily,
+ * so converter class for a type is loaded only when the type is used for the first time.
  * <p>
  * DslJson can fallback to another serializer in case when it doesn't know how to handle specific type.
  * This can be specified by Fallback interface during initialization.
@@ -74,6 +83,36 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 */
 	public final boolean omitDefaults;
 	protected final KeyCache keyCache;
+	/**
+	 * Largest buffer (in bytes) which will be kept in the pool after a convenience method finishes.
+	 * Readers and writers which grew beyond this size are released to garbage collector,
+	 * so that a single large payload doesn't keep the memory forever.
+	 */
+	public final int maxPooledBufferSize;
+
+	/**
+	 * Default value for maxPooledBufferSize
+	 */
+	public static final int DEFAULT_MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * How much of the skipped input (eg. unknown properties) is validated by readers created from this instance.
+	 */
+	public final JsonReader.ValidationLevel validationLevel;
+	/**
+	 * Limits for untrusted input applied to readers created from this instance.
+	 */
+	public final JsonReader.Limits limits;
+
+	private static final byte[] NO_INPUT = new byte[0];
+	private static final int DEFAULT_STREAM_BUFFER_SIZE = 4096;
+	private static final int MAPPED_BUFFER_SIZE = 64 * 1024;
+	private static final int MIN_PARALLEL_CHUNK = 64 * 1024;
+	private static final int PARALLEL_CHUNK_ELEMENTS = 1024;
+
+	private final int poolMask;
+	private final AtomicReferenceArray<JsonWriter> writerPool;
+	private final AtomicReferenceArray<JsonReader<TContext>> readerPool;
 
 	public interface Fallback<TContext> {
 		void serialize(Object instance, OutputStream stream) throws IOException;
@@ -111,10 +150,208 @@ public class DslJson<TContext> implements UnknownSerializer {
 			final boolean omitDefaults,
 			final KeyCache keyCache,
 			final Iterable<Configuration> serializers) {
-		this.context = context;
-		this.fallback = fallback;
-		this.omitDefaults = omitDefaults;
-		this.keyCache = keyCache;
+		this(settings(context, javaSpecifics, fallback, omitDefaults, keyCache, serializers));
+	}
+
+	private static <TContext> Settings<TContext> settings(
+			final TContext context,
+			final boolean javaSpecifics,
+			final Fallback<TContext> fallback,
+			final boolean omitDefaults,
+			final KeyCache keyCache,
+			final Iterable<Configuration> serializers) {
+		final Settings<TContext> settings = new Settings<TContext>()
+				.withContext(context)
+				.withJavaSpecifics(javaSpecifics)
+				.withFallback(fallback)
+				.withOmitDefaults(omitDefaults)
+				.withKeyCache(keyCache);
+		return serializers != null ? settings.withConfigurations(serializers) : settings;
+	}
+
+	/**
+	 * Configuration for DslJson instance.
+	 * Options which are not specified use the same defaults as the simple entry point,
+	 * except that no configurations are registered unless provided (eg. through includeServiceLoader).
+	 * <pre>
+	 *     DslJson&lt;Object&gt; json = new DslJson&lt;Object&gt;(new DslJson.Settings&lt;Object&gt;()
+	 *         .includeServiceLoader()
+	 *         .withLimits(new JsonReader.Limits(64, 1024 * 1024, 256, 16 * 1024 * 1024)));
+	 * </pre>
+	 *
+	 * @param <TContext> context passed to deserialized object instances
+	 */
+	public static class Settings<TContext> {
+		private TContext context;
+		private boolean javaSpecifics;
+		private Fallback<TContext> fallback;
+		private boolean omitDefaults;
+		private KeyCache keyCache = new SimpleKeyCache();
+		private List<Configuration> configurations;
+		private int maxPooledBufferSize = DEFAULT_MAX_POOLED_BUFFER_SIZE;
+		private JsonReader.ValidationLevel validationLevel = JsonReader.ValidationLevel.FULL;
+		private JsonReader.Limits limits = JsonReader.Limits.UNLIMITED;
+
+		/**
+		 * @param context context instance which can be provided to deserialized objects
+		 * @return itself
+		 */
+		public Settings<TContext> withContext(final TContext context) {
+			this.context = context;
+			return this;
+		}
+
+		/**
+		 * @param javaSpecifics register Java graphics specific classes such as java.awt.Point, Image, ...
+		 * @return itself
+		 */
+		public Settings<TContext> withJavaSpecifics(final boolean javaSpecifics) {
+			this.javaSpecifics = javaSpecifics;
+			return this;
+		}
+
+		/**
+		 * @param fallback in case of unsupported type, try serialization/deserialization through external API
+		 * @return itself
+		 */
+		public Settings<TContext> withFallback(final Fallback<TContext> fallback) {
+			this.fallback = fallback;
+			return this;
+		}
+
+		/**
+		 * @param omitDefaults should serialization produce minified JSON (omit nulls and default values)
+		 * @return itself
+		 */
+		public Settings<TContext> withOmitDefaults(final boolean omitDefaults) {
+			this.omitDefaults = omitDefaults;
+			return this;
+		}
+
+		/**
+		 * @param keyCache parsed keys can be cached (this is only used in small subset of parsing). Use null to disable
+		 * @return itself
+		 */
+		public Settings<TContext> withKeyCache(final KeyCache keyCache) {
+			this.keyCache = keyCache;
+			return this;
+		}
+
+		/**
+		 * @param configuration additional serializers/deserializers which will be registered into readers/writers
+		 * @return itself
+		 */
+		public Settings<TContext> withConfiguration(final Configuration configuration) {
+			if (configuration == null) {
+				throw new NullPointerException("configuration provided as null.");
+			}
+			if (configurations == null) {
+				configurations = new ArrayList<Configuration>();
+			}
+			configurations.add(configuration);
+			return this;
+		}
+
+		/**
+		 * @param configurations additional serializers/deserializers which will be registered into readers/writers
+		 * @return itself
+		 */
+		public Settings<TContext> withConfigurations(final Iterable<Configuration> configurations) {
+			if (configurations == null) {
+				throw new NullPointerException("configurations provided as null.");
+			}
+			if (this.configurations == null) {
+				this.configurations = new ArrayList<Configuration>();
+			}
+			for (final Configuration configuration : configurations) {
+				this.configurations.add(configuration);
+			}
+			return this;
+		}
+
+		/**
+		 * Register configurations from META-INF/services through default ServiceLoader.load method.
+		 *
+		 * @return itself
+		 */
+		public Settings<TContext> includeServiceLoader() {
+			return withConfigurations(ServiceLoader.load(Configuration.class));
+		}
+
+		/**
+		 * Convenience methods which don't accept JsonWriter/JsonReader (such as serialize(Object, OutputStream)
+		 * or deserialize(Class, byte[], int)) reuse pooled instances.
+		 * Pool is striped by thread, so at steady state request processing threads don't allocate new readers/writers.
+		 *
+		 * @param maxPooledBufferSize largest buffer size in bytes which will be kept for reuse. Use 0 to disable pooling
+		 * @return itself
+		 */
+		public Settings<TContext> withMaxPooledBufferSize(final int maxPooledBufferSize) {
+			if (maxPooledBufferSize < 0) {
+				throw new IllegalArgumentException("maxPooledBufferSize can't be negative");
+			}
+			this.maxPooledBufferSize = maxPooledBufferSize;
+			return this;
+		}
+
+		/**
+		 * @param validationLevel how much of the skipped input (eg. unknown properties) is validated by created readers
+		 * @return itself
+		 */
+		public Settings<TContext> withValidationLevel(final JsonReader.ValidationLevel validationLevel) {
+			if (validationLevel == null) {
+				throw new NullPointerException("validationLevel provided as null.");
+			}
+			this.validationLevel = validationLevel;
+			return this;
+		}
+
+		/**
+		 * Limits should be used for endpoints which process untrusted input,
+		 * to bound the memory and stack used by a single request.
+		 *
+		 * @param limits limits for nesting depth, string and number length and document size
+		 * @return itself
+		 */
+		public Settings<TContext> withLimits(final JsonReader.Limits limits) {
+			if (limits == null) {
+				throw new NullPointerException("limits provided as null.");
+			}
+			this.limits = limits;
+			return this;
+		}
+	}
+
+	/**
+	 * Fully configurable entry point.
+	 *
+	 * @param settings configuration for this instance
+	 */
+	public DslJson(final Settings<TContext> settings) {
+		if (settings == null) {
+			throw new NullPointerException("settings provided as null.");
+		}
+		this.context = settings.context;
+		this.fallback = settings.fallback;
+		this.omitDefaults = settings.omitDefaults;
+		this.keyCache = settings.keyCache;
+		this.maxPooledBufferSize = settings.maxPooledBufferSize;
+		this.validationLevel = settings.validationLevel;
+		this.limits = settings.limits;
+		final boolean javaSpecifics = settings.javaSpecifics;
+		final Iterable<Configuration> serializers = settings.configurations != null
+				? new ArrayList<Configuration>(settings.configurations)
+				: null;
+		int stripes = 1;
+		if (maxPooledBufferSize > 0) {
+			final int minStripes = Runtime.getRuntime().availableProcessors() * 4;
+			while (stripes < minStripes) {
+				stripes <<= 1;
+			}
+		}
+		this.poolMask = stripes - 1;
+		this.writerPool = new AtomicReferenceArray<JsonWriter>(stripes);
+		this.readerPool = new AtomicReferenceArray<JsonReader<TContext>>(stripes);
 		registerReader(byte[].class, BinaryConverter.Base64Reader);
 		registerWriter(byte[].class, BinaryConverter.Base64Writer);
 		registerReader(boolean.class, BoolConverter.BooleanReader);
@@ -232,6 +469,28 @@ public class DslJson<TContext> implements UnknownSerializer {
 		return new JsonWriter(this);
 	}
 
+	/**
+	 * Create a writer bound to this DSL-JSON which writes directly into the provided stream.
+	 * Whenever buffer of the specified size fills up, its content is written to the stream,
+	 * so memory usage doesn't depend on the size of the resulting JSON.
+	 * Remaining content must be written to the stream at the end with flush().
+	 *
+	 * @param stream     target stream
+	 * @param bufferSize size of the internal buffer
+	 * @return bound writer in streaming mode
+	 */
+	public JsonWriter newWriter(final OutputStream stream, final int bufferSize) {
+		if (stream == null) {
+			throw new NullPointerException("stream provided as null.");
+		}
+		if (bufferSize < 16) {
+			throw new IllegalArgumentException("bufferSize must be at least 16");
+		}
+		final JsonWriter writer = new JsonWriter(bufferSize, this);
+		writer.reset(stream);
+		return writer;
+	}
+
 	/**
 	 * Create a reader bound to this DSL-JSON.
 	 * Bound reader can reuse key cache (which is used during Map deserialization)
@@ -240,7 +499,7 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @return bound reader
 	 */
 	public JsonReader<TContext> newReader(byte[] bytes) {
-		return new JsonReader<TContext>(bytes, context, keyCache);
+		return setupReader(new JsonReader<TContext>(bytes, context, keyCache));
 	}
 
 	/**
@@ -252,7 +511,7 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @return bound reader
 	 */
 	public JsonReader<TContext> newReader(byte[] bytes, int length) {
-		return new JsonReader<TContext>(bytes, length, context, new char[64], keyCache);
+		return setupReader(new JsonReader<TContext>(bytes, length, context, new char[64], keyCache));
 	}
 
 	/**
@@ -264,7 +523,122 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @return bound reader
 	 */
 	public JsonStreamReader<TContext> newReader(InputStream stream, byte[] buffer) throws IOException {
-		return new JsonStreamReader<TContext>(stream, buffer, context, keyCache);
+		final JsonStreamReader<TContext> reader = setupReader(new JsonStreamReader<TContext>(stream, buffer, context, keyCache));
+		checkDocumentSize(reader.length());
+		return reader;
+	}
+
+	/**
+	 * Index JSON input for lazy access.
+	 * Input is validated and scanned once, but values are decoded only when accessed,
+	 * which avoids building the whole object tree when only a few values are needed.
+	 * Input is not copied, so it must not be changed while the document is used.
+	 *
+	 * @param body input JSON
+	 * @param size length of input
+	 * @return lazy document
+	 * @throws IOException if input is not a valid JSON
+	 */
+	public LazyJson parseLazy(final byte[] body, final int size) throws IOException {
+		checkDocumentSize(size);
+		final JsonReader<TContext> reader = setupReader(new JsonReader<TContext>(new char[64], NO_INPUT, 0, context, keyCache));
+		return LazyJson.parse(this, reader, body, size);
+	}
+
+	/**
+	 * Deserialize only the values matching the JSON path.
+	 * Everything off the path is skipped, so unneeded parts of the input are never allocated.
+	 * See {@link JsonPath} for the supported syntax.
+	 *
+	 * @param manifest type of matching values
+	 * @param body     input JSON
+	 * @param size     length of input
+	 * @param path     path expression, eg. <code>$.data.items[*].id</code>
+	 * @param <T>      type of matching values
+	 * @return matching values in the order of the input
+	 * @throws IOException if reader for the type is not found or input is not valid
+	 */
+	public <T> List<T> extract(
+			final Class<T> manifest,
+			final byte[] body,
+			final int size,
+			final String path) throws IOException {
+		return extract(manifest, body, size, JsonPath.compile(path));
+	}
+
+	/**
+	 * Deserialize only the values matching the compiled JSON path.
+	 * Compiled path can be reused to avoid parsing the expression on every call.
+	 *
+	 * @param manifest type of matching values
+	 * @param body     input JSON
+	 * @param size     length of input
+	 * @param path     compiled path
+	 * @param <T>      type of matching values
+	 * @return matching values in the order of the input
+	 * @throws IOException if reader for the type is not found or input is not valid
+	 */
+	public <T> List<T> extract(
+			final Class<T> manifest,
+			final byte[] body,
+			final int size,
+			final JsonPath path) throws IOException {
+		checkDocumentSize(size);
+		if (path == null) {
+			throw new NullPointerException("path provided as null.");
+		}
+		JsonReader.ReadJsonObject<JsonObject> objectReader = null;
+		JsonReader.ReadObject<?> simpleReader = null;
+		if (JsonObject.class.isAssignableFrom(manifest)) {
+			objectReader = getObjectReader(manifest);
+		}
+		if (objectReader == null) {
+			simpleReader = tryFindReader(manifest);
+			if (simpleReader == null) {
+				throw new IOException("Unable to find reader for provided type: " + manifest);
+			}
+		}
+		final List<T> result = new ArrayList<T>();
+		final JsonReader<TContext> json = borrowReader(body, size);
+		try {
+			json.getNextToken();
+			path.extract(json, objectReader, simpleReader, result);
+		} finally {
+			releaseReader(json);
+		}
+		return result;
+	}
+
+	/**
+	 * Create a push based reader bound to this DSL-JSON.
+	 * Input is fed in chunks as it arrives and values are passed to the handler as soon as they are complete,
+	 * so it can be used on event loop threads which must not block.
+	 *
+	 * @param manifest      type of values
+	 * @param arrayElements input is a single top level array and each element should be reported.
+	 *                      Otherwise input is a sequence of whitespace separated top level values
+	 * @param handler       receives deserialized values
+	 * @param <T>           type of values
+	 * @return feed reader
+	 * @throws IOException if reader for the provided type is not found
+	 */
+	public <T> JsonFeedReader<T> newFeedReader(
+			final Class<T> manifest,
+			final boolean arrayElements,
+			final JsonFeedReader.Handler<T> handler) throws IOException {
+		JsonReader.ReadJsonObject<JsonObject> objectReader = null;
+		JsonReader.ReadObject<?> simpleReader = null;
+		if (JsonObject.class.isAssignableFrom(manifest)) {
+			objectReader = getObjectReader(manifest);
+		}
+		if (objectReader == null) {
+			simpleReader = tryFindReader(manifest);
+			if (simpleReader == null) {
+				throw new IOException("Unable to find reader for provided type: " + manifest);
+			}
+		}
+		final JsonReader<TContext> reader = setupReader(new JsonReader<TContext>(new char[64], NO_INPUT, 0, context, keyCache));
+		return new JsonFeedReader<T>(reader, objectReader, simpleReader, arrayElements, handler);
 	}
 
 	/**
@@ -279,7 +653,81 @@ public class DslJson<TContext> implements UnknownSerializer {
 	@Deprecated
 	public JsonReader<TContext> newReader(String input) {
 		final byte[] bytes = input.getBytes(UTF8);
-		return new JsonReader<TContext>(bytes, context, keyCache);
+		return setupReader(new JsonReader<TContext>(bytes, context, keyCache));
+	}
+
+	private int poolSlot() {
+		return (int) Thread.currentThread().getId() & poolMask;
+	}
+
+	/**
+	 * Take a writer from the pool slot of the current thread.
+	 * If slot is empty (pooling is disabled, or writer is already in use by a reentrant call)
+	 * a new writer will be created.
+	 * Writer must be returned with releaseWriter once it's no longer used.
+	 *
+	 * @return writer with reset position
+	 */
+	JsonWriter borrowWriter() {
+		if (maxPooledBufferSize == 0) {
+			return new JsonWriter(this);
+		}
+		final JsonWriter writer = writerPool.getAndSet(poolSlot(), null);
+		if (writer == null) {
+			// pooled writers are also used for streaming, so start with a buffer which avoids tiny writes
+			return new JsonWriter(Math.max(512, Math.min(DEFAULT_STREAM_BUFFER_SIZE, maxPooledBufferSize)), this);
+		}
+		writer.reset();
+		return writer;
+	}
+
+	void releaseWriter(final JsonWriter writer) {
+		if (maxPooledBufferSize == 0 || writer.getByteBuffer().length > maxPooledBufferSize) {
+			return;
+		}
+		writerPool.set(poolSlot(), writer);
+	}
+
+	private <T extends JsonReader<TContext>> T setupReader(final T reader) {
+		reader.setValidationLevel(validationLevel);
+		reader.setLimits(limits);
+		return reader;
+	}
+
+	private void checkDocumentSize(final long size) throws IOException {
+		if (size > limits.maxDocumentSize) {
+			throw new IOException("JSON document is larger than the limit of " + limits.maxDocumentSize + " bytes");
+		}
+	}
+
+	/**
+	 * Take a reader from the pool slot of the current thread and bind it to the provided input.
+	 * If slot is empty a new reader will be created.
+	 * Reader must be returned with releaseReader once it's no longer used.
+	 *
+	 * @param bytes  input bytes
+	 * @param length use input bytes up to specified length
+	 * @return reader bound to the input
+	 */
+	JsonReader<TContext> borrowReader(final byte[] bytes, final int length) {
+		if (maxPooledBufferSize == 0) {
+			return newReader(bytes, length);
+		}
+		final JsonReader<TContext> reader = readerPool.getAndSet(poolSlot(), null);
+		if (reader == null) {
+			return newReader(bytes, length);
+		}
+		return reader.process(bytes, length);
+	}
+
+	void releaseReader(final JsonReader<TContext> reader) {
+		if (maxPooledBufferSize == 0) {
+			return;
+		}
+		// don't keep reference to the input
+		reader.process(NO_INPUT, 0);
+		reader.trimTo(maxPooledBufferSize / 2);
+		readerPool.set(poolSlot(), reader);
 	}
 
 	private static void loadDefaultConverters(final DslJson json, final String name) {
@@ -317,10 +765,263 @@ public class DslJson<TContext> implements UnknownSerializer {
 				&& body[3] == 'l';
 	}
 
-	private final ConcurrentHashMap<Class<?>, JsonReader.ReadJsonObject<JsonObject>> jsonObjectReaders =
-			new ConcurrentHashMap<Class<?>, JsonReader.ReadJsonObject<JsonObject>>();
+	/**
+	 * Conversion plan for a class, resolved once on first use.
+	 * It holds everything the hot paths need: object reader (only for JsonObject types),
+	 * registered reader, writer found through type hierarchy and plan for array elements.
+	 * Negative results are cached too, so lookups without a registered converter
+	 * don't repeat reflection or type hierarchy scans.
+	 */
+	static final class TypePlan {
+		final JsonReader.ReadJsonObject<JsonObject> objectReader;
+		final JsonReader.ReadObject<?> reader;
+		final JsonWriter.WriteObject<?> writer;
+		final TypePlan element;
+
+		TypePlan(
+				final JsonReader.ReadJsonObject<JsonObject> objectReader,
+				final JsonReader.ReadObject<?> reader,
+				final JsonWriter.WriteObject<?> writer,
+				final TypePlan element) {
+			this.objectReader = objectReader;
+			this.reader = reader;
+			this.writer = writer;
+			this.element = element;
+		}
+	}
+
+	/**
+	 * Conversion plan for a generic type, such as List&lt;T&gt; or T[].
+	 * Besides reader registered for the exact generic type,
+	 * it holds the decision if the type is a collection/array wrapper and the plan for its elements.
+	 */
+	static final class GenericPlan {
+		final JsonReader.ReadObject<?> reader;
+		final Type content;
+		final boolean array;
+		final JsonReader.ReadObject<?> contentReader;
+		final TypePlan element;
+
+		GenericPlan(
+				final JsonReader.ReadObject<?> reader,
+				final Type content,
+				final boolean array,
+				final JsonReader.ReadObject<?> contentReader,
+				final TypePlan element) {
+			this.reader = reader;
+			this.content = content;
+			this.array = array;
+			this.contentReader = contentReader;
+			this.element = element;
+		}
+	}
+
+	private final ConcurrentHashMap<Class<?>, TypePlan> typePlans = new ConcurrentHashMap<Class<?>, TypePlan>();
+	private final ConcurrentHashMap<Type, GenericPlan> genericPlans = new ConcurrentHashMap<Type, GenericPlan>();
+	//incremented on each registration, so plans resolved concurrently with it are not cached
+	private final AtomicInteger planVersion = new AtomicInteger();
+
+	final TypePlan planFor(final Class<?> manifest) {
+		final TypePlan plan = typePlans.get(manifest);
+		return plan != null ? plan : resolvePlan(manifest);
+	}
+
+	@SuppressWarnings("unchecked")
+	private TypePlan resolvePlan(final Class<?> manifest) {
+		final ArrayList<Class<?>> signatures = new ArrayList<Class<?>>();
+		findAllSignatures(manifest, signatures);
+		if (!lazyConfigurations.isEmpty()) {
+			for (final Class<?> sig : signatures) {
+				configureLazy(sig);
+			}
+		}
+		JsonReader.ReadJsonObject<JsonObject> objectReader = null;
+		if (JsonObject.class.isAssignableFrom(manifest)) {
+			try {
+				objectReader = (JsonReader.ReadJsonObject<JsonObject>) manifest.getField("JSON_READER").get(null);
+			} catch (Exception ignore) {
+				//log error!?
+			}
+		}
+		while (true) {
+			final int version = planVersion.get();
+			JsonWriter.WriteObject<?> writer = null;
+			for (final Class<?> sig : signatures) {
+				writer = registeredWriter(sig);
+				if (writer != null) {
+					break;
+				}
+			}
+			final TypePlan element = manifest.isArray() ? planFor(manifest.getComponentType()) : null;
+			final TypePlan plan = new TypePlan(objectReader, registeredReader(manifest), writer, element);
+			final TypePlan existing = typePlans.putIfAbsent(manifest, plan);
+			if (existing != null) {
+				return existing;
+			}
+			//registration during resolution might have already invalidated plans, so this one could be stale
+			if (planVersion.get() == version) {
+				return plan;
+			}
+			typePlans.remove(manifest, plan);
+		}
+	}
+
+	final GenericPlan genericPlanFor(final Type manifest) {
+		final GenericPlan plan = genericPlans.get(manifest);
+		return plan != null ? plan : resolveGenericPlan(manifest);
+	}
+
+	private GenericPlan resolveGenericPlan(final Type manifest) {
+		Type content = null;
+		boolean array = false;
+		if (manifest instanceof ParameterizedType) {
+			final ParameterizedType pt = (ParameterizedType) manifest;
+			if (pt.getActualTypeArguments().length == 1 && pt.getRawType() instanceof Class<?>) {
+				final Class<?> container = (Class<?>) pt.getRawType();
+				if (container.isArray() || Collection.class.isAssignableFrom(container)) {
+					content = pt.getActualTypeArguments()[0];
+					array = container.isArray();
+				}
+			}
+		} else if (manifest instanceof GenericArrayType) {
+			content = ((GenericArrayType) manifest).getGenericComponentType();
+			array = true;
+		}
+		while (true) {
+			final int version = planVersion.get();
+			JsonReader.ReadObject<?> contentReader = null;
+			TypePlan element = null;
+			if (content instanceof Class<?>) {
+				element = planFor((Class<?>) content);
+				contentReader = element.reader;
+			} else if (content != null) {
+				contentReader = registeredReader(content);
+			}
+			final GenericPlan plan = new GenericPlan(registeredReader(manifest), content, array, contentReader, element);
+			final GenericPlan existing = genericPlans.putIfAbsent(manifest, plan);
+			if (existing != null) {
+				return existing;
+			}
+			if (planVersion.get() == version) {
+				return plan;
+			}
+			genericPlans.remove(manifest, plan);
+		}
+	}
+
+	private static final class LazyConfiguration {
+		final String name;
+		final ClassLoader loader;
 
-	private final HashMap<Type, JsonReader.ReadObject<?>> jsonReaders = new HashMap<Type, JsonReader.ReadObject<?>>();
+		LazyConfiguration(final String name, final ClassLoader loader) {
+			this.name = name;
+			this.loader = loader;
+		}
+	}
+
+	private final ConcurrentHashMap<String, LazyConfiguration> lazyConfigurations = new ConcurrentHashMap<String, LazyConfiguration>();
+
+	/**
+	 * Register configuration which will be loaded only when specified type is used for the first time.
+	 * This way converter classes are not loaded during DslJson initialization,
+	 * but when reader or writer for the type is looked up.
+	 * Configuration is expected to register reader/writer for the specified type.
+	 * <p>
+	 * Types registered through @CompiledJson annotation are registered this way through the generated index.
+	 *
+	 * @param className     binary name of the type, as returned by Class.getName()
+	 * @param configuration binary name of the Configuration class with public no argument constructor
+	 * @param loader        class loader for the configuration class
+	 */
+	public void registerLazy(final String className, final String configuration, final ClassLoader loader) {
+		if (className == null) {
+			throw new NullPointerException("className provided as null.");
+		}
+		if (configuration == null) {
+			throw new NullPointerException("configuration provided as null.");
+		}
+		lazyConfigurations.put(className, new LazyConfiguration(configuration, loader));
+		planVersion.incrementAndGet();
+		typePlans.clear();
+		genericPlans.clear();
+	}
+
+	private void configureLazy(final Class<?> manifest) {
+		final LazyConfiguration lazy = lazyConfigurations.get(manifest.getName());
+		if (lazy == null) {
+			return;
+		}
+		//other threads wait until configuration is done, so they don't miss the registered converters
+		synchronized (lazy) {
+			if (lazyConfigurations.get(manifest.getName()) != lazy) {
+				return;
+			}
+			try {
+				final Class<?> external = Class.forName(lazy.name, true, lazy.loader);
+				((Configuration) external.newInstance()).configure(this);
+			} catch (Exception ex) {
+				throw new IllegalStateException("Unable to configure " + manifest + " with " + lazy.name, ex);
+			} finally {
+				lazyConfigurations.remove(manifest.getName(), lazy);
+			}
+		}
+	}
+
+	//ConcurrentHashMap doesn't support null values, so disabled converters are registered as markers
+	private static final JsonReader.ReadObject<?> DISABLED_READER = new JsonReader.ReadObject<Object>() {
+		@Override
+		public Object read(final JsonReader reader) {
+			throw new IllegalStateException("Reader is disabled");
+		}
+	};
+	private static final JsonWriter.WriteObject<?> DISABLED_WRITER = new JsonWriter.WriteObject<Object>() {
+		@Override
+		public void write(final JsonWriter writer, final Object value) {
+			throw new IllegalStateException("Writer is disabled");
+		}
+	};
+
+	//converters can be registered lazily on first use, so registries are accessed concurrently
+	private final ConcurrentHashMap<Type, JsonReader.ReadObject<?>> jsonReaders = new ConcurrentHashMap<Type, JsonReader.ReadObject<?>>();
+
+	private JsonReader.ReadObject<?> registeredReader(final Type manifest) {
+		final JsonReader.ReadObject<?> reader = jsonReaders.get(manifest);
+		return reader == DISABLED_READER ? null : reader;
+	}
+
+	/**
+	 * Remove cached plans which could be affected by registration of the specified type.
+	 * Those are plans for the type, its subtypes (writers are resolved through type hierarchy)
+	 * and arrays or collections of them (those plans reference element plans).
+	 */
+	private void invalidatePlans(final Type manifest) {
+		planVersion.incrementAndGet();
+		if (manifest instanceof Class<?>) {
+			final Class<?> changed = (Class<?>) manifest;
+			for (final Class<?> cached : typePlans.keySet()) {
+				if (dependsOn(cached, changed)) {
+					typePlans.remove(cached);
+				}
+			}
+		}
+		for (final Map.Entry<Type, GenericPlan> kv : genericPlans.entrySet()) {
+			final Type content = kv.getValue().content;
+			if (kv.getKey().equals(manifest)
+					|| manifest.equals(content)
+					|| manifest instanceof Class<?> && content instanceof Class<?> && dependsOn((Class<?>) content, (Class<?>) manifest)) {
+				genericPlans.remove(kv.getKey(), kv.getValue());
+			}
+		}
+	}
+
+	private static boolean dependsOn(final Class<?> cached, final Class<?> changed) {
+		for (Class<?> target = cached; target != null; target = target.getComponentType()) {
+			if (changed.isAssignableFrom(target)) {
+				return true;
+			}
+		}
+		return false;
+	}
 
 	/**
 	 * Register custom reader for specific type (JSON -&gt; instance conversion).
@@ -337,7 +1038,8 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @param <S>      type or subtype
 	 */
 	public <T, S extends T> void registerReader(final Class<T> manifest, final JsonReader.ReadObject<S> reader) {
-		jsonReaders.put(manifest, reader);
+		jsonReaders.put(manifest, reader != null ? reader : DISABLED_READER);
+		invalidatePlans(manifest);
 	}
 
 	/**
@@ -353,10 +1055,16 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @param reader   provide custom implementation for reading JSON into an object instance
 	 */
 	public void registerReader(final Type manifest, final JsonReader.ReadObject<?> reader) {
-		jsonReaders.put(manifest, reader);
+		jsonReaders.put(manifest, reader != null ? reader : DISABLED_READER);
+		invalidatePlans(manifest);
 	}
 
-	private final HashMap<Type, JsonWriter.WriteObject<?>> jsonWriters = new HashMap<Type, JsonWriter.WriteObject<?>>();
+	private final ConcurrentHashMap<Type, JsonWriter.WriteObject<?>> jsonWriters = new ConcurrentHashMap<Type, JsonWriter.WriteObject<?>>();
+
+	private JsonWriter.WriteObject<?> registeredWriter(final Type manifest) {
+		final JsonWriter.WriteObject<?> writer = jsonWriters.get(manifest);
+		return writer == DISABLED_WRITER ? null : writer;
+	}
 
 	/**
 	 * Register custom writer for specific type (instance -&gt; JSON conversion).
@@ -372,8 +1080,8 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @param <T>      type
 	 */
 	public <T> void registerWriter(final Class<T> manifest, final JsonWriter.WriteObject<T> writer) {
-		writerMap.put(manifest, manifest);
-		jsonWriters.put(manifest, writer);
+		jsonWriters.put(manifest, writer != null ? writer : DISABLED_WRITER);
+		invalidatePlans(manifest);
 	}
 
 	/**
@@ -389,11 +1097,10 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @param writer   provide custom implementation for writing JSON from object instance
 	 */
 	public void registerWriter(final Type manifest, final JsonWriter.WriteObject<?> writer) {
-		jsonWriters.put(manifest, writer);
+		jsonWriters.put(manifest, writer != null ? writer : DISABLED_WRITER);
+		invalidatePlans(manifest);
 	}
 
-	private final ConcurrentMap<Class<?>, Class<?>> writerMap = new ConcurrentHashMap<Class<?>, Class<?>>();
-
 	/**
 	 * Try to find registered writer for provided type.
 	 * If writer is not found, null will be returned.
@@ -405,24 +1112,10 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @return writer for specified type if found
 	 */
 	public JsonWriter.WriteObject<?> tryFindWriter(final Type manifest) {
-		Class<?> found = writerMap.get(manifest);
-		if (found != null) {
-			return jsonWriters.get(found);
-		}
 		if (manifest instanceof Class<?> == false) {
 			return null;
 		}
-		Class<?> container = (Class<?>) manifest;
-		final ArrayList<Class<?>> signatures = new ArrayList<Class<?>>();
-		findAllSignatures(container, signatures);
-		for (final Class<?> sig : signatures) {
-			final JsonWriter.WriteObject<?> writer = jsonWriters.get(sig);
-			if (writer != null) {
-				writerMap.putIfAbsent(container, sig);
-				return writer;
-			}
-		}
-		return null;
+		return planFor((Class<?>) manifest).writer;
 	}
 
 	/**
@@ -440,7 +1133,10 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * @return found reader for specified type
 	 */
 	public JsonReader.ReadObject<?> tryFindReader(final Type manifest) {
-		return jsonReaders.get(manifest);
+		if (manifest instanceof Class<?>) {
+			return planFor((Class<?>) manifest).reader;
+		}
+		return genericPlanFor(manifest).reader;
 	}
 
 	private static void findAllSignatures(final Class<?> manifest, final ArrayList<Class<?>> found) {
@@ -457,23 +1153,8 @@ public class DslJson<TContext> implements UnknownSerializer {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	protected final JsonReader.ReadJsonObject<JsonObject> getObjectReader(final Class<?> manifest) {
-		try {
-			JsonReader.ReadJsonObject<JsonObject> reader = jsonObjectReaders.get(manifest);
-			if (reader == null) {
-				try {
-					reader = (JsonReader.ReadJsonObject<JsonObject>) manifest.getField("JSON_READER").get(null);
-				} catch (Exception ignore) {
-					//log error!?
-					return null;
-				}
-				jsonObjectReaders.putIfAbsent(manifest, reader);
-			}
-			return reader;
-		} catch (final Exception ignore) {
-			return null;
-		}
+		return planFor(manifest).objectReader;
 	}
 
 	public void serializeMap(final Map<String, Object> value, final JsonWriter sw) throws IOException {
@@ -678,6 +1359,7 @@ public class DslJson<TContext> implements UnknownSerializer {
 			final Class<TResult> manifest,
 			final byte[] body,
 			final int size) throws IOException {
+		checkDocumentSize(size);
 		if (isNull(size, body)) {
 			return null;
 		}
@@ -689,45 +1371,96 @@ public class DslJson<TContext> implements UnknownSerializer {
 				throw new IOException(e);
 			}
 		}
-		final JsonReader json = newReader(body, size);
+		final JsonReader json = borrowReader(body, size);
+		try {
+			return deserialize(manifest, json, body, 0, size);
+		} finally {
+			releaseReader(json);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	<TResult> TResult deserialize(
+			final Class<TResult> manifest,
+			final JsonReader json,
+			final byte[] body,
+			final int offset,
+			final int size) throws IOException {
 		json.getNextToken();
 		if (json.wasNull()) {
 			return null;
 		}
-		if (JsonObject.class.isAssignableFrom(manifest)) {
-			final JsonReader.ReadJsonObject<JsonObject> objectReader = getObjectReader(manifest);
-			if (objectReader != null) {
-				if (json.last() == '{') {
-					json.getNextToken();
-					return (TResult) objectReader.deserialize(json);
-				} else throw json.expecting("{");
-			}
+		final TypePlan plan = planFor(manifest);
+		if (plan.objectReader != null) {
+			if (json.last() == '{') {
+				json.getNextToken();
+				return (TResult) plan.objectReader.deserialize(json);
+			} else throw json.expecting("{");
 		}
-		final JsonReader.ReadObject<?> simpleReader = tryFindReader(manifest);
-		if (simpleReader != null) {
-			final TResult result = (TResult) simpleReader.read(json);
+		if (plan.reader != null) {
+			final TResult result = (TResult) plan.reader.read(json);
 			if (json.getCurrentIndex() > json.length()) {
 				throw new IOException("JSON string was not closed with a double quote");
 			}
 			return result;
 		}
-		if (manifest.isArray()) {
+		if (plan.element != null) {
 			if (json.last() != '[') {
 				throw json.expecting("[");
 			}
 			final Class<?> elementManifest = manifest.getComponentType();
-			final List<?> list = deserializeList(elementManifest, body, size);
-			if (list == null) {
-				return null;
+			if (json.getNextToken() == ']') {
+				return (TResult) Array.newInstance(elementManifest, 0);
+			}
+			if (plan.element.objectReader != null) {
+				List<?> list = json.deserializeNullableCollection(plan.element.objectReader);
+				return (TResult) convertResultToArray(elementManifest, list);
+			}
+			if (plan.element.reader != null) {
+				List<?> list = json.deserializeNullableCollection(plan.element.reader);
+				return (TResult) convertResultToArray(elementManifest, list);
 			}
-			return (TResult) convertResultToArray(elementManifest, list);
 		}
 		if (fallback != null) {
-			return (TResult) fallback.deserialize(context, manifest, body, size);
+			final byte[] input = offset == 0 ? body : Arrays.copyOfRange(body, offset, offset + size);
+			return (TResult) fallback.deserialize(context, manifest, input, size);
 		}
 		throw createErrorMessage(manifest);
 	}
 
+	/**
+	 * Convenient deserialize API for working with a region of bytes.
+	 * Deserialize provided byte input into target object.
+	 * Input is parsed in place and bytes outside of the region are neither read nor modified,
+	 * so this can be used for arrays which hold other data too (eg. backing array of a heap ByteBuffer,
+	 * with arrayOffset() + position() as offset and remaining() as size).
+	 * Positions reported in errors are relative to the start of the region.
+	 *
+	 * @param manifest  target type
+	 * @param body      input JSON
+	 * @param offset    start of JSON in body
+	 * @param size      length of JSON
+	 * @param <TResult> target type
+	 * @return deserialized instance
+	 * @throws IOException error during deserialization
+	 */
+	public <TResult> TResult deserialize(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int offset,
+			final int size) throws IOException {
+		if (body == null) {
+			throw new NullPointerException("body provided as null.");
+		}
+		checkDocumentSize(size);
+		final JsonReader json = borrowReader(NO_INPUT, 0).process(body, offset, offset + size);
+		try {
+			return deserialize(manifest, json, body, offset, size);
+		} finally {
+			releaseReader(json);
+		}
+	}
+
 	/**
 	 * Deserialize API for working with bytes.
 	 * Deserialize provided byte input into target object.
@@ -746,19 +1479,24 @@ public class DslJson<TContext> implements UnknownSerializer {
 			final Type manifest,
 			final byte[] body,
 			final int size) throws IOException {
+		checkDocumentSize(size);
 		if (manifest instanceof Class<?>) {
 			return deserialize((Class<?>) manifest, body, size);
 		}
 		if (isNull(size, body)) {
 			return null;
 		}
-		final JsonReader json = newReader(body, size);
-		json.getNextToken();
-		if (json.wasNull()) {
-			return null;
+		final JsonReader json = borrowReader(body, size);
+		try {
+			json.getNextToken();
+			if (json.wasNull()) {
+				return null;
+			}
+			final Object result = deserializeWith(manifest, json);
+			if (result != null) return result;
+		} finally {
+			releaseReader(json);
 		}
-		final Object result = deserializeWith(manifest, json);
-		if (result != null) return result;
 		if (fallback != null) {
 			return fallback.deserialize(context, manifest, body, size);
 		}
@@ -768,77 +1506,42 @@ public class DslJson<TContext> implements UnknownSerializer {
 
 	@SuppressWarnings("unchecked")
 	private Object deserializeWith(Type manifest, JsonReader json) throws IOException {
-		final JsonReader.ReadObject<?> simpleReader = tryFindReader(manifest);
-		if (simpleReader != null) {
-			final Object result = simpleReader.read(json);
-			if (json.getCurrentIndex() > json.length()) {
-				throw new IOException("JSON string was not closed with a double quote");
-			}
-			return result;
+		if (manifest instanceof Class<?>) {
+			final JsonReader.ReadObject<?> simpleReader = planFor((Class<?>) manifest).reader;
+			return simpleReader != null ? readSimple(simpleReader, json) : null;
 		}
-		if (manifest instanceof ParameterizedType) {
-			final ParameterizedType pt = (ParameterizedType) manifest;
-			if (pt.getActualTypeArguments().length == 1 && pt.getRawType() instanceof Class<?>) {
-				final Type content = pt.getActualTypeArguments()[0];
-				final Class<?> container = (Class<?>) pt.getRawType();
-				if (container.isArray() || Collection.class.isAssignableFrom(container)) {
-					if (json.last() != '[') {
-						throw json.expecting("[");
-					}
-					if (json.getNextToken() == ']') {
-						if (container.isArray()) {
-							returnEmptyArray(content);
-						}
-						return new ArrayList<Object>(0);
-					}
-					final JsonReader.ReadObject<?> contentReader = tryFindReader(content);
-					if (contentReader != null) {
-						final ArrayList<?> result = json.deserializeNullableCollection(contentReader);
-						if (container.isArray()) {
-							return returnAsArray(content, result);
-						}
-						return result;
-					} else if (content instanceof Class<?>) {
-						final Class<?> contentType = (Class<?>) content;
-						if (JsonObject.class.isAssignableFrom(contentType)) {
-							final JsonReader.ReadJsonObject<JsonObject> objectReader = getObjectReader(contentType);
-							if (objectReader != null) {
-								final ArrayList<JsonObject> result = json.deserializeNullableCollection(objectReader);
-								if (container.isArray()) {
-									return result.toArray((Object[]) Array.newInstance(contentType, 0));
-								}
-								return result;
-							}
-						}
-					}
-				}
-			}
-		} else if (manifest instanceof GenericArrayType) {
-			if (json.last() != '[') {
-				throw json.expecting("[");
-			}
-			final Type content = ((GenericArrayType) manifest).getGenericComponentType();
-			if (json.getNextToken() == ']') {
-				return returnEmptyArray(content);
-			}
-			final JsonReader.ReadObject<?> contentReader = tryFindReader(content);
-			if (contentReader != null) {
-				final ArrayList<?> result = json.deserializeNullableCollection(contentReader);
-				return returnAsArray(content, result);
-			} else if (content instanceof Class<?>) {
-				final Class<?> contentType = (Class<?>) content;
-				if (JsonObject.class.isAssignableFrom(contentType)) {
-					final JsonReader.ReadJsonObject<JsonObject> objectReader = getObjectReader(contentType);
-					if (objectReader != null) {
-						final ArrayList<JsonObject> result = json.deserializeNullableCollection(objectReader);
-						return result.toArray((Object[]) Array.newInstance(contentType, 0));
-					}
-				}
-			}
+		final GenericPlan plan = genericPlanFor(manifest);
+		if (plan.reader != null) {
+			return readSimple(plan.reader, json);
+		}
+		if (plan.content == null) {
+			return null;
+		}
+		if (json.last() != '[') {
+			throw json.expecting("[");
+		}
+		if (json.getNextToken() == ']') {
+			return plan.array ? returnEmptyArray(plan.content) : new ArrayList<Object>(0);
+		}
+		if (plan.contentReader != null) {
+			final ArrayList<?> result = json.deserializeNullableCollection(plan.contentReader);
+			return plan.array ? returnAsArray(plan.content, result) : result;
+		}
+		if (plan.element != null && plan.element.objectReader != null) {
+			final ArrayList<JsonObject> result = json.deserializeNullableCollection(plan.element.objectReader);
+			return plan.array ? result.toArray((Object[]) Array.newInstance((Class<?>) plan.content, 0)) : result;
 		}
 		return null;
 	}
 
+	private static Object readSimple(final JsonReader.ReadObject<?> reader, final JsonReader json) throws IOException {
+		final Object result = reader.read(json);
+		if (json.getCurrentIndex() > json.length()) {
+			throw new IOException("JSON string was not closed with a double quote");
+		}
+		return result;
+	}
+
 	private static Object returnAsArray(final Type content, final ArrayList<?> result) {
 		if (content instanceof Class<?>) {
 			return convertResultToArray((Class<?>) content, result);
@@ -893,55 +1596,320 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 *
 	 * @param manifest  target type
 	 * @param body      input JSON
-	 * @param size      length
-	 * @param <TResult> target element type
-	 * @return deserialized list instance
-	 * @throws IOException error during deserialization
+	 * @param size      length
+	 * @param <TResult> target element type
+	 * @return deserialized list instance
+	 * @throws IOException error during deserialization
+	 */
+	@SuppressWarnings("unchecked")
+	public <TResult> List<TResult> deserializeList(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int size) throws IOException {
+		checkDocumentSize(size);
+		if (isNull(size, body)) {
+			return null;
+		}
+		if (size == 2 && body[0] == '[' && body[1] == ']') {
+			return new ArrayList<TResult>(0);
+		}
+		final JsonReader json = borrowReader(body, size);
+		try {
+			if (json.getNextToken() != '[') {
+				if (json.wasNull()) {
+					return null;
+				}
+				throw json.expecting("[");
+			}
+			if (json.getNextToken() == ']') {
+				return new ArrayList<TResult>(0);
+			}
+			if (JsonObject.class.isAssignableFrom(manifest)) {
+				final JsonReader.ReadJsonObject<JsonObject> reader = getObjectReader(manifest);
+				if (reader != null) {
+					return (List<TResult>) json.deserializeNullableCollection(reader);
+				}
+			}
+			final JsonReader.ReadObject<?> simpleReader = tryFindReader(manifest);
+			if (simpleReader != null) {
+				return json.deserializeNullableCollection(simpleReader);
+			}
+		} finally {
+			releaseReader(json);
+		}
+		if (fallback != null) {
+			final Object array = Array.newInstance(manifest, 0);
+			final TResult[] result = (TResult[]) fallback.deserialize(context, array.getClass(), body, size);
+			if (result == null) {
+				return null;
+			}
+			final ArrayList<TResult> list = new ArrayList<TResult>(result.length);
+			for (TResult aResult : result) {
+				list.add(aResult);
+			}
+			return list;
+		}
+		throw createErrorMessage(manifest);
+	}
+
+	/**
+	 * Deserialize a large JSON array by parsing parts of it in parallel.
+	 * Input is first scanned for element boundaries (only brackets, commas and strings are tracked).
+	 * Array is then split into chunks of whole elements which are parsed with separate readers.
+	 * Calling thread parses the first chunk while the others are submitted to the provided executor.
+	 * Results are concatenated in the original order.
+	 * <p>
+	 * Small inputs, inputs which are not arrays, types without registered readers
+	 * and single processor machines are processed with {@link #deserializeList(Class, byte[], int)}.
+	 * <p>
+	 * Any executor can be used, eg. a ForkJoinPool.
+	 * Custom readers must be thread safe, since they are invoked concurrently.
+	 *
+	 * @param manifest  list element type
+	 * @param body      input JSON
+	 * @param size      length of input
+	 * @param executor  executor for parsing the chunks
+	 * @param <TResult> list element type
+	 * @return deserialized list
+	 * @throws IOException error during deserialization
+	 */
+	@SuppressWarnings("unchecked")
+	public <TResult> List<TResult> deserializeListParallel(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int size,
+			final ExecutorService executor) throws IOException {
+		checkDocumentSize(size);
+		if (executor == null) {
+			throw new NullPointerException("executor provided as null.");
+		}
+		final int cpus = Runtime.getRuntime().availableProcessors();
+		final int chunkSize = Math.max(MIN_PARALLEL_CHUNK, size / (4 * cpus));
+		if (cpus == 1 || size < 2 * chunkSize) {
+			return deserializeList(manifest, body, size);
+		}
+		return deserializeListParallel(manifest, body, size, executor, chunkSize);
+	}
+
+	<TResult> List<TResult> deserializeListParallel(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int size,
+			final ExecutorService executor,
+			final int chunkSize) throws IOException {
+		final ArrayChunks<TResult> chunks = splitArray(manifest, body, size, chunkSize);
+		if (chunks == null || chunks.count() == 1) {
+			return deserializeList(manifest, body, size);
+		}
+		final List<Future<List<TResult>>> futures = new ArrayList<Future<List<TResult>>>(chunks.count() - 1);
+		try {
+			for (int i = 1; i < chunks.count(); i++) {
+				futures.add(executor.submit(new ListChunk<TResult>(chunks, i)));
+			}
+			final List<TResult> first = chunks.deserialize(0);
+			int total = first.size();
+			for (int i = 1; i < chunks.count(); i++) {
+				total += chunks.elements(i);
+			}
+			final ArrayList<TResult> result = new ArrayList<TResult>(total);
+			result.addAll(first);
+			for (Future<List<TResult>> f : futures) {
+				result.addAll(f.get());
+			}
+			return result;
+		} catch (ExecutionException ex) {
+			throw unwrap(ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for parallel deserialization");
+		} finally {
+			for (Future<List<TResult>> f : futures) {
+				f.cancel(false);
+			}
+		}
+	}
+
+	private static IOException unwrap(final ExecutionException ex) {
+		final Throwable cause = ex.getCause();
+		if (cause instanceof IOException) {
+			return (IOException) cause;
+		} else if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		} else if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new IOException(cause);
+	}
+
+	private static final class ListChunk<TResult> implements Callable<List<TResult>> {
+		private final ArrayChunks<TResult> chunks;
+		private final int index;
+
+		ListChunk(final ArrayChunks<TResult> chunks, final int index) {
+			this.chunks = chunks;
+			this.index = index;
+		}
+
+		@Override
+		public List<TResult> call() throws IOException {
+			return chunks.deserialize(index);
+		}
+	}
+
+	/**
+	 * Split fully buffered JSON array into chunks of whole elements.
+	 * Input is only scanned for element boundaries (brackets, commas and strings),
+	 * while elements are deserialized later, when chunk is requested.
+	 * Chunks are independent of each other, so they can be deserialized concurrently or lazily
+	 * (eg. by streams in the java8 module).
+	 * <p>
+	 * Splitting is supported only for types with registered readers.
+	 * When null is returned, input should be processed with deserializeList instead.
+	 *
+	 * @param manifest  type of elements
+	 * @param body      input JSON
+	 * @param size      length of input
+	 * @param chunkSize preferred size of a chunk in bytes
+	 * @param <TResult> type of elements
+	 * @return chunks of the array, or null if input is not a non empty array or reader for the type is not registered
+	 * @throws IOException if input is larger than the configured document limit
 	 */
-	@SuppressWarnings("unchecked")
-	public <TResult> List<TResult> deserializeList(
+	public <TResult> ArrayChunks<TResult> splitArray(
 			final Class<TResult> manifest,
 			final byte[] body,
-			final int size) throws IOException {
-		if (isNull(size, body)) {
-			return null;
-		}
-		if (size == 2 && body[0] == '[' && body[1] == ']') {
-			return new ArrayList<TResult>(0);
+			final int size,
+			final int chunkSize) throws IOException {
+		if (manifest == null) {
+			throw new NullPointerException("manifest provided as null.");
+		} else if (body == null) {
+			throw new NullPointerException("body provided as null.");
+		} else if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive");
+		}
+		checkDocumentSize(size);
+		JsonReader.ReadJsonObject<JsonObject> objectReader = null;
+		JsonReader.ReadObject<?> simpleReader = null;
+		if (JsonObject.class.isAssignableFrom(manifest)) {
+			objectReader = getObjectReader(manifest);
 		}
-		final JsonReader json = newReader(body, size);
-		if (json.getNextToken() != '[') {
-			if (json.wasNull()) {
+		if (objectReader == null) {
+			simpleReader = tryFindReader(manifest);
+			if (simpleReader == null) {
 				return null;
 			}
-			throw json.expecting("[");
 		}
-		if (json.getNextToken() == ']') {
-			return new ArrayList<TResult>(0);
-		}
-		if (JsonObject.class.isAssignableFrom(manifest)) {
-			final JsonReader.ReadJsonObject<JsonObject> reader = getObjectReader(manifest);
-			if (reader != null) {
-				return (List<TResult>) json.deserializeNullableCollection(reader);
-			}
+		final int[] chunks = ArraySplitter.split(body, size, chunkSize);
+		if (chunks == null) {
+			return null;
 		}
-		final JsonReader.ReadObject<?> simpleReader = tryFindReader(manifest);
-		if (simpleReader != null) {
-			return json.deserializeNullableCollection(simpleReader);
+		return new ArrayChunks<TResult>(this, objectReader, simpleReader, body, size, chunks);
+	}
+
+	/**
+	 * Chunks of a JSON array created through {@link DslJson#splitArray(Class, byte[], int, int)}.
+	 * Each chunk contains whole elements and can be deserialized on a different thread.
+	 * Invalid elements are reported only when their chunk is deserialized.
+	 *
+	 * @param <TResult> type of elements
+	 */
+	public static final class ArrayChunks<TResult> {
+		private final DslJson<?> json;
+		private final JsonReader.ReadJsonObject<JsonObject> objectReader;
+		private final JsonReader.ReadObject<?> simpleReader;
+		private final byte[] body;
+		private final int size;
+		private final int[] chunks;
+
+		private ArrayChunks(
+				final DslJson<?> json,
+				final JsonReader.ReadJsonObject<JsonObject> objectReader,
+				final JsonReader.ReadObject<?> simpleReader,
+				final byte[] body,
+				final int size,
+				final int[] chunks) {
+			this.json = json;
+			this.objectReader = objectReader;
+			this.simpleReader = simpleReader;
+			this.body = body;
+			this.size = size;
+			this.chunks = chunks;
+		}
+
+		/**
+		 * @return number of chunks
+		 */
+		public int count() {
+			return chunks.length / 2;
+		}
+
+		/**
+		 * Number of elements in a chunk is known after the scan, before the chunk is deserialized.
+		 *
+		 * @param chunk index of chunk
+		 * @return number of elements in the chunk
+		 */
+		public int elements(final int chunk) {
+			return chunks[chunk * 2 + 1];
+		}
+
+		/**
+		 * Deserialize elements of a single chunk.
+		 * Positions in errors are relative to the start of input.
+		 *
+		 * @param chunk index of chunk
+		 * @return deserialized elements
+		 * @throws IOException invalid JSON in the chunk
+		 */
+		@SuppressWarnings("unchecked")
+		public List<TResult> deserialize(final int chunk) throws IOException {
+			return (List<TResult>) json.deserializeChunk(
+					objectReader,
+					simpleReader,
+					body,
+					size,
+					chunks[chunk * 2],
+					chunks[chunk * 2 + 1],
+					chunk * 2 + 2 == chunks.length);
 		}
-		if (fallback != null) {
-			final Object array = Array.newInstance(manifest, 0);
-			final TResult[] result = (TResult[]) fallback.deserialize(context, array.getClass(), body, size);
-			if (result == null) {
-				return null;
+	}
+
+	private ArrayList<Object> deserializeChunk(
+			final JsonReader.ReadJsonObject<JsonObject> objectReader,
+			final JsonReader.ReadObject<?> simpleReader,
+			final byte[] body,
+			final int size,
+			final int start,
+			final int count,
+			final boolean last) throws IOException {
+		// start inside the array, but keep positions in errors relative to the start of input
+		final JsonReader<TContext> json = borrowReader(NO_INPUT, 0).process(body, start, size, start);
+		try {
+			final ArrayList<Object> result = new ArrayList<Object>(count);
+			for (int i = 0; i < count; i++) {
+				json.getNextToken();
+				if (objectReader != null) {
+					if (json.last() == '{') {
+						json.getNextToken();
+						result.add(objectReader.deserialize(json));
+					} else if (json.wasNull()) {
+						result.add(null);
+					} else {
+						throw json.expecting("{");
+					}
+				} else {
+					result.add(json.wasNull() ? null : simpleReader.read(json));
+				}
+				if (json.getNextToken() != ',' && (!last || i + 1 != count)) {
+					throw json.expecting(",");
+				}
 			}
-			final ArrayList<TResult> list = new ArrayList<TResult>(result.length);
-			for (TResult aResult : result) {
-				list.add(aResult);
+			if (last && json.last() != ']') {
+				throw json.expecting("]");
 			}
-			return list;
+			return result;
+		} finally {
+			releaseReader(json);
 		}
-		throw createErrorMessage(manifest);
 	}
 
 	/**
@@ -1036,24 +2004,21 @@ public class DslJson<TContext> implements UnknownSerializer {
 		if (json.wasNull()) {
 			return null;
 		}
-		if (JsonObject.class.isAssignableFrom(manifest)) {
-			final JsonReader.ReadJsonObject<JsonObject> objectReader = getObjectReader(manifest);
-			if (objectReader != null) {
-				if (json.last() == '{') {
-					json.getNextToken();
-					return (TResult) objectReader.deserialize(json);
-				} else throw json.expecting("{");
-			}
+		final TypePlan plan = planFor(manifest);
+		if (plan.objectReader != null) {
+			if (json.last() == '{') {
+				json.getNextToken();
+				return (TResult) plan.objectReader.deserialize(json);
+			} else throw json.expecting("{");
 		}
-		final JsonReader.ReadObject<?> simpleReader = tryFindReader(manifest);
-		if (simpleReader != null) {
-			final TResult result = (TResult) simpleReader.read(json);
+		if (plan.reader != null) {
+			final TResult result = (TResult) plan.reader.read(json);
 			if (json.getCurrentIndex() > json.length()) {
 				throw new IOException("JSON string was not closed with a double quote");
 			}
 			return result;
 		}
-		if (manifest.isArray()) {
+		if (plan.element != null) {
 			if (json.last() != '[') {
 				throw json.expecting("[");
 			}
@@ -1061,16 +2026,12 @@ public class DslJson<TContext> implements UnknownSerializer {
 			if (json.getNextToken() == ']') {
 				return (TResult) Array.newInstance(elementManifest, 0);
 			}
-			if (JsonObject.class.isAssignableFrom(elementManifest)) {
-				final JsonReader.ReadJsonObject<JsonObject> objectReader = getObjectReader(elementManifest);
-				if (objectReader != null) {
-					List<?> list = json.deserializeNullableCollection(objectReader);
-					return (TResult) convertResultToArray(elementManifest, list);
-				}
+			if (plan.element.objectReader != null) {
+				List<?> list = json.deserializeNullableCollection(plan.element.objectReader);
+				return (TResult) convertResultToArray(elementManifest, list);
 			}
-			final JsonReader.ReadObject<?> simpleElementReader = tryFindReader(elementManifest);
-			if (simpleElementReader != null) {
-				List<?> list = json.deserializeNullableCollection(simpleElementReader);
+			if (plan.element.reader != null) {
+				List<?> list = json.deserializeNullableCollection(plan.element.reader);
 				return (TResult) convertResultToArray(elementManifest, list);
 			}
 		}
@@ -1301,6 +2262,246 @@ public class DslJson<TContext> implements UnknownSerializer {
 		throw createErrorMessage(manifest);
 	}
 
+	/**
+	 * Streaming API for newline delimited JSON (NDJSON/JSON lines).
+	 * Each line is deserialized into a separate instance on next() invocation.
+	 * Blank lines are ignored.
+	 * <p>
+	 * Stream is read into the provided buffer which is reused for all lines.
+	 * It's replaced with a larger one only if a single line doesn't fit into it.
+	 * <p>
+	 * Invalid lines are either skipped or reported with RuntimeException wrapping IOException
+	 * with the line number. Iteration can continue with the next line after an error.
+	 *
+	 * @param manifest    type info
+	 * @param stream      NDJSON data stream
+	 * @param buffer      initial processing buffer
+	 * @param skipInvalid skip lines which can't be deserialized instead of reporting an error
+	 * @param <TResult>   type info
+	 * @return Iterator to instances deserialized from input lines
+	 * @throws IOException if reader for the type is not found
+	 */
+	public <TResult> Iterator<TResult> iterateOverLines(
+			final Class<TResult> manifest,
+			final InputStream stream,
+			final byte[] buffer,
+			final boolean skipInvalid) throws IOException {
+		if (stream == null) {
+			throw new NullPointerException("stream provided as null.");
+		}
+		if (buffer == null || buffer.length == 0) {
+			throw new IllegalArgumentException("buffer can't be empty");
+		}
+		return newLineIterator(manifest, stream, buffer, 0, skipInvalid);
+	}
+
+	/**
+	 * Streaming API for newline delimited JSON (NDJSON/JSON lines) which is already in memory.
+	 * Lines are deserialized directly from the input.
+	 *
+	 * @param manifest    type info
+	 * @param body        NDJSON input
+	 * @param size        length of input
+	 * @param skipInvalid skip lines which can't be deserialized instead of reporting an error
+	 * @param <TResult>   type info
+	 * @return Iterator to instances deserialized from input lines
+	 * @throws IOException if reader for the type is not found
+	 * @see #iterateOverLines(Class, InputStream, byte[], boolean)
+	 */
+	public <TResult> Iterator<TResult> iterateOverLines(
+			final Class<TResult> manifest,
+			final byte[] body,
+			final int size,
+			final boolean skipInvalid) throws IOException {
+		checkDocumentSize(size);
+		return newLineIterator(manifest, null, body, size, skipInvalid);
+	}
+
+	/**
+	 * Streaming API for newline delimited JSON (NDJSON/JSON lines) files.
+	 * File is memory mapped, as in {@link #iterateOver(Class, File)}.
+	 *
+	 * @param manifest    type info
+	 * @param file        NDJSON file
+	 * @param skipInvalid skip lines which can't be deserialized instead of reporting an error
+	 * @param <TResult>   type info
+	 * @return Iterator to instances deserialized from input lines
+	 * @throws IOException if reader for the type is not found or there is an error mapping the file
+	 * @see #iterateOverLines(Class, InputStream, byte[], boolean)
+	 */
+	public <TResult> Iterator<TResult> iterateOverLines(
+			final Class<TResult> manifest,
+			final File file,
+			final boolean skipInvalid) throws IOException {
+		if (file == null) {
+			throw new NullPointerException("file provided as null.");
+		}
+		return newLineIterator(manifest, new MappedFileStream(file), new byte[MAPPED_BUFFER_SIZE], 0, skipInvalid);
+	}
+
+	private <TResult> Iterator<TResult> newLineIterator(
+			final Class<TResult> manifest,
+			final InputStream stream,
+			final byte[] buffer,
+			final int length,
+			final boolean skipInvalid) throws IOException {
+		JsonReader.ReadJsonObject<JsonObject> objectReader = null;
+		JsonReader.ReadObject<?> simpleReader = null;
+		if (JsonObject.class.isAssignableFrom(manifest)) {
+			objectReader = getObjectReader(manifest);
+		}
+		if (objectReader == null) {
+			simpleReader = tryFindReader(manifest);
+			if (simpleReader == null) {
+				throw new IOException("Unable to find reader for provided type: " + manifest);
+			}
+		}
+		final JsonReader<TContext> reader = setupReader(new JsonReader<TContext>(new char[64], NO_INPUT, 0, context, keyCache));
+		return new LineIterator<TResult>(reader, objectReader, simpleReader, stream, buffer, length, skipInvalid);
+	}
+
+	/**
+	 * Streaming API for writing newline delimited JSON (NDJSON/JSON lines).
+	 * Each instance from the iterator is written as a single line.
+	 * <p>
+	 * Lines are collected in a pooled JsonWriter which is written to the stream in batches,
+	 * whenever its buffer fills up, and once more at the end. Stream is not flushed or closed.
+	 *
+	 * @param iterator instances to serialize
+	 * @param stream   where to write resulting NDJSON
+	 * @param <T>      type info
+	 * @throws IOException error when unable to serialize instances or write to the stream
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> void serializeLines(
+			final Iterator<T> iterator,
+			final OutputStream stream) throws IOException {
+		if (iterator == null) {
+			throw new NullPointerException("iterator provided as null.");
+		}
+		if (stream == null) {
+			throw new NullPointerException("stream provided as null.");
+		}
+		final JsonWriter jw = borrowWriter();
+		jw.reset(stream);
+		try {
+			Class<?> lastManifest = null;
+			JsonWriter.WriteObject<Object> lastWriter = null;
+			while (iterator.hasNext()) {
+				final T item = iterator.next();
+				if (item == null) {
+					jw.writeNull();
+				} else if (item instanceof JsonObject) {
+					((JsonObject) item).serialize(jw, omitDefaults);
+				} else {
+					final Class<?> manifest = item.getClass();
+					if (manifest != lastManifest) {
+						lastWriter = (JsonWriter.WriteObject<Object>) tryFindWriter(manifest);
+						lastManifest = manifest;
+					}
+					if (lastWriter != null) {
+						lastWriter.write(jw, item);
+					} else {
+						serialize(jw, item);
+					}
+				}
+				jw.writeByte((byte) '\n');
+			}
+			jw.flushBuffer();
+		} catch (RuntimeException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw ex;
+		} finally {
+			jw.reset(null);
+			releaseWriter(jw);
+		}
+	}
+
+	/**
+	 * Reactive API for collection deserialization.
+	 * Elements of the JSON array are deserialized only when the subscriber requests them.
+	 * Stream is read and parsed on the provided executor, never on the subscribing thread.
+	 * Errors are signaled through onError, including the ones during the initial read.
+	 * <p>
+	 * Stream will be processed in chunks of specified buffer byte[], as in
+	 * {@link #iterateOver(Class, InputStream, byte[])}.
+	 *
+	 * @param manifest  type info
+	 * @param stream    JSON data stream
+	 * @param buffer    size of processing chunk
+	 * @param executor  executor for reading and parsing
+	 * @param <TResult> type info
+	 * @return single use publisher of deserialized instances
+	 */
+	public <TResult> JsonPublisher<TResult> publishOver(
+			final Class<TResult> manifest,
+			final InputStream stream,
+			final byte[] buffer,
+			final Executor executor) {
+		if (manifest == null) {
+			throw new NullPointerException("manifest provided as null.");
+		}
+		if (stream == null) {
+			throw new NullPointerException("stream provided as null.");
+		}
+		if (buffer == null) {
+			throw new NullPointerException("buffer provided as null.");
+		}
+		return new JsonPublisher<TResult>(new JsonPublisher.Source<TResult>() {
+			@Override
+			public Iterator<TResult> open() throws IOException {
+				return iterateOver(manifest, stream, buffer);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Streaming API for collection deserialization from a file.
+	 * File is memory mapped, so the buffer is refilled with bulk copies
+	 * from the mapped memory instead of read system calls.
+	 * Input is not parsed in place: it is still copied into the processing buffer
+	 * and the unprocessed part of the buffer is still moved on refill, as with any other stream.
+	 * Only the system call overhead is avoided.
+	 * <p>
+	 * Files larger than 2GB are mapped in windows of 1GB, one window at a time, as the input is consumed.
+	 * Mapping doesn't hold the file open. It is released when the iterator is garbage collected.
+	 *
+	 * @param manifest  type info
+	 * @param file      JSON file
+	 * @param <TResult> type info
+	 * @return Iterator to instances deserialized from input JSON
+	 * @throws IOException if reader is not found or there is an error mapping the file
+	 */
+	public <TResult> Iterator<TResult> iterateOver(
+			final Class<TResult> manifest,
+			final File file) throws IOException {
+		return iterateOver(manifest, file, new byte[MAPPED_BUFFER_SIZE]);
+	}
+
+	/**
+	 * Streaming API for collection deserialization from a file.
+	 * File is memory mapped and copied in chunks of specified buffer byte[],
+	 * as in {@link #iterateOver(Class, File)}.
+	 *
+	 * @param manifest  type info
+	 * @param file      JSON file
+	 * @param buffer    size of processing chunk
+	 * @param <TResult> type info
+	 * @return Iterator to instances deserialized from input JSON
+	 * @throws IOException if reader is not found or there is an error mapping the file
+	 */
+	public <TResult> Iterator<TResult> iterateOver(
+			final Class<TResult> manifest,
+			final File file,
+			final byte[] buffer) throws IOException {
+		if (file == null) {
+			throw new NullPointerException("file provided as null.");
+		}
+		return iterateOver(manifest, new MappedFileStream(file), buffer);
+	}
+
 	@SuppressWarnings("unchecked")
 	private JsonWriter.WriteObject getOrCreateWriter(final Object instance, final Class<?> instanceManifest) throws IOException {
 		if (instance instanceof JsonObject) {
@@ -1469,7 +2670,7 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * <p>
 	 * If reader is not found an IOException will be thrown
 	 * <p>
-	 * If JsonWriter is provided it will be used, otherwise a new instance will be internally created.
+	 * If JsonWriter is provided it will be used, otherwise a pooled instance will be used.
 	 *
 	 * @param iterator input data
 	 * @param stream   target JSON stream
@@ -1482,33 +2683,15 @@ public class DslJson<TContext> implements UnknownSerializer {
 			final Iterator<T> iterator,
 			final OutputStream stream,
 			final JsonWriter writer) throws IOException {
-		final JsonWriter buffer = writer == null ? new JsonWriter(this) : writer;
-		stream.write(JsonWriter.ARRAY_START);
-		T item = iterator.next();
-		Class<?> lastManifest = null;
-		JsonWriter.WriteObject lastWriter = null;
-		if (item != null) {
-			lastManifest = item.getClass();
-			lastWriter = getOrCreateWriter(item, lastManifest);
-			buffer.reset();
-			try {
-				lastWriter.write(buffer, item);
-			} catch (Exception e) {
-				throw new IOException(e);
-			}
-			buffer.toStream(stream);
-		} else {
-			stream.write(NULL);
-		}
-		while (iterator.hasNext()) {
-			stream.write(JsonWriter.COMMA);
-			item = iterator.next();
+		final JsonWriter buffer = writer == null ? borrowWriter() : writer;
+		try {
+			stream.write(JsonWriter.ARRAY_START);
+			T item = iterator.next();
+			Class<?> lastManifest = null;
+			JsonWriter.WriteObject lastWriter = null;
 			if (item != null) {
-				final Class<?> currentManifest = item.getClass();
-				if (lastWriter == null || lastManifest == null || !lastManifest.equals(currentManifest)) {
-					lastManifest = currentManifest;
-					lastWriter = getOrCreateWriter(item, lastManifest);
-				}
+				lastManifest = item.getClass();
+				lastWriter = getOrCreateWriter(item, lastManifest);
 				buffer.reset();
 				try {
 					lastWriter.write(buffer, item);
@@ -1519,8 +2702,32 @@ public class DslJson<TContext> implements UnknownSerializer {
 			} else {
 				stream.write(NULL);
 			}
+			while (iterator.hasNext()) {
+				stream.write(JsonWriter.COMMA);
+				item = iterator.next();
+				if (item != null) {
+					final Class<?> currentManifest = item.getClass();
+					if (lastWriter == null || lastManifest == null || !lastManifest.equals(currentManifest)) {
+						lastManifest = currentManifest;
+						lastWriter = getOrCreateWriter(item, lastManifest);
+					}
+					buffer.reset();
+					try {
+						lastWriter.write(buffer, item);
+					} catch (Exception e) {
+						throw new IOException(e);
+					}
+					buffer.toStream(stream);
+				} else {
+					stream.write(NULL);
+				}
+			}
+			stream.write(JsonWriter.ARRAY_END);
+		} finally {
+			if (writer == null) {
+				releaseWriter(buffer);
+			}
 		}
-		stream.write(JsonWriter.ARRAY_END);
 	}
 
 	/**
@@ -1531,7 +2738,7 @@ public class DslJson<TContext> implements UnknownSerializer {
 	 * <p>
 	 * If reader is not found an IOException will be thrown
 	 * <p>
-	 * If JsonWriter is provided it will be used, otherwise a new instance will be internally created.
+	 * If JsonWriter is provided it will be used, otherwise a pooled instance will be used.
 	 *
 	 * @param iterator input data
 	 * @param manifest type of elements in collection
@@ -1546,24 +2753,11 @@ public class DslJson<TContext> implements UnknownSerializer {
 			final Class<T> manifest,
 			final OutputStream stream,
 			final JsonWriter writer) throws IOException {
-		final JsonWriter buffer = writer == null ? new JsonWriter(this) : writer;
-		final JsonWriter.WriteObject instanceWriter = getOrCreateWriter(null, manifest);
-		stream.write(JsonWriter.ARRAY_START);
-		T item = iterator.next();
-		if (item != null) {
-			buffer.reset();
-			try {
-				instanceWriter.write(buffer, item);
-			} catch (Exception e) {
-				throw new IOException(e);
-			}
-			buffer.toStream(stream);
-		} else {
-			stream.write(NULL);
-		}
-		while (iterator.hasNext()) {
-			stream.write(JsonWriter.COMMA);
-			item = iterator.next();
+		final JsonWriter buffer = writer == null ? borrowWriter() : writer;
+		try {
+			final JsonWriter.WriteObject instanceWriter = getOrCreateWriter(null, manifest);
+			stream.write(JsonWriter.ARRAY_START);
+			T item = iterator.next();
 			if (item != null) {
 				buffer.reset();
 				try {
@@ -1575,8 +2769,27 @@ public class DslJson<TContext> implements UnknownSerializer {
 			} else {
 				stream.write(NULL);
 			}
+			while (iterator.hasNext()) {
+				stream.write(JsonWriter.COMMA);
+				item = iterator.next();
+				if (item != null) {
+					buffer.reset();
+					try {
+						instanceWriter.write(buffer, item);
+					} catch (Exception e) {
+						throw new IOException(e);
+					}
+					buffer.toStream(stream);
+				} else {
+					stream.write(NULL);
+				}
+			}
+			stream.write(JsonWriter.ARRAY_END);
+		} finally {
+			if (writer == null) {
+				releaseWriter(buffer);
+			}
 		}
-		stream.write(JsonWriter.ARRAY_END);
 	}
 
 	public <T extends JsonObject> void serialize(final JsonWriter writer, final T[] array) {
@@ -1806,8 +3019,9 @@ public class DslJson<TContext> implements UnknownSerializer {
 	/**
 	 * Convenient serialize API.
 	 * In most cases JSON is serialized into target OutputStream.
-	 * This method will create a new instance of JsonWriter and serialize JSON into it.
-	 * At the end JsonWriter will be copied into resulting stream.
+	 * This method will take a pooled instance of JsonWriter and bind it to the stream.
+	 * JSON will be written to the stream in chunks whenever writer buffer fills up,
+	 * so large objects don't need to be fully serialized into memory first.
 	 *
 	 * @param value  instance to serialize
 	 * @param stream where to write resulting JSON
@@ -1818,15 +3032,26 @@ public class DslJson<TContext> implements UnknownSerializer {
 			stream.write(NULL);
 			return;
 		}
-		final JsonWriter jw = new JsonWriter(this);
-		final Class<?> manifest = value.getClass();
-		if (!serialize(jw, manifest, value)) {
-			if (fallback == null) {
-				throw new IOException("Unable to serialize provided object. Failed to find serializer for: " + manifest);
+		final JsonWriter jw = borrowWriter();
+		jw.reset(stream);
+		try {
+			final Class<?> manifest = value.getClass();
+			if (!serialize(jw, manifest, value)) {
+				if (fallback == null) {
+					throw new IOException("Unable to serialize provided object. Failed to find serializer for: " + manifest);
+				}
+				fallback.serialize(value, stream);
+			} else {
+				jw.flushBuffer();
 			}
-			fallback.serialize(value, stream);
-		} else {
-			jw.toStream(stream);
+		} catch (RuntimeException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw ex;
+		} finally {
+			jw.reset(null);
+			releaseWriter(jw);
 		}
 	}
 
@@ -1858,4 +3083,213 @@ public class DslJson<TContext> implements UnknownSerializer {
 			writer.writeAscii(stream.toByteArray());
 		}
 	}
+
+	/**
+	 * Serialize a large list into a JSON array by serializing parts of it in parallel.
+	 * List is split into chunks of elements which are serialized by the provided executor,
+	 * each chunk into its own JsonWriter. Chunk writers are owned by the calling thread
+	 * and reused for subsequent chunks, so at most one writer per chunk in flight is allocated.
+	 * Encoded chunks are then written into the target writer in the original order, separated by commas.
+	 * Only a bounded number of chunks is in flight at once, so memory usage doesn't depend on the list size.
+	 * <p>
+	 * Small lists, lists with elements without registered writers
+	 * and single processor machines are serialized with {@link #serialize(JsonWriter, Object)}.
+	 * Arrays can be serialized by wrapping them with Arrays.asList.
+	 * <p>
+	 * Any executor can be used, eg. a ForkJoinPool.
+	 * Custom writers must be thread safe, since they are invoked concurrently.
+	 *
+	 * @param writer   where to write resulting JSON
+	 * @param list     list to serialize
+	 * @param executor executor for serializing the chunks
+	 * @param <T>      element type
+	 * @throws IOException error when unable to serialize elements
+	 */
+	public <T> void serializeParallel(
+			final JsonWriter writer,
+			final List<T> list,
+			final ExecutorService executor) throws IOException {
+		if (executor == null) {
+			throw new NullPointerException("executor provided as null.");
+		}
+		final int cpus = Runtime.getRuntime().availableProcessors();
+		if (list == null || cpus == 1 || list.size() < 2 * PARALLEL_CHUNK_ELEMENTS) {
+			serialize(writer, (Object) list);
+			return;
+		}
+		serializeParallel(writer, list, executor, PARALLEL_CHUNK_ELEMENTS, 2 * cpus);
+	}
+
+	/**
+	 * Serialize a large list into a JSON array by serializing parts of it in parallel.
+	 * JSON is written to the stream through a pooled JsonWriter.
+	 * Large encoded chunks are written directly to the stream.
+	 *
+	 * @param list     list to serialize
+	 * @param stream   where to write resulting JSON
+	 * @param executor executor for serializing the chunks
+	 * @throws IOException error when unable to serialize elements or write to the stream
+	 * @see #serializeParallel(JsonWriter, List, ExecutorService)
+	 */
+	public final void serializeParallel(
+			final List<?> list,
+			final OutputStream stream,
+			final ExecutorService executor) throws IOException {
+		if (list == null) {
+			stream.write(NULL);
+			return;
+		}
+		final JsonWriter jw = borrowWriter();
+		jw.reset(stream);
+		try {
+			serializeParallel(jw, list, executor);
+			jw.flushBuffer();
+		} catch (RuntimeException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw ex;
+		} finally {
+			jw.reset(null);
+			releaseWriter(jw);
+		}
+	}
+
+	void serializeParallel(
+			final JsonWriter writer,
+			final List<?> list,
+			final ExecutorService executor,
+			final int chunkElements,
+			final int maxInFlight) throws IOException {
+		Object first = null;
+		for (int i = 0; i < list.size() && first == null; i++) {
+			first = list.get(i);
+		}
+		if (first == null || !(first instanceof JsonObject) && tryFindWriter(first.getClass()) == null) {
+			serialize(writer, (Object) list);
+			return;
+		}
+		final List<?> items = list instanceof RandomAccess ? list : new ArrayList<Object>(list);
+		final int size = items.size();
+		final int chunks = (size + chunkElements - 1) / chunkElements;
+		final LinkedList<Future<JsonWriter>> pending = new LinkedList<Future<JsonWriter>>();
+		final LinkedList<SerializeChunk> pendingChunks = new LinkedList<SerializeChunk>();
+		// chunk writers are borrowed and released on the pool slot of the calling thread
+		final ArrayList<JsonWriter> free = new ArrayList<JsonWriter>(Math.min(chunks, maxInFlight));
+		int submitted = 0;
+		writer.writeByte(JsonWriter.ARRAY_START);
+		try {
+			while (submitted < chunks && pending.size() < maxInFlight) {
+				submitChunk(executor, items, submitted++ * chunkElements, chunkElements, free, pending, pendingChunks);
+			}
+			for (int i = 0; i < chunks; i++) {
+				final JsonWriter chunk = pending.getFirst().get();
+				pending.removeFirst();
+				pendingChunks.removeFirst();
+				free.add(chunk);
+				if (i != 0) {
+					writer.writeByte(JsonWriter.COMMA);
+				}
+				writer.writeRaw(chunk.getByteBuffer(), 0, chunk.size());
+				if (submitted < chunks) {
+					submitChunk(executor, items, submitted++ * chunkElements, chunkElements, free, pending, pendingChunks);
+				}
+			}
+		} catch (ExecutionException ex) {
+			throw unwrap(ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for parallel serialization");
+		} finally {
+			while (!pending.isEmpty()) {
+				final Future<JsonWriter> f = pending.removeFirst();
+				final SerializeChunk chunk = pendingChunks.removeFirst();
+				// writer of a chunk which already started can be reused only after the chunk is done
+				if (chunk.started.compareAndSet(false, true)) {
+					f.cancel(false);
+				} else {
+					try {
+						f.get();
+					} catch (ExecutionException ignore) {
+					} catch (InterruptedException ignore) {
+						Thread.currentThread().interrupt();
+						continue;
+					}
+				}
+				free.add(chunk.writer);
+			}
+			for (JsonWriter chunk : free) {
+				releaseWriter(chunk);
+			}
+		}
+		writer.writeByte(JsonWriter.ARRAY_END);
+	}
+
+	private void submitChunk(
+			final ExecutorService executor,
+			final List<?> items,
+			final int start,
+			final int chunkElements,
+			final ArrayList<JsonWriter> free,
+			final LinkedList<Future<JsonWriter>> pending,
+			final LinkedList<SerializeChunk> pendingChunks) {
+		final JsonWriter chunk;
+		if (free.isEmpty()) {
+			chunk = borrowWriter();
+		} else {
+			chunk = free.remove(free.size() - 1);
+			chunk.reset();
+		}
+		final int end = Math.min(items.size(), start + chunkElements);
+		final SerializeChunk task = new SerializeChunk(items, start, end, chunk);
+		pending.add(executor.submit(task));
+		pendingChunks.add(task);
+	}
+
+	private final class SerializeChunk implements Callable<JsonWriter> {
+		private final List<?> items;
+		private final int start;
+		private final int end;
+		private final JsonWriter writer;
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		SerializeChunk(final List<?> items, final int start, final int end, final JsonWriter writer) {
+			this.items = items;
+			this.start = start;
+			this.end = end;
+			this.writer = writer;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public JsonWriter call() throws IOException {
+			if (!started.compareAndSet(false, true)) {
+				return writer;
+			}
+			Class<?> lastManifest = null;
+			JsonWriter.WriteObject<Object> lastWriter = null;
+			for (int i = start; i < end; i++) {
+				if (i != start) {
+					writer.writeByte(JsonWriter.COMMA);
+				}
+				final Object item = items.get(i);
+				if (item == null) {
+					writer.writeNull();
+				} else if (item instanceof JsonObject) {
+					((JsonObject) item).serialize(writer, omitDefaults);
+				} else {
+					final Class<?> manifest = item.getClass();
+					if (manifest != lastManifest) {
+						lastWriter = (JsonWriter.WriteObject<Object>) tryFindWriter(manifest);
+						if (lastWriter == null) {
+							throw new IOException("Unable to serialize provided object. Failed to find serializer for: " + manifest);
+						}
+						lastManifest = manifest;
+					}
+					lastWriter.write(writer, item);
+				}
+			}
+			return writer;
+		}
+	}
 }
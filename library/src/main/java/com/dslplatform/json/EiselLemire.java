@@ -0,0 +1,250 @@
+package com.dslplatform.json;
+
+import java.math.BigInteger;
+
+/**
+ * Correctly rounded conversion of decimal w * 10^q into double/float.
+ * Implementation of the algorithm by Daniel Lemire and Michael Eisel
+ * (Number Parsing at a Gigabyte per Second, 2021).
+ * <p>
+ * When w fits into 64 bits, the result is exact and no fallback is required
+ * (Noble Mushtak and Daniel Lemire, Fast Number Parsing Without Fallback, 2023).
+ * When input had more significant digits than w can hold,
+ * caller should check if w and w + 1 give the same result and use
+ * the exact (but slow) comparison against the halfway point only when they don't.
+ * <p>
+ * Results are returned as raw IEEE bits without the sign
+ * (double bits or float bits in the lower 32 bits) so that a single code path
+ * can be shared between double and float parsing.
+ */
+abstract class EiselLemire {
+
+	static final int MAX_DIGITS = 19;
+
+	private static final int SMALLEST_POWER = -342;
+	private static final int LARGEST_POWER = 308;
+
+	private static final long[] POW5_HI = new long[LARGEST_POWER - SMALLEST_POWER + 1];
+	private static final long[] POW5_LO = new long[LARGEST_POWER - SMALLEST_POWER + 1];
+
+	private static final double[] DOUBLE_POW_10 = new double[23];
+	private static final float[] FLOAT_POW_10 = new float[11];
+
+	private static final long MASK_32 = 0xFFFFFFFFL;
+
+	static final long DOUBLE_INFINITY = 0x7FF0000000000000L;
+	static final long FLOAT_INFINITY = 0x7F800000L;
+
+	// exact halfway points have at most 767 significant digits
+	private static final int MAX_SLOW_DIGITS = 800;
+
+	static {
+		// 128 most significant bits of 5^q. For negative q it's rounded up reciprocal 2^b / 5^-q
+		final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		final BigInteger limit = BigInteger.ONE.shiftLeft(128);
+		final BigInteger five = BigInteger.valueOf(5);
+		for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+			BigInteger c;
+			if (q < 0) {
+				final BigInteger power5 = five.pow(-q);
+				final int z = power5.bitLength();
+				final int b = q >= -27 ? z + 127 : 2 * z + 128;
+				c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+				while (c.compareTo(limit) >= 0) {
+					c = c.shiftRight(1);
+				}
+			} else {
+				c = five.pow(q);
+				final int bits = c.bitLength();
+				c = bits < 128 ? c.shiftLeft(128 - bits) : c.shiftRight(bits - 128);
+			}
+			POW5_HI[q - SMALLEST_POWER] = c.shiftRight(64).longValue();
+			POW5_LO[q - SMALLEST_POWER] = c.and(mask).longValue();
+		}
+		double doublePow = 1;
+		for (int i = 0; i < DOUBLE_POW_10.length; i++) {
+			DOUBLE_POW_10[i] = doublePow;
+			doublePow *= 10;
+		}
+		float floatPow = 1;
+		for (int i = 0; i < FLOAT_POW_10.length; i++) {
+			FLOAT_POW_10[i] = floatPow;
+			floatPow *= 10;
+		}
+	}
+
+	private static long unsignedMultiplyHigh(final long x, final long y) {
+		final long x1 = x >>> 32;
+		final long x2 = x & MASK_32;
+		final long y1 = y >>> 32;
+		final long y2 = y & MASK_32;
+		final long z2 = x2 * y2;
+		final long t = x1 * y2 + (z2 >>> 32);
+		final long z1 = (t & MASK_32) + x2 * y1;
+		return x1 * y1 + (t >>> 32) + (z1 >>> 32);
+	}
+
+	/**
+	 * Convert w * 10^q into IEEE bits of a positive double or float.
+	 *
+	 * @param w      decimal significand interpreted as unsigned 64 bit number
+	 * @param q      decimal exponent
+	 * @param single should float bits be returned instead of double bits
+	 * @return correctly rounded bits
+	 */
+	static long toBits(final long w, final long q, final boolean single) {
+		if (w == 0) {
+			return 0;
+		}
+		// both w and 10^q are exactly representable so IEEE arithmetic will round correctly
+		if (single) {
+			if (w >= 0 && w <= 1 << 24 && q >= -10 && q <= 10) {
+				final float value = q < 0 ? w / FLOAT_POW_10[(int) -q] : w * FLOAT_POW_10[(int) q];
+				return Float.floatToRawIntBits(value);
+			}
+			return compute(w, q, 23, -127, 0xFF, -17, 10, -65, 38);
+		}
+		if (w >= 0 && w <= 1L << 53 && q >= -22 && q <= 22) {
+			final double value = q < 0 ? w / DOUBLE_POW_10[(int) -q] : w * DOUBLE_POW_10[(int) q];
+			return Double.doubleToRawLongBits(value);
+		}
+		return compute(w, q, 52, -1023, 0x7FF, -4, 23, SMALLEST_POWER, LARGEST_POWER);
+	}
+
+	private static long compute(
+			long w,
+			final long q10,
+			final int mantissaBits,
+			final int minimumExponent,
+			final int infinitePower,
+			final int minRoundToEven,
+			final int maxRoundToEven,
+			final int smallestPower,
+			final int largestPower) {
+		if (q10 < smallestPower) {
+			return 0;
+		} else if (q10 > largestPower) {
+			return (long) infinitePower << mantissaBits;
+		}
+		final int q = (int) q10;
+		final int lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+		final int index = q - SMALLEST_POWER;
+		long high = unsignedMultiplyHigh(w, POW5_HI[index]);
+		long low = w * POW5_HI[index];
+		final long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (mantissaBits + 3);
+		if ((high & precisionMask) == precisionMask) {
+			final long secondHigh = unsignedMultiplyHigh(w, POW5_LO[index]);
+			low += secondHigh;
+			if (secondHigh + Long.MIN_VALUE > low + Long.MIN_VALUE) {
+				high++;
+			}
+		}
+		final int upperBit = (int) (high >>> 63);
+		final int shift = upperBit + 64 - mantissaBits - 3;
+		long mantissa = high >>> shift;
+		// floor(log2(10^q)) + 63
+		int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - lz - minimumExponent;
+		if (power2 <= 0) {
+			if (-power2 + 1 >= 64) {
+				return 0;
+			}
+			mantissa >>>= -power2 + 1;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			// rounding up can bring subnormal into the smallest normal number
+			return mantissa;
+		}
+		// ties can happen only when 5^q fits into 64 bits
+		if ((low == 0 || low == 1) && q >= minRoundToEven && q <= maxRoundToEven
+				&& (mantissa & 3) == 1 && (mantissa << shift) == high) {
+			mantissa &= ~1L;
+		}
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if (mantissa >= (2L << mantissaBits)) {
+			mantissa = 1L << mantissaBits;
+			power2++;
+		}
+		mantissa &= ~(1L << mantissaBits);
+		if (power2 >= infinitePower) {
+			return (long) infinitePower << mantissaBits;
+		}
+		return ((long) power2 << mantissaBits) | mantissa;
+	}
+
+	/**
+	 * Exact rounding for numbers which had more significant digits than can fit into 64 bits.
+	 * Value is compared against the halfway point between the candidate and the next representable number.
+	 * Digits beyond the ones which can influence rounding are collapsed into a sticky digit.
+	 *
+	 * @param buf       input with digits
+	 * @param start     start of digits (after sign)
+	 * @param end       end of digits (before exponent)
+	 * @param q         decimal exponent for all digits in the range (ignoring the dot)
+	 * @param candidate result for truncated digits
+	 * @param single    are candidate bits for float or double
+	 * @return correctly rounded bits
+	 */
+	static long slowPath(final byte[] buf, final int start, final int end, long q, final long candidate, final boolean single) {
+		BigInteger digits = BigInteger.ZERO;
+		long chunk = 0;
+		int chunkSize = 0;
+		int significant = 0;
+		boolean sticky = false;
+		for (int i = start; i < end; i++) {
+			final int ind = buf[i] - '0';
+			if (ind < 0 || ind > 9) continue;
+			if (significant == MAX_SLOW_DIGITS) {
+				sticky |= ind != 0;
+				q++;
+				continue;
+			}
+			if (significant == 0 && ind == 0) continue;
+			significant++;
+			chunk = chunk * 10 + ind;
+			chunkSize++;
+			if (chunkSize == 18) {
+				digits = digits.multiply(BigInteger.TEN.pow(18)).add(BigInteger.valueOf(chunk));
+				chunk = 0;
+				chunkSize = 0;
+			}
+		}
+		if (sticky) {
+			chunk = chunk * 10 + 1;
+			chunkSize++;
+			q--;
+		}
+		digits = digits.multiply(BigInteger.TEN.pow(chunkSize)).add(BigInteger.valueOf(chunk));
+		final long m;
+		final int e;
+		if (single) {
+			final int exp = (int) (candidate >>> 23);
+			m = exp == 0 ? candidate & 0x7FFFFF : (candidate & 0x7FFFFF) | 0x800000;
+			e = exp == 0 ? -149 : exp - 150;
+		} else {
+			final int exp = (int) (candidate >>> 52);
+			m = exp == 0 ? candidate & 0xFFFFFFFFFFFFFL : (candidate & 0xFFFFFFFFFFFFFL) | 0x10000000000000L;
+			e = exp == 0 ? -1074 : exp - 1075;
+		}
+		// digits * 5^q * 2^q compared to (2m + 1) * 2^(e - 1)
+		BigInteger left = digits;
+		BigInteger right = BigInteger.valueOf(2 * m + 1);
+		if (q >= 0) {
+			left = left.multiply(BigInteger.valueOf(5).pow((int) q));
+		} else {
+			right = right.multiply(BigInteger.valueOf(5).pow((int) -q));
+		}
+		final long shift = q - (e - 1);
+		if (shift >= 0) {
+			left = left.shiftLeft((int) shift);
+		} else {
+			right = right.shiftLeft((int) -shift);
+		}
+		final int cmp = left.compareTo(right);
+		if (cmp > 0 || cmp == 0 && (m & 1) != 0) {
+			return candidate + 1;
+		}
+		return candidate;
+	}
+}
@@ -0,0 +1,23 @@
+package com.dslplatform.json;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Compile time creator configuration.
+ * Objects without public no argument constructor can be created through
+ * annotated constructor, static factory method or static builder method.
+ * <p>
+ * Constructor and factory parameters are matched by name with properties,
+ * which must be readable through a getter or a public field.
+ * Builder method must be without arguments and return builder with
+ * property methods (name, setName or withName) and a build method.
+ * <p>
+ * Java records don't require this annotation, since canonical constructor is used.
+ */
+@Target({ElementType.CONSTRUCTOR, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface JsonCreator {
+}
@@ -0,0 +1,365 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Push based reader for JSON which arrives in arbitrary chunks (eg. from NIO channels or async HTTP bodies).
+ * Caller feeds bytes as they arrive and completed values are passed to the handler.
+ * Reader never blocks and never waits for more input.
+ * <p>
+ * Input can be either a single top level array, in which case every element is reported separately,
+ * or a sequence of top level values separated by whitespace (eg. newline delimited JSON).
+ * <p>
+ * Chunks are scanned for value boundaries (only brackets and strings are tracked)
+ * and complete values are deserialized directly from the fed chunk.
+ * Only the bytes of a value which is split across chunks are copied into an internal buffer.
+ * Once such value is completed, rest of the chunk is again processed in place.
+ * Split value can't grow beyond the maximum document size from the reader limits.
+ * <p>
+ * Reader is not thread safe. After an error reader can't be used anymore.
+ *
+ * @param <T> type of values
+ */
+public final class JsonFeedReader<T> {
+
+	/**
+	 * Receives values as soon as they are complete.
+	 *
+	 * @param <T> type of values
+	 */
+	public interface Handler<T> {
+		void handle(T value) throws IOException;
+	}
+
+	private static final int BEFORE_ARRAY = 0;
+	private static final int ARRAY_START = 1;
+	private static final int AFTER_VALUE = 2;
+	private static final int AFTER_COMMA = 3;
+	private static final int ARRAY_END = 4;
+
+	private final JsonReader<?> reader;
+	private final JsonReader.ReadJsonObject<? extends JsonObject> objectReader;
+	private final JsonReader.ReadObject<?> simpleReader;
+	private final Handler<T> handler;
+	private final boolean arrayElements;
+	private final long maxValueLength;
+
+	private byte[] pending = new byte[64];
+	private int pendingLength;
+	private byte[] copy;
+	private long position;
+	private int state;
+	private int valueStart = -1;
+	private int depth;
+	private boolean inString;
+	private boolean escaped;
+	private boolean scalar;
+	private boolean failed;
+
+	JsonFeedReader(
+			final JsonReader<?> reader,
+			final JsonReader.ReadJsonObject<? extends JsonObject> objectReader,
+			final JsonReader.ReadObject<?> simpleReader,
+			final boolean arrayElements,
+			final Handler<T> handler) {
+		if (handler == null) {
+			throw new NullPointerException("handler provided as null.");
+		}
+		this.reader = reader;
+		this.objectReader = objectReader;
+		this.simpleReader = simpleReader;
+		this.arrayElements = arrayElements;
+		this.handler = handler;
+		this.maxValueLength = reader.getLimits().maxDocumentSize;
+		this.state = arrayElements ? BEFORE_ARRAY : AFTER_COMMA;
+	}
+
+	/**
+	 * Number of bytes which were fed so far.
+	 *
+	 * @return processed bytes
+	 */
+	public long position() {
+		return position + pendingLength;
+	}
+
+	/**
+	 * Process next chunk of input.
+	 * All values which are completed by this chunk are passed to the handler before this method returns.
+	 * Chunk can be reused by the caller after the method returns.
+	 *
+	 * @param chunk  input bytes
+	 * @param offset start of input in chunk
+	 * @param length number of bytes to process
+	 * @throws IOException invalid JSON or error in the handler
+	 */
+	public void feed(final byte[] chunk, final int offset, final int length) throws IOException {
+		if (failed) {
+			throw new IOException("Reader can't be used after an error");
+		}
+		if (offset < 0 || length < 0 || offset + length > chunk.length) {
+			throw new IllegalArgumentException("Invalid chunk region: " + offset + " - " + (offset + length) + " for chunk of length " + chunk.length);
+		}
+		failed = true;
+		final int end = offset + length;
+		int start = offset;
+		if (pendingLength != 0) {
+			// find the end of the split value in place and copy only its remaining bytes
+			final int split = scan(chunk, offset, end, position + pendingLength - offset, true);
+			if (split == -1) {
+				append(chunk, offset, end);
+				failed = false;
+				return;
+			}
+			append(chunk, offset, split);
+			complete(pending, 0, pendingLength, position);
+			position += pendingLength;
+			pendingLength = 0;
+			start = split;
+		}
+		final long base = position - start;
+		scan(chunk, start, end, base, false);
+		keepIncomplete(chunk, end, base);
+		failed = false;
+	}
+
+	/**
+	 * Process remaining bytes of the buffer.
+	 * Buffer position is moved to its limit.
+	 *
+	 * @param chunk input bytes
+	 * @throws IOException invalid JSON or error in the handler
+	 */
+	public void feed(final ByteBuffer chunk) throws IOException {
+		final int length = chunk.remaining();
+		if (chunk.hasArray()) {
+			feed(chunk.array(), chunk.arrayOffset() + chunk.position(), length);
+		} else {
+			if (copy == null || copy.length < length) {
+				copy = new byte[Math.max(length, 512)];
+			}
+			chunk.duplicate().get(copy, 0, length);
+			feed(copy, 0, length);
+		}
+		chunk.position(chunk.limit());
+	}
+
+	/**
+	 * Signal the end of input.
+	 * Value which was not terminated by a delimiter (eg. a number at the end of the input) is reported.
+	 *
+	 * @throws IOException input ended in the middle of a value or top level array was not closed
+	 */
+	public void end() throws IOException {
+		if (failed) {
+			throw new IOException("Reader can't be used after an error");
+		}
+		failed = true;
+		if (valueStart != -1) {
+			if (!scalar || arrayElements) {
+				throw new IOException("Unexpected end of JSON input at position " + position());
+			}
+			complete(pending, 0, pendingLength, position);
+			position += pendingLength;
+			pendingLength = 0;
+		}
+		if (arrayElements && state != ARRAY_END) {
+			throw new IOException("Expecting ']' at position " + position() + ". Found end of input");
+		}
+		failed = false;
+	}
+
+	// base is the stream position of index 0 in buf
+	// when untilComplete is set, value started in a previous chunk is not deserialized,
+	// instead the index of its end is returned (or -1 if value is not completed in this chunk)
+	private int scan(final byte[] buf, final int from, final int to, final long base, final boolean untilComplete) throws IOException {
+		int i = from;
+		while (i < to) {
+			if (valueStart != -1) {
+				if (inString) {
+					if (escaped) {
+						escaped = false;
+						i++;
+						continue;
+					}
+					i = Swar.findQuoteOrEscape(buf, i, to);
+					while (i < to && buf[i] != '"' && buf[i] != '\\') {
+						i++;
+					}
+					if (i == to) {
+						break;
+					}
+					if (buf[i++] == '\\') {
+						escaped = true;
+					} else {
+						inString = false;
+						if (depth == 0) {
+							if (untilComplete) {
+								return i;
+							}
+							complete(buf, valueStart, i, base + valueStart);
+						}
+					}
+					continue;
+				}
+				final byte b = buf[i];
+				if (scalar) {
+					if (isDelimiter(b)) {
+						// delimiter is processed again as part of the top level
+						if (untilComplete) {
+							return i;
+						}
+						complete(buf, valueStart, i, base + valueStart);
+					} else {
+						i++;
+					}
+					continue;
+				}
+				i++;
+				if (b == '"') {
+					inString = true;
+				} else if (b == '{' || b == '[') {
+					depth++;
+				} else if (b == '}' || b == ']') {
+					if (--depth == 0) {
+						if (untilComplete) {
+							return i;
+						}
+						complete(buf, valueStart, i, base + valueStart);
+					}
+				}
+				continue;
+			}
+			final byte b = buf[i];
+			if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+				i++;
+				continue;
+			}
+			if (arrayElements) {
+				if (state == BEFORE_ARRAY) {
+					if (b != '[') {
+						throw unexpected("[", b, base + i);
+					}
+					state = ARRAY_START;
+					i++;
+					continue;
+				} else if (state == ARRAY_END) {
+					throw new IOException("Unexpected '" + (char) b + "' after the end of array at position " + (base + i));
+				} else if (b == ']') {
+					if (state == AFTER_COMMA) {
+						throw unexpected("value", b, base + i);
+					}
+					state = ARRAY_END;
+					i++;
+					continue;
+				} else if (state == AFTER_VALUE) {
+					if (b != ',') {
+						throw unexpected(",", b, base + i);
+					}
+					state = AFTER_COMMA;
+					i++;
+					continue;
+				}
+			}
+			if (b == ',' || b == ']' || b == '}' || b == ':') {
+				throw unexpected("value", b, base + i);
+			}
+			valueStart = i;
+			depth = 0;
+			scalar = false;
+			if (b == '"') {
+				inString = true;
+			} else if (b == '{' || b == '[') {
+				depth = 1;
+			} else {
+				scalar = true;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	private static boolean isDelimiter(final byte b) {
+		switch (b) {
+			case ' ':
+			case '\n':
+			case '\r':
+			case '\t':
+			case ',':
+			case ']':
+			case '}':
+			case '[':
+			case '{':
+			case '"':
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private static IOException unexpected(final String what, final byte found, final long position) {
+		return new IOException("Expecting '" + what + "' at position " + position + ". Found " + (char) found);
+	}
+
+	// keep the bytes of the incomplete value for the next chunk
+	private void keepIncomplete(final byte[] buf, final int end, final long base) throws IOException {
+		if (valueStart == -1) {
+			position = base + end;
+			pendingLength = 0;
+			return;
+		}
+		final int length = end - valueStart;
+		checkValueLength(length);
+		if (length > pending.length) {
+			pending = new byte[Math.max(pending.length * 2, length)];
+		}
+		System.arraycopy(buf, valueStart, pending, 0, length);
+		position = base + valueStart;
+		pendingLength = length;
+		valueStart = 0;
+	}
+
+	private void checkValueLength(final long length) throws IOException {
+		if (length > maxValueLength) {
+			throw new IOException("JSON document is larger than the limit of " + maxValueLength + " bytes");
+		}
+	}
+
+	private void append(final byte[] buf, final int from, final int to) throws IOException {
+		final int length = to - from;
+		checkValueLength((long) pendingLength + length);
+		if (pendingLength + length > pending.length) {
+			final byte[] larger = new byte[Math.max(pending.length * 2, pendingLength + length)];
+			System.arraycopy(pending, 0, larger, 0, pendingLength);
+			pending = larger;
+		}
+		System.arraycopy(buf, from, pending, pendingLength, length);
+		pendingLength += length;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void complete(final byte[] buf, final int start, final int end, final long streamPosition) throws IOException {
+		valueStart = -1;
+		scalar = false;
+		state = AFTER_VALUE;
+		final JsonReader<?> json = reader.process(buf, start, end, streamPosition);
+		json.getNextToken();
+		final Object value;
+		if (json.wasNull()) {
+			value = null;
+		} else if (objectReader != null) {
+			if (json.last() != '{') {
+				throw json.expecting("{");
+			}
+			json.getNextToken();
+			value = objectReader.deserialize(json);
+		} else {
+			value = simpleReader.read(json);
+		}
+		if (json.getCurrentIndex() != end) {
+			throw new IOException("Unexpected '" + (char) buf[json.getCurrentIndex()] + "' at position " + json.positionInStream());
+		}
+		handler.handle((T) value);
+	}
+}
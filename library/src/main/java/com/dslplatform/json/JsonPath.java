@@ -0,0 +1,235 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled JSON path used for projection during deserialization.
+ * Only values on the path are deserialized (with the readers registered in DslJson),
+ * everything else is skipped without allocation.
+ * <p>
+ * Supported syntax is a subset of JSONPath: root <code>$</code>,
+ * member access <code>.name</code> or <code>['name']</code>,
+ * array index <code>[2]</code> and wildcards <code>.*</code> or <code>[*]</code>.
+ * For example: <code>$.data.items[*].id</code>
+ * <p>
+ * Member names are compared with the raw input, so escaped names in the input will not match.
+ * Values which don't have the expected shape (eg. a member lookup on an array) are skipped.
+ * Compiled path is immutable and can be shared between threads.
+ */
+public final class JsonPath {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int MEMBER = 0;
+	private static final int ANY_MEMBER = 1;
+	private static final int INDEX = 2;
+	private static final int ANY_INDEX = 3;
+
+	private final String path;
+	private final int[] kinds;
+	private final String[] names;
+	private final boolean[] ascii;
+	private final int[] hashes;
+	private final int[] indexes;
+
+	private JsonPath(final String path, final List<Object> segments) {
+		this.path = path;
+		final int count = segments.size();
+		kinds = new int[count];
+		names = new String[count];
+		ascii = new boolean[count];
+		hashes = new int[count];
+		indexes = new int[count];
+		for (int i = 0; i < count; i++) {
+			final Object segment = segments.get(i);
+			if (segment instanceof Integer) {
+				final int index = (Integer) segment;
+				kinds[i] = index < 0 ? ANY_INDEX : INDEX;
+				indexes[i] = index;
+			} else if (segment == null) {
+				kinds[i] = ANY_MEMBER;
+			} else {
+				final String name = (String) segment;
+				kinds[i] = MEMBER;
+				names[i] = name;
+				final byte[] bytes = name.getBytes(UTF_8);
+				ascii[i] = bytes.length == name.length();
+				hashes[i] = hash(bytes);
+			}
+		}
+	}
+
+	// same hash as JsonReader.calcHash
+	private static int hash(final byte[] name) {
+		long hash = 0x811c9dc5;
+		for (final byte b : name) {
+			hash ^= b;
+			hash *= 0x1000193;
+		}
+		return (int) hash;
+	}
+
+	/**
+	 * Compile path expression.
+	 *
+	 * @param path path expression, eg. <code>$.data.items[*].id</code>
+	 * @return compiled path
+	 * @throws IllegalArgumentException if expression is not valid or not supported
+	 */
+	public static JsonPath compile(final String path) {
+		if (path == null) {
+			throw new NullPointerException("path provided as null.");
+		}
+		if (path.length() == 0 || path.charAt(0) != '$') {
+			throw new IllegalArgumentException("JSON path must start with '$'. Found: " + path);
+		}
+		final List<Object> segments = new ArrayList<Object>();
+		int i = 1;
+		while (i < path.length()) {
+			final char c = path.charAt(i);
+			if (c == '.') {
+				int end = i + 1;
+				while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+					end++;
+				}
+				if (end == i + 1) {
+					throw invalid(path, i, "Expecting member name");
+				}
+				final String name = path.substring(i + 1, end);
+				segments.add("*".equals(name) ? null : name);
+				i = end;
+			} else if (c == '[') {
+				final int close = path.indexOf(']', i);
+				if (close == -1) {
+					throw invalid(path, i, "Expecting ']'");
+				}
+				final String inner = path.substring(i + 1, close);
+				if ("*".equals(inner)) {
+					segments.add(-1);
+				} else if (inner.length() > 1 && (inner.charAt(0) == '\'' || inner.charAt(0) == '"')
+						&& inner.charAt(inner.length() - 1) == inner.charAt(0)) {
+					segments.add(inner.substring(1, inner.length() - 1));
+				} else {
+					try {
+						final int index = Integer.parseInt(inner);
+						if (index < 0) {
+							throw invalid(path, i, "Negative indexes are not supported");
+						}
+						segments.add(index);
+					} catch (NumberFormatException ex) {
+						throw invalid(path, i, "Expecting index, quoted name or '*'");
+					}
+				}
+				i = close + 1;
+			} else {
+				throw invalid(path, i, "Expecting '.' or '['");
+			}
+		}
+		return new JsonPath(path, segments);
+	}
+
+	private static IllegalArgumentException invalid(final String path, final int position, final String message) {
+		return new IllegalArgumentException(message + " at position " + position + " in JSON path: " + path);
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+
+	/**
+	 * Collect matching values from the reader.
+	 * Reader must be positioned on the first token of the document.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> void extract(
+			final JsonReader<?> reader,
+			final JsonReader.ReadJsonObject<? extends JsonObject> objectReader,
+			final JsonReader.ReadObject<?> simpleReader,
+			final List<T> result) throws IOException {
+		walk(reader, 0, true, objectReader, simpleReader, (List<Object>) result);
+	}
+
+	// reader is on the first token of the value. Returns the token after the value.
+	// Input ends after the top level value, so there is no next token to read
+	private byte walk(
+			final JsonReader<?> reader,
+			final int segment,
+			final boolean top,
+			final JsonReader.ReadJsonObject<? extends JsonObject> objectReader,
+			final JsonReader.ReadObject<?> simpleReader,
+			final List<Object> result) throws IOException {
+		if (segment == kinds.length) {
+			if (reader.wasNull()) {
+				result.add(null);
+			} else if (objectReader != null) {
+				if (reader.last() != '{') {
+					throw reader.expecting("{");
+				}
+				reader.getNextToken();
+				result.add(objectReader.deserialize(reader));
+			} else {
+				result.add(simpleReader.read(reader));
+			}
+			return top ? reader.last() : reader.getNextToken();
+		}
+		final int kind = kinds[segment];
+		if (kind == MEMBER || kind == ANY_MEMBER) {
+			if (reader.last() != '{') {
+				return top ? reader.last() : reader.skip();
+			}
+			if (reader.getNextToken() == '}') {
+				return top ? reader.last() : reader.getNextToken();
+			}
+			while (true) {
+				final int hash = reader.fillName();
+				reader.getNextToken();
+				final byte next;
+				if (kind == ANY_MEMBER || hash == hashes[segment] && nameMatches(reader, segment)) {
+					next = walk(reader, segment + 1, false, objectReader, simpleReader, result);
+				} else {
+					next = reader.skip();
+				}
+				if (next == '}') {
+					return top ? next : reader.getNextToken();
+				}
+				if (next != ',') {
+					throw new IOException("Expecting '}' or ',' at position " + reader.positionInStream() + ". Found " + (char) next);
+				}
+				reader.getNextToken();
+			}
+		}
+		if (reader.last() != '[') {
+			return top ? reader.last() : reader.skip();
+		}
+		if (reader.getNextToken() == ']') {
+			return top ? reader.last() : reader.getNextToken();
+		}
+		int index = 0;
+		while (true) {
+			final byte next;
+			if (kind == ANY_INDEX || index == indexes[segment]) {
+				next = walk(reader, segment + 1, false, objectReader, simpleReader, result);
+			} else {
+				next = reader.skip();
+			}
+			if (next == ']') {
+				return top ? next : reader.getNextToken();
+			}
+			if (next != ',') {
+				throw new IOException("Expecting ']' or ',' at position " + reader.positionInStream() + ". Found " + (char) next);
+			}
+			reader.getNextToken();
+			index++;
+		}
+	}
+
+	private boolean nameMatches(final JsonReader<?> reader, final int segment) throws IOException {
+		return ascii[segment]
+				? reader.wasLastName(names[segment])
+				: names[segment].equals(reader.getLastName());
+	}
+}
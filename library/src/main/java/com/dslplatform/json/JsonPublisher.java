@@ -0,0 +1,193 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher of elements from a JSON array in an input stream.
+ * Elements are deserialized on demand, only as many as the subscriber requested,
+ * so large inputs are never staged in memory.
+ * Parsing (including the blocking reads from the stream) runs on the provided executor.
+ * <p>
+ * Interfaces follow the Reactive Streams contract
+ * (signals are serialized, request must be positive, cancel stops the emission),
+ * but are declared here since the library targets Java 6.
+ * Reactive Streams consumers can use the adapter from the dsl-json-reactive module,
+ * which on Java 9+ also reaches java.util.concurrent.Flow through org.reactivestreams.FlowAdapters.
+ * <p>
+ * Publisher is single use and supports only one subscriber.
+ * Since publishers can't emit null, null array elements are skipped.
+ * Input stream is not closed.
+ *
+ * @param <T> type of elements
+ */
+public final class JsonPublisher<T> {
+
+	public interface Subscriber<T> {
+		void onSubscribe(Subscription subscription);
+
+		void onNext(T item);
+
+		void onError(Throwable throwable);
+
+		void onComplete();
+	}
+
+	public interface Subscription {
+		void request(long n);
+
+		void cancel();
+	}
+
+	interface Source<T> {
+		Iterator<T> open() throws IOException;
+	}
+
+	private final Source<T> source;
+	private final Executor executor;
+	private final AtomicBoolean subscribed = new AtomicBoolean();
+
+	JsonPublisher(final Source<T> source, final Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException("executor provided as null.");
+		}
+		this.source = source;
+		this.executor = executor;
+	}
+
+	public void subscribe(final Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("subscriber provided as null.");
+		}
+		if (!subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Subscription() {
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+			subscriber.onError(new IllegalStateException("Publisher supports only a single subscriber"));
+			return;
+		}
+		final Emitter<T> emitter = new Emitter<T>(source, executor, subscriber);
+		subscriber.onSubscribe(emitter);
+	}
+
+	private static final class Emitter<T> implements Subscription, Runnable {
+		private final Source<T> source;
+		private final Executor executor;
+		private final Subscriber<? super T> subscriber;
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private volatile boolean cancelled;
+		private volatile Throwable invalidRequest;
+		private Iterator<T> iterator;
+		private boolean done;
+
+		Emitter(final Source<T> source, final Executor executor, final Subscriber<? super T> subscriber) {
+			this.source = source;
+			this.executor = executor;
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(final long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException("Number of requested elements must be positive. Requested: " + n);
+			} else {
+				long current;
+				long next;
+				do {
+					current = requested.get();
+					next = current + n < 0 ? Long.MAX_VALUE : current + n;
+				} while (!requested.compareAndSet(current, next));
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		private void schedule() {
+			if (pending.getAndIncrement() == 0) {
+				executor.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				if (!done) {
+					drain();
+				}
+				missed = pending.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void drain() {
+			if (cancelled) {
+				done = true;
+				return;
+			}
+			if (invalidRequest != null) {
+				fail(invalidRequest);
+				return;
+			}
+			long emitted = 0;
+			final long demand = requested.get();
+			try {
+				if (iterator == null) {
+					iterator = source.open();
+				}
+				while (emitted < demand && !cancelled) {
+					if (iterator == null || !iterator.hasNext()) {
+						done = true;
+						subscriber.onComplete();
+						return;
+					}
+					final T item = iterator.next();
+					if (item != null) {
+						subscriber.onNext(item);
+						emitted++;
+					}
+				}
+				if (iterator == null || !iterator.hasNext()) {
+					done = true;
+					if (!cancelled) {
+						subscriber.onComplete();
+					}
+					return;
+				}
+			} catch (RuntimeException ex) {
+				// iterators signal IO errors with wrapped exceptions
+				fail(ex.getCause() instanceof IOException ? ex.getCause() : ex);
+				return;
+			} catch (IOException ex) {
+				fail(ex);
+				return;
+			}
+			if (demand != Long.MAX_VALUE) {
+				requested.addAndGet(-emitted);
+			}
+		}
+
+		private void fail(final Throwable error) {
+			done = true;
+			if (!cancelled) {
+				cancelled = true;
+				subscriber.onError(error);
+			}
+		}
+	}
+}
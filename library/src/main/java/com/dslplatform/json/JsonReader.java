@@ -1,6 +1,9 @@
 package com.dslplatform.json;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,12 +45,93 @@ public class JsonReader<TContext> {
 	final int tmpLength;
 
 	public final TContext context;
-	protected final byte[] buffer;
+	protected byte[] buffer;
 
 	protected char[] chars;
 
 	private final KeyCache keyCache;
 
+	/**
+	 * How much of the skipped input is validated (eg. unknown properties).
+	 */
+	public enum ValidationLevel {
+		/**
+		 * Every token of skipped values is validated
+		 */
+		FULL,
+		/**
+		 * Skipped objects and arrays are only checked for string termination and nesting.
+		 * Invalid tokens inside them (eg. misspelled literals or missing commas) are not detected,
+		 * but large unknown subtrees are skipped several times faster.
+		 */
+		STRUCTURE
+	}
+
+	private ValidationLevel validation = ValidationLevel.FULL;
+
+	/**
+	 * Limits for processing untrusted input.
+	 * Without them a malicious payload can force allocation of huge temporary buffers
+	 * or overflow the stack with deeply nested values.
+	 * Limits are checked only when buffers grow or nesting increases, so valid input is processed at the same speed.
+	 */
+	public static final class Limits {
+		/**
+		 * No limits. Used by default
+		 */
+		public static final Limits UNLIMITED = new Limits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+		/**
+		 * Maximum nesting of objects and arrays.
+		 * Enforced by skip, Map/List/Object deserialization and custom readers which use startNesting/endNesting
+		 */
+		public final int maxDepth;
+		/**
+		 * Maximum number of chars in a decoded string
+		 */
+		public final int maxStringLength;
+		/**
+		 * Maximum number of chars in a number.
+		 * Checked only when a number doesn't fit into the temporary char buffer of the reader (64 chars by default)
+		 */
+		public final int maxNumberLength;
+		/**
+		 * Maximum size of input in bytes.
+		 * Enforced by DslJson convenience methods and stream readers
+		 */
+		public final long maxDocumentSize;
+
+		public Limits(final int maxDepth, final int maxStringLength, final int maxNumberLength, final long maxDocumentSize) {
+			if (maxDepth <= 0) {
+				throw new IllegalArgumentException("maxDepth must be positive");
+			}
+			if (maxStringLength < 0) {
+				throw new IllegalArgumentException("maxStringLength can't be negative");
+			}
+			if (maxNumberLength <= 0) {
+				throw new IllegalArgumentException("maxNumberLength must be positive");
+			}
+			if (maxDocumentSize <= 0) {
+				throw new IllegalArgumentException("maxDocumentSize must be positive");
+			}
+			this.maxDepth = maxDepth;
+			this.maxStringLength = maxStringLength;
+			this.maxNumberLength = maxNumberLength;
+			this.maxDocumentSize = maxDocumentSize;
+		}
+	}
+
+	private static final int BASE64_CHUNK = 4096;
+
+	private Limits limits = Limits.UNLIMITED;
+	private int depth;
+	private int maxDepth = Integer.MAX_VALUE;
+	private int maxStringLength = Integer.MAX_VALUE;
+	int maxNumberLength = Integer.MAX_VALUE;
+	long maxDocumentSize = Long.MAX_VALUE;
+	private int captureStart = -1;
+	private ByteArrayOutputStream captured;
+
 	protected JsonReader(final char[] tmp, final byte[] buffer, final int length, final TContext context, final KeyCache keyCache) {
 		this.tmp = tmp;
 		this.tmpLength = tmp.length;
@@ -93,6 +177,124 @@ public class JsonReader<TContext> {
 		}
 	}
 
+	/**
+	 * Change how much of the skipped input is validated.
+	 *
+	 * @param level validation level
+	 */
+	public final void setValidationLevel(final ValidationLevel level) {
+		if (level == null) {
+			throw new NullPointerException("level provided as null.");
+		}
+		this.validation = level;
+	}
+
+	public final ValidationLevel getValidationLevel() {
+		return validation;
+	}
+
+	/**
+	 * Change limits for processing untrusted input.
+	 *
+	 * @param limits input limits
+	 */
+	public final void setLimits(final Limits limits) {
+		if (limits == null) {
+			throw new NullPointerException("limits provided as null.");
+		}
+		this.limits = limits;
+		this.maxDepth = limits.maxDepth;
+		this.maxStringLength = limits.maxStringLength;
+		this.maxNumberLength = limits.maxNumberLength;
+		this.maxDocumentSize = limits.maxDocumentSize;
+	}
+
+	public final Limits getLimits() {
+		return limits;
+	}
+
+	/**
+	 * Track entering a nested object or array.
+	 * Custom readers which recurse into nested values should call this before processing them
+	 * and endNesting after, so that maximum depth is enforced.
+	 *
+	 * @throws IOException when maximum depth is exceeded
+	 */
+	public final void startNesting() throws IOException {
+		if (++depth > maxDepth) {
+			throw new IOException("Maximum nesting depth of " + maxDepth + " exceeded at position " + positionInStream());
+		}
+	}
+
+	/**
+	 * Track leaving a nested object or array.
+	 */
+	public final void endNesting() {
+		depth--;
+	}
+
+	/**
+	 * Start recording the raw input of the current object.
+	 * Should be called when reader is positioned on the starting '{'.
+	 * Used by polymorphic readers which must look ahead for the type discriminator
+	 * and can't process the object until it's found.
+	 * Recording works across buffer refills of stream readers.
+	 *
+	 * @throws IOException when reader is not positioned on '{'
+	 */
+	public final void startCapture() throws IOException {
+		if (last != '{') {
+			throw new IOException("Expecting '{' at position " + positionInStream() + ". Found " + (char) last);
+		}
+		captureStart = currentIndex - 1;
+		captured = null;
+	}
+
+	/**
+	 * Stop recording and return input processed since {@link #startCapture()}.
+	 * Captured input ends at the current position, so it should be called after the closing '}' was read.
+	 *
+	 * @return raw JSON of the captured object
+	 */
+	public final byte[] endCapture() {
+		if (captureStart == -1) {
+			throw new IllegalStateException("Capture was not started");
+		}
+		final byte[] result;
+		if (captured == null) {
+			result = Arrays.copyOfRange(buffer, captureStart, currentIndex);
+		} else {
+			captured.write(buffer, 0, currentIndex);
+			result = captured.toByteArray();
+		}
+		cancelCapture();
+		return result;
+	}
+
+	/**
+	 * Stop recording without collecting the captured input.
+	 */
+	public final void cancelCapture() {
+		captureStart = -1;
+		captured = null;
+	}
+
+	/**
+	 * Preserve the captured part of the buffer before it's moved due to refill.
+	 */
+	final void flushCapture() {
+		if (captureStart == -1) return;
+		if (captured == null) {
+			captured = new ByteArrayOutputStream(Math.max(64, 2 * (currentIndex - captureStart)));
+		}
+		captured.write(buffer, captureStart, currentIndex - captureStart);
+		captureStart = 0;
+	}
+
+	final IOException tooLong(final String what, final int limit) {
+		return new IOException(what + " is longer than the limit of " + limit + " at position " + positionInStream());
+	}
+
 	public final int length() {
 		return length;
 	}
@@ -103,6 +305,75 @@ public class JsonReader<TContext> {
 		this.length = newLength;
 	}
 
+	/**
+	 * Bind reader to a new input and clear all parsing state.
+	 * Used for reader reuse, so that temporary buffers don't need to be allocated again.
+	 *
+	 * @param newBuffer input bytes
+	 * @param newLength use input bytes up to specified length
+	 * @return itself
+	 */
+	final JsonReader<TContext> process(final byte[] newBuffer, final int newLength) {
+		if (newLength > newBuffer.length) {
+			throw new IllegalArgumentException("length can't be longer than buffer.length");
+		} else if (newLength < newBuffer.length) {
+			newBuffer[newLength] = '\0';
+		}
+		return process(newBuffer, 0, newLength);
+	}
+
+	/**
+	 * Bind reader to a region of the input and clear all parsing state.
+	 * Bytes outside of the region are not modified,
+	 * so this can be used to parse directly from an array which holds other data too (eg. heap ByteBuffer).
+	 * Positions reported in errors are relative to the start of the region.
+	 *
+	 * @param newBuffer input bytes
+	 * @param offset    start of JSON
+	 * @param end       end of JSON
+	 * @return itself
+	 */
+	final JsonReader<TContext> process(final byte[] newBuffer, final int offset, final int end) {
+		return process(newBuffer, offset, end, 0);
+	}
+
+	/**
+	 * Bind reader to a region of the input which is a part of a larger stream.
+	 * Positions reported in errors are relative to the start of the stream.
+	 *
+	 * @param newBuffer input bytes
+	 * @param offset    start of JSON
+	 * @param end       end of JSON
+	 * @param position  position of the region start in the stream
+	 * @return itself
+	 */
+	final JsonReader<TContext> process(final byte[] newBuffer, final int offset, final int end, final long position) {
+		if (offset < 0 || end > newBuffer.length || offset > end) {
+			throw new IllegalArgumentException("Invalid region: " + offset + " - " + end + " for buffer of length " + newBuffer.length);
+		}
+		this.buffer = newBuffer;
+		this.length = end;
+		this.currentIndex = offset;
+		this.currentPosition = position - offset;
+		this.tokenStart = offset;
+		this.nameEnd = offset;
+		this.last = ' ';
+		this.depth = 0;
+		cancelCapture();
+		return this;
+	}
+
+	/**
+	 * Release temporary char buffer if it grew larger than the specified limit.
+	 *
+	 * @param maxChars maximum number of chars which can be retained
+	 */
+	final void trimTo(final int maxChars) {
+		if (chars.length > maxChars) {
+			chars = tmp;
+		}
+	}
+
 	private final static Charset UTF_8 = Charset.forName("UTF-8");
 
 	@Override
@@ -246,7 +517,6 @@ public class JsonReader<TContext> {
 	}
 
 	final int parseString() throws IOException {
-		final int startIndex = currentIndex;
 		if (last != '"') {
 			//TODO: count special chars in separate counter
 			throw new IOException("JSON string must start with a double quote at: " + positionInStream());
@@ -254,43 +524,65 @@ public class JsonReader<TContext> {
 
 		byte bb = 0;
 		int ci = currentIndex;
-		try {
-			for (int i = 0; i < chars.length; i++) {
-				bb = buffer[ci++];
-				if (bb == '"') {
-					currentIndex = ci;
-					return i;
+		int i = 0;
+		// copy plain ASCII prefix word at a time
+		final int special = Swar.findQuoteEscapeOrUnicode(buffer, ci, Math.min(length, ci + chars.length));
+		while (ci < special) {
+			chars[i++] = (char) buffer[ci++];
+		}
+		final int limit = Math.min(chars.length, i + length - ci);
+		for (; i < limit; i++) {
+			bb = buffer[ci++];
+			if (bb == '"') {
+				currentIndex = ci;
+				if (i > maxStringLength) {
+					throw tooLong("String", maxStringLength);
 				}
-				// If we encounter a backslash, which is a beginning of an escape sequence
-				// or a high bit was set - indicating an UTF-8 encoded multibyte character,
-				// there is no chance that we can decode the string without instantiating
-				// a temporary buffer, so quit this loop
-				if ((bb ^ '\\') < 1) break;
-				chars[i] = (char) bb;
+				return i;
 			}
-		} catch (ArrayIndexOutOfBoundsException ignore) {
-			throw new IOException("JSON string was not closed with a double quote at: " + positionInStream());
+			// If we encounter a backslash, which is a beginning of an escape sequence
+			// or a high bit was set - indicating an UTF-8 encoded multibyte character,
+			// there is no chance that we can decode the string without instantiating
+			// a temporary buffer, so quit this loop
+			if ((bb ^ '\\') < 1) break;
+			chars[i] = (char) bb;
 		}
-		if (ci >= length) {
-			throw new IOException("JSON string was not closed with a double quote at: " + (currentPosition + length));
-		}
-
-		currentIndex = ci;
-
-		int soFar = --currentIndex - startIndex;
+		// continue after the copied prefix. Special byte which stopped the loop is processed again
+		currentIndex = i < limit ? ci - 1 : ci;
+		return parseStringTail(i, null);
+	}
 
+	/**
+	 * Decode the rest of the string one byte at a time.
+	 * Stream readers refill the buffer when needed, so strings can be longer than the buffer.
+	 * When output is provided, decoded chars are flushed into it instead of growing the chars buffer.
+	 *
+	 * @return number of decoded chars in the chars buffer
+	 */
+	private int parseStringTail(int soFar, final Writer output) throws IOException {
 		while (!isEndOfStream()) {
 			int bc = read();
 			if (bc == '"') {
+				if (output == null && soFar > maxStringLength) {
+					throw tooLong("String", maxStringLength);
+				}
 				return soFar;
 			}
 
 			if (soFar >= chars.length - 3) {
-				chars = Arrays.copyOf(chars, chars.length * 2);
+				if (output != null) {
+					output.write(chars, 0, soFar);
+					soFar = 0;
+				} else {
+					if (soFar > maxStringLength) {
+						throw tooLong("String", maxStringLength);
+					}
+					chars = Arrays.copyOf(chars, chars.length * 2);
+				}
 			}
 
 			if (bc == '\\') {
-				bc = buffer[currentIndex++];
+				bc = read();
 
 				switch (bc) {
 					case 'b':
@@ -313,25 +605,25 @@ public class JsonReader<TContext> {
 					case '\\':
 						break;
 					case 'u':
-						bc = (hexToInt(buffer[currentIndex++]) << 12) +
-								(hexToInt(buffer[currentIndex++]) << 8) +
-								(hexToInt(buffer[currentIndex++]) << 4) +
-								hexToInt(buffer[currentIndex++]);
+						bc = (hexToInt(read()) << 12) +
+								(hexToInt(read()) << 8) +
+								(hexToInt(read()) << 4) +
+								hexToInt(read());
 						break;
 
 					default:
 						throw new IOException("Could not parse String at position: " + positionInStream() + ". Invalid escape combination detected: '\\" + bc + "'");
 				}
 			} else if ((bc & 0x80) != 0) {
-				final int u2 = buffer[currentIndex++];
+				final int u2 = read();
 				if ((bc & 0xE0) == 0xC0) {
 					bc = ((bc & 0x1F) << 6) + (u2 & 0x3F);
 				} else {
-					final int u3 = buffer[currentIndex++];
+					final int u3 = read();
 					if ((bc & 0xF0) == 0xE0) {
 						bc = ((bc & 0x0F) << 12) + ((u2 & 0x3F) << 6) + (u3 & 0x3F);
 					} else {
-						final int u4 = buffer[currentIndex++];
+						final int u4 = read();
 						if ((bc & 0xF8) == 0xF0) {
 							bc = ((bc & 0x07) << 18) + ((u2 & 0x3F) << 12) + ((u3 & 0x3F) << 6) + (u4 & 0x3F);
 						} else {
@@ -349,6 +641,7 @@ public class JsonReader<TContext> {
 							final int sup = bc - 0x10000;
 							chars[soFar++] = (char) ((sup >>> 10) + 0xd800);
 							chars[soFar++] = (char) ((sup & 0x3ff) + 0xdc00);
+							continue;
 						}
 					}
 				}
@@ -433,6 +726,10 @@ public class JsonReader<TContext> {
 		read();
 		if (WHITESPACE[last + 128]) {
 			while (wasWhiteSpace()) {
+				// skip indentation word at a time
+				if (currentIndex < length && (buffer[currentIndex] == ' ' || buffer[currentIndex] == '\t')) {
+					currentIndex = Swar.skipRepeated(buffer, currentIndex, length, buffer[currentIndex]);
+				}
 				read();
 			}
 		}
@@ -464,7 +761,12 @@ public class JsonReader<TContext> {
 		tokenStart = currentIndex;
 		int ci = currentIndex;
 		long hash = 0x811c9dc5;
-		while (ci < buffer.length) {
+		final int quote = Swar.findQuote(buffer, ci, length);
+		while (ci < quote) {
+			hash ^= buffer[ci++];
+			hash *= 0x1000193;
+		}
+		while (ci < length) {
 			final byte b = buffer[ci++];
 			if (b == '"') break;
 			hash ^= b;
@@ -490,21 +792,69 @@ public class JsonReader<TContext> {
 		return new String(buffer, tokenStart, nameEnd - tokenStart - 1, "UTF-8");
 	}
 
-	private byte skipString() throws IOException {
-		byte c = read();
-		byte prev = c;
-		while (c != '"' || prev == '\\') {
-			prev = c;
+	private void skipStringBody() throws IOException {
+		byte c;
+		do {
+			currentIndex = Swar.findQuoteOrEscape(buffer, currentIndex, length);
 			c = read();
-		}
+			if (c == '\\') {
+				read();
+			}
+		} while (c != '"');
+	}
+
+	private byte skipString() throws IOException {
+		skipStringBody();
 		return getNextToken();
 	}
 
+	// only strings and nesting are tracked, so tokens inside the value are not validated
+	private byte skipStructure() throws IOException {
+		final int limit = maxDepth - this.depth;
+		int depth = 1;
+		int ci = currentIndex;
+		while (true) {
+			if (ci >= length) {
+				// stream readers refill the buffer on read
+				currentIndex = ci;
+				read();
+				ci = currentIndex - 1;
+			}
+			final byte b = buffer[ci++];
+			if (b == '"') {
+				currentIndex = ci;
+				skipStringBody();
+				ci = currentIndex;
+			} else if (b == '{' || b == '[') {
+				if (++depth > limit) {
+					currentIndex = ci;
+					throw new IOException("Maximum nesting depth of " + maxDepth + " exceeded at position " + positionInStream());
+				}
+			} else if ((b == '}' || b == ']') && --depth == 0) {
+				currentIndex = ci;
+				last = b;
+				return getNextToken();
+			}
+		}
+	}
+
+	/**
+	 * Skip the current value and move to the next token.
+	 * With {@link ValidationLevel#STRUCTURE} objects and arrays are skipped
+	 * by counting brackets outside of strings, without tokenizing their content.
+	 *
+	 * @return token after the skipped value
+	 * @throws IOException invalid JSON or unexpected end of input
+	 */
 	public final byte skip() throws IOException {
 		if (last == '"') return skipString();
+		if (validation == ValidationLevel.STRUCTURE && (last == '{' || last == '[')) {
+			return skipStructure();
+		}
 		if (last == '{') {
 			byte nextToken = getNextToken();
 			if (nextToken == '}') return getNextToken();
+			startNesting();
 			if (nextToken == '"') nextToken = skipString();
 			else
 				throw new IOException("Expecting '\"' at position " + positionInStream() + ". Found " + (char) nextToken);
@@ -524,9 +874,11 @@ public class JsonReader<TContext> {
 			}
 			if (nextToken != '}')
 				throw new IOException("Expecting '}' at position " + positionInStream() + ". Found " + (char) nextToken);
+			endNesting();
 			return getNextToken();
 		}
 		if (last == '[') {
+			startNesting();
 			getNextToken();
 			byte nextToken = skip();
 			while (nextToken == ',') {
@@ -536,6 +888,7 @@ public class JsonReader<TContext> {
 			if (nextToken != ']') {
 				throw new IOException("Expecting ']' at position " + positionInStream() + ". Found " + (char) nextToken);
 			}
+			endNesting();
 			return getNextToken();
 		}
 		if (last == 'n') {
@@ -581,6 +934,75 @@ public class JsonReader<TContext> {
 		return Base64.decodeFast(buffer, start, currentIndex - 1);
 	}
 
+	/**
+	 * Decode the current string value directly into the output.
+	 * String is processed in chunks of the temporary char buffer,
+	 * so huge values (eg. embedded documents) are never materialized.
+	 * Stream readers refill the buffer as needed.
+	 * String length limit is not applied, since output decides what to do with the value.
+	 *
+	 * @param output where decoded chars will be written
+	 * @throws IOException invalid string or error writing to output
+	 */
+	public final void readString(final Writer output) throws IOException {
+		if (output == null) {
+			throw new NullPointerException("output provided as null.");
+		}
+		if (last != '"') {
+			throw new IOException("JSON string must start with a double quote at: " + positionInStream());
+		}
+		final int remaining = parseStringTail(0, output);
+		output.write(chars, 0, remaining);
+	}
+
+	/**
+	 * Decode the current base64 string value directly into the output.
+	 * Input is decoded in small chunks, so binary values of any size can be processed
+	 * without materializing them in memory.
+	 * Stream readers refill the buffer as needed.
+	 *
+	 * @param output where decoded bytes will be written
+	 * @throws IOException invalid base64 value or error writing to output
+	 */
+	public final void readBase64(final OutputStream output) throws IOException {
+		if (output == null) {
+			throw new NullPointerException("output provided as null.");
+		}
+		if (last != '"') {
+			throw new IOException("Expecting '\"' at position " + positionInStream() + " at base64 start. Found " + (char) last);
+		}
+		// groups of 4 chars are decoded independently, so chunk size must be their multiple
+		final byte[] chunk = new byte[BASE64_CHUNK];
+		int pending = 0;
+		while (true) {
+			final int end = Base64.findEnd(buffer, currentIndex, length);
+			int ci = currentIndex;
+			while (ci < end) {
+				final int count = Math.min(end - ci, chunk.length - pending);
+				System.arraycopy(buffer, ci, chunk, pending, count);
+				ci += count;
+				pending += count;
+				if (pending == chunk.length) {
+					output.write(Base64.decodeFast(chunk, 0, pending));
+					pending = 0;
+				}
+			}
+			currentIndex = end;
+			if (end < length) {
+				break;
+			}
+			if (isEndOfStream()) {
+				throw new IOException("Unexpected end of JSON input at base64 value");
+			}
+		}
+		if (read() != '"') {
+			throw new IOException("Expecting '\"' at position " + positionInStream() + " at base64 end. Found " + (char) last);
+		}
+		if (pending > 0) {
+			output.write(Base64.decodeFast(chunk, 0, pending));
+		}
+	}
+
 	public String readKey() throws IOException {
 		final int len = parseString();
 		long hash = 0x811c9dc5;
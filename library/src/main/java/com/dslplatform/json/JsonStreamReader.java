@@ -1,6 +1,6 @@
 package com.dslplatform.json;
 
-import javax.xml.bind.DatatypeConverter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -51,6 +51,7 @@ public class JsonStreamReader<TContext> extends JsonReader<TContext> {
 
 	public byte read() throws IOException {
 		if (currentIndex > halfLength) {
+			flushCapture();
 			final int len = buffer.length - currentIndex;
 			System.arraycopy(buffer, currentIndex, buffer, 0, len);
 			int position = readFully(buffer, stream, len);
@@ -59,14 +60,22 @@ public class JsonStreamReader<TContext> extends JsonReader<TContext> {
 			} else {
 				super.reset(position);
 			}
+			checkDocumentSize();
 		}
 		return super.read();
 	}
 
+	private void checkDocumentSize() throws IOException {
+		if (positionInStream() - getCurrentIndex() + length() > maxDocumentSize) {
+			throw new IOException("JSON document is larger than the limit of " + maxDocumentSize + " bytes");
+		}
+	}
+
 	boolean isEndOfStream() throws IOException {
 		if (length() != currentIndex) {
 			return false;
 		}
+		flushCapture();
 		final int len = buffer.length - currentIndex;
 		System.arraycopy(buffer, currentIndex, buffer, 0, len);
 		int position = readFully(buffer, stream, len);
@@ -74,13 +83,16 @@ public class JsonStreamReader<TContext> extends JsonReader<TContext> {
 			return true;
 		}
 		super.reset(position);
+		checkDocumentSize();
 		return super.isEndOfStream();
 	}
 
 	public byte[] readBase64() throws IOException {
-		if (Base64.findEnd(buffer, currentIndex) == buffer.length) {
-			final String input = readString();
-			return DatatypeConverter.parseBase64Binary(input);
+		if (Base64.findEnd(buffer, currentIndex, length()) == length()) {
+			// value continues after the current buffer
+			final ByteArrayOutputStream output = new ByteArrayOutputStream();
+			readBase64(output);
+			return output.toByteArray();
 		}
 		return super.readBase64();
 	}
@@ -15,24 +15,75 @@ import java.util.*;
  * <p>
  * For maximum performance JsonWriter instances should be reused.
  * They should not be shared across threads (concurrently) so for Thread reuse it's best to use patterns such as ThreadLocal.
+ * DslJson convenience methods which don't accept a JsonWriter already reuse pooled instances.
+ * <p>
+ * Writer can also be bound to an OutputStream via reset(OutputStream).
+ * In that case buffer will not grow; instead its content will be written to the stream whenever it fills up.
+ * Buffer will grow only when a single value (eg. a large string) doesn't fit into it.
+ * This way memory usage is bounded by the buffer size regardless of the size of the document.
+ * When done, remaining content must be written to the stream with flush().
+ * Methods such as size(), toByteArray() and toStream() operate only on the part which was not yet flushed.
  */
 public final class JsonWriter extends Writer {
 
 	private static final Charset UTF_8 = Charset.forName("UTF-8");
 
+	/**
+	 * Reserve space in the buffer for writing directly into it.
+	 * Since in streaming mode this can flush the buffer, position must be read (via size()) after this call.
+	 *
+	 * @param free required number of bytes
+	 * @return buffer with enough space after current position
+	 */
 	final byte[] ensureCapacity(final int free) {
 		if (position + free >= result.length) {
-			result = Arrays.copyOf(result, result.length + (result.length << 1) + free);
+			enlargeOrFlush(free);
 		}
 		return result;
 	}
 
+	private void enlargeOrFlush(final int free) {
+		if (target == null) {
+			result = Arrays.copyOf(result, result.length + result.length / 2 + free);
+			return;
+		}
+		try {
+			writeToTarget();
+		} catch (IOException ex) {
+			throw new RuntimeException("Unable to write JSON to the output stream", ex);
+		}
+		if (free >= result.length) {
+			result = new byte[result.length / 2 + free];
+		}
+	}
+
+	/**
+	 * Write buffered content to the target stream without flushing the stream itself.
+	 *
+	 * @throws IOException error while writing to the stream
+	 */
+	final void flushBuffer() throws IOException {
+		if (target != null) {
+			writeToTarget();
+		}
+	}
+
+	private void writeToTarget() throws IOException {
+		if (position != 0) {
+			target.write(result, 0, position);
+			flushed += position;
+			position = 0;
+		}
+	}
+
 	void advance(int size) {
 		position += size;
 	}
 
 	private int position;
+	private long flushed;
 	private byte[] result;
+	private OutputStream target;
 
 	private final UnknownSerializer unknownSerializer;
 
@@ -64,11 +115,11 @@ public final class JsonWriter extends Writer {
 	public static final byte ESCAPE = '\\';
 
 	public final void writeNull() {
+		if (position + 4 >= result.length) {
+			enlargeOrFlush(4);
+		}
 		final int s = position;
 		position += 4;
-		if (position >= result.length) {
-			result = Arrays.copyOf(result, result.length + result.length / 2);
-		}
 		final byte[] _result = result;
 		_result[s] = 'n';
 		_result[s + 1] = 'u';
@@ -78,7 +129,7 @@ public final class JsonWriter extends Writer {
 
 	public final void writeByte(final byte c) {
 		if (position == result.length) {
-			result = Arrays.copyOf(result, result.length + result.length / 2);
+			enlargeOrFlush(0);
 		}
 		result[position++] = c;
 	}
@@ -86,7 +137,7 @@ public final class JsonWriter extends Writer {
 	public final void writeString(final String str) {
 		final int len = str.length();
 		if (position + (len << 2) + (len << 1) + 2 >= result.length) {
-			result = Arrays.copyOf(result, result.length + result.length / 2 + (len << 2) + (len << 1) + 2);
+			enlargeOrFlush((len << 2) + (len << 1) + 2);
 		}
 		final byte[] _result = result;
 		_result[position] = QUOTE;
@@ -281,7 +332,7 @@ public final class JsonWriter extends Writer {
 	public final void writeAscii(final String str) {
 		final int len = str.length();
 		if (position + len >= result.length) {
-			result = Arrays.copyOf(result, result.length + result.length / 2 + len);
+			enlargeOrFlush(len);
 		}
 		str.getBytes(0, len, result, position);
 		position += len;
@@ -290,7 +341,7 @@ public final class JsonWriter extends Writer {
 	@SuppressWarnings("deprecation")
 	public final void writeAscii(final String str, final int len) {
 		if (position + len >= result.length) {
-			result = Arrays.copyOf(result, result.length + result.length / 2 + len);
+			enlargeOrFlush(len);
 		}
 		str.getBytes(0, len, result, position);
 		position += len;
@@ -299,7 +350,7 @@ public final class JsonWriter extends Writer {
 	public final void writeAscii(final byte[] buf) {
 		final int len = buf.length;
 		if (position + len >= result.length) {
-			result = Arrays.copyOf(result, result.length + result.length / 2 + len);
+			enlargeOrFlush(len);
 		}
 		final int p = position;
 		final byte[] _result = result;
@@ -311,7 +362,7 @@ public final class JsonWriter extends Writer {
 
 	public final void writeAscii(final byte[] buf, final int len) {
 		if (position + len >= result.length) {
-			result = Arrays.copyOf(result, result.length + result.length / 2 + len);
+			enlargeOrFlush(len);
 		}
 		final int p = position;
 		final byte[] _result = result;
@@ -321,9 +372,36 @@ public final class JsonWriter extends Writer {
 		position += len;
 	}
 
+	/**
+	 * Write already encoded JSON bytes.
+	 * When writer is bound to a stream, large inputs are passed directly to the stream
+	 * instead of being copied into the buffer first.
+	 *
+	 * @param buf    encoded JSON
+	 * @param offset start of JSON in buf
+	 * @param len    number of bytes to write
+	 */
+	public final void writeRaw(final byte[] buf, final int offset, final int len) {
+		if (position + len >= result.length) {
+			if (target != null && len >= result.length / 2) {
+				try {
+					writeToTarget();
+					target.write(buf, offset, len);
+					flushed += len;
+				} catch (IOException ex) {
+					throw new RuntimeException("Unable to write JSON to the output stream", ex);
+				}
+				return;
+			}
+			enlargeOrFlush(len);
+		}
+		System.arraycopy(buf, offset, result, position, len);
+		position += len;
+	}
+
 	public final void writeBinary(final byte[] buf) {
 		if (position + (buf.length << 1) + 2 >= result.length) {
-			result = Arrays.copyOf(result, result.length + result.length / 2 + (buf.length << 1) + 2);
+			enlargeOrFlush((buf.length << 1) + 2);
 		}
 		result[position++] = '"';
 		position += Base64.encodeToBytes(buf, result, position);
@@ -351,8 +429,34 @@ public final class JsonWriter extends Writer {
 		return position;
 	}
 
+	/**
+	 * Number of bytes which were already written to the target stream.
+	 * Total size of the JSON is flushed() + size()
+	 *
+	 * @return flushed bytes
+	 */
+	public final long flushed() {
+		return flushed;
+	}
+
 	public final void reset() {
 		position = 0;
+		flushed = 0;
+	}
+
+	/**
+	 * Reset writer and bind it to the provided stream.
+	 * When buffer fills up, its content will be written to the stream instead of growing the buffer.
+	 * When null is provided, writer will only write into its buffer.
+	 * <p>
+	 * Remaining content must be written to the stream with flush() at the end.
+	 *
+	 * @param stream target stream. Can be null
+	 */
+	public final void reset(final OutputStream stream) {
+		position = 0;
+		flushed = 0;
+		target = stream;
 	}
 
 	@Override
@@ -376,12 +480,31 @@ public final class JsonWriter extends Writer {
 		writeAscii(append.getBytes(UTF_8));
 	}
 
+	/**
+	 * When writer is bound to an OutputStream, write the remaining content to it and flush the stream.
+	 * Otherwise this method does nothing.
+	 *
+	 * @throws IOException error while writing to the stream
+	 */
 	@Override
 	public void flush() throws IOException {
+		if (target != null) {
+			writeToTarget();
+			target.flush();
+		}
 	}
 
+	/**
+	 * When writer is bound to an OutputStream, remaining content will be written to it.
+	 * Stream itself is not closed.
+	 *
+	 * @throws IOException error while writing to the stream
+	 */
 	@Override
 	public void close() throws IOException {
+		if (target != null) {
+			writeToTarget();
+		}
 		position = 0;
 	}
 
@@ -0,0 +1,542 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lazy JSON document.
+ * Input is processed once into a compact index (tape) of value offsets over the source byte[].
+ * Strings, numbers and nested values are decoded only when accessed, so reading a few fields
+ * from a large document doesn't allocate a tree of maps, lists, strings and boxed numbers.
+ * <p>
+ * Structure of the whole document is validated while building the index,
+ * but scalar values (eg. number format or string escapes) are validated only when decoded.
+ * <p>
+ * Source byte[] is referenced, not copied, so it must not be modified while the document is in use.
+ * Document is not thread safe, since values are decoded with a shared reader.
+ */
+public final class LazyJson {
+
+	public enum Type {
+		OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL
+	}
+
+	private static final int OBJECT = 0;
+	private static final int ARRAY = 1;
+	private static final int STRING = 2;
+	private static final int ESCAPED_STRING = 3;
+	private static final int NUMBER = 4;
+	private static final int TRUE = 5;
+	private static final int FALSE = 6;
+	private static final int NULL = 7;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int KIND_MASK = 7;
+	private static final int MAX_DEPTH = 512;
+
+	// each value takes 4 ints: kind and member count, start offset, end offset, index of the next sibling
+	private static final int RECORD = 4;
+
+	private final DslJson<?> json;
+	private final JsonReader<?> reader;
+	private final byte[] source;
+	private final int[] tape;
+
+	private LazyJson(final DslJson<?> json, final JsonReader<?> reader, final byte[] source, final int[] tape) {
+		this.json = json;
+		this.reader = reader;
+		this.source = source;
+		this.tape = tape;
+	}
+
+	static LazyJson parse(final DslJson<?> json, final JsonReader<?> reader, final byte[] body, final int size) throws IOException {
+		final Builder builder = new Builder(body, size, Math.min(MAX_DEPTH, reader.getLimits().maxDepth));
+		int i = builder.value(builder.whitespace(0), 0);
+		i = builder.whitespace(i);
+		if (i != size) {
+			throw new IOException("Unexpected '" + (char) body[i] + "' after the end of JSON at position " + i);
+		}
+		return new LazyJson(json, reader, body, Arrays.copyOf(builder.tape, builder.records * RECORD));
+	}
+
+	/**
+	 * Top level value of the document.
+	 *
+	 * @return root value
+	 */
+	public Value root() {
+		return new Value(0);
+	}
+
+	/**
+	 * Member of the top level object.
+	 *
+	 * @param name member name
+	 * @return member value or null if there is no such member
+	 * @throws IOException if root is not an object or member name can't be decoded
+	 */
+	public Value get(final String name) throws IOException {
+		return root().get(name);
+	}
+
+	/**
+	 * Handle to a value in the document.
+	 * Handles are cheap and don't decode anything until one of the accessors is invoked.
+	 */
+	public final class Value {
+		private final int record;
+
+		private Value(final int record) {
+			this.record = record;
+		}
+
+		private int kind() {
+			return tape[record * RECORD] & KIND_MASK;
+		}
+
+		private int start() {
+			return tape[record * RECORD + 1];
+		}
+
+		private int end() {
+			return tape[record * RECORD + 2];
+		}
+
+		public Type type() {
+			switch (kind()) {
+				case OBJECT:
+					return Type.OBJECT;
+				case ARRAY:
+					return Type.ARRAY;
+				case STRING:
+				case ESCAPED_STRING:
+					return Type.STRING;
+				case NUMBER:
+					return Type.NUMBER;
+				case NULL:
+					return Type.NULL;
+				default:
+					return Type.BOOLEAN;
+			}
+		}
+
+		public boolean isNull() {
+			return kind() == NULL;
+		}
+
+		/**
+		 * Number of members in an object or elements in an array.
+		 *
+		 * @return number of children
+		 * @throws IOException if value is not an object or an array
+		 */
+		public int size() throws IOException {
+			final int kind = kind();
+			if (kind != OBJECT && kind != ARRAY) {
+				throw unexpected("object or array");
+			}
+			return tape[record * RECORD] >>> 3;
+		}
+
+		/**
+		 * Object member by name.
+		 * Member names are compared without decoding them, unless they contain escapes.
+		 *
+		 * @param name member name
+		 * @return member value or null if there is no such member
+		 * @throws IOException if value is not an object or member name can't be decoded
+		 */
+		public Value get(final String name) throws IOException {
+			if (kind() != OBJECT) {
+				throw unexpected("object");
+			}
+			final int count = tape[record * RECORD] >>> 3;
+			int key = record + 1;
+			for (int i = 0; i < count; i++) {
+				if (nameEquals(key, name)) {
+					return new Value(key + 1);
+				}
+				key = tape[(key + 1) * RECORD + 3];
+			}
+			return null;
+		}
+
+		/**
+		 * Array element by index.
+		 *
+		 * @param index element index
+		 * @return element value
+		 * @throws IOException if value is not an array
+		 */
+		public Value get(final int index) throws IOException {
+			if (kind() != ARRAY) {
+				throw unexpected("array");
+			}
+			final int count = tape[record * RECORD] >>> 3;
+			if (index < 0 || index >= count) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+			}
+			int element = record + 1;
+			for (int i = 0; i < index; i++) {
+				element = tape[element * RECORD + 3];
+			}
+			return new Value(element);
+		}
+
+		/**
+		 * Decoded member names of an object, in the order of the input.
+		 *
+		 * @return member names
+		 * @throws IOException if value is not an object or names can't be decoded
+		 */
+		public List<String> names() throws IOException {
+			if (kind() != OBJECT) {
+				throw unexpected("object");
+			}
+			final int count = tape[record * RECORD] >>> 3;
+			final List<String> names = new ArrayList<String>(count);
+			int key = record + 1;
+			for (int i = 0; i < count; i++) {
+				names.add(new Value(key).asString());
+				key = tape[(key + 1) * RECORD + 3];
+			}
+			return names;
+		}
+
+		/**
+		 * Elements of an array as value handles.
+		 *
+		 * @return element handles
+		 * @throws IOException if value is not an array
+		 */
+		public List<Value> elements() throws IOException {
+			if (kind() != ARRAY) {
+				throw unexpected("array");
+			}
+			final int count = tape[record * RECORD] >>> 3;
+			final List<Value> elements = new ArrayList<Value>(count);
+			int element = record + 1;
+			for (int i = 0; i < count; i++) {
+				elements.add(new Value(element));
+				element = tape[element * RECORD + 3];
+			}
+			return elements;
+		}
+
+		public String asString() throws IOException {
+			final int kind = kind();
+			if (kind == NULL) {
+				return null;
+			}
+			if (kind == STRING) {
+				// most strings don't have escapes, so they can be converted directly
+				final int start = start() + 1;
+				return new String(source, start, end() - 1 - start, UTF_8);
+			} else if (kind != ESCAPED_STRING) {
+				throw unexpected("string");
+			}
+			return StringConverter.deserialize(open());
+		}
+
+		public long asLong() throws IOException {
+			if (kind() != NUMBER) {
+				throw unexpected("number");
+			}
+			return NumberConverter.deserializeLong(open());
+		}
+
+		public int asInt() throws IOException {
+			if (kind() != NUMBER) {
+				throw unexpected("number");
+			}
+			return NumberConverter.deserializeInt(open());
+		}
+
+		public double asDouble() throws IOException {
+			if (kind() != NUMBER) {
+				throw unexpected("number");
+			}
+			return NumberConverter.deserializeDouble(open());
+		}
+
+		public BigDecimal asDecimal() throws IOException {
+			if (kind() != NUMBER) {
+				throw unexpected("number");
+			}
+			return NumberConverter.deserializeDecimal(open());
+		}
+
+		public boolean asBoolean() throws IOException {
+			final int kind = kind();
+			if (kind != TRUE && kind != FALSE) {
+				throw unexpected("boolean");
+			}
+			return kind == TRUE;
+		}
+
+		/**
+		 * Deserialize value with the readers registered in DslJson.
+		 *
+		 * @param manifest  target type
+		 * @param <T>       target type
+		 * @return deserialized value
+		 * @throws IOException if reader is not found or value can't be deserialized
+		 */
+		public <T> T as(final Class<T> manifest) throws IOException {
+			final int start = start();
+			return json.deserialize(manifest, reader.process(source, start, end(), start), source, start, end() - start);
+		}
+
+		/**
+		 * Decode the whole value into maps, lists, strings, numbers and booleans
+		 * (as {@link ObjectConverter#deserializeObject(JsonReader)} would).
+		 *
+		 * @return decoded value
+		 * @throws IOException if value can't be decoded
+		 */
+		public Object materialize() throws IOException {
+			return ObjectConverter.deserializeObject(open());
+		}
+
+		/**
+		 * Copy of the JSON bytes of this value.
+		 *
+		 * @return JSON of the value
+		 */
+		public byte[] raw() {
+			return Arrays.copyOfRange(source, start(), end());
+		}
+
+		@Override
+		public String toString() {
+			return new String(source, start(), end() - start(), UTF_8);
+		}
+
+		private JsonReader<?> open() throws IOException {
+			final int start = start();
+			final JsonReader<?> json = reader.process(source, start, end(), start);
+			json.getNextToken();
+			return json;
+		}
+
+		private IOException unexpected(final String what) {
+			return new IOException("Expecting " + what + " at position " + start() + ". Found " + type().name().toLowerCase());
+		}
+	}
+
+	private boolean nameEquals(final int key, final String name) throws IOException {
+		final int start = tape[key * RECORD + 1] + 1;
+		final int end = tape[key * RECORD + 2] - 1;
+		if (tape[key * RECORD] == STRING && end - start == name.length()) {
+			// compare ASCII names without decoding
+			for (int i = 0; i < name.length(); i++) {
+				final char c = name.charAt(i);
+				if (c >= 0x80) {
+					return name.equals(new Value(key).asString());
+				}
+				if (source[start + i] != c) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (tape[key * RECORD] == STRING) {
+			// different length can still be equal only with multibyte characters
+			for (int i = 0; i < name.length(); i++) {
+				if (name.charAt(i) >= 0x80) {
+					return name.equals(new Value(key).asString());
+				}
+			}
+			return false;
+		}
+		return name.equals(new Value(key).asString());
+	}
+
+	private static final class Builder {
+		private final byte[] body;
+		private final int size;
+		private final int maxDepth;
+		int[] tape = new int[64];
+		int records;
+
+		Builder(final byte[] body, final int size, final int maxDepth) {
+			this.body = body;
+			this.size = size;
+			this.maxDepth = maxDepth;
+		}
+
+		private int add(final int kind, final int start) {
+			if ((records + 1) * RECORD > tape.length) {
+				tape = Arrays.copyOf(tape, tape.length * 2);
+			}
+			final int record = records++;
+			tape[record * RECORD] = kind;
+			tape[record * RECORD + 1] = start;
+			return record;
+		}
+
+		private void close(final int record, final int end, final int count) {
+			tape[record * RECORD] |= count << 3;
+			tape[record * RECORD + 2] = end;
+			tape[record * RECORD + 3] = records;
+		}
+
+		int whitespace(int i) {
+			while (i < size) {
+				final byte b = body[i];
+				if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+					break;
+				}
+				i++;
+			}
+			return i;
+		}
+
+		private IOException unexpected(final String what, final int i) {
+			if (i >= size) {
+				return new IOException("Unexpected end of JSON input. Expecting " + what);
+			}
+			return new IOException("Expecting " + what + " at position " + i + ". Found " + (char) body[i]);
+		}
+
+		int value(final int i, final int depth) throws IOException {
+			if (i >= size) {
+				throw unexpected("value", i);
+			}
+			switch (body[i]) {
+				case '{':
+					return object(i, depth + 1);
+				case '[':
+					return array(i, depth + 1);
+				case '"':
+					return string(i);
+				case 't':
+					return literal(i, TRUE, "true");
+				case 'f':
+					return literal(i, FALSE, "false");
+				case 'n':
+					return literal(i, NULL, "null");
+				default:
+					return number(i);
+			}
+		}
+
+		private int object(int i, final int depth) throws IOException {
+			if (depth > maxDepth) {
+				throw new IOException("Too deeply nested JSON at position " + i + ". Maximum depth is " + maxDepth);
+			}
+			final int record = add(OBJECT, i);
+			int count = 0;
+			i = whitespace(i + 1);
+			if (i < size && body[i] == '}') {
+				close(record, i + 1, 0);
+				return i + 1;
+			}
+			while (true) {
+				if (i >= size || body[i] != '"') {
+					throw unexpected("\"", i);
+				}
+				i = whitespace(string(i));
+				if (i >= size || body[i] != ':') {
+					throw unexpected(":", i);
+				}
+				i = whitespace(value(whitespace(i + 1), depth));
+				count++;
+				if (i < size && body[i] == ',') {
+					i = whitespace(i + 1);
+				} else if (i < size && body[i] == '}') {
+					close(record, i + 1, count);
+					return i + 1;
+				} else {
+					throw unexpected("',' or '}'", i);
+				}
+			}
+		}
+
+		private int array(int i, final int depth) throws IOException {
+			if (depth > maxDepth) {
+				throw new IOException("Too deeply nested JSON at position " + i + ". Maximum depth is " + maxDepth);
+			}
+			final int record = add(ARRAY, i);
+			int count = 0;
+			i = whitespace(i + 1);
+			if (i < size && body[i] == ']') {
+				close(record, i + 1, 0);
+				return i + 1;
+			}
+			while (true) {
+				i = whitespace(value(i, depth));
+				count++;
+				if (i < size && body[i] == ',') {
+					i = whitespace(i + 1);
+				} else if (i < size && body[i] == ']') {
+					close(record, i + 1, count);
+					return i + 1;
+				} else {
+					throw unexpected("',' or ']'", i);
+				}
+			}
+		}
+
+		private int string(final int start) throws IOException {
+			int i = start + 1;
+			boolean escaped = false;
+			while (i < size) {
+				i = Swar.findQuoteOrEscape(body, i, size);
+				if (i >= size) {
+					break;
+				}
+				final byte b = body[i];
+				if (b == '"') {
+					final int record = add(escaped ? ESCAPED_STRING : STRING, start);
+					close(record, i + 1, 0);
+					return i + 1;
+				} else if (b == '\\') {
+					escaped = true;
+					i += 2;
+				} else {
+					i++;
+				}
+			}
+			throw new IOException("JSON string starting at position " + start + " was not closed with a double quote");
+		}
+
+		private int literal(final int start, final int kind, final String expected) throws IOException {
+			final int end = start + expected.length();
+			if (end > size) {
+				throw unexpected(expected, start);
+			}
+			for (int i = 1; i < expected.length(); i++) {
+				if (body[start + i] != expected.charAt(i)) {
+					throw new IOException("Expecting '" + expected + "' at position " + start);
+				}
+			}
+			final int record = add(kind, start);
+			close(record, end, 0);
+			return end;
+		}
+
+		private int number(final int start) throws IOException {
+			int i = start;
+			while (i < size) {
+				final byte b = body[i];
+				if (b >= '0' && b <= '9' || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+					i++;
+				} else {
+					break;
+				}
+			}
+			if (i == start) {
+				throw unexpected("value", start);
+			}
+			final int record = add(NUMBER, start);
+			close(record, i, 0);
+			return i;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.dslplatform.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over newline delimited JSON (NDJSON/JSON lines).
+ * Each line is parsed as a separate value with the same reader and buffer.
+ * Blank lines are ignored.
+ * <p>
+ * Lines are located before parsing, so an invalid line can be skipped
+ * without affecting the following ones.
+ * Buffer grows only when a single line doesn't fit into it,
+ * up to the maximum document size from the reader limits.
+ *
+ * @param <T> type of values
+ */
+final class LineIterator<T> implements Iterator<T> {
+
+	private final JsonReader<?> reader;
+	private final JsonReader.ReadJsonObject<? extends JsonObject> objectReader;
+	private final JsonReader.ReadObject<?> simpleReader;
+	private final InputStream stream;
+	private final boolean skipInvalid;
+	private final long maxLineLength;
+
+	private byte[] buffer;
+	private int start;
+	private int end;
+	private boolean eof;
+	// stream position of buffer[0]
+	private long position;
+	private long line;
+
+	private boolean ready;
+	private T value;
+
+	LineIterator(
+			final JsonReader<?> reader,
+			final JsonReader.ReadJsonObject<? extends JsonObject> objectReader,
+			final JsonReader.ReadObject<?> simpleReader,
+			final InputStream stream,
+			final byte[] buffer,
+			final int length,
+			final boolean skipInvalid) {
+		this.reader = reader;
+		this.objectReader = objectReader;
+		this.simpleReader = simpleReader;
+		this.stream = stream;
+		this.buffer = buffer;
+		this.end = length;
+		this.eof = stream == null;
+		this.skipInvalid = skipInvalid;
+		this.maxLineLength = reader.getLimits().maxDocumentSize;
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			return ready || advance();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		ready = false;
+		final T result = value;
+		value = null;
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	private boolean advance() throws IOException {
+		int scanned = start;
+		while (true) {
+			int newLine = scanned;
+			while (newLine < end && buffer[newLine] != '\n') {
+				newLine++;
+			}
+			if (newLine == end && !eof) {
+				scanned = newLine - start;
+				fill();
+				scanned += start;
+				continue;
+			}
+			if (start == end) {
+				return false;
+			}
+			final int lineStart = start;
+			start = newLine == end ? end : newLine + 1;
+			scanned = start;
+			line++;
+			if (isBlank(lineStart, newLine)) {
+				continue;
+			}
+			if (newLine - lineStart > maxLineLength) {
+				throw new IOException("JSON document is larger than the limit of " + maxLineLength + " bytes");
+			}
+			try {
+				value = parse(lineStart, newLine);
+				ready = true;
+				return true;
+			} catch (IOException ex) {
+				if (!skipInvalid) {
+					throw new IOException("Invalid JSON on line " + line + ": " + ex.getMessage(), ex);
+				}
+			}
+		}
+	}
+
+	// move the incomplete line to the start of the buffer and read more
+	private void fill() throws IOException {
+		if (start > 0) {
+			System.arraycopy(buffer, start, buffer, 0, end - start);
+			position += start;
+			end -= start;
+			start = 0;
+		}
+		if (end > maxLineLength) {
+			throw new IOException("JSON document is larger than the limit of " + maxLineLength + " bytes");
+		}
+		if (end == buffer.length) {
+			// one byte over the limit is enough to detect lines which are too long
+			final long cap = maxLineLength < Integer.MAX_VALUE - 8 ? maxLineLength + 1 : Integer.MAX_VALUE - 8;
+			final long size = Math.min(buffer.length * 2L, cap);
+			if (size <= end) {
+				throw new IOException("JSON document is larger than the limit of " + maxLineLength + " bytes");
+			}
+			final byte[] larger = new byte[(int) size];
+			System.arraycopy(buffer, 0, larger, 0, end);
+			buffer = larger;
+		}
+		final int read = stream.read(buffer, end, buffer.length - end);
+		if (read == -1) {
+			eof = true;
+		} else {
+			end += read;
+		}
+	}
+
+	private boolean isBlank(final int from, final int to) {
+		for (int i = from; i < to; i++) {
+			final byte b = buffer[i];
+			if (b != ' ' && b != '\t' && b != '\r') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T parse(final int from, final int to) throws IOException {
+		final JsonReader<?> json = reader.process(buffer, from, to, position + from);
+		json.getNextToken();
+		final Object result;
+		if (json.wasNull()) {
+			result = null;
+		} else if (objectReader != null) {
+			if (json.last() != '{') {
+				throw json.expecting("{");
+			}
+			json.getNextToken();
+			result = objectReader.deserialize(json);
+		} else {
+			result = simpleReader.read(json);
+		}
+		for (int i = json.getCurrentIndex(); i < to; i++) {
+			final byte b = buffer[i];
+			if (b != ' ' && b != '\t' && b != '\r') {
+				throw new IOException("Unexpected '" + (char) b + "' after the value at position " + (position + i));
+			}
+		}
+		return (T) result;
+	}
+}
@@ -0,0 +1,101 @@
+package com.dslplatform.json;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Input stream over a memory mapped file.
+ * Reads are bulk copies from the mapped memory, so refilling the stream reader buffer
+ * doesn't go through a read system call. Bytes are still copied into the caller's buffer,
+ * since readers and converters work on byte[].
+ * <p>
+ * A single mapping is limited to 2GB, so larger files are mapped as a sequence of windows.
+ * Windows are mapped one at a time, when the previous one is consumed.
+ * File is opened only while a window is being mapped.
+ * Mappings stay valid after the file is closed and are released by the garbage collector.
+ */
+final class MappedFileStream extends InputStream {
+
+	static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+	private final File file;
+	private final int windowSize;
+	private final long size;
+	private long position;
+	private MappedByteBuffer window;
+	int mappedWindows;
+
+	MappedFileStream(final File file) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+
+	MappedFileStream(final File file, final int windowSize) throws IOException {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("windowSize must be positive");
+		}
+		this.file = file;
+		this.windowSize = windowSize;
+		final RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			this.size = raf.length();
+			if (size > 0) {
+				mapNext(raf.getChannel());
+			}
+		} finally {
+			raf.close();
+		}
+	}
+
+	private void mapNext(final FileChannel channel) throws IOException {
+		final long length = Math.min(windowSize, size - position);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		position += length;
+		mappedWindows++;
+	}
+
+	private MappedByteBuffer window() throws IOException {
+		if (window != null && !window.hasRemaining()) {
+			// drop reference to consumed window so it can be unmapped
+			window = null;
+			if (position < size) {
+				final RandomAccessFile raf = new RandomAccessFile(file, "r");
+				try {
+					mapNext(raf.getChannel());
+				} finally {
+					raf.close();
+				}
+			}
+		}
+		return window;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final MappedByteBuffer window = window();
+		return window == null ? -1 : window.get() & 0xff;
+	}
+
+	@Override
+	public int read(final byte[] buf, final int off, final int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		final MappedByteBuffer window = window();
+		if (window == null) {
+			return -1;
+		}
+		final int size = Math.min(len, window.remaining());
+		window.get(buf, off, size);
+		return size;
+	}
+
+	@Override
+	public int available() throws IOException {
+		final MappedByteBuffer window = window();
+		return window == null ? 0 : window.remaining();
+	}
+}
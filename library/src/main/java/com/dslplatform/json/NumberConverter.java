@@ -9,7 +9,6 @@ import java.util.Collection;
 public abstract class NumberConverter {
 
 	private final static int[] DIGITS = new int[1000];
-	private final static double[] POW_10 = new double[18];
 	static final JsonReader.ReadObject<Double> DoubleReader = new JsonReader.ReadObject<Double>() {
 		@Override
 		public Double read(JsonReader reader) throws IOException {
@@ -84,11 +83,6 @@ public abstract class NumberConverter {
 					+ ((((i / 10) % 10) + '0') << 8)
 					+ i % 10 + '0';
 		}
-		long tenPow = 1;
-		for (int i = 0; i < POW_10.length; i++) {
-			POW_10[i] = tenPow;
-			tenPow = tenPow * 10;
-		}
 	}
 
 	static void write4(final int value, final byte[] buf, final int pos) {
@@ -150,29 +144,59 @@ public abstract class NumberConverter {
 		}
 	}
 
+	private static final byte[] POSITIVE_INFINITY = "\"Infinity\"".getBytes();
+	private static final byte[] NEGATIVE_INFINITY = "\"-Infinity\"".getBytes();
+	private static final byte[] NAN = "\"NaN\"".getBytes();
+
+	private static int writeSpecial(final byte[] buf, final int pos, final byte[] special) {
+		for (int x = 0; x < special.length; x++) {
+			buf[pos + x] = special[x];
+		}
+		return pos + special.length;
+	}
+
+	// arrays are written in chunks, so that streaming writer doesn't need to hold the entire array in memory
+	private static final int ARRAY_CHUNK = 64;
+
 	public static void serialize(final double value, final JsonWriter sw) {
+		final byte[] buf = sw.ensureCapacity(Schubfach.MAX_DOUBLE_LENGTH);
+		final int position = sw.size();
+		final int current = serialize(buf, position, value);
+		sw.advance(current - position);
+	}
+
+	private static int serialize(final byte[] buf, final int pos, final double value) {
 		if (value == Double.POSITIVE_INFINITY) {
-			sw.writeAscii("\"Infinity\"");
+			return writeSpecial(buf, pos, POSITIVE_INFINITY);
 		} else if (value == Double.NEGATIVE_INFINITY) {
-			sw.writeAscii("\"-Infinity\"");
+			return writeSpecial(buf, pos, NEGATIVE_INFINITY);
 		} else if (value != value) {
-			sw.writeAscii("\"NaN\"");
-		} else {
-			sw.writeAscii(Double.toString(value));//TODO: better implementation required
+			return writeSpecial(buf, pos, NAN);
 		}
+		return Schubfach.serialize(value, buf, pos);
 	}
 
-	public static void serialize(final double[] value, final JsonWriter sw) {
-		if (value == null) {
+	public static void serialize(final double[] values, final JsonWriter sw) {
+		if (values == null) {
 			sw.writeNull();
-		} else if (value.length == 0) {
+		} else if (values.length == 0) {
 			sw.writeAscii("[]");
 		} else {
 			sw.writeByte(JsonWriter.ARRAY_START);
-			serialize(value[0], sw);
-			for (int i = 1; i < value.length; i++) {
-				sw.writeByte(JsonWriter.COMMA);
-				serialize(value[i], sw);
+			int i = 0;
+			while (i < values.length) {
+				final int end = Math.min(values.length, i + ARRAY_CHUNK);
+				final byte[] buf = sw.ensureCapacity((end - i) * (Schubfach.MAX_DOUBLE_LENGTH + 1));
+				int position = sw.size();
+				if (i != 0) {
+					buf[position++] = ',';
+				}
+				position = serialize(buf, position, values[i++]);
+				for (; i < end; i++) {
+					buf[position++] = ',';
+					position = serialize(buf, position, values[i]);
+				}
+				sw.advance(position - sw.size());
 			}
 			sw.writeByte(JsonWriter.ARRAY_END);
 		}
@@ -191,115 +215,185 @@ public abstract class NumberConverter {
 	private static NumberInfo readLongNumber(final JsonReader reader, final int start) throws IOException {
 		char[] tmp = reader.prepareBuffer(start);
 		int i = tmp.length;
+		if (i >= reader.maxNumberLength) {
+			throw reader.tooLong("Number", reader.maxNumberLength);
+		}
 		tmp = Arrays.copyOf(tmp, tmp.length * 2);
 		while (!reader.isEndOfStream()) {
 			do {
 				final char ch = (char) reader.read();
+				if (!(ch >= '0' && ch <= '9' || ch == '-' || ch == '+' || ch == '.' || ch == 'e' || ch == 'E')) {
+					//leave the terminator for the caller, same as after scanNumber
+					reader.currentIndex--;
+					return new NumberInfo(tmp, i);
+				}
 				tmp[i++] = ch;
-				if (reader.isEndOfStream() || !(ch >= '0' && ch < '9' || ch == '-' || ch == '+' || ch == '.' || ch == 'e' || ch == 'E')) {
-					return new NumberInfo(tmp, reader.isEndOfStream() ? i : i - 1);
+				if (reader.isEndOfStream()) {
+					return new NumberInfo(tmp, i);
 				}
 			} while (i < tmp.length);
+			if (i >= reader.maxNumberLength) {
+				throw reader.tooLong("Number", reader.maxNumberLength);
+			}
 			tmp = Arrays.copyOf(tmp, tmp.length * 2);
 		}
 		return new NumberInfo(tmp, i);
 	}
 
 	public static double deserializeDouble(final JsonReader reader) throws IOException {
+		return Double.longBitsToDouble(deserializeFloatingPoint(reader, false));
+	}
+
+	private static long deserializeFloatingPoint(final JsonReader reader, final boolean single) throws IOException {
 		if (reader.last() == '"') {
+			final byte[] buf = reader.buffer;
 			final int position = reader.getCurrentIndex();
-			final char[] buf = reader.readSimpleQuote();
-			return parseDoubleGeneric(buf, reader.getCurrentIndex() - position - 1, reader);
+			final int length = reader.length();
+			int end = position;
+			while (end < length && buf[end] != '"') {
+				end++;
+			}
+			if (end == length) {
+				throw new IOException("JSON string was not closed with a double quote at: " + reader.positionInStream());
+			}
+			reader.currentIndex = end + 1;
+			return parseFloatingPoint(buf, position, end, single, reader, end - position + 1);
 		}
 		final int start = reader.scanNumber();
 		final int end = reader.getCurrentIndex();
 		final int len = end - start;
-		if (len > 18) {
-			if (len == reader.tmpLength) {
-				final NumberInfo tmp = readLongNumber(reader, start);
-				return parseDoubleGeneric(tmp.buffer, tmp.length, reader);
-			} else {
-				return parseDoubleGeneric(reader.prepareBuffer(start), len, reader);
+		if (len == reader.tmpLength) {
+			final NumberInfo tmp = readLongNumber(reader, start);
+			final byte[] bytes = new byte[tmp.length];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = (byte) tmp.buffer[i];
 			}
+			return parseFloatingPoint(bytes, 0, bytes.length, single, reader, tmp.length);
 		}
-		final byte[] buf = reader.buffer;
-		final byte ch = buf[start];
-		if (ch == '-') {
-			return parseNegativeDouble(buf, reader, start, end, start + 1);
-		} else if (ch == '+') {
-			return parsePositiveDouble(buf, reader, start, end, start + 1);
+		return parseFloatingPoint(reader.buffer, start, end, single, reader, len);
+	}
+
+	private static final byte[] NAN_VALUE = {'N', 'a', 'N'};
+	private static final byte[] INFINITY_VALUE = {'I', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+
+	private static boolean matches(final byte[] buf, final int start, final int end, final byte[] value) {
+		if (end - start != value.length) return false;
+		for (int i = 0; i < value.length; i++) {
+			if (buf[start + i] != value[i]) return false;
 		}
-		return parsePositiveDouble(buf, reader, start, end, start);
+		return true;
 	}
 
-	private static double parsePositiveDouble(final byte[] buf, final JsonReader reader, final int start, final int end, int i) throws IOException {
-		long value = 0;
-		byte ch = ' ';
+	/**
+	 * Parse decimal number directly from bytes into IEEE bits of double or float.
+	 * Up to 19 significant digits are collected into w and the rest is tracked only
+	 * through the decimal exponent and the truncation flag.
+	 * Leading + and missing integer or fraction digits are allowed for backward compatibility.
+	 */
+	private static long parseFloatingPoint(
+			final byte[] buf,
+			int start,
+			int end,
+			final boolean single,
+			final JsonReader reader,
+			final int offset) throws IOException {
+		while (end > start && isWhitespace(buf[end - 1])) {
+			end--;
+		}
+		while (start < end && isWhitespace(buf[start])) {
+			start++;
+		}
+		if (start == end) {
+			throw new IOException("Error parsing float number at position: " + reader.positionInStream(offset));
+		}
+		int i = start;
+		final boolean negative = buf[i] == '-';
+		if (negative || buf[i] == '+') {
+			i++;
+		}
+		final long sign = negative ? (single ? 0x80000000L : 0x8000000000000000L) : 0;
+		if (i < end && (buf[i] == 'N' || buf[i] == 'I')) {
+			if (!negative && matches(buf, i, end, NAN_VALUE)) {
+				return single ? Float.floatToRawIntBits(Float.NaN) : Double.doubleToRawLongBits(Double.NaN);
+			} else if (matches(buf, i, end, INFINITY_VALUE)) {
+				return sign | (single ? EiselLemire.FLOAT_INFINITY : EiselLemire.DOUBLE_INFINITY);
+			}
+			throw new IOException("Error parsing float number at position: " + reader.positionInStream(offset));
+		}
+		final int digitsStart = i;
+		long w = 0;
+		long q = 0;
+		int significant = 0;
+		int integerDigits = 0;
+		int fractionDigits = 0;
+		boolean truncated = false;
 		for (; i < end; i++) {
-			ch = buf[i];
-			if (ch == '.') break;
 			final int ind = buf[i] - 48;
-			value = (value << 3) + (value << 1) + ind;
-			if (ind < 0 || ind > 9) {
-				return parseDoubleGeneric(reader.prepareBuffer(start), end - start, reader);
+			if (ind < 0 || ind > 9) break;
+			integerDigits++;
+			if (significant < EiselLemire.MAX_DIGITS) {
+				w = (w << 3) + (w << 1) + ind;
+				if (w != 0) significant++;
+			} else {
+				q++;
+				truncated |= ind != 0;
 			}
 		}
-		if (i == end) return value;
-		else if (ch == '.') {
+		if (i < end && buf[i] == '.') {
 			i++;
-			long div = 1;
 			for (; i < end; i++) {
 				final int ind = buf[i] - 48;
-				div = (div << 3) + (div << 1);
-				value = (value << 3) + (value << 1) + ind;
-				if (ind < 0 || ind > 9) {
-					return parseDoubleGeneric(reader.prepareBuffer(start), end - start, reader);
+				if (ind < 0 || ind > 9) break;
+				fractionDigits++;
+				if (significant < EiselLemire.MAX_DIGITS) {
+					w = (w << 3) + (w << 1) + ind;
+					if (w != 0) significant++;
+					q--;
+				} else {
+					truncated |= ind != 0;
 				}
 			}
-			return value / (double) div;
 		}
-		return value;
-	}
-
-	private static double parseNegativeDouble(final byte[] buf, final JsonReader reader, final int start, final int end, int i) throws IOException {
-		long value = 0;
-		byte ch = ' ';
-		for (; i < end; i++) {
-			ch = buf[i];
-			if (ch == '.') break;
-			final int ind = buf[i] - 48;
-			value = (value << 3) + (value << 1) - ind;
-			if (ind < 0 || ind > 9) {
-				return parseDoubleGeneric(reader.prepareBuffer(start), end - start, reader);
-			}
+		final int digitsEnd = i;
+		if (integerDigits + fractionDigits == 0) {
+			throw new IOException("Error parsing float number at position: " + reader.positionInStream(offset));
 		}
-		if (i == end) return value;
-		else if (ch == '.') {
+		long exponent = 0;
+		if (i < end && (buf[i] == 'e' || buf[i] == 'E')) {
 			i++;
-			long div = 1;
+			boolean negativeExponent = false;
+			if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+				negativeExponent = buf[i] == '-';
+				i++;
+			}
+			final int exponentStart = i;
 			for (; i < end; i++) {
 				final int ind = buf[i] - 48;
-				div = (div << 3) + (div << 1);
-				value = (value << 3) + (value << 1) - ind;
-				if (ind < 0 || ind > 9) {
-					return parseDoubleGeneric(reader.prepareBuffer(start), end - start, reader);
+				if (ind < 0 || ind > 9) break;
+				if (exponent < 100000000) {
+					exponent = (exponent << 3) + (exponent << 1) + ind;
 				}
 			}
-			return value / (double) div;
+			if (i == exponentStart) {
+				throw new IOException("Error parsing float number at position: " + reader.positionInStream(offset));
+			}
+			if (negativeExponent) {
+				exponent = -exponent;
+			}
 		}
-		return value;
-	}
-
-	private static double parseDoubleGeneric(final char[] buf, final int len, final JsonReader reader) throws IOException {
-		int end = len;
-		while (end > 0 && Character.isWhitespace(buf[end - 1])) {
-			end--;
+		if (i != end) {
+			throw new IOException("Error parsing float number at position: " + reader.positionInStream(offset));
 		}
-		try {
-			return Double.parseDouble(new String(buf, 0, end));
-		} catch (NumberFormatException nfe) {
-			throw new IOException("Error parsing float number at position: " + reader.positionInStream(len), nfe);
+		q += exponent;
+		long bits = EiselLemire.toBits(w, q, single);
+		if (truncated && bits != EiselLemire.toBits(w + 1, q, single)) {
+			bits = EiselLemire.slowPath(buf, digitsStart, digitsEnd, exponent - fractionDigits, bits, single);
 		}
+		return sign | bits;
+	}
+
+	private static boolean isWhitespace(final byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t';
 	}
 
 	public static ArrayList<Double> deserializeDoubleCollection(final JsonReader reader) throws IOException {
@@ -327,126 +421,51 @@ public abstract class NumberConverter {
 	}
 
 	public static void serialize(final float value, final JsonWriter sw) {
+		final byte[] buf = sw.ensureCapacity(Schubfach.MAX_FLOAT_LENGTH);
+		final int position = sw.size();
+		final int current = serialize(buf, position, value);
+		sw.advance(current - position);
+	}
+
+	private static int serialize(final byte[] buf, final int pos, final float value) {
 		if (value == Float.POSITIVE_INFINITY) {
-			sw.writeAscii("\"Infinity\"");
+			return writeSpecial(buf, pos, POSITIVE_INFINITY);
 		} else if (value == Float.NEGATIVE_INFINITY) {
-			sw.writeAscii("\"-Infinity\"");
+			return writeSpecial(buf, pos, NEGATIVE_INFINITY);
 		} else if (value != value) {
-			sw.writeAscii("\"NaN\"");
-		} else {
-			sw.writeAscii(Float.toString(value));//TODO: better implementation required
+			return writeSpecial(buf, pos, NAN);
 		}
+		return Schubfach.serialize(value, buf, pos);
 	}
 
-	public static void serialize(final float[] value, final JsonWriter sw) {
-		if (value == null) {
+	public static void serialize(final float[] values, final JsonWriter sw) {
+		if (values == null) {
 			sw.writeNull();
-		} else if (value.length == 0) {
+		} else if (values.length == 0) {
 			sw.writeAscii("[]");
 		} else {
 			sw.writeByte(JsonWriter.ARRAY_START);
-			serialize(value[0], sw);
-			for (int i = 1; i < value.length; i++) {
-				sw.writeByte(JsonWriter.COMMA);
-				serialize(value[i], sw);
-			}
-			sw.writeByte(JsonWriter.ARRAY_END);
-		}
-	}
-
-	public static float deserializeFloat(final JsonReader reader) throws IOException {
-		if (reader.last() == '"') {
-			final int position = reader.getCurrentIndex();
-			final char[] buf = reader.readSimpleQuote();
-			return parseFloatGeneric(buf, reader.getCurrentIndex() - position - 1, reader);
-		}
-		final int start = reader.scanNumber();
-		final int end = reader.getCurrentIndex();
-		final int len = end - start;
-		if (len > 18) {
-			if (len == reader.tmpLength) {
-				final NumberInfo tmp = readLongNumber(reader, start);
-				return parseFloatGeneric(tmp.buffer, tmp.length, reader);
-			} else {
-				return parseFloatGeneric(reader.prepareBuffer(start), len, reader);
-			}
-		}
-		final byte[] buf = reader.buffer;
-		final byte ch = buf[start];
-		if (ch == '-') {
-			return parseNegativeFloat(buf, reader, start, end, start + 1);
-		} else if (ch == '+') {
-			return parsePositiveFloat(buf, reader, start, end, start + 1);
-		}
-		return parsePositiveFloat(buf, reader, start, end, start);
-	}
-
-	private static float parsePositiveFloat(final byte[] buf, final JsonReader reader, final int start, final int end, int i) throws IOException {
-		long value = 0;
-		byte ch = ' ';
-		for (; i < end; i++) {
-			ch = buf[i];
-			if (ch == '.') break;
-			final int ind = buf[i] - 48;
-			value = (value << 3) + (value << 1) + ind;
-			if (ind < 0 || ind > 9) {
-				return parseFloatGeneric(reader.prepareBuffer(start), end - start, reader);
-			}
-		}
-		if (ch == '.') {
-			i++;
-			int div = 1;
-			for (; i < end; i++) {
-				final int ind = buf[i] - 48;
-				div = (div << 3) + (div << 1);
-				value = (value << 3) + (value << 1) + ind;
-				if (ind < 0 || ind > 9) {
-					return parseFloatGeneric(reader.prepareBuffer(start), end - start, reader);
+			int i = 0;
+			while (i < values.length) {
+				final int end = Math.min(values.length, i + ARRAY_CHUNK);
+				final byte[] buf = sw.ensureCapacity((end - i) * (Schubfach.MAX_FLOAT_LENGTH + 1));
+				int position = sw.size();
+				if (i != 0) {
+					buf[position++] = ',';
 				}
-			}
-			return value / (float) div;
-		}
-		return value;
-	}
-
-	private static float parseNegativeFloat(final byte[] buf, final JsonReader reader, final int start, final int end, int i) throws IOException {
-		long value = 0;
-		byte ch = ' ';
-		for (; i < end; i++) {
-			ch = buf[i];
-			if (ch == '.') break;
-			final int ind = buf[i] - 48;
-			value = (value << 3) + (value << 1) - ind;
-			if (ind < 0 || ind > 9) {
-				return parseFloatGeneric(reader.prepareBuffer(start), end - start, reader);
-			}
-		}
-		if (ch == '.') {
-			i++;
-			int div = 1;
-			for (; i < end; i++) {
-				final int ind = buf[i] - 48;
-				div = (div << 3) + (div << 1);
-				value = (value << 3) + (value << 1) - ind;
-				if (ind < 0 || ind > 9) {
-					return parseFloatGeneric(reader.prepareBuffer(start), end - start, reader);
+				position = serialize(buf, position, values[i++]);
+				for (; i < end; i++) {
+					buf[position++] = ',';
+					position = serialize(buf, position, values[i]);
 				}
+				sw.advance(position - sw.size());
 			}
-			return value / (float) div;
+			sw.writeByte(JsonWriter.ARRAY_END);
 		}
-		return value;
 	}
 
-	private static float parseFloatGeneric(final char[] buf, final int len, final JsonReader reader) throws IOException {
-		int end = len;
-		while (end > 0 && Character.isWhitespace(buf[end - 1])) {
-			end--;
-		}
-		try {
-			return Float.parseFloat(new String(buf, 0, end));
-		} catch (NumberFormatException nfe) {
-			throw new IOException("Error parsing float number at position: " + reader.positionInStream(len), nfe);
-		}
+	public static float deserializeFloat(final JsonReader reader) throws IOException {
+		return Float.intBitsToFloat((int) deserializeFloatingPoint(reader, true));
 	}
 
 	public static ArrayList<Float> deserializeFloatCollection(final JsonReader reader) throws IOException {
@@ -534,16 +553,23 @@ public abstract class NumberConverter {
 		} else if (values.length == 0) {
 			sw.writeAscii("[]");
 		} else {
-			final byte[] buf = sw.ensureCapacity(values.length * 11 + 2);
-			int position = sw.size();
-			buf[position++] = '[';
-			position = serialize(buf, position, values[0]);
-			for (int i = 1; i < values.length; i++) {
-				buf[position++] = ',';
-				position = serialize(buf, position, values[i]);
+			sw.writeByte(JsonWriter.ARRAY_START);
+			int i = 0;
+			while (i < values.length) {
+				final int end = Math.min(values.length, i + ARRAY_CHUNK);
+				final byte[] buf = sw.ensureCapacity((end - i) * 12);
+				int position = sw.size();
+				if (i != 0) {
+					buf[position++] = ',';
+				}
+				position = serialize(buf, position, values[i++]);
+				for (; i < end; i++) {
+					buf[position++] = ',';
+					position = serialize(buf, position, values[i]);
+				}
+				sw.advance(position - sw.size());
 			}
-			buf[position++] = ']';
-			sw.advance(position - sw.size());
+			sw.writeByte(JsonWriter.ARRAY_END);
 		}
 	}
 
@@ -830,16 +856,23 @@ public abstract class NumberConverter {
 		} else if (values.length == 0) {
 			sw.writeAscii("[]");
 		} else {
-			final byte[] buf = sw.ensureCapacity(values.length * 21 + 2);
-			int position = sw.size();
-			buf[position++] = '[';
-			position = serialize(buf, position, values[0]);
-			for (int i = 1; i < values.length; i++) {
-				buf[position++] = ',';
-				position = serialize(buf, position, values[i]);
+			sw.writeByte(JsonWriter.ARRAY_START);
+			int i = 0;
+			while (i < values.length) {
+				final int end = Math.min(values.length, i + ARRAY_CHUNK);
+				final byte[] buf = sw.ensureCapacity((end - i) * 21);
+				int position = sw.size();
+				if (i != 0) {
+					buf[position++] = ',';
+				}
+				position = serialize(buf, position, values[i++]);
+				for (; i < end; i++) {
+					buf[position++] = ',';
+					position = serialize(buf, position, values[i]);
+				}
+				sw.advance(position - sw.size());
 			}
-			buf[position++] = ']';
-			sw.advance(position - sw.size());
+			sw.writeByte(JsonWriter.ARRAY_END);
 		}
 	}
 
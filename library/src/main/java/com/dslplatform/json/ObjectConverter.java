@@ -86,9 +86,15 @@ public abstract class ObjectConverter {
 			case '"':
 				return reader.readString();
 			case '{':
-				return deserializeMap(reader);
+				reader.startNesting();
+				final LinkedHashMap<String, Object> map = deserializeMap(reader);
+				reader.endNesting();
+				return map;
 			case '[':
-				return deserializeList(reader);
+				reader.startNesting();
+				final ArrayList<Object> list = deserializeList(reader);
+				reader.endNesting();
+				return list;
 			default:
 				return NumberConverter.deserializeNumber(reader);
 		}
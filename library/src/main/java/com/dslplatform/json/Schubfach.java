@@ -0,0 +1,341 @@
+package com.dslplatform.json;
+
+import java.math.BigInteger;
+
+/**
+ * Shortest round-trip conversion of double/float into decimal ASCII.
+ * Implementation of the Schubfach algorithm by Raffaello Giulietti
+ * (The Schubfach way to render doubles, 2020).
+ * It belongs to the same family as Ryu and Grisu, but it doesn't require fallback
+ * and it works with a single table of 126 bit approximations of powers of ten.
+ * <p>
+ * Output layout is the same as in Double.toString/Float.toString:
+ * plain notation for values in [10^-3, 10^7) and computerized scientific notation otherwise.
+ * Digits are the shortest ones which will be parsed back into the same value,
+ * while Double.toString on older JVMs will sometimes output a digit or two more.
+ * <p>
+ * Digits are written directly into the provided byte[] so no garbage is created.
+ * Caller must ensure there is enough space in the target buffer (MAX_DOUBLE_LENGTH or MAX_FLOAT_LENGTH)
+ * and must handle NaN and Infinity beforehand.
+ */
+abstract class Schubfach {
+
+	static final int MAX_DOUBLE_LENGTH = 24;
+	static final int MAX_FLOAT_LENGTH = 15;
+
+	private static final int K_MIN = -324;
+	private static final int K_MAX = 292;
+
+	private static final long[] G1 = new long[K_MAX - K_MIN + 1];
+	private static final long[] G0 = new long[K_MAX - K_MIN + 1];
+
+	private static final long MASK_63 = 0x7FFFFFFFFFFFFFFFL;
+	private static final long MASK_32 = 0xFFFFFFFFL;
+
+	private static final int DOUBLE_Q_MIN = -1074;
+	private static final long DOUBLE_C_MIN = 1L << 52;
+	private static final long DOUBLE_T_MASK = DOUBLE_C_MIN - 1;
+
+	private static final int FLOAT_Q_MIN = -149;
+	private static final int FLOAT_C_MIN = 1 << 23;
+	private static final int FLOAT_T_MASK = FLOAT_C_MIN - 1;
+
+	private static final long[] POW_10 = new long[19];
+
+	static {
+		// g = floor(10^-k * 2^-r) + 1 where r is chosen so that 2^125 <= g < 2^126
+		final BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+		for (int k = K_MIN; k <= K_MAX; k++) {
+			final int r = flog2pow10(-k) - 125;
+			BigInteger num = k < 0 ? BigInteger.TEN.pow(-k) : BigInteger.ONE;
+			BigInteger den = k > 0 ? BigInteger.TEN.pow(k) : BigInteger.ONE;
+			if (r < 0) {
+				num = num.shiftLeft(-r);
+			} else {
+				den = den.shiftLeft(r);
+			}
+			final BigInteger g = num.divide(den).add(BigInteger.ONE);
+			G1[k - K_MIN] = g.shiftRight(63).longValue();
+			G0[k - K_MIN] = g.and(mask).longValue();
+		}
+		long tenPow = 1;
+		for (int i = 0; i < POW_10.length; i++) {
+			POW_10[i] = tenPow;
+			tenPow = tenPow * 10;
+		}
+	}
+
+	// floor(log10(2^e))
+	private static int flog10pow2(final int e) {
+		return (int) (e * 661971961083L >> 41);
+	}
+
+	// floor(log10(3/4 * 2^e))
+	private static int flog10threeQuartersPow2(final int e) {
+		return (int) (e * 661971961083L - 274743187321L >> 41);
+	}
+
+	// floor(log2(10^e))
+	private static int flog2pow10(final int e) {
+		return (int) (e * 913124641741L >> 38);
+	}
+
+	// Math.multiplyHigh is not available on Java 6
+	private static long multiplyHigh(final long x, final long y) {
+		final long x1 = x >> 32;
+		final long x2 = x & MASK_32;
+		final long y1 = y >> 32;
+		final long y2 = y & MASK_32;
+		final long z2 = x2 * y2;
+		final long t = x1 * y2 + (z2 >>> 32);
+		long z1 = t & MASK_32;
+		final long z0 = t >> 32;
+		z1 += x2 * y1;
+		return x1 * y1 + z0 + (z1 >> 32);
+	}
+
+	/**
+	 * Write shortest decimal representation of finite double into buffer.
+	 *
+	 * @param value finite double value
+	 * @param buf   target buffer with at least MAX_DOUBLE_LENGTH free bytes
+	 * @param pos   position in buffer
+	 * @return position after the last written byte
+	 */
+	static int serialize(final double value, final byte[] buf, int pos) {
+		final long bits = Double.doubleToRawLongBits(value);
+		final long t = bits & DOUBLE_T_MASK;
+		final int bq = (int) (bits >>> 52) & 0x7FF;
+		if (bits < 0) {
+			buf[pos++] = '-';
+		}
+		if (bq != 0) {
+			final int mq = -DOUBLE_Q_MIN + 1 - bq;
+			final long c = DOUBLE_C_MIN | t;
+			if (0 < mq && mq < 53) {
+				final long f = c >> mq;
+				if (f << mq == c) {
+					return writeDecimal(buf, pos, f, 0);
+				}
+			}
+			return toDecimal(buf, pos, -mq, c, 0);
+		}
+		if (t != 0) {
+			return t < 3
+					? toDecimal(buf, pos, DOUBLE_Q_MIN, 10 * t, -1)
+					: toDecimal(buf, pos, DOUBLE_Q_MIN, t, 0);
+		}
+		buf[pos] = '0';
+		buf[pos + 1] = '.';
+		buf[pos + 2] = '0';
+		return pos + 3;
+	}
+
+	private static int toDecimal(final byte[] buf, final int pos, final int q, final long c, final int dk) {
+		final int out = (int) c & 1;
+		final long cb = c << 2;
+		final long cbr = cb + 2;
+		final long cbl;
+		final int k;
+		if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		} else {
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		final int h = q + flog2pow10(-k) + 2;
+		final long g1 = G1[k - K_MIN];
+		final long g0 = G0[k - K_MIN];
+		final long vb = rop(g1, g0, cb << h);
+		final long vbl = rop(g1, g0, cbl << h);
+		final long vbr = rop(g1, g0, cbr << h);
+		final long s = vb >> 2;
+		if (s >= 100) {
+			final long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+			final long tp10 = sp10 + 10;
+			final boolean upin = vbl + out <= sp10 << 2;
+			final boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin) {
+				return writeDecimal(buf, pos, upin ? sp10 : tp10, k);
+			}
+		}
+		final long t = s + 1;
+		final boolean uin = vbl + out <= s << 2;
+		final boolean win = (t << 2) + out <= vbr;
+		if (uin != win) {
+			return writeDecimal(buf, pos, uin ? s : t, k + dk);
+		}
+		final long cmp = vb - (s + t << 1);
+		return writeDecimal(buf, pos, cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+	}
+
+	private static long rop(final long g1, final long g0, final long cp) {
+		final long x1 = multiplyHigh(g0, cp);
+		final long y0 = g1 * cp;
+		final long y1 = multiplyHigh(g1, cp);
+		final long z = (y0 >>> 1) + x1;
+		final long vbp = y1 + (z >>> 63);
+		return vbp | (z & MASK_63) + MASK_63 >>> 63;
+	}
+
+	/**
+	 * Write shortest decimal representation of finite float into buffer.
+	 *
+	 * @param value finite float value
+	 * @param buf   target buffer with at least MAX_FLOAT_LENGTH free bytes
+	 * @param pos   position in buffer
+	 * @return position after the last written byte
+	 */
+	static int serialize(final float value, final byte[] buf, int pos) {
+		final int bits = Float.floatToRawIntBits(value);
+		final int t = bits & FLOAT_T_MASK;
+		final int bq = (bits >>> 23) & 0xFF;
+		if (bits < 0) {
+			buf[pos++] = '-';
+		}
+		if (bq != 0) {
+			final int mq = -FLOAT_Q_MIN + 1 - bq;
+			final int c = FLOAT_C_MIN | t;
+			if (0 < mq && mq < 24) {
+				final int f = c >> mq;
+				if (f << mq == c) {
+					return writeDecimal(buf, pos, f, 0);
+				}
+			}
+			return toDecimal(buf, pos, -mq, c, 0);
+		}
+		if (t != 0) {
+			return t < 8
+					? toDecimal(buf, pos, FLOAT_Q_MIN, 10 * t, -1)
+					: toDecimal(buf, pos, FLOAT_Q_MIN, t, 0);
+		}
+		buf[pos] = '0';
+		buf[pos + 1] = '.';
+		buf[pos + 2] = '0';
+		return pos + 3;
+	}
+
+	private static int toDecimal(final byte[] buf, final int pos, final int q, final int c, final int dk) {
+		final int out = c & 1;
+		final long cb = (long) c << 2;
+		final long cbr = cb + 2;
+		final long cbl;
+		final int k;
+		if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		} else {
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		final int h = q + flog2pow10(-k) + 33;
+		final long g = G1[k - K_MIN] + 1;
+		final int vb = rop(g, cb << h);
+		final int vbl = rop(g, cbl << h);
+		final int vbr = rop(g, cbr << h);
+		final int s = vb >> 2;
+		if (s >= 100) {
+			final int sp10 = 10 * (int) (s * 1717986919L >>> 34);
+			final int tp10 = sp10 + 10;
+			final boolean upin = vbl + out <= sp10 << 2;
+			final boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin) {
+				return writeDecimal(buf, pos, upin ? sp10 : tp10, k);
+			}
+		}
+		final int t = s + 1;
+		final boolean uin = vbl + out <= s << 2;
+		final boolean win = (t << 2) + out <= vbr;
+		if (uin != win) {
+			return writeDecimal(buf, pos, uin ? s : t, k + dk);
+		}
+		final int cmp = vb - (s + t << 1);
+		return writeDecimal(buf, pos, cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+	}
+
+	private static int rop(final long g, final long cp) {
+		final long x1 = multiplyHigh(g, cp);
+		final long vbp = x1 >>> 31;
+		return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+	}
+
+	/**
+	 * Write f * 10^e using Double.toString layout.
+	 */
+	private static int writeDecimal(final byte[] buf, int pos, long f, int e) {
+		while (f % 10 == 0) {
+			f /= 10;
+			e++;
+		}
+		int len = flog10pow2(64 - Long.numberOfLeadingZeros(f));
+		if (f >= POW_10[len]) {
+			len++;
+		}
+		// value = 0.d1d2...dlen * 10^dp
+		final int dp = len + e;
+		if (0 < dp && dp <= 7) {
+			if (len <= dp) {
+				writeDigits(f, buf, pos, pos + len);
+				pos += len;
+				for (int i = len; i < dp; i++) {
+					buf[pos++] = '0';
+				}
+				buf[pos] = '.';
+				buf[pos + 1] = '0';
+				return pos + 2;
+			}
+			final long high = writeDigits(f, buf, pos + dp + 1, pos + len + 1);
+			buf[pos + dp] = '.';
+			writeDigits(high, buf, pos, pos + dp);
+			return pos + len + 1;
+		} else if (-3 < dp && dp <= 0) {
+			buf[pos++] = '0';
+			buf[pos++] = '.';
+			for (int i = dp; i < 0; i++) {
+				buf[pos++] = '0';
+			}
+			writeDigits(f, buf, pos, pos + len);
+			return pos + len;
+		}
+		if (len == 1) {
+			buf[pos] = (byte) ('0' + f);
+			buf[pos + 1] = '.';
+			buf[pos + 2] = '0';
+			pos += 3;
+		} else {
+			final long first = writeDigits(f, buf, pos + 2, pos + len + 1);
+			buf[pos] = (byte) ('0' + first);
+			buf[pos + 1] = '.';
+			pos += len + 1;
+		}
+		buf[pos++] = 'E';
+		int exp = dp - 1;
+		if (exp < 0) {
+			buf[pos++] = '-';
+			exp = -exp;
+		}
+		if (exp >= 100) {
+			final int d = exp / 100;
+			buf[pos++] = (byte) ('0' + d);
+			exp -= d * 100;
+			buf[pos++] = (byte) ('0' + exp / 10);
+		} else if (exp >= 10) {
+			buf[pos++] = (byte) ('0' + exp / 10);
+		}
+		buf[pos] = (byte) ('0' + exp % 10);
+		return pos + 1;
+	}
+
+	/**
+	 * Write lowest digits of value into [start, end) and return the remaining high part.
+	 */
+	private static long writeDigits(long value, final byte[] buf, final int start, final int end) {
+		for (int i = end - 1; i >= start; i--) {
+			final long q = value / 10;
+			buf[i] = (byte) ('0' + (value - q * 10));
+			value = q;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,142 @@
+package com.dslplatform.json;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Word at a time (SIMD within a register) scanning over byte[].
+ * Eight bytes are loaded into a long and tested together,
+ * so runs of uninteresting bytes are skipped with a single branch per word.
+ * <p>
+ * Words are loaded through a little endian view of the array, so the same bit tricks work on every platform.
+ * Java 9+ compiles ByteBuffer.getLong into a single load, while older runtimes (and Android)
+ * assemble the word from individual bytes, which is slower than the plain byte loop.
+ * On such runtimes methods don't process anything and the caller's byte at a time loop does all the work.
+ * <p>
+ * Methods process only whole words which fit before the provided end.
+ * They return the index of the first interesting byte in the scanned words,
+ * or the index where fewer than 8 bytes remain, so the caller must still
+ * inspect the remaining bytes one at a time.
+ */
+abstract class Swar {
+
+	private static final long ONES = 0x0101010101010101L;
+	private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	private static final long QUOTES = ONES * '"';
+	private static final long BACKSLASHES = ONES * '\\';
+
+	private static final boolean ENABLED = wordLoadsAreIntrinsic();
+
+	private static boolean wordLoadsAreIntrinsic() {
+		try {
+			// 1.6 - 1.8 use the old version scheme, Android reports 0.9
+			return Integer.parseInt(System.getProperty("java.specification.version", "0")) >= 9;
+		} catch (RuntimeException ignore) {
+			return false;
+		}
+	}
+
+	private static ByteBuffer words(final byte[] buf) {
+		return ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	// high bit is set exactly in bytes which were zero (no false positives due to borrows)
+	private static long zeroBytes(final long word) {
+		return ~(((word & LOW_7_BITS) + LOW_7_BITS) | word | LOW_7_BITS);
+	}
+
+	private static int firstMarked(final long mask) {
+		return Long.numberOfTrailingZeros(mask) >>> 3;
+	}
+
+	/**
+	 * Skip a run of the same byte, such as spaces or tabs used for indentation in pretty printed input.
+	 *
+	 * @param buf   input
+	 * @param pos   start position
+	 * @param end   end of input
+	 * @param value repeated byte
+	 * @return position of the first different byte or the start of the unprocessed tail
+	 */
+	static int skipRepeated(final byte[] buf, int pos, final int end, final byte value) {
+		if (!ENABLED || pos + 8 > end) return pos;
+		final ByteBuffer words = words(buf);
+		final long pattern = ONES * (value & 0xFF);
+		while (pos + 8 <= end) {
+			final long diff = words.getLong(pos) ^ pattern;
+			if (diff != 0) {
+				return pos + firstMarked(diff);
+			}
+			pos += 8;
+		}
+		return pos;
+	}
+
+	/**
+	 * Find the first double quote.
+	 *
+	 * @param buf input
+	 * @param pos start position
+	 * @param end end of input
+	 * @return position of the quote or the start of the unprocessed tail
+	 */
+	static int findQuote(final byte[] buf, int pos, final int end) {
+		if (!ENABLED || pos + 8 > end) return pos;
+		final ByteBuffer words = words(buf);
+		while (pos + 8 <= end) {
+			final long quotes = zeroBytes(words.getLong(pos) ^ QUOTES);
+			if (quotes != 0) {
+				return pos + firstMarked(quotes);
+			}
+			pos += 8;
+		}
+		return pos;
+	}
+
+	/**
+	 * Find the first double quote or backslash.
+	 *
+	 * @param buf input
+	 * @param pos start position
+	 * @param end end of input
+	 * @return position of the quote/backslash or the start of the unprocessed tail
+	 */
+	static int findQuoteOrEscape(final byte[] buf, int pos, final int end) {
+		if (!ENABLED || pos + 8 > end) return pos;
+		final ByteBuffer words = words(buf);
+		while (pos + 8 <= end) {
+			final long word = words.getLong(pos);
+			final long special = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASHES);
+			if (special != 0) {
+				return pos + firstMarked(special);
+			}
+			pos += 8;
+		}
+		return pos;
+	}
+
+	/**
+	 * Find the first double quote, backslash or non ASCII byte.
+	 * Those are the bytes which can't be copied directly into a char[].
+	 *
+	 * @param buf input
+	 * @param pos start position
+	 * @param end end of input
+	 * @return position of the special byte or the start of the unprocessed tail
+	 */
+	static int findQuoteEscapeOrUnicode(final byte[] buf, int pos, final int end) {
+		if (!ENABLED || pos + 8 > end) return pos;
+		final ByteBuffer words = words(buf);
+		while (pos + 8 <= end) {
+			final long word = words.getLong(pos);
+			final long special = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASHES) | (word & HIGH_BITS);
+			if (special != 0) {
+				return pos + firstMarked(special);
+			}
+			pos += 8;
+		}
+		return pos;
+	}
+}
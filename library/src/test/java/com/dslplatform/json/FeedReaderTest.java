@@ -0,0 +1,166 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class FeedReaderTest {
+
+	private final DslJson<Object> json = new DslJson<Object>();
+
+	{
+		json.registerReader(Object.class, new JsonReader.ReadObject<Object>() {
+			@Override
+			public Object read(JsonReader reader) throws IOException {
+				return ObjectConverter.deserializeObject(reader);
+			}
+		});
+	}
+
+	private static class Collector<T> implements JsonFeedReader.Handler<T> {
+		final List<T> values = new ArrayList<T>();
+
+		@Override
+		public void handle(T value) {
+			values.add(value);
+		}
+	}
+
+	private <T> List<T> feed(Class<T> manifest, boolean array, String input, int chunk) throws IOException {
+		Collector<T> collector = new Collector<T>();
+		JsonFeedReader<T> reader = json.newFeedReader(manifest, array, collector);
+		byte[] bytes = input.getBytes("UTF-8");
+		// chunks are copied into a reused buffer to verify the reader doesn't keep references to them
+		byte[] buffer = new byte[chunk + 3];
+		for (int i = 0; i < bytes.length; i += chunk) {
+			int len = Math.min(chunk, bytes.length - i);
+			System.arraycopy(bytes, i, buffer, 3, len);
+			reader.feed(buffer, 3, len);
+			Arrays.fill(buffer, (byte) 'x');
+		}
+		reader.end();
+		Assert.assertEquals(bytes.length, reader.position());
+		return collector.values;
+	}
+
+	@Test
+	public void arrayElementsInAnyChunks() throws IOException {
+		String input = " [ {\"a\":\"x\\\"]}\\\\\",\"b\":[1,[2]]} , null,{\"c\":\"čćž\"},{}]  ";
+		for (int chunk = 1; chunk <= input.length(); chunk++) {
+			List<Map> result = feed(Map.class, true, input, chunk);
+			Assert.assertEquals(4, result.size());
+			Assert.assertEquals("x\"]}\\", result.get(0).get("a"));
+			Assert.assertEquals(Arrays.asList(1L, Arrays.asList(2L)), result.get(0).get("b"));
+			Assert.assertNull(result.get(1));
+			Assert.assertEquals("čćž", result.get(2).get("c"));
+			Assert.assertTrue(result.get(3).isEmpty());
+		}
+	}
+
+	@Test
+	public void scalarElements() throws IOException {
+		String input = "[1,-22,333e1,null,44]";
+		for (int chunk = 1; chunk <= input.length(); chunk++) {
+			List<Double> result = feed(Double.class, true, input, chunk);
+			Assert.assertEquals(Arrays.asList(1d, -22d, 3330d, null, 44d), result);
+		}
+		Assert.assertEquals(0, feed(Long.class, true, "[ ]", 1).size());
+	}
+
+	@Test
+	public void sequenceOfValues() throws IOException {
+		String input = "{\"id\":1}\n{\"id\":2}{\"id\":3}\r\n\"str\"\n123\ttrue null 45";
+		for (int chunk = 1; chunk <= input.length(); chunk++) {
+			List<Object> result = feed(Object.class, false, input, chunk);
+			Assert.assertEquals(8, result.size());
+			Assert.assertEquals(3L, ((Map) result.get(2)).get("id"));
+			Assert.assertEquals("str", result.get(3));
+			Assert.assertEquals(123L, result.get(4));
+			Assert.assertEquals(true, result.get(5));
+			Assert.assertNull(result.get(6));
+			Assert.assertEquals(45L, result.get(7));
+		}
+	}
+
+	@Test
+	public void valuesAreReportedWithoutWaitingForEnd() throws IOException {
+		Collector<Long> collector = new Collector<Long>();
+		JsonFeedReader<Long> reader = json.newFeedReader(Long.class, true, collector);
+		reader.feed("[1,2".getBytes(), 0, 4);
+		Assert.assertEquals(Arrays.asList(1L), collector.values);
+		reader.feed(ByteBuffer.wrap("3,".getBytes()));
+		Assert.assertEquals(Arrays.asList(1L, 23L), collector.values);
+		ByteBuffer direct = ByteBuffer.allocateDirect(2);
+		direct.put((byte) '4').put((byte) ']').flip();
+		reader.feed(direct);
+		Assert.assertEquals(0, direct.remaining());
+		Assert.assertEquals(Arrays.asList(1L, 23L, 4L), collector.values);
+		reader.end();
+	}
+
+	@Test
+	public void restOfChunkAfterSplitValueIsProcessedInPlace() throws IOException {
+		Collector<Map> collector = new Collector<Map>();
+		JsonFeedReader<Map> reader = json.newFeedReader(Map.class, true, collector);
+		reader.feed("[{\"a\":".getBytes(), 0, 6);
+		Assert.assertEquals(6, reader.position());
+		reader.feed("1},{\"b\":2},{\"c\":".getBytes(), 0, 16);
+		Assert.assertEquals(2, collector.values.size());
+		Assert.assertEquals(22, reader.position());
+		try {
+			reader.feed("3} 4]".getBytes(), 0, 5);
+			Assert.fail("Expecting error");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("Expecting ',' at position 25"));
+		}
+		Assert.assertEquals(3, collector.values.size());
+		Assert.assertEquals(3L, collector.values.get(2).get("c"));
+	}
+
+	private void assertError(boolean array, String input, int chunk, String message) {
+		try {
+			feed(Object.class, array, input, chunk);
+			Assert.fail("Expecting error for " + input);
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains(message));
+		}
+	}
+
+	@Test
+	public void invalidInput() {
+		for (int chunk = 1; chunk < 5; chunk++) {
+			assertError(true, "[1,]", chunk, "position 3");
+			assertError(true, "[1 2]", chunk, "Expecting ','");
+			assertError(true, "{\"a\":1}", chunk, "Expecting '['");
+			assertError(true, "[1,2", chunk, "Unexpected end");
+			assertError(true, "[1,2 ", chunk, "Expecting ']'");
+			assertError(true, "[1,2]3", chunk, "after the end of array");
+			assertError(true, "[\"abc", chunk, "Unexpected end");
+			assertError(false, "{\"a\":1", chunk, "Unexpected end");
+			assertError(false, "12a", chunk, "Error parsing number");
+			assertError(false, "{\"a\":1} {\"b\":tru}", chunk, "at: 14");
+		}
+	}
+
+	@Test
+	public void readerIsUnusableAfterError() throws IOException {
+		JsonFeedReader<Long> reader = json.newFeedReader(Long.class, true, new Collector<Long>());
+		try {
+			reader.feed("[1,]".getBytes(), 0, 4);
+			Assert.fail("Expecting error");
+		} catch (IOException ignore) {
+		}
+		try {
+			reader.feed("[1]".getBytes(), 0, 3);
+			Assert.fail("Expecting error");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("after an error"));
+		}
+	}
+}
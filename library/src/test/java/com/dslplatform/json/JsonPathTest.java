@@ -0,0 +1,94 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+public class JsonPathTest {
+
+	private final DslJson<Object> json = new DslJson<Object>();
+
+	{
+		json.registerReader(Object.class, new JsonReader.ReadObject<Object>() {
+			@Override
+			public Object read(JsonReader reader) throws IOException {
+				return ObjectConverter.deserializeObject(reader);
+			}
+		});
+	}
+
+	private <T> List<T> extract(Class<T> manifest, String input, String path) throws IOException {
+		byte[] bytes = input.getBytes("UTF-8");
+		return json.extract(manifest, bytes, bytes.length, path);
+	}
+
+	private static final String INPUT = "{\"meta\":{\"skip\":[1,{\"id\":99}],\"s\":\"a\\\"b\"},"
+			+ " \"data\" : { \"items\" : [ {\"id\":1,\"name\":\"x\"}, {\"name\":\"y\",\"id\":2}, {\"other\":3}, {\"id\":null} ],"
+			+ " \"total\": 4, \"čć\": \"ok\" } }";
+
+	@Test
+	public void wildcardArray() throws IOException {
+		List<Long> ids = extract(Long.class, INPUT, "$.data.items[*].id");
+		Assert.assertEquals(Arrays.asList(1L, 2L, null), ids);
+	}
+
+	@Test
+	public void indexAndMember() throws IOException {
+		Assert.assertEquals(Collections.singletonList("y"), extract(String.class, INPUT, "$.data.items[1].name"));
+		Assert.assertEquals(Collections.singletonList(4), extract(Integer.class, INPUT, "$.data.total"));
+		Assert.assertEquals(Collections.singletonList("ok"), extract(String.class, INPUT, "$['data'][\"čć\"]"));
+		Assert.assertEquals(Collections.singletonList("a\"b"), extract(String.class, INPUT, "$.meta.s"));
+	}
+
+	@Test
+	public void wildcardMember() throws IOException {
+		List<Object> values = extract(Object.class, "{\"a\":1,\"b\":[2],\"c\":{\"d\":3}}", "$.*");
+		Assert.assertEquals(1L, values.get(0));
+		Assert.assertEquals(Collections.singletonList(2L), values.get(1));
+		Assert.assertEquals(3, values.size());
+	}
+
+	@Test
+	public void rootAndNoMatches() throws IOException {
+		Assert.assertEquals(Collections.singletonList(5L), extract(Long.class, "5", "$"));
+		Assert.assertTrue(extract(Long.class, INPUT, "$.missing.id").isEmpty());
+		Assert.assertTrue(extract(Long.class, INPUT, "$.data.total.id").isEmpty());
+		Assert.assertTrue(extract(Long.class, INPUT, "$.data.items[10]").isEmpty());
+		Assert.assertTrue(extract(Long.class, "[]", "$[*]").isEmpty());
+		Assert.assertTrue(extract(Long.class, "{}", "$.a").isEmpty());
+	}
+
+	@Test
+	public void compiledPathIsReusable() throws IOException {
+		JsonPath path = JsonPath.compile("$[*].v");
+		byte[] first = "[{\"v\":1},{\"v\":2}]".getBytes("UTF-8");
+		byte[] second = "[{\"v\":3}]".getBytes("UTF-8");
+		Assert.assertEquals(Arrays.asList(1L, 2L), json.extract(Long.class, first, first.length, path));
+		Assert.assertEquals(Collections.singletonList(3L), json.extract(Long.class, second, second.length, path));
+		Assert.assertEquals("$[*].v", path.toString());
+	}
+
+	@Test
+	public void invalidPath() {
+		String[] paths = {"", "data", "$.", "$[", "$[x]", "$[-1]", "$a"};
+		for (String path : paths) {
+			try {
+				JsonPath.compile(path);
+				Assert.fail("Expecting exception for: " + path);
+			} catch (IllegalArgumentException ignore) {
+			}
+		}
+	}
+
+	@Test
+	public void invalidInput() throws IOException {
+		try {
+			extract(Long.class, "{\"a\":[1,2}", "$.b");
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Expecting ']'"));
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LazyConfigurationTest {
+
+	public static class Model {
+		public String value;
+	}
+
+	public static class Derived extends Model {
+	}
+
+	static final AtomicInteger configured = new AtomicInteger();
+
+	public static class ModelConfiguration implements Configuration {
+		@Override
+		public void configure(DslJson json) {
+			configured.incrementAndGet();
+			json.registerReader(Model.class, new JsonReader.ReadObject<Model>() {
+				@Override
+				public Model read(JsonReader reader) throws IOException {
+					Model model = new Model();
+					model.value = StringConverter.deserialize(reader);
+					return model;
+				}
+			});
+			json.registerWriter(Model.class, new JsonWriter.WriteObject<Model>() {
+				@Override
+				public void write(JsonWriter writer, Model value) {
+					StringConverter.serialize(value.value, writer);
+				}
+			});
+		}
+	}
+
+	private static DslJson<Object> lazyJson() {
+		DslJson<Object> json = new DslJson<Object>();
+		json.registerLazy(Model.class.getName(), ModelConfiguration.class.getName(), LazyConfigurationTest.class.getClassLoader());
+		return json;
+	}
+
+	@Test
+	public void configuredOnFirstUse() throws IOException {
+		configured.set(0);
+		DslJson<Object> json = lazyJson();
+		Assert.assertEquals(0, configured.get());
+		byte[] input = "\"abc\"".getBytes("UTF-8");
+		Model model = json.deserialize(Model.class, input, input.length);
+		Assert.assertEquals("abc", model.value);
+		Assert.assertEquals(1, configured.get());
+		Assert.assertNotNull(json.tryFindWriter(Model.class));
+		Assert.assertEquals(1, configured.get());
+	}
+
+	@Test
+	public void configuredThroughTypeHierarchy() throws IOException {
+		configured.set(0);
+		DslJson<Object> json = lazyJson();
+		Derived value = new Derived();
+		value.value = "abc";
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(value, os);
+		Assert.assertEquals("\"abc\"", os.toString("UTF-8"));
+		Assert.assertEquals(1, configured.get());
+		Assert.assertNull(json.tryFindReader(Derived.class));
+	}
+
+	@Test
+	public void unknownConfiguration() {
+		DslJson<Object> json = new DslJson<Object>();
+		json.registerLazy(Model.class.getName(), "com.dslplatform.json.UnknownConfiguration", LazyConfigurationTest.class.getClassLoader());
+		try {
+			json.tryFindReader(Model.class);
+			Assert.fail("Expecting exception");
+		} catch (IllegalStateException ex) {
+			Assert.assertTrue(ex.getMessage().contains("com.dslplatform.json.UnknownConfiguration"));
+		}
+		Assert.assertNull(json.tryFindReader(Model.class));
+	}
+}
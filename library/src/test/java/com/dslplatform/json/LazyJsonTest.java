@@ -0,0 +1,133 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class LazyJsonTest {
+
+	private final DslJson<Object> json = new DslJson<Object>();
+
+	private LazyJson parse(String input) throws IOException {
+		byte[] bytes = input.getBytes("UTF-8");
+		return json.parseLazy(bytes, bytes.length);
+	}
+
+	private static final String INPUT = "{ \"id\": 42, \"name\": \"abc\", \"price\": 1.25, \"ok\": true, \"none\": null,"
+			+ " \"tags\": [\"x\", \"y\\n\", {\"deep\": [1, 2, 3]}], \"esc\\u0061ped\": \"čć\", \"empty\": {} }";
+
+	@Test
+	public void navigateAndDecode() throws IOException {
+		LazyJson doc = parse(INPUT);
+		LazyJson.Value root = doc.root();
+		Assert.assertEquals(LazyJson.Type.OBJECT, root.type());
+		Assert.assertEquals(8, root.size());
+		Assert.assertEquals(42L, doc.get("id").asLong());
+		Assert.assertEquals(42, doc.get("id").asInt());
+		Assert.assertEquals("abc", doc.get("name").asString());
+		Assert.assertEquals(1.25, doc.get("price").asDouble(), 0);
+		Assert.assertEquals(new BigDecimal("1.25"), doc.get("price").asDecimal());
+		Assert.assertTrue(doc.get("ok").asBoolean());
+		Assert.assertTrue(doc.get("none").isNull());
+		Assert.assertNull(doc.get("none").asString());
+		Assert.assertNull(doc.get("missing"));
+		LazyJson.Value tags = doc.get("tags");
+		Assert.assertEquals(3, tags.size());
+		Assert.assertEquals("y\n", tags.get(1).asString());
+		Assert.assertEquals(3L, tags.get(2).get("deep").get(2).asLong());
+		Assert.assertEquals("čć", doc.get("escaped").asString());
+		Assert.assertEquals(0, doc.get("empty").size());
+		Assert.assertEquals(
+				Arrays.asList("id", "name", "price", "ok", "none", "tags", "escaped", "empty"),
+				root.names());
+	}
+
+	@Test
+	public void rawAndMaterialize() throws IOException {
+		LazyJson doc = parse(INPUT);
+		LazyJson.Value deep = doc.get("tags").get(2);
+		Assert.assertEquals("{\"deep\": [1, 2, 3]}", deep.toString());
+		Assert.assertEquals("{\"deep\": [1, 2, 3]}", new String(deep.raw(), "UTF-8"));
+		Map<String, Object> expected = new HashMap<String, Object>();
+		expected.put("deep", Arrays.asList(1L, 2L, 3L));
+		Assert.assertEquals(expected, deep.materialize());
+	}
+
+	@Test
+	public void elementsInOrder() throws IOException {
+		LazyJson doc = parse("[1, [2, [3]], 4, \"5\"]");
+		List<LazyJson.Value> elements = doc.root().elements();
+		Assert.assertEquals(4, elements.size());
+		Assert.assertEquals(1L, elements.get(0).asLong());
+		Assert.assertEquals(LazyJson.Type.ARRAY, elements.get(1).type());
+		Assert.assertEquals(4L, elements.get(2).asLong());
+		Assert.assertEquals("5", elements.get(3).asString());
+	}
+
+	@Test
+	public void deserializeWithRegisteredReaders() throws IOException {
+		LazyJson doc = parse("{\"values\":[1,2,3],\"text\":\"abc\"}");
+		Assert.assertArrayEquals(new int[]{1, 2, 3}, doc.get("values").as(int[].class));
+		Assert.assertEquals("abc", doc.get("text").as(String.class));
+	}
+
+	@Test
+	public void typeMismatch() throws IOException {
+		LazyJson doc = parse("{\"a\":\"text\"}");
+		try {
+			doc.get("a").asLong();
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Expecting number at position 5"));
+		}
+		try {
+			doc.root().get(0);
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Expecting array"));
+		}
+	}
+
+	@Test
+	public void invalidInput() throws IOException {
+		String[] inputs = {"{\"a\":1", "{\"a\" 1}", "[1,2", "[1 2]", "\"abc", "tru", "nul", "{\"a\":1} x", "", "[,]", "{1:2}"};
+		for (String input : inputs) {
+			try {
+				parse(input);
+				Assert.fail("Expecting exception for: " + input);
+			} catch (IOException ignore) {
+			}
+		}
+	}
+
+	@Test
+	public void depthIsLimited() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append('[');
+		}
+		try {
+			parse(sb.toString());
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Too deeply nested"));
+		}
+	}
+
+	@Test
+	public void largeDocument() throws IOException {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 10000; i++) {
+			if (i > 0) sb.append(',');
+			sb.append("{\"id\":").append(i).append(",\"name\":\"n").append(i).append("\"}");
+		}
+		sb.append(']');
+		LazyJson doc = parse(sb.toString());
+		Assert.assertEquals(10000, doc.root().size());
+		Assert.assertEquals("n9999", doc.root().get(9999).get("name").asString());
+		Assert.assertEquals(5000L, doc.root().get(5000).get("id").asLong());
+	}
+}
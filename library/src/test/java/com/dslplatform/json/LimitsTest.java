@@ -0,0 +1,194 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class LimitsTest {
+
+	private static DslJson<Object> withLimits(JsonReader.Limits limits) {
+		return new DslJson<Object>(new DslJson.Settings<Object>().withLimits(limits));
+	}
+
+	private static String repeat(char c, int count) {
+		char[] chars = new char[count];
+		Arrays.fill(chars, c);
+		return new String(chars);
+	}
+
+	private static String nested(int depth) {
+		StringBuilder sb = new StringBuilder("{\"a\":");
+		for (int i = 0; i < depth; i++) sb.append('[');
+		sb.append('1');
+		for (int i = 0; i < depth; i++) sb.append(']');
+		return sb.append('}').toString();
+	}
+
+	@Test
+	public void nestingDepth() throws IOException {
+		DslJson<Object> json = withLimits(new JsonReader.Limits(10, Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE));
+		byte[] valid = nested(10).getBytes("UTF-8");
+		Assert.assertNotNull(json.deserialize(Map.class, valid, valid.length));
+		byte[] invalid = nested(11).getBytes("UTF-8");
+		try {
+			json.deserialize(Map.class, invalid, invalid.length);
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Maximum nesting depth of 10 exceeded"));
+		}
+		//reader is reused from the pool with depth reset
+		Assert.assertNotNull(json.deserialize(Map.class, valid, valid.length));
+	}
+
+	@Test
+	public void skipDepth() throws IOException {
+		byte[] input = nested(1000).getBytes("UTF-8");
+		for (JsonReader.ValidationLevel level : JsonReader.ValidationLevel.values()) {
+			JsonReader<Object> reader = new JsonReader<Object>(input, null);
+			reader.setValidationLevel(level);
+			reader.setLimits(new JsonReader.Limits(100, Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE));
+			reader.getNextToken();
+			reader.getNextToken();
+			reader.fillName();
+			reader.getNextToken();
+			try {
+				reader.skip();
+				Assert.fail("Expecting exception");
+			} catch (IOException ex) {
+				Assert.assertTrue(ex.getMessage().contains("Maximum nesting depth of 100 exceeded"));
+			}
+		}
+	}
+
+	@Test
+	public void stringLength() throws IOException {
+		DslJson<Object> json = withLimits(new JsonReader.Limits(100, 50, Integer.MAX_VALUE, Long.MAX_VALUE));
+		byte[] valid = ("\"" + repeat('a', 50) + "\"").getBytes("UTF-8");
+		Assert.assertEquals(repeat('a', 50), json.deserialize(String.class, valid, valid.length));
+		for (String value : new String[]{repeat('a', 51), repeat('a', 1000), repeat('a', 60) + "\\n", repeat('č', 100)}) {
+			byte[] invalid = ("\"" + value + "\"").getBytes("UTF-8");
+			try {
+				json.deserialize(String.class, invalid, invalid.length);
+				Assert.fail("Expecting exception");
+			} catch (IOException ex) {
+				Assert.assertTrue(ex.getMessage().contains("String is longer than the limit of 50"));
+			}
+		}
+	}
+
+	@Test
+	public void numberLength() throws IOException {
+		DslJson<Object> json = withLimits(new JsonReader.Limits(100, Integer.MAX_VALUE, 100, Long.MAX_VALUE));
+		byte[] valid = ("1" + repeat('0', 80)).getBytes("UTF-8");
+		Assert.assertEquals(new BigDecimal("1" + repeat('0', 80)), json.deserialize(BigDecimal.class, valid, valid.length));
+		byte[] invalid = ("1" + repeat('0', 10000)).getBytes("UTF-8");
+		try {
+			json.deserialize(BigDecimal.class, invalid, invalid.length);
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Number is longer than the limit of 100"));
+		}
+	}
+
+	@Test
+	public void documentSize() throws IOException {
+		DslJson<Object> json = withLimits(new JsonReader.Limits(100, Integer.MAX_VALUE, Integer.MAX_VALUE, 100));
+		byte[] valid = ("[" + repeat('1', 90) + "]").getBytes("UTF-8");
+		Assert.assertEquals(1, json.deserializeList(BigDecimal.class, valid, valid.length).size());
+		StringBuilder sb = new StringBuilder("[1");
+		for (int i = 0; i < 100; i++) sb.append(",1");
+		byte[] invalid = sb.append(']').toString().getBytes("UTF-8");
+		try {
+			json.deserialize(int[].class, invalid, invalid.length);
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("larger than the limit of 100 bytes"));
+		}
+		try {
+			json.deserialize(int[].class, new ByteArrayInputStream(invalid), new byte[32]);
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("larger than the limit of 100 bytes"));
+		}
+	}
+
+	private static void assertTooLarge(Iterator<?> iterator, int expected) {
+		try {
+			int count = 0;
+			while (iterator.hasNext()) {
+				iterator.next();
+				count++;
+			}
+			Assert.fail("Expecting exception after " + count + " lines");
+		} catch (RuntimeException ex) {
+			Assert.assertTrue(ex.getCause() instanceof IOException);
+			Assert.assertTrue(ex.getCause().getMessage().contains("larger than the limit of " + expected + " bytes"));
+		}
+	}
+
+	@Test
+	public void lineLength() throws IOException {
+		DslJson<Object> json = withLimits(new JsonReader.Limits(100, Integer.MAX_VALUE, Integer.MAX_VALUE, 100));
+		String line = "\"" + repeat('a', 98) + "\"";
+		byte[] valid = (line + "\n" + line + "\n").getBytes("UTF-8");
+		Iterator<String> lines = json.iterateOverLines(String.class, new ByteArrayInputStream(valid), new byte[16], false);
+		Assert.assertEquals(line.substring(1, 99), lines.next());
+		Assert.assertEquals(line.substring(1, 99), lines.next());
+		Assert.assertFalse(lines.hasNext());
+		// stream without a newline can't grow the buffer beyond the limit
+		byte[] endless = ("\"" + repeat('a', 10000)).getBytes("UTF-8");
+		assertTooLarge(json.iterateOverLines(String.class, new ByteArrayInputStream(endless), new byte[16], true), 100);
+		byte[] tooLong = ("1\n\"" + repeat('a', 99) + "\"\n2").getBytes("UTF-8");
+		assertTooLarge(json.iterateOverLines(String.class, new ByteArrayInputStream(tooLong), new byte[1024], true), 100);
+	}
+
+	@Test
+	public void feedValueLength() throws IOException {
+		DslJson<Object> json = withLimits(new JsonReader.Limits(100, Integer.MAX_VALUE, Integer.MAX_VALUE, 100));
+		final List<String> values = new ArrayList<String>();
+		JsonFeedReader<String> reader = json.newFeedReader(String.class, true, new JsonFeedReader.Handler<String>() {
+			@Override
+			public void handle(String value) {
+				values.add(value);
+			}
+		});
+		byte[] chunk = ("[\"" + repeat('a', 98) + "\",").getBytes("UTF-8");
+		for (int i = 0; i < chunk.length; i += 10) {
+			reader.feed(chunk, i, Math.min(10, chunk.length - i));
+		}
+		Assert.assertEquals(1, values.size());
+		// array which is never closed is reported once a single value exceeds the limit
+		byte[] open = "aaaaaaaaaa".getBytes("UTF-8");
+		try {
+			reader.feed("\"".getBytes("UTF-8"), 0, 1);
+			for (int i = 0; i < 20; i++) {
+				reader.feed(open, 0, open.length);
+			}
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("larger than the limit of 100 bytes"));
+		}
+		Assert.assertEquals(1, values.size());
+	}
+
+	@Test
+	public void unlimitedByDefault() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		Assert.assertSame(JsonReader.Limits.UNLIMITED, json.limits);
+		byte[] input = nested(200).getBytes("UTF-8");
+		Assert.assertNotNull(json.deserialize(Map.class, input, input.length));
+	}
+
+	@Test
+	public void invalidLimits() {
+		try {
+			new JsonReader.Limits(0, 1, 1, 1);
+			Assert.fail("Expecting exception");
+		} catch (IllegalArgumentException ignore) {
+		}
+	}
+}
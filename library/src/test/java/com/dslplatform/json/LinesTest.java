@@ -0,0 +1,138 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+public class LinesTest {
+
+	private final DslJson<Object> json = new DslJson<Object>();
+
+	private static <T> List<T> toList(Iterator<T> iterator) {
+		List<T> result = new ArrayList<T>();
+		while (iterator.hasNext()) {
+			result.add(iterator.next());
+		}
+		return result;
+	}
+
+	private static final String INPUT = "{\"a\":1}\n\n  {\"a\":\"long value which doesn't fit into the buffer\"}\r\nnull\n \t\r\n{\"a\":[1,2]}";
+
+	@Test
+	public void readFromStream() throws IOException {
+		for (int size = 1; size < 20; size++) {
+			InputStream is = new ByteArrayInputStream(INPUT.getBytes("UTF-8"));
+			List<Map> result = toList(json.iterateOverLines(Map.class, is, new byte[size], false));
+			Assert.assertEquals(4, result.size());
+			Assert.assertEquals(1L, result.get(0).get("a"));
+			Assert.assertEquals("long value which doesn't fit into the buffer", result.get(1).get("a"));
+			Assert.assertNull(result.get(2));
+			Assert.assertEquals(Arrays.asList(1L, 2L), result.get(3).get("a"));
+		}
+	}
+
+	@Test
+	public void readFromBytes() throws IOException {
+		byte[] input = (INPUT + "\n").getBytes("UTF-8");
+		List<Map> result = toList(json.iterateOverLines(Map.class, input, input.length, false));
+		Assert.assertEquals(4, result.size());
+		Assert.assertEquals(Arrays.asList(1L, 2L), result.get(3).get("a"));
+		Assert.assertFalse(json.iterateOverLines(Map.class, new byte[0], 0, false).hasNext());
+	}
+
+	@Test
+	public void readFromFile() throws IOException {
+		File file = File.createTempFile("dsl-json", ".ndjson");
+		file.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(file);
+		try {
+			for (int i = 0; i < 10000; i++) {
+				fos.write((i + "\n").getBytes());
+			}
+		} finally {
+			fos.close();
+		}
+		List<Long> result = toList(json.iterateOverLines(Long.class, file, false));
+		Assert.assertEquals(10000, result.size());
+		Assert.assertEquals(Long.valueOf(9999), result.get(9999));
+	}
+
+	@Test
+	public void invalidLineIsReportedAndIterationContinues() throws IOException {
+		byte[] input = "1\n2x\n3\n[4]\n5".getBytes();
+		Iterator<Long> iterator = json.iterateOverLines(Long.class, new ByteArrayInputStream(input), new byte[4], false);
+		Assert.assertEquals(Long.valueOf(1), iterator.next());
+		try {
+			iterator.next();
+			Assert.fail("Expecting error");
+		} catch (RuntimeException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("line 2"));
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("position: 2"));
+		}
+		Assert.assertEquals(Long.valueOf(3), iterator.next());
+		try {
+			iterator.next();
+			Assert.fail("Expecting error");
+		} catch (RuntimeException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("line 4"));
+		}
+		Assert.assertEquals(Long.valueOf(5), iterator.next());
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void invalidLinesCanBeSkipped() throws IOException {
+		byte[] input = "1\n2x\n{\"a\":\n3\n\"x\"\n4".getBytes();
+		List<Long> result = toList(json.iterateOverLines(Long.class, input, input.length, true));
+		Assert.assertEquals(Arrays.asList(1L, 3L, 4L), result);
+	}
+
+	@Test
+	public void writeLines() throws IOException {
+		List<Object> values = new ArrayList<Object>();
+		for (int i = 0; i < 5000; i++) {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			map.put("id", (long) i);
+			map.put("text", "line\n" + i);
+			values.add(i % 100 == 0 ? null : map);
+		}
+		values.add("str");
+		values.add(12L);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serializeLines(values.iterator(), os);
+		String output = os.toString("UTF-8");
+		Assert.assertTrue(output.startsWith("null\n{\"id\":1,\"text\":\"line\\n1\"}\n"));
+		Assert.assertTrue(output.endsWith("\"str\"\n12\n"));
+		byte[] bytes = os.toByteArray();
+		json.registerReader(Object.class, new JsonReader.ReadObject<Object>() {
+			@Override
+			public Object read(JsonReader reader) throws IOException {
+				return ObjectConverter.deserializeObject(reader);
+			}
+		});
+		List<Object> result = toList(json.iterateOverLines(Object.class, bytes, bytes.length, false));
+		Assert.assertEquals(values.size(), result.size());
+	}
+
+	@Test
+	public void writeErrorsAreReported() {
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("disk full");
+			}
+		};
+		List<Long> values = new ArrayList<Long>();
+		for (long i = 0; i < 10000; i++) {
+			values.add(i);
+		}
+		try {
+			json.serializeLines(values.iterator(), failing);
+			Assert.fail("Expecting error");
+		} catch (IOException ex) {
+			Assert.assertEquals("disk full", ex.getMessage());
+		}
+	}
+}
@@ -128,6 +128,71 @@ public class NumberConverterTest {
 		}
 	}
 
+	@Test
+	public void shortestDoubleRoundtrip() throws IOException {
+		final JsonWriter sw = new JsonWriter(40, null);
+		final Random rnd = new Random(1337);
+		for (int i = 0; i < 1000000; i++) {
+			final double value = Double.longBitsToDouble(rnd.nextLong());
+			if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+			sw.reset();
+			NumberConverter.serialize(value, sw);
+			final String result = sw.toString();
+			Assert.assertEquals(value, Double.parseDouble(result), 0);
+			Assert.assertTrue(result.length() <= Double.toString(value).length());
+		}
+	}
+
+	@Test
+	public void shortestFloatRoundtrip() throws IOException {
+		final JsonWriter sw = new JsonWriter(40, null);
+		final Random rnd = new Random(1337);
+		for (int i = 0; i < 1000000; i++) {
+			final float value = Float.intBitsToFloat(rnd.nextInt());
+			if (Float.isNaN(value) || Float.isInfinite(value)) continue;
+			sw.reset();
+			NumberConverter.serialize(value, sw);
+			final String result = sw.toString();
+			Assert.assertEquals(value, Float.parseFloat(result), 0);
+			Assert.assertTrue(result.length() <= Float.toString(value).length());
+		}
+	}
+
+	@Test
+	public void doubleFormatting() {
+		final JsonWriter sw = new JsonWriter(null);
+		final double[] values = {0.0, -0.0, 1, -1, 100, 0.001, 0.0001, 1234567, 12345678, 0.1, 0.3, 1e23, 2e-3, 123.456,
+				Double.MIN_VALUE, Double.MAX_VALUE, Double.MIN_NORMAL, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+		final String[] expected = {"0.0", "-0.0", "1.0", "-1.0", "100.0", "0.001", "1.0E-4", "1234567.0", "1.2345678E7", "0.1", "0.3", "1.0E23", "0.002", "123.456",
+				"4.9E-324", "1.7976931348623157E308", "2.2250738585072014E-308", "\"NaN\"", "\"Infinity\"", "\"-Infinity\""};
+		for (int i = 0; i < values.length; i++) {
+			sw.reset();
+			NumberConverter.serialize(values[i], sw);
+			Assert.assertEquals(expected[i], sw.toString());
+		}
+		sw.reset();
+		NumberConverter.serialize(values, sw);
+		Assert.assertEquals("[0.0,-0.0,1.0,-1.0,100.0,0.001,1.0E-4,1234567.0,1.2345678E7,0.1,0.3,1.0E23,0.002,123.456," +
+				"4.9E-324,1.7976931348623157E308,2.2250738585072014E-308,\"NaN\",\"Infinity\",\"-Infinity\"]", sw.toString());
+	}
+
+	@Test
+	public void floatFormatting() {
+		final JsonWriter sw = new JsonWriter(null);
+		final float[] values = {0.0f, -0.0f, 1, 0.1f, 1.1f, 16777216f, 1e7f, 0.001f,
+				Float.MIN_VALUE, Float.MAX_VALUE, Float.MIN_NORMAL, Float.NaN};
+		final String[] expected = {"0.0", "-0.0", "1.0", "0.1", "1.1", "1.6777216E7", "1.0E7", "0.001",
+				"1.4E-45", "3.4028235E38", "1.1754944E-38", "\"NaN\""};
+		for (int i = 0; i < values.length; i++) {
+			sw.reset();
+			NumberConverter.serialize(values[i], sw);
+			Assert.assertEquals(expected[i], sw.toString());
+		}
+		sw.reset();
+		NumberConverter.serializeNullable(Float.valueOf(2.5f), sw);
+		Assert.assertEquals("2.5", sw.toString());
+	}
+
 	@Test
 	public void testSerialization() {
 		// setup
@@ -384,6 +449,83 @@ public class NumberConverterTest {
 		Assert.assertArrayEquals(input, numbers, 0);
 	}
 
+	private static double parseDouble(final String input) throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(input.getBytes("UTF-8"), null);
+		reader.getNextToken();
+		return NumberConverter.deserializeDouble(reader);
+	}
+
+	private static float parseFloat(final String input) throws IOException {
+		final JsonReader<Object> reader = new JsonReader<Object>(input.getBytes("UTF-8"), null);
+		reader.getNextToken();
+		return NumberConverter.deserializeFloat(reader);
+	}
+
+	@Test
+	public void exactDoubleParsing() throws IOException {
+		final Random rnd = new Random(1337);
+		for (int i = 0; i < 100000; i++) {
+			final double value = Double.longBitsToDouble(rnd.nextLong() & 0x7FFFFFFFFFFFFFFFL);
+			if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+			final String plain = Double.toString(value);
+			Assert.assertEquals(value, parseDouble(plain), 0);
+			Assert.assertEquals(-value, parseDouble("-" + plain), 0);
+			//halfway between two doubles must round to even
+			final BigDecimal exact = new BigDecimal(value);
+			final BigDecimal half = new BigDecimal(Math.nextUp(value)).subtract(exact).divide(BigDecimal.valueOf(2));
+			final String halfway = exact.add(half).toString();
+			Assert.assertEquals(Double.parseDouble(halfway), parseDouble(halfway), 0);
+		}
+	}
+
+	@Test
+	public void doubleParsingEdgeCases() throws IOException {
+		final String[] inputs = {
+				"0", "-0", "1e308", "1.7976931348623157e308", "1.7976931348623159e308", "4.9e-324", "2.4703282292062327e-324",
+				"2.4703282292062328e-324", "1e-400", "1E400", "9007199254740993", "9007199254740992.5", "0.1", "0.30000000000000004",
+				"123456789012345678901234567890", "2.2250738585072011e-308", "1.00000000000000011102230246251565404236316680908203125",
+				"1.00000000000000011102230246251565404236316680908203124", "1.00000000000000011102230246251565404236316680908203126",
+				"0.000000000000000000000000000000000000000000000000000000000000000000000000000000000001234567890123456789e+100",
+				"  12.5e-1  ", "+1.5", ".5", "5."
+		};
+		for (final String input : inputs) {
+			Assert.assertEquals(input, Double.parseDouble(input), parseDouble(input), 0);
+			Assert.assertEquals(input, Float.parseFloat(input), parseFloat(input), 0);
+			Assert.assertEquals(input, Double.parseDouble(input), parseDouble("\"" + input.trim() + "\""), 0);
+		}
+		Assert.assertTrue(Double.isNaN(parseDouble("\"NaN\"")));
+		Assert.assertEquals(Double.POSITIVE_INFINITY, parseDouble("\"Infinity\""), 0);
+		Assert.assertEquals(Float.NEGATIVE_INFINITY, parseFloat("\"-Infinity\""), 0);
+		Assert.assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(parseDouble("-0.0")));
+	}
+
+	@Test
+	public void invalidDoubleParsing() {
+		final String[] inputs = {"-", ".", "1e", "1e+", "1.2.3", "1-2", "--1", "1x", "\"Inf\"", "\"\""};
+		for (final String input : inputs) {
+			try {
+				parseDouble(input);
+				Assert.fail("Expecting failure for " + input);
+			} catch (IOException ex) {
+				Assert.assertTrue(ex.getMessage().contains("Error parsing float number"));
+			}
+		}
+	}
+
+	@Test
+	public void longMantissaInArray() throws IOException {
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 100; i++) {
+			sb.append('3');
+		}
+		sb.append("e-98,").append("0.").append(sb.substring(1, 90)).append(",1]");
+		final JsonReader<Object> reader = new JsonReader<Object>(sb.toString().getBytes("UTF-8"), null);
+		reader.getNextToken();
+		reader.getNextToken();
+		final double[] result = NumberConverter.deserializeDoubleArray(reader);
+		Assert.assertArrayEquals(new double[]{100.0 / 3, 1.0 / 3, 1}, result, 0);
+	}
+
 	@Test
 	public void shortWhitespaceGuard() throws IOException {
 		String input = "1234  ";
@@ -0,0 +1,314 @@
+package com.dslplatform.json;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelTest {
+
+	private static final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final DslJson<Object> json = new DslJson<Object>();
+
+	// small chunks, so the parallel path is used regardless of the number of processors
+	private <T> List<T> parallel(Class<T> manifest, byte[] input) throws IOException {
+		return json.deserializeListParallel(manifest, input, input.length, executor, 4096);
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		executor.shutdown();
+	}
+
+	private static byte[] longs(int size) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) sb.append(i % 100 == 0 ? ",\n  " : ",");
+			sb.append(i % 1000 == 7 ? "null" : Long.toString(i * 31L));
+		}
+		return sb.append("]").toString().getBytes();
+	}
+
+	private static byte[] documents(int size) throws IOException {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) sb.append(',');
+			sb.append("{\"id\":").append(i)
+					.append(",\"name\":\"x,]}\\\"{[\\\\").append(i).append("\"")
+					.append(",\"tags\":[\"a\",\"b,c\",[1,{\"d\":[]}]]}");
+		}
+		return sb.append("]").toString().getBytes("UTF-8");
+	}
+
+	@Test
+	public void splitFindsWholeElements() {
+		byte[] input = " [1, \"a,\\\"]\" , {\"b\":[2,3]},[4,5] ,null] ".getBytes();
+		int[] chunks = ArraySplitter.split(input, input.length, 1);
+		Assert.assertNotNull(chunks);
+		Assert.assertEquals(10, chunks.length);
+		int total = 0;
+		for (int i = 1; i < chunks.length; i += 2) {
+			Assert.assertEquals(1, chunks[i]);
+			total += chunks[i];
+		}
+		Assert.assertEquals(5, total);
+		Assert.assertEquals(',', input[chunks[2] - 1]);
+		Assert.assertEquals(',', input[chunks[8] - 1]);
+		Assert.assertArrayEquals(new int[]{2, 5}, ArraySplitter.split(input, input.length, 1000));
+	}
+
+	@Test
+	public void splitRejectsInvalidStructure() {
+		for (String invalid : new String[]{"", "{}", "[]", "[1,]", "[,1]", "[1,2", "[1}", "[\"abc]", "[[1]"}) {
+			byte[] input = invalid.getBytes();
+			Assert.assertNull(invalid, ArraySplitter.split(input, input.length, 1));
+		}
+	}
+
+	@Test
+	public void chunksCanBeDeserializedOutOfOrder() throws IOException {
+		byte[] input = longs(20000);
+		DslJson.ArrayChunks<Long> chunks = json.splitArray(Long.class, input, input.length, 4096);
+		Assert.assertNotNull(chunks);
+		Assert.assertTrue(chunks.count() > 1);
+		List<List<Long>> parts = new ArrayList<List<Long>>();
+		for (int i = 0; i < chunks.count(); i++) {
+			parts.add(null);
+		}
+		for (int i = chunks.count() - 1; i >= 0; i--) {
+			List<Long> part = chunks.deserialize(i);
+			Assert.assertEquals(chunks.elements(i), part.size());
+			parts.set(i, part);
+		}
+		List<Long> result = new ArrayList<Long>();
+		for (List<Long> part : parts) {
+			result.addAll(part);
+		}
+		Assert.assertEquals(json.deserializeList(Long.class, input, input.length), result);
+	}
+
+	@Test
+	public void splitArrayRequiresReader() throws IOException {
+		byte[] input = "[1,2]".getBytes();
+		Assert.assertNull(json.splitArray(Object.class, input, input.length, 1));
+		Assert.assertNull(json.splitArray(Long.class, "[]".getBytes(), 2, 1));
+	}
+
+	@Test
+	public void longsInOrder() throws IOException {
+		byte[] input = longs(200000);
+		List<Long> expected = json.deserializeList(Long.class, input, input.length);
+		List<Long> result = parallel(Long.class, input);
+		Assert.assertEquals(200000, result.size());
+		Assert.assertEquals(expected, result);
+	}
+
+	@Test
+	public void mapsWithTrickyStrings() throws IOException {
+		byte[] input = documents(20000);
+		List<Map> result = parallel(Map.class, input);
+		Assert.assertEquals(20000, result.size());
+		for (int i = 0; i < result.size(); i++) {
+			Map map = result.get(i);
+			Assert.assertEquals((long) i, map.get("id"));
+			Assert.assertEquals("x,]}\"{[\\" + i, map.get("name"));
+		}
+	}
+
+	@Test
+	public void smallInputIsProcessedSequentially() throws IOException {
+		byte[] input = "[1,2,null]".getBytes();
+		List<Long> result = json.deserializeListParallel(Long.class, input, input.length, executor);
+		List<Long> expected = new ArrayList<Long>();
+		expected.add(1L);
+		expected.add(2L);
+		expected.add(null);
+		Assert.assertEquals(expected, result);
+		Assert.assertEquals(expected, json.deserializeListParallel(Long.class, input, input.length, executor, 1));
+		Assert.assertNull(json.deserializeListParallel(Long.class, "null".getBytes(), 4, executor));
+	}
+
+	@Test
+	public void errorInLaterChunkHasAbsolutePosition() throws IOException {
+		byte[] valid = longs(200000);
+		String text = new String(valid);
+		int position = text.lastIndexOf(",1234") + 1;
+		byte[] input = (text.substring(0, position) + "1x34" + text.substring(position + 4)).getBytes();
+		try {
+			parallel(Long.class, input);
+			Assert.fail("Expecting error");
+		} catch (IOException ex) {
+			String expected;
+			try {
+				json.deserializeList(Long.class, input, input.length);
+				Assert.fail("Expecting error");
+				return;
+			} catch (IOException seq) {
+				expected = seq.getMessage();
+			}
+			Assert.assertEquals(expected, ex.getMessage());
+		}
+	}
+
+	@Test
+	public void malformedArrayIsReported() throws IOException {
+		byte[] valid = longs(200000);
+		byte[] input = new byte[valid.length - 1];
+		System.arraycopy(valid, 0, input, 0, input.length);
+		try {
+			parallel(Long.class, input);
+			Assert.fail("Expecting error");
+		} catch (IOException ignore) {
+		}
+	}
+
+	private static List<Object> values(int size) {
+		List<Object> result = new ArrayList<Object>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(i % 13 == 0 ? null : "value \"" + i + "\"");
+		}
+		return result;
+	}
+
+	@Test
+	public void serializeKeepsOrder() throws IOException {
+		List<Object> list = values(10000);
+		JsonWriter expected = new JsonWriter(null);
+		json.serialize(expected, list);
+		JsonWriter writer = new JsonWriter(null);
+		json.serializeParallel(writer, list, executor, 37, 3);
+		Assert.assertEquals(expected.toString(), writer.toString());
+	}
+
+	@Test
+	public void serializeIntoStream() throws IOException {
+		List<Object> list = values(10000);
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		json.serialize(list, expected);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		JsonWriter writer = json.newWriter(os, 64);
+		json.serializeParallel(writer, list, executor, 100, 8);
+		writer.flush();
+		Assert.assertEquals(expected.toString(), os.toString());
+		os.reset();
+		json.serializeParallel(list, os, executor);
+		Assert.assertEquals(expected.toString(), os.toString());
+	}
+
+	@Test
+	public void serializeMixedElements() throws IOException {
+		List<Object> list = new LinkedList<Object>();
+		StringBuilder expected = new StringBuilder("[");
+		for (int i = 0; i < 100; i++) {
+			if (i > 0) expected.append(',');
+			if (i % 2 == 0) {
+				list.add((long) i);
+				expected.append(i);
+			} else {
+				list.add("s" + i);
+				expected.append("\"s").append(i).append('"');
+			}
+		}
+		JsonWriter writer = new JsonWriter(null);
+		json.serializeParallel(writer, list, executor, 7, 2);
+		Assert.assertEquals(expected.append(']').toString(), writer.toString());
+	}
+
+	@Test
+	public void serializeReportsMissingWriter() throws IOException {
+		List<Object> list = new ArrayList<Object>(values(100));
+		list.add(50, new Object());
+		try {
+			json.serializeParallel(new JsonWriter(null), list, executor, 10, 2);
+			Assert.fail("Expecting error");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("java.lang.Object"));
+		}
+	}
+
+	private static class Marker {
+	}
+
+	private static DslJson<Object> recordingWriters(final Set<JsonWriter> used, final AtomicInteger running, final CountDownLatch block) {
+		DslJson<Object> dslJson = new DslJson<Object>();
+		dslJson.registerWriter(Marker.class, new JsonWriter.WriteObject<Marker>() {
+			@Override
+			public void write(JsonWriter writer, Marker value) {
+				used.add(writer);
+				running.incrementAndGet();
+				try {
+					block.await();
+				} catch (InterruptedException ex) {
+					throw new RuntimeException(ex);
+				} finally {
+					running.decrementAndGet();
+				}
+				writer.writeNull();
+			}
+		});
+		return dslJson;
+	}
+
+	@Test
+	public void chunkWritersAreReused() throws IOException {
+		Set<JsonWriter> used = Collections.newSetFromMap(new ConcurrentHashMap<JsonWriter, Boolean>());
+		DslJson<Object> dslJson = recordingWriters(used, new AtomicInteger(), new CountDownLatch(0));
+		List<Object> list = new ArrayList<Object>();
+		for (int i = 0; i < 200; i++) {
+			list.add(new Marker());
+		}
+		JsonWriter writer = new JsonWriter(null);
+		dslJson.serializeParallel(writer, list, executor, 10, 2);
+		Assert.assertEquals(200 * 4 + 199 + 2, writer.size());
+		Assert.assertTrue(used.size() <= 2);
+		// chunk writers are returned to the pool slot of the calling thread
+		Assert.assertTrue(used.contains(dslJson.borrowWriter()));
+	}
+
+	@Test
+	public void runningChunksFinishBeforeWritersAreReleased() throws InterruptedException {
+		Set<JsonWriter> used = Collections.newSetFromMap(new ConcurrentHashMap<JsonWriter, Boolean>());
+		AtomicInteger running = new AtomicInteger();
+		final CountDownLatch block = new CountDownLatch(1);
+		DslJson<Object> dslJson = recordingWriters(used, running, block);
+		List<Object> list = new ArrayList<Object>();
+		list.add(1L);
+		list.add(new Object());
+		for (int i = 0; i < 50; i++) {
+			list.add(new Marker());
+		}
+		Thread release = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException ignore) {
+				}
+				block.countDown();
+			}
+		});
+		release.start();
+		try {
+			dslJson.serializeParallel(new JsonWriter(null), list, executor, 10, 3);
+			Assert.fail("Expecting error");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("java.lang.Object"));
+		}
+		// writers of the chunks which were already running are reused only after they complete
+		Assert.assertEquals(0, running.get());
+		release.join();
+	}
+}
@@ -0,0 +1,142 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class PoolingTest {
+
+	private static byte[] bytes(String json) {
+		return json.getBytes();
+	}
+
+	@Test
+	public void writerIsReused() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		JsonWriter writer = json.borrowWriter();
+		json.releaseWriter(writer);
+		Assert.assertSame(writer, json.borrowWriter());
+	}
+
+	@Test
+	public void largeWriterIsNotKept() throws IOException {
+		DslJson<Object> json = new DslJson<Object>(new DslJson.Settings<Object>().includeServiceLoader().withMaxPooledBufferSize(1024));
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			sb.append('x');
+		}
+		JsonWriter writer = json.borrowWriter();
+		writer.writeString(sb.toString());
+		json.releaseWriter(writer);
+		Assert.assertNotSame(writer, json.borrowWriter());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativePoolSizeIsRejected() {
+		new DslJson.Settings<Object>().withMaxPooledBufferSize(-1);
+	}
+
+	@Test
+	public void settingsDefaults() {
+		DslJson<Object> json = new DslJson<Object>(new DslJson.Settings<Object>());
+		Assert.assertEquals(DslJson.DEFAULT_MAX_POOLED_BUFFER_SIZE, json.maxPooledBufferSize);
+		Assert.assertEquals(JsonReader.ValidationLevel.FULL, json.validationLevel);
+		Assert.assertSame(JsonReader.Limits.UNLIMITED, json.limits);
+		Assert.assertNotNull(json.keyCache);
+	}
+
+	@Test
+	public void poolingCanBeDisabled() throws IOException {
+		DslJson<Object> json = new DslJson<Object>(new DslJson.Settings<Object>().includeServiceLoader().withMaxPooledBufferSize(0));
+		JsonWriter writer = json.borrowWriter();
+		json.releaseWriter(writer);
+		Assert.assertNotSame(writer, json.borrowWriter());
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(123, os);
+		Assert.assertEquals("123", os.toString());
+		Assert.assertEquals(Integer.valueOf(5), json.deserialize(Integer.class, bytes("5"), 1));
+	}
+
+	@Test
+	public void readerStateIsResetBetweenCalls() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		byte[] first = bytes("{\"a\":\"some longer string value\",\"b\":[1,2,3]}");
+		byte[] second = bytes("{\"c\":1}");
+		Map map1 = json.deserialize(Map.class, first, first.length);
+		Map map2 = json.deserialize(Map.class, second, second.length);
+		Assert.assertEquals("some longer string value", map1.get("a"));
+		Assert.assertEquals(1, map2.size());
+		Assert.assertEquals(1L, map2.get("c"));
+		List<Long> list = json.deserializeList(Long.class, bytes("[1,2,3]"), 7);
+		Assert.assertEquals(3, list.size());
+	}
+
+	@Test
+	public void readerIsUsableAfterFailure() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		byte[] invalid = bytes("{\"a\":tru}");
+		try {
+			json.deserialize(Map.class, invalid, invalid.length);
+			Assert.fail("Expecting error");
+		} catch (IOException ignore) {
+		}
+		byte[] valid = bytes("{\"a\":true}");
+		Map map = json.deserialize(Map.class, valid, valid.length);
+		Assert.assertEquals(true, map.get("a"));
+	}
+
+	@Test
+	public void largeStringsDontPinReader() throws IOException {
+		DslJson<Object> json = new DslJson<Object>(new DslJson.Settings<Object>().includeServiceLoader().withMaxPooledBufferSize(1024));
+		StringBuilder sb = new StringBuilder("\"");
+		for (int i = 0; i < 5000; i++) {
+			sb.append('x');
+		}
+		byte[] input = bytes(sb.append('"').toString());
+		Assert.assertEquals(5000, json.deserialize(String.class, input, input.length).length());
+		JsonReader<Object> reader = json.borrowReader(new byte[0], 0);
+		Assert.assertTrue(reader.chars.length <= 512);
+	}
+
+	static class Wrapper {
+		Integer value;
+	}
+
+	@Test
+	public void reentrantCallsUseSeparateInstances() throws IOException {
+		final DslJson<Object> json = new DslJson<Object>();
+		json.registerReader(Wrapper.class, new JsonReader.ReadObject<Wrapper>() {
+			@Override
+			public Wrapper read(JsonReader reader) throws IOException {
+				String nested = reader.readString();
+				byte[] input = nested.getBytes("UTF-8");
+				Wrapper wrapper = new Wrapper();
+				wrapper.value = json.deserialize(Integer.class, input, input.length);
+				return wrapper;
+			}
+		});
+		json.registerWriter(Wrapper.class, new JsonWriter.WriteObject<Wrapper>() {
+			@Override
+			public void write(JsonWriter writer, Wrapper value) {
+				ByteArrayOutputStream os = new ByteArrayOutputStream();
+				try {
+					json.serialize(value.value, os);
+				} catch (IOException ex) {
+					throw new RuntimeException(ex);
+				}
+				writer.writeString(os.toString());
+			}
+		});
+		byte[] input = bytes("[\"1\",\"22\",\"333\"]");
+		List<Wrapper> result = json.deserializeList(Wrapper.class, input, input.length);
+		Assert.assertEquals(3, result.size());
+		Assert.assertEquals(Integer.valueOf(22), result.get(1).value);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(result, os);
+		Assert.assertEquals("[\"1\",\"22\",\"333\"]", os.toString());
+	}
+}
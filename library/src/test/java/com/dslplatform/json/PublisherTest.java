@@ -0,0 +1,188 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class PublisherTest {
+
+	private static final Executor DIRECT = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private final DslJson<Object> json = new DslJson<Object>();
+
+	private static class Recorder implements JsonPublisher.Subscriber<Long> {
+		final List<Long> items = new ArrayList<Long>();
+		final CountDownLatch finished = new CountDownLatch(1);
+		JsonPublisher.Subscription subscription;
+		Throwable error;
+		boolean completed;
+
+		@Override
+		public void onSubscribe(JsonPublisher.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(Long item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+			finished.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+			finished.countDown();
+		}
+	}
+
+	private static ByteArrayInputStream longs(int size) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) sb.append(',');
+			sb.append(i);
+		}
+		return new ByteArrayInputStream(sb.append(']').toString().getBytes());
+	}
+
+	@Test
+	public void respectsDemand() throws IOException {
+		Recorder recorder = new Recorder();
+		json.publishOver(Long.class, longs(1000), new byte[64], DIRECT).subscribe(recorder);
+		Assert.assertEquals(0, recorder.items.size());
+		recorder.subscription.request(10);
+		Assert.assertEquals(10, recorder.items.size());
+		recorder.subscription.request(5);
+		Assert.assertEquals(15, recorder.items.size());
+		Assert.assertEquals(Long.valueOf(14), recorder.items.get(14));
+		Assert.assertFalse(recorder.completed);
+		recorder.subscription.request(Long.MAX_VALUE);
+		recorder.subscription.request(Long.MAX_VALUE);
+		Assert.assertEquals(1000, recorder.items.size());
+		Assert.assertTrue(recorder.completed);
+		Assert.assertNull(recorder.error);
+	}
+
+	@Test
+	public void requestFromOnNextDoesntRecurse() throws InterruptedException {
+		final Recorder recorder = new Recorder() {
+			@Override
+			public void onNext(Long item) {
+				super.onNext(item);
+				subscription.request(1);
+			}
+		};
+		json.publishOver(Long.class, longs(100000), new byte[512], DIRECT).subscribe(recorder);
+		recorder.subscription.request(1);
+		Assert.assertTrue(recorder.finished.await(1, TimeUnit.SECONDS));
+		Assert.assertEquals(100000, recorder.items.size());
+		Assert.assertTrue(recorder.completed);
+	}
+
+	@Test
+	public void parsesOnExecutor() throws InterruptedException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final List<Thread> threads = new ArrayList<Thread>();
+			Recorder recorder = new Recorder() {
+				@Override
+				public void onNext(Long item) {
+					super.onNext(item);
+					threads.add(Thread.currentThread());
+				}
+			};
+			json.publishOver(Long.class, longs(100), new byte[64], executor).subscribe(recorder);
+			recorder.subscription.request(1000);
+			Assert.assertTrue(recorder.finished.await(5, TimeUnit.SECONDS));
+			Assert.assertEquals(100, recorder.items.size());
+			Assert.assertNotSame(Thread.currentThread(), threads.get(0));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void errorsAreSignaled() {
+		Recorder recorder = new Recorder();
+		byte[] input = "[1,2,x]".getBytes();
+		json.publishOver(Long.class, new ByteArrayInputStream(input), new byte[64], DIRECT).subscribe(recorder);
+		recorder.subscription.request(10);
+		Assert.assertEquals(2, recorder.items.size());
+		Assert.assertTrue(recorder.error instanceof IOException);
+		Assert.assertFalse(recorder.completed);
+
+		recorder = new Recorder();
+		json.publishOver(Long.class, new ByteArrayInputStream("{}".getBytes()), new byte[64], DIRECT).subscribe(recorder);
+		recorder.subscription.request(1);
+		Assert.assertTrue(recorder.error instanceof IOException);
+	}
+
+	@Test
+	public void invalidRequestIsAnError() {
+		Recorder recorder = new Recorder();
+		json.publishOver(Long.class, longs(10), new byte[64], DIRECT).subscribe(recorder);
+		recorder.subscription.request(0);
+		Assert.assertTrue(recorder.error instanceof IllegalArgumentException);
+		recorder.subscription.request(1);
+		Assert.assertEquals(0, recorder.items.size());
+	}
+
+	@Test
+	public void cancelStopsEmission() {
+		final Recorder recorder = new Recorder() {
+			@Override
+			public void onNext(Long item) {
+				super.onNext(item);
+				if (items.size() == 3) {
+					subscription.cancel();
+				}
+			}
+		};
+		json.publishOver(Long.class, longs(10), new byte[64], DIRECT).subscribe(recorder);
+		recorder.subscription.request(100);
+		Assert.assertEquals(3, recorder.items.size());
+		Assert.assertFalse(recorder.completed);
+		Assert.assertNull(recorder.error);
+	}
+
+	@Test
+	public void singleSubscriber() {
+		JsonPublisher<Long> publisher = json.publishOver(Long.class, longs(10), new byte[64], DIRECT);
+		Recorder first = new Recorder();
+		Recorder second = new Recorder();
+		publisher.subscribe(first);
+		publisher.subscribe(second);
+		Assert.assertTrue(second.error instanceof IllegalStateException);
+		first.subscription.request(100);
+		Assert.assertEquals(10, first.items.size());
+		Assert.assertTrue(first.completed);
+	}
+
+	@Test
+	public void nullElementsAreSkipped() {
+		Recorder recorder = new Recorder();
+		byte[] input = "[1,null,2]".getBytes();
+		json.publishOver(Long.class, new ByteArrayInputStream(input), new byte[64], DIRECT).subscribe(recorder);
+		recorder.subscription.request(2);
+		Assert.assertEquals(2, recorder.items.size());
+		Assert.assertTrue(recorder.completed);
+	}
+}
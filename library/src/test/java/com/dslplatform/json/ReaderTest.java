@@ -3,6 +3,7 @@ package com.dslplatform.json;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 public class ReaderTest {
@@ -50,4 +51,216 @@ public class ReaderTest {
 		JsonReader.ReadObject<?> reader3 = dslJson.tryFindReader(Interface.class);
 		Assert.assertNotNull(reader3);
 	}
+
+	@Test
+	public void prettyPrintedWhitespace() throws IOException {
+		final String json = "{\n\t\t\"first\"  :   \"abc\" ,\r\n                  \"second\":\n\t\t\t\t\t\t\t\t\t\t[ 1,\u2003  2]\n\n\n}";
+		final JsonReader<Object> jr = new JsonReader<Object>(json.getBytes("UTF-8"), null);
+		Assert.assertEquals('{', jr.getNextToken());
+		Assert.assertEquals('"', jr.getNextToken());
+		jr.fillName();
+		Assert.assertTrue(jr.wasLastName("first"));
+		jr.getNextToken();
+		Assert.assertEquals("abc", jr.readString());
+		Assert.assertEquals(',', jr.getNextToken());
+		Assert.assertEquals('"', jr.getNextToken());
+		jr.fillName();
+		Assert.assertTrue(jr.wasLastName("second"));
+		Assert.assertEquals('[', jr.getNextToken());
+		jr.getNextToken();
+		Assert.assertEquals(1, NumberConverter.deserializeInt(jr));
+		Assert.assertEquals(',', jr.getNextToken());
+		jr.getNextToken();
+		Assert.assertEquals(2, NumberConverter.deserializeInt(jr));
+		Assert.assertEquals(']', jr.getNextToken());
+		Assert.assertEquals('}', jr.getNextToken());
+	}
+
+	@Test
+	public void stringsAcrossWordBoundaries() throws IOException {
+		final String[] values = {"", "a", "abcdefg", "abcdefgh", "abcdefghi", "abcdefghijklmnopq", "abcdefgh\"ijk", "abcdefg\\", "abcdefghčžš", "abcdefghijklmno\u1234"};
+		for (final String value : values) {
+			for (int padding = 0; padding < 9; padding++) {
+				final StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < padding; i++) {
+					sb.append(' ');
+				}
+				final JsonWriter sw = new JsonWriter(null);
+				sw.writeString(value);
+				//names are hashed up to the first quote without unescaping
+				final String name = value.replace("\\", "").replace("\"", "");
+				sb.append(sw.toString()).append(" , \"").append(name).append("\":1");
+				final JsonReader<Object> jr = new JsonReader<Object>(sb.toString().getBytes("UTF-8"), null);
+				jr.getNextToken();
+				Assert.assertEquals(value, jr.readString());
+				Assert.assertEquals(',', jr.getNextToken());
+				jr.getNextToken();
+				final int hash = jr.calcHash();
+				Assert.assertEquals(name, jr.getLastName());
+				long fnv = 0x811c9dc5;
+				for (final byte b : name.getBytes("UTF-8")) {
+					fnv ^= b;
+					fnv *= 0x1000193;
+				}
+				Assert.assertEquals((int) fnv, hash);
+			}
+		}
+	}
+
+	@Test
+	public void skipStringWithEscapes() throws IOException {
+		final String json = "{\"a\":\"abcdefghijk\\\\\",\"b\":\"x\\\"yzabcdefghij\\\\\\\"\",\"c\":5}";
+		final JsonReader<Object> jr = new JsonReader<Object>(json.getBytes("UTF-8"), null);
+		jr.getNextToken();
+		jr.getNextToken();
+		jr.fillName();
+		jr.getNextToken();
+		Assert.assertEquals(',', jr.skip());
+		jr.getNextToken();
+		jr.fillName();
+		jr.getNextToken();
+		Assert.assertEquals(',', jr.skip());
+		jr.getNextToken();
+		jr.fillName();
+		Assert.assertTrue(jr.wasLastName("c"));
+		jr.getNextToken();
+		Assert.assertEquals(5, NumberConverter.deserializeInt(jr));
+	}
+
+	@Test
+	public void structuralSkip() throws IOException {
+		final String json = "{\"a\":{\"x\":[1,{\"y\":\"]}\\\\\"},[[]]],\"s\":\"\\\"{[\"}, \"b\" : [{\"z\":null}, \"\\\\\"] ,\"c\":5}";
+		for (JsonReader.ValidationLevel level : JsonReader.ValidationLevel.values()) {
+			final JsonReader<Object> jr = new JsonReader<Object>(json.getBytes("UTF-8"), null);
+			jr.setValidationLevel(level);
+			jr.getNextToken();
+			jr.getNextToken();
+			jr.fillName();
+			jr.getNextToken();
+			Assert.assertEquals(',', jr.skip());
+			jr.getNextToken();
+			jr.fillName();
+			jr.getNextToken();
+			Assert.assertEquals(',', jr.skip());
+			jr.getNextToken();
+			jr.fillName();
+			Assert.assertTrue(jr.wasLastName("c"));
+			jr.getNextToken();
+			Assert.assertEquals(5, NumberConverter.deserializeInt(jr));
+		}
+	}
+
+	@Test
+	public void structuralSkipDoesNotValidateTokens() throws IOException {
+		final String json = "{\"a\":[tru, 1 2, {\"b\" null}],\"c\":5}";
+		final JsonReader<Object> full = new JsonReader<Object>(json.getBytes("UTF-8"), null);
+		full.getNextToken();
+		full.getNextToken();
+		full.fillName();
+		full.getNextToken();
+		try {
+			full.skip();
+			Assert.fail("Expecting exception");
+		} catch (IOException ignore) {
+		}
+		final JsonReader<Object> structure = new JsonReader<Object>(json.getBytes("UTF-8"), null);
+		structure.setValidationLevel(JsonReader.ValidationLevel.STRUCTURE);
+		structure.getNextToken();
+		structure.getNextToken();
+		structure.fillName();
+		structure.getNextToken();
+		Assert.assertEquals(',', structure.skip());
+	}
+
+	@Test
+	public void structuralSkipUnterminated() throws IOException {
+		final JsonReader<Object> jr = new JsonReader<Object>("{\"a\":[[1,\"]\"]".getBytes("UTF-8"), null);
+		jr.setValidationLevel(JsonReader.ValidationLevel.STRUCTURE);
+		jr.getNextToken();
+		jr.getNextToken();
+		jr.fillName();
+		jr.getNextToken();
+		try {
+			jr.skip();
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertEquals("Unexpected end of JSON input", ex.getMessage());
+		}
+	}
+
+	@Test
+	public void structuralSkipInStream() throws IOException {
+		final StringBuilder sb = new StringBuilder("[{\"unknown\":[");
+		for (int i = 0; i < 1000; i++) {
+			sb.append("{\"v\":\"value ").append(i).append("\"},");
+		}
+		sb.append("{}]},{}]");
+		final DslJson<Object> dslJson = new DslJson<Object>(new DslJson.Settings<Object>().withMaxPooledBufferSize(0).withValidationLevel(JsonReader.ValidationLevel.STRUCTURE));
+		final JsonStreamReader<Object> jr = dslJson.newReader(new java.io.ByteArrayInputStream(sb.toString().getBytes("UTF-8")), new byte[64]);
+		Assert.assertEquals(JsonReader.ValidationLevel.STRUCTURE, jr.getValidationLevel());
+		Assert.assertEquals('[', jr.getNextToken());
+		Assert.assertEquals('{', jr.getNextToken());
+		Assert.assertEquals('"', jr.getNextToken());
+		jr.fillName();
+		jr.getNextToken();
+		Assert.assertEquals('}', jr.skip());
+		Assert.assertEquals(',', jr.getNextToken());
+		Assert.assertEquals('{', jr.getNextToken());
+	}
+
+	private static String captureAfterSkip(JsonReader<Object> jr) throws IOException {
+		Assert.assertEquals('{', jr.getNextToken());
+		jr.startCapture();
+		Assert.assertEquals('"', jr.getNextToken());
+		jr.fillName();
+		jr.getNextToken();
+		while (jr.skip() == ',') {
+			jr.getNextToken();
+			jr.fillName();
+			jr.getNextToken();
+		}
+		Assert.assertEquals('}', jr.last());
+		return new String(jr.endCapture(), "UTF-8");
+	}
+
+	@Test
+	public void captureObject() throws IOException {
+		final String obj = "{\"a\":[1,2,{\"b\":\"}\"}],\"c\" : \"d\",\"$type\":\"x\"}";
+		final byte[] buf = (" [" + obj + ",1]").getBytes("UTF-8");
+		final JsonReader<Object> jr = new JsonReader<Object>(buf, null);
+		Assert.assertEquals('[', jr.getNextToken());
+		Assert.assertEquals(obj, captureAfterSkip(jr));
+		Assert.assertEquals(',', jr.getNextToken());
+	}
+
+	@Test
+	public void captureAcrossStreamRefills() throws IOException {
+		final StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < 200; i++) {
+			sb.append("\"p").append(i).append("\":\"value ").append(i).append("\",");
+		}
+		final String obj = sb.append("\"$type\":\"x\"}").toString();
+		final byte[] input = ("[" + obj + "]").getBytes("UTF-8");
+		final JsonStreamReader<Object> jr = new JsonStreamReader<Object>(new ByteArrayInputStream(input), new byte[64], null);
+		Assert.assertEquals('[', jr.getNextToken());
+		Assert.assertEquals(obj, captureAfterSkip(jr));
+		Assert.assertEquals(']', jr.getNextToken());
+	}
+
+	@Test
+	public void captureMustStartOnObject() throws IOException {
+		final JsonReader<Object> jr = new JsonReader<Object>("[1]".getBytes("UTF-8"), null);
+		jr.getNextToken();
+		try {
+			jr.startCapture();
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Expecting '{'"));
+		}
+		try {
+			jr.endCapture();
+			Assert.fail("Expecting exception");
+		} catch (IllegalStateException ignore) {
+		}
+	}
 }
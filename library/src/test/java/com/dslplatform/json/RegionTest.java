@@ -0,0 +1,76 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class RegionTest {
+
+	private final DslJson<Object> json = new DslJson<Object>();
+
+	private static final class Region {
+		final byte[] bytes;
+		final int offset;
+		final int size;
+
+		Region(String prefix, String value, String suffix) {
+			this.bytes = (prefix + value + suffix).getBytes();
+			this.offset = prefix.length();
+			this.size = value.length();
+		}
+	}
+
+	private <T> T deserialize(Class<T> manifest, Region region) throws IOException {
+		return json.deserialize(manifest, region.bytes, region.offset, region.size);
+	}
+
+	@Test
+	public void regionIsParsedInPlace() throws IOException {
+		Region input = new Region("[[", "{\"a\":1,\"b\":\"abc\"}", "}}");
+		byte[] before = input.bytes.clone();
+		Map map = deserialize(Map.class, input);
+		Assert.assertEquals(1L, map.get("a"));
+		Assert.assertEquals("abc", map.get("b"));
+		Assert.assertArrayEquals(before, input.bytes);
+	}
+
+	@Test
+	public void valueEndsAtRegionEnd() throws IOException {
+		Assert.assertEquals(Integer.valueOf(123), deserialize(Integer.class, new Region("9", "123", "456")));
+		Assert.assertEquals("abc", deserialize(String.class, new Region("", "\"abc\"", "def\"")));
+		int[] numbers = deserialize(int[].class, new Region("x", "[1,2,3]", "4]"));
+		Assert.assertArrayEquals(new int[]{1, 2, 3}, numbers);
+	}
+
+	@Test
+	public void unterminatedStringDoesntReadPastRegion() throws IOException {
+		try {
+			deserialize(String.class, new Region("", "\"abc", "\""));
+			Assert.fail("Expecting error");
+		} catch (IOException ignore) {
+		}
+	}
+
+	@Test
+	public void errorPositionIsRelativeToRegion() throws IOException {
+		try {
+			deserialize(Map.class, new Region("xxxxxxxxxx", "{\"a\":tru}", ""));
+			Assert.fail("Expecting error");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().endsWith("at: 6"));
+		}
+	}
+
+	@Test
+	public void emptyAndNullInput() throws IOException {
+		Assert.assertNull(deserialize(Map.class, new Region("[", "null", "]")));
+		Assert.assertEquals(0, deserialize(long[].class, new Region("[", "[]", "1]")).length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidRegion() throws IOException {
+		json.deserialize(Map.class, new byte[4], 2, 3);
+	}
+}
@@ -7,12 +7,94 @@ import org.junit.Test;
 import java.awt.geom.Point2D;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Iterator;
-import java.util.Map;
+import java.io.OutputStream;
+import java.util.*;
 
 public class StreamTest {
+
+	private static File tempFile(byte[] content) throws IOException {
+		File file = File.createTempFile("dsl-json", ".json");
+		file.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(file);
+		try {
+			fos.write(content);
+		} finally {
+			fos.close();
+		}
+		return file;
+	}
+
+	private static byte[] longArray(int size) {
+		StringBuilder sb = new StringBuilder("[null");
+		for (int i = 0; i < size; i++) {
+			sb.append(",");
+			sb.append(Integer.toString(i));
+		}
+		return sb.append("]").toString().getBytes();
+	}
+
+	@Test
+	public void iteratingOverMappedFile() throws IOException {
+		File file = tempFile(longArray(100000));
+		DslJson<Object> json = new DslJson<Object>();
+		Iterator<Long> result = json.iterateOver(Long.class, file);
+		Assert.assertNull(result.next());
+		long total = 0;
+		while (result.hasNext()) {
+			Assert.assertEquals(Long.valueOf(total++), result.next());
+		}
+		Assert.assertEquals(100000, total);
+	}
+
+	@Test
+	public void mappedFileWindowsAreContinuous() throws IOException {
+		byte[] bytes = longArray(1000);
+		File file = tempFile(bytes);
+		for (int window : new int[]{1, 7, 512, bytes.length - 1, bytes.length, bytes.length + 1}) {
+			MappedFileStream stream = new MappedFileStream(file, window);
+			byte[] copy = new byte[bytes.length];
+			Assert.assertEquals(bytes.length, JsonStreamReader.readFully(copy, stream, 0));
+			Assert.assertArrayEquals(copy, bytes);
+			Assert.assertEquals(-1, stream.read());
+			DslJson<Object> json = new DslJson<Object>();
+			Iterator<Long> result = json.iterateOver(Long.class, new MappedFileStream(file, window), new byte[64]);
+			int total = 0;
+			while (result.hasNext()) {
+				result.next();
+				total++;
+			}
+			Assert.assertEquals(1001, total);
+		}
+	}
+
+	@Test
+	public void windowsAreMappedLazily() throws IOException {
+		byte[] bytes = longArray(1000);
+		File file = tempFile(bytes);
+		MappedFileStream stream = new MappedFileStream(file, 100);
+		Assert.assertEquals(1, stream.mappedWindows);
+		byte[] chunk = new byte[150];
+		Assert.assertEquals(100, stream.read(chunk, 0, chunk.length));
+		Assert.assertEquals(1, stream.mappedWindows);
+		Assert.assertEquals(100, stream.read(chunk, 0, chunk.length));
+		Assert.assertEquals(2, stream.mappedWindows);
+		Assert.assertEquals(0, new MappedFileStream(tempFile(new byte[0]), 100).mappedWindows);
+	}
+
+	@Test
+	public void iteratingOverMappedFileWithObjects() throws IOException {
+		File file = tempFile("[{\"a\":1},null,{\"b\":\"ž\"}]".getBytes("UTF-8"));
+		DslJson<Object> json = new DslJson<Object>();
+		Iterator<Map> result = json.iterateOver(Map.class, file, new byte[16]);
+		Assert.assertEquals(1L, result.next().get("a"));
+		Assert.assertNull(result.next());
+		Assert.assertEquals("ž", result.next().get("b"));
+		Assert.assertFalse(result.hasNext());
+	}
 	@Test
 	public void testIteratingMapFromStream() throws IOException {
 		StringBuilder sb = new StringBuilder();
@@ -366,4 +448,212 @@ public class StreamTest {
 		Assert.assertEquals(7, points.length);
 		Assert.assertEquals(1.000000000000234d, points[6].getY(), 0);
 	}
+
+	private static class ChunkCountingStream extends ByteArrayOutputStream {
+		int writes;
+		int largestWrite;
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) {
+			writes++;
+			largestWrite = Math.max(largestWrite, len);
+			super.write(b, off, len);
+		}
+	}
+
+	private static List<Map<String, Object>> documents(int size) {
+		List<Map<String, Object>> list = new ArrayList<Map<String, Object>>();
+		for (int i = 0; i < size; i++) {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			map.put("id", i);
+			map.put("name", "name " + i);
+			map.put("values", Arrays.asList(i / 10d, i * 3d, null));
+			list.add(map);
+		}
+		return list;
+	}
+
+	@Test
+	public void streamingWriterHasBoundedBuffer() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		List<Map<String, Object>> documents = documents(5000);
+		JsonWriter inMemory = json.newWriter();
+		json.serialize(inMemory, documents);
+		ChunkCountingStream os = new ChunkCountingStream();
+		JsonWriter streaming = json.newWriter(os, 256);
+		json.serialize(streaming, documents);
+		Assert.assertTrue(streaming.flushed() > 0);
+		Assert.assertEquals(inMemory.size(), streaming.flushed() + streaming.size());
+		streaming.flush();
+		Assert.assertEquals(0, streaming.size());
+		Assert.assertArrayEquals(inMemory.toByteArray(), os.toByteArray());
+		Assert.assertTrue(os.largestWrite <= 256);
+		Assert.assertTrue(streaming.getByteBuffer().length <= 256);
+	}
+
+	@Test
+	public void streamingPrimitiveArrays() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		Random random = new Random(0);
+		int[] ints = new int[3000];
+		long[] longs = new long[3000];
+		double[] doubles = new double[3000];
+		float[] floats = new float[3000];
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = i % 3 == 0 ? Integer.MIN_VALUE : random.nextInt();
+			longs[i] = i % 3 == 0 ? Long.MIN_VALUE : random.nextLong();
+			doubles[i] = -random.nextDouble() * 1e-300;
+			floats[i] = -random.nextFloat() * 1e-30f;
+		}
+		for (Object array : new Object[]{ints, longs, doubles, floats}) {
+			JsonWriter inMemory = json.newWriter();
+			json.serialize(inMemory, array);
+			ChunkCountingStream os = new ChunkCountingStream();
+			JsonWriter streaming = json.newWriter(os, 2048);
+			json.serialize(streaming, array);
+			streaming.flush();
+			Assert.assertArrayEquals(inMemory.toByteArray(), os.toByteArray());
+			Assert.assertTrue(os.writes > 10);
+			Assert.assertTrue(streaming.getByteBuffer().length <= 2048);
+		}
+	}
+
+	@Test
+	public void streamingWriterGrowsOnlyForLargeValues() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append("abc\"");
+		}
+		List<String> values = Arrays.asList("start", sb.toString(), "end");
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		JsonWriter streaming = json.newWriter(os, 64);
+		json.serialize(streaming, values);
+		streaming.flush();
+		List<String> result = json.deserializeList(String.class, os.toByteArray(), os.size());
+		Assert.assertEquals(values, result);
+	}
+
+	@Test
+	public void serializeWritesInChunks() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		List<Map<String, Object>> documents = documents(5000);
+		ChunkCountingStream os = new ChunkCountingStream();
+		json.serialize(documents, os);
+		JsonWriter inMemory = json.newWriter();
+		json.serialize(inMemory, documents);
+		Assert.assertArrayEquals(inMemory.toByteArray(), os.toByteArray());
+		Assert.assertTrue(os.writes > 1);
+		Assert.assertTrue(os.largestWrite < inMemory.size());
+	}
+
+	@Test
+	public void serializeReportsStreamErrors() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("closed");
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				throw new IOException("closed");
+			}
+		};
+		try {
+			json.serialize(documents(5000), failing);
+			Assert.fail("Expecting IOException");
+		} catch (IOException ex) {
+			Assert.assertEquals("closed", ex.getMessage());
+		}
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(Arrays.asList(1, 2, 3), os);
+		Assert.assertEquals("[1,2,3]", os.toString());
+	}
+
+	private static String longString(boolean special) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 3000; i++) {
+			sb.append((char) ('a' + i % 26));
+			if (special && i % 100 == 0) sb.append("\u010d\\n\uD83D\uDE00");
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void longStringsAcrossRefills() throws IOException {
+		final DslJson<Object> json = new DslJson<Object>();
+		for (boolean special : new boolean[]{false, true}) {
+			final String value = longString(special);
+			final ByteArrayOutputStream os = new ByteArrayOutputStream();
+			json.serialize(Arrays.asList(value, "abc"), os);
+			for (int size : new int[]{16, 64, 1000, 100000}) {
+				List<String> result = json.deserializeList(String.class, new ByteArrayInputStream(os.toByteArray()), new byte[size]);
+				Assert.assertEquals(value, result.get(0));
+				Assert.assertEquals("abc", result.get(1));
+			}
+		}
+	}
+
+	@Test
+	public void unclosedLongString() throws IOException {
+		final DslJson<Object> json = new DslJson<Object>();
+		final byte[] input = ("[\"" + longString(false)).getBytes("UTF-8");
+		try {
+			json.deserializeList(String.class, new ByteArrayInputStream(input), new byte[64]);
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("JSON string was not closed"));
+		}
+	}
+
+	@Test
+	public void largeBase64AcrossRefills() throws IOException {
+		final DslJson<Object> json = new DslJson<Object>();
+		final byte[] value = new byte[20000];
+		new Random(42).nextBytes(value);
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(Arrays.asList(value, new byte[]{1, 2}), os);
+		for (int size : new int[]{16, 64, 1000, 100000}) {
+			List<byte[]> result = json.deserializeList(byte[].class, new ByteArrayInputStream(os.toByteArray()), new byte[size]);
+			Assert.assertArrayEquals(value, result.get(0));
+			Assert.assertArrayEquals(new byte[]{1, 2}, result.get(1));
+		}
+	}
+
+	@Test
+	public void streamStringIntoWriter() throws IOException {
+		final DslJson<Object> json = new DslJson<Object>();
+		final String value = longString(true);
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(Arrays.asList(value), os);
+		for (int size : new int[]{16, 1000}) {
+			final JsonStreamReader<Object> reader = json.newReader(new ByteArrayInputStream(os.toByteArray()), new byte[size]);
+			Assert.assertEquals('[', reader.getNextToken());
+			Assert.assertEquals('"', reader.getNextToken());
+			final java.io.StringWriter writer = new java.io.StringWriter();
+			reader.readString(writer);
+			Assert.assertEquals(value, writer.toString());
+			Assert.assertEquals(']', reader.getNextToken());
+		}
+	}
+
+	@Test
+	public void streamBase64IntoOutputStream() throws IOException {
+		final DslJson<Object> json = new DslJson<Object>();
+		final byte[] value = new byte[10001];
+		new Random(7).nextBytes(value);
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(Arrays.asList(value), os);
+		for (int size : new int[]{16, 100000}) {
+			final JsonStreamReader<Object> reader = json.newReader(new ByteArrayInputStream(os.toByteArray()), new byte[size]);
+			Assert.assertEquals('[', reader.getNextToken());
+			Assert.assertEquals('"', reader.getNextToken());
+			final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+			reader.readBase64(decoded);
+			Assert.assertArrayEquals(value, decoded.toByteArray());
+			Assert.assertEquals(']', reader.getNextToken());
+		}
+	}
 }
@@ -0,0 +1,164 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+public class TypePlanTest {
+
+	static class Base {
+		final String value;
+
+		Base(String value) {
+			this.value = value;
+		}
+	}
+
+	static class Derived extends Base {
+		Derived(String value) {
+			super(value);
+		}
+	}
+
+	private static JsonReader.ReadObject<Base> reader(final String prefix) {
+		return new JsonReader.ReadObject<Base>() {
+			@Override
+			public Base read(JsonReader reader) throws IOException {
+				return new Base(prefix + StringConverter.deserialize(reader));
+			}
+		};
+	}
+
+	private static JsonWriter.WriteObject<Base> writer(final String prefix) {
+		return new JsonWriter.WriteObject<Base>() {
+			@Override
+			public void write(JsonWriter writer, Base value) {
+				StringConverter.serialize(prefix + value.value, writer);
+			}
+		};
+	}
+
+	private static String serialize(DslJson<Object> json, Object value) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(value, os);
+		return os.toString("UTF-8");
+	}
+
+	@Test
+	public void planIsResolvedOnce() {
+		DslJson<Object> json = new DslJson<Object>();
+		DslJson.TypePlan plan = json.planFor(int[].class);
+		Assert.assertSame(plan, json.planFor(int[].class));
+		Assert.assertSame(json.planFor(int.class), plan.element);
+		Assert.assertNotNull(plan.element.reader);
+		Assert.assertNull(json.planFor(Base.class).reader);
+		Assert.assertNull(json.planFor(Base.class).writer);
+	}
+
+	@Test
+	public void registrationAfterLookupIsVisible() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		Assert.assertNull(json.tryFindReader(Base.class));
+		Assert.assertFalse(json.canDeserialize(Base[].class));
+		json.registerReader(Base.class, reader("a"));
+		byte[] input = "[\"x\",null]".getBytes("UTF-8");
+		Base[] result = json.deserialize(Base[].class, input, input.length);
+		Assert.assertEquals("ax", result[0].value);
+		Assert.assertNull(result[1]);
+		json.registerReader(Base.class, reader("b"));
+		result = json.deserialize(Base[].class, input, input.length);
+		Assert.assertEquals("bx", result[0].value);
+	}
+
+	@Test
+	public void writerFromHierarchyIsReplaced() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		json.registerWriter(Base.class, writer("base:"));
+		Assert.assertEquals("\"base:x\"", serialize(json, new Derived("x")));
+		json.registerWriter(Derived.class, writer("derived:"));
+		Assert.assertEquals("\"derived:x\"", serialize(json, new Derived("x")));
+		Assert.assertEquals("\"base:y\"", serialize(json, new Base("y")));
+	}
+
+	@Test
+	public void registrationKeepsUnrelatedPlans() {
+		DslJson<Object> json = new DslJson<Object>();
+		DslJson.TypePlan unrelated = json.planFor(int[].class);
+		DslJson.TypePlan base = json.planFor(Base.class);
+		DslJson.TypePlan derived = json.planFor(Derived[].class);
+		json.registerWriter(Base.class, writer("base:"));
+		Assert.assertSame(unrelated, json.planFor(int[].class));
+		Assert.assertNotSame(base, json.planFor(Base.class));
+		Assert.assertNotSame(derived, json.planFor(Derived[].class));
+		Assert.assertNotNull(json.planFor(Derived[].class).element.writer);
+	}
+
+	@Test
+	public void nullRegistrationDisablesConverter() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		json.registerReader(Base.class, reader("a"));
+		json.registerWriter(Base.class, writer("a"));
+		json.registerReader(Base.class, null);
+		json.registerWriter(Base.class, null);
+		Assert.assertNull(json.tryFindReader(Base.class));
+		Assert.assertNull(json.tryFindWriter(Base.class));
+		byte[] input = "\"x\"".getBytes("UTF-8");
+		try {
+			json.deserialize(Base.class, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("is disabled"));
+		}
+	}
+
+	public List<Base> baseList;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void collectionPlanSeesRegistration() throws Exception {
+		DslJson<Object> json = new DslJson<Object>();
+		Type manifest = TypePlanTest.class.getField("baseList").getGenericType();
+		byte[] input = "[\"x\",null]".getBytes("UTF-8");
+		try {
+			json.deserialize(manifest, input, input.length);
+			Assert.fail("Expecting exception");
+		} catch (IOException ignore) {
+		}
+		DslJson.GenericPlan plan = json.genericPlanFor(manifest);
+		Assert.assertSame(plan, json.genericPlanFor(manifest));
+		Assert.assertEquals(Base.class, plan.content);
+		Assert.assertNull(plan.contentReader);
+		json.registerReader(Base.class, reader("a"));
+		List<Base> result = (List<Base>) json.deserialize(manifest, input, input.length);
+		Assert.assertEquals("ax", result.get(0).value);
+		Assert.assertNull(result.get(1));
+	}
+
+	static class Lazy {
+	}
+
+	public static class ArrayWriterConfiguration implements Configuration {
+		@Override
+		public void configure(DslJson json) {
+			json.registerWriter(Lazy[].class, new JsonWriter.WriteObject<Lazy[]>() {
+				@Override
+				public void write(JsonWriter writer, Lazy[] value) {
+					writer.writeAscii("\"lazy\"");
+				}
+			});
+		}
+	}
+
+	@Test
+	public void planResolvedDuringRegistrationIsNotCached() throws IOException {
+		DslJson<Object> json = new DslJson<Object>();
+		json.registerLazy(Lazy.class.getName(), ArrayWriterConfiguration.class.getName(), TypePlanTest.class.getClassLoader());
+		//writer for array is registered while resolving the element plan, after array writer was looked up
+		Assert.assertNotNull(json.planFor(Lazy[].class).writer);
+		Assert.assertEquals("\"lazy\"", serialize(json, new Lazy[0]));
+	}
+}
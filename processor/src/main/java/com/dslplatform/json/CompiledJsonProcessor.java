@@ -5,22 +5,30 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
 import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
 import javax.tools.*;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.*;
 
-@SupportedAnnotationTypes({"com.dslplatform.json.CompiledJson", "com.dslplatform.json.JsonAttribute", "com.dslplatform.json.JsonConverter"})
+@SupportedAnnotationTypes({"com.dslplatform.json.CompiledJson", "com.dslplatform.json.JsonAttribute", "com.dslplatform.json.JsonConverter", "com.dslplatform.json.JsonCreator"})
 @SupportedOptions({"dsljson.namespace", "dsljson.compiler", "dsljson.showdsl", "dsljson.loglevel", "dsljson.annotation"})
 public class CompiledJsonProcessor extends AbstractProcessor {
 
 	private static final Map<String, String> SupportedTypes;
 	private static final Map<String, String> SupportedCollections;
+	private static final Map<String, String> JavaReaders;
+	private static final Map<String, String> JavaWriters;
+	private static final Map<String, String> PrimitiveArrayReaders;
+	private static final Map<String, String> PrimitiveArrayWriters;
 	private static final Set<String> JsonIgnore;
 	private static final Set<String> NonNullable;
 	private static final Set<String> PropertyAlias;
+	private static final Set<String> Creators;
 	private static final List<IncompatibleTypes> CheckTypes;
 
 	private static final String CONFIG = "META-INF/services/com.dslplatform.json.Configuration";
@@ -79,6 +87,36 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		SupportedCollections.put("java.util.Stack<", "Stack");
 		SupportedCollections.put("java.util.Vector<", "Vector");
 		SupportedCollections.put("java.util.Collection<", "Bag");
+		JavaReaders = new HashMap<String, String>();
+		JavaWriters = new HashMap<String, String>();
+		addJavaConverter("int", "NumberConverter.deserializeInt", "NumberConverter.serialize");
+		addJavaConverter("java.lang.Integer", "NumberConverter.deserializeInt", "NumberConverter.serialize");
+		addJavaConverter("long", "NumberConverter.deserializeLong", "NumberConverter.serialize");
+		addJavaConverter("java.lang.Long", "NumberConverter.deserializeLong", "NumberConverter.serialize");
+		addJavaConverter("float", "NumberConverter.deserializeFloat", "NumberConverter.serialize");
+		addJavaConverter("java.lang.Float", "NumberConverter.deserializeFloat", "NumberConverter.serialize");
+		addJavaConverter("double", "NumberConverter.deserializeDouble", "NumberConverter.serialize");
+		addJavaConverter("java.lang.Double", "NumberConverter.deserializeDouble", "NumberConverter.serialize");
+		addJavaConverter("boolean", "BoolConverter.deserialize", "BoolConverter.serialize");
+		addJavaConverter("java.lang.Boolean", "BoolConverter.deserialize", "BoolConverter.serialize");
+		addJavaConverter("java.lang.String", "StringConverter.deserialize", "StringConverter.serialize");
+		addJavaConverter("java.math.BigDecimal", "NumberConverter.deserializeDecimal", "NumberConverter.serialize");
+		addJavaConverter("java.util.UUID", "UUIDConverter.deserialize", "UUIDConverter.serialize");
+		addJavaConverter("byte[]", "BinaryConverter.deserialize", "BinaryConverter.serialize");
+		addJavaConverter("java.util.Map<java.lang.String,java.lang.String>", "MapConverter.deserialize", "MapConverter.serialize");
+		addJavaConverter("java.util.Map<java.lang.String,java.lang.Object>", "ObjectConverter.deserializeMap", "ObjectConverter.serializeMap");
+		PrimitiveArrayReaders = new HashMap<String, String>();
+		PrimitiveArrayReaders.put("int", "com.dslplatform.json.NumberConverter.deserializeIntArray(startArray(reader))");
+		PrimitiveArrayReaders.put("long", "com.dslplatform.json.NumberConverter.deserializeLongArray(startArray(reader))");
+		PrimitiveArrayReaders.put("float", "com.dslplatform.json.NumberConverter.deserializeFloatArray(startArray(reader))");
+		PrimitiveArrayReaders.put("double", "com.dslplatform.json.NumberConverter.deserializeDoubleArray(startArray(reader))");
+		PrimitiveArrayReaders.put("boolean", "com.dslplatform.json.BoolConverter.deserializeBoolArray(startArray(reader))");
+		PrimitiveArrayWriters = new HashMap<String, String>();
+		PrimitiveArrayWriters.put("int", "com.dslplatform.json.NumberConverter.serialize(%s, writer);");
+		PrimitiveArrayWriters.put("long", "com.dslplatform.json.NumberConverter.serialize(%s, writer);");
+		PrimitiveArrayWriters.put("float", "com.dslplatform.json.NumberConverter.serialize(%s, writer);");
+		PrimitiveArrayWriters.put("double", "com.dslplatform.json.NumberConverter.serialize(%s, writer);");
+		PrimitiveArrayWriters.put("boolean", "com.dslplatform.json.BoolConverter.serialize(%s, writer);");
 		JsonIgnore = new HashSet<String>();
 		JsonIgnore.add("com.fasterxml.jackson.annotation.JsonIgnore");
 		JsonIgnore.add("org.codehaus.jackson.annotate.JsonIgnore");
@@ -92,6 +130,9 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		PropertyAlias = new HashSet<String>();
 		PropertyAlias.add("com.fasterxml.jackson.annotation.JsonProperty");
 		PropertyAlias.add("com.google.gson.annotations.SerializedName");
+		Creators = new HashSet<String>();
+		Creators.add("com.dslplatform.json.JsonCreator");
+		Creators.add("com.fasterxml.jackson.annotation.JsonCreator");
 		CheckTypes = new ArrayList<IncompatibleTypes>();
 		CheckTypes.add(
 				new IncompatibleTypes(
@@ -105,6 +146,11 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 						"Both Java AWT and Android graphics detected as property types. Only one supported at once."));
 	}
 
+	private static void addJavaConverter(String type, String reader, String writer) {
+		JavaReaders.put(type, "com.dslplatform.json." + reader + "(reader)");
+		JavaWriters.put(type, "com.dslplatform.json." + writer + "(%s, writer);");
+	}
+
 	private TypeElement compiledJsonElement;
 	private DeclaredType compiledJsonType;
 	private DeclaredType attributeType;
@@ -187,12 +233,17 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		final Set<StructInfo> implementations = new HashSet<StructInfo>();
 		final Map<String, String[]> properties = new HashMap<String, String[]>();
 		final Map<String, String> minifiedNames = new HashMap<String, String>();
+		final List<AttributeInfo> attributes = new ArrayList<AttributeInfo>();
+		CreatorInfo creator;
+		String discriminator = DEFAULT_DISCRIMINATOR;
+		String typeName;
 
 		StructInfo(TypeElement element, String name, ObjectType type, boolean isJsonObject) {
 			this.element = element;
 			this.name = name;
 			this.type = type;
 			this.converter = isJsonObject ? "" : null;
+			this.typeName = element.getQualifiedName().toString();
 		}
 
 		StructInfo(TypeElement converter, TypeElement target, String name) {
@@ -200,6 +251,81 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 			this.name = name;
 			this.type = ObjectType.CLASS;
 			this.converter = converter.getQualifiedName().toString();
+			this.typeName = target.getQualifiedName().toString();
+		}
+	}
+
+	/**
+	 * Constructor, static factory or builder used for objects without public no argument constructor.
+	 * Properties are defined by creator arguments (or builder methods) and read through getters or public fields.
+	 */
+	private static class CreatorInfo {
+		final ExecutableElement method;
+		final List<VariableElement> arguments = new ArrayList<VariableElement>();
+		final Map<String, ExecutableElement> builderMethods = new HashMap<String, ExecutableElement>();
+		final Map<String, ExecutableElement> methods = new HashMap<String, ExecutableElement>();
+		final Map<String, VariableElement> fields = new HashMap<String, VariableElement>();
+		ExecutableElement build;
+
+		CreatorInfo(ExecutableElement method) {
+			this.method = method;
+		}
+
+		boolean isBuilder() {
+			return build != null;
+		}
+
+		void addAccessor(String property, Element accessor) {
+			if (accessor instanceof ExecutableElement) {
+				methods.put(property, (ExecutableElement) accessor);
+			} else {
+				fields.put(property, (VariableElement) accessor);
+			}
+		}
+	}
+
+	private static class AttributeInfo {
+		final String name;
+		final Element element;
+		final boolean fieldAccess;
+		final TypeMirror type;
+		final String serializedName;
+		final String[] alternativeNames;
+		final boolean fullMatch;
+		final TypeMirror converter;
+		final boolean notNull;
+
+		AttributeInfo(
+				String name,
+				Element element,
+				boolean fieldAccess,
+				TypeMirror type,
+				String serializedName,
+				String[] alternativeNames,
+				boolean fullMatch,
+				TypeMirror converter,
+				boolean notNull) {
+			this.name = name;
+			this.element = element;
+			this.fieldAccess = fieldAccess;
+			this.type = type;
+			this.serializedName = serializedName;
+			this.alternativeNames = alternativeNames;
+			this.fullMatch = fullMatch;
+			this.converter = converter;
+			this.notNull = notNull;
+		}
+
+		String readValue(String instance) {
+			return fieldAccess
+					? instance + "." + name
+					: instance + "." + element.getSimpleName() + "()";
+		}
+
+		String assignValue(String instance, String value) {
+			return fieldAccess
+					? instance + "." + name + " = " + value
+					: instance + ".set" + element.getSimpleName().toString().substring(3) + "(" + value + ")";
 		}
 	}
 
@@ -221,6 +347,7 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 			}
 			findRelatedReferences(structs, options);
 			findImplementations(structs.values());
+			checkTypeNames(structs.values(), options);
 			String dsl = buildDsl(structs, options);
 
 			if (options.hasError) {
@@ -231,19 +358,46 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 				processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, dsl);
 			}
 
-			String fileContent;
+			String className = namespace + ".json.ExternalSerialization";
+			if (compiler != null && compiler.length() > 0) {
+				for (StructInfo info : structs.values()) {
+					if (info.creator != null) {
+						processingEnv.getMessager().printMessage(
+								Diagnostic.Kind.ERROR,
+								"Creators are not supported with external DSL compiler. Remove dsljson.compiler option to use them on '" + info.element.getQualifiedName() + "'",
+								info.creator.method);
+						return false;
+					}
+					if (!DEFAULT_DISCRIMINATOR.equals(info.discriminator)
+							|| info.converter == null && !info.element.getQualifiedName().contentEquals(info.typeName)) {
+						processingEnv.getMessager().printMessage(
+								Diagnostic.Kind.ERROR,
+								"Custom discriminator and type names are not supported with external DSL compiler. Remove dsljson.compiler option to use them on '" + info.element.getQualifiedName() + "'",
+								info.element,
+								getAnnotation(info.element, compiledJsonType));
+						return false;
+					}
+				}
+			}
+			List<GeneratedSource> sources;
 			try {
-				fileContent = AnnotationCompiler.buildExternalJson(dsl, options.toOptions(namespace, compiler), logLevel, processingEnv.getMessager());
+				if (compiler != null && compiler.length() > 0) {
+					String fileContent = AnnotationCompiler.buildExternalJson(dsl, options.toOptions(namespace, compiler), logLevel, processingEnv.getMessager());
+					sources = Collections.singletonList(new GeneratedSource(className, fileContent, originatingElements(structs)));
+				} else {
+					sources = buildJavaSources(structs);
+				}
 			} catch (Exception e) {
 				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "DSL compilation error\n" + e.getMessage());
 				return false;
 			}
 			try {
-				String className = namespace + ".json.ExternalSerialization";
-				Writer writer = processingEnv.getFiler().createSourceFile(className).openWriter();
-				writer.write(fileContent);
-				writer.close();
-				writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", CONFIG).openWriter();
+				for (GeneratedSource source : sources) {
+					Writer writer = processingEnv.getFiler().createSourceFile(source.name, source.originatingElements).openWriter();
+					writer.write(source.content);
+					writer.close();
+				}
+				Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", CONFIG, originatingElements(structs)).openWriter();
 				writer.write(className);
 				writer.close();
 			} catch (IOException e) {
@@ -301,7 +455,7 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 					dsl.append(";\n");
 				}
 				if (info.converter == null) {
-					Map<String, ExecutableElement> methods = getBeanProperties(info.element);
+					Map<String, ExecutableElement> methods = getBeanProperties(info);
 					for (Map.Entry<String, ExecutableElement> p : methods.entrySet()) {
 						if (hasIgnoredAnnotation(p.getValue())) {
 							continue;
@@ -310,7 +464,7 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 						TypeMirror javaType = p.getValue().getReturnType();
 						processProperty(dsl, options, checks, info, p, dslType, javaType, structs, false);
 					}
-					Map<String, VariableElement> fields = getPublicFields(info.element);
+					Map<String, VariableElement> fields = getPublicFields(info);
 					for (Map.Entry<String, VariableElement> p : fields.entrySet()) {
 						if (methods.containsKey(p.getKey()) || hasIgnoredAnnotation(p.getValue())) {
 							continue;
@@ -420,6 +574,17 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 				return;
 			}
 			info.properties.put(name, deserializationAliases);
+			info.attributes.add(
+					new AttributeInfo(
+							property.getKey(),
+							property.getValue(),
+							fieldAccess,
+							javaTypeMirror,
+							name,
+							deserializationAliases,
+							isFullMatch(property.getValue()),
+							converter,
+							hasNonNullable(property.getValue())));
 			StructInfo target = findReferenced(property.getValue().asType(), structs);
 			if (target != null && target.type == ObjectType.MIXIN && target.implementations.size() == 0) {
 				String what = target.element.getKind() == ElementKind.INTERFACE ? "interface" : "abstract class";
@@ -495,7 +660,7 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 				if (info.converter != null) {
 					continue;
 				}
-				Map<String, ExecutableElement> properties = getBeanProperties(info.element);
+				Map<String, ExecutableElement> properties = getBeanProperties(info);
 				for (Map.Entry<String, ExecutableElement> p : properties.entrySet()) {
 					String propertyType = getPropertyType(p.getValue(), p.getValue().getReturnType(), structs);
 					if (propertyType != null) {
@@ -503,7 +668,7 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 					}
 					checkRelatedProperty(structs, options, p.getValue().getReturnType(), "bean property", info.element, p.getValue());
 				}
-				Map<String, VariableElement> fields = getPublicFields(info.element);
+				Map<String, VariableElement> fields = getPublicFields(info);
 				for (Map.Entry<String, VariableElement> f : fields.entrySet()) {
 					if (properties.containsKey(f.getKey())) {
 						continue;
@@ -536,6 +701,26 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		}
 	}
 
+	private void checkTypeNames(Collection<StructInfo> structs, CompileOptions options) {
+		for (StructInfo current : structs) {
+			if (current.type != ObjectType.MIXIN) continue;
+			Map<String, StructInfo> names = new HashMap<String, StructInfo>();
+			for (StructInfo impl : sortedStructs(current.implementations)) {
+				StructInfo other = names.put(impl.typeName, impl);
+				if (other != null) {
+					options.hasError = true;
+					processingEnv.getMessager().printMessage(
+							Diagnostic.Kind.ERROR,
+							"Duplicate type name '" + impl.typeName + "' found on '" + other.element.getQualifiedName() + "' and '"
+									+ impl.element.getQualifiedName() + "'. Implementations of '" + current.element.getQualifiedName()
+									+ "' must have unique names",
+							impl.element,
+							getAnnotation(impl.element, compiledJsonType));
+				}
+			}
+		}
+	}
+
 	private void checkRelatedProperty(Map<String, StructInfo> structs, CompileOptions options, TypeMirror returnType, String access, Element inside, Element property) {
 		TypeMirror converter = findConverter(property);
 		if (converter != null) return;
@@ -633,6 +818,18 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		return false;
 	}
 
+	private String getAnnotationString(Element struct, String member) {
+		AnnotationMirror ann = getAnnotation(struct, compiledJsonType);
+		if (ann != null) {
+			for (ExecutableElement ee : ann.getElementValues().keySet()) {
+				if (member.equals(ee.toString())) {
+					return (String) ann.getElementValues().get(ee).getValue();
+				}
+			}
+		}
+		return null;
+	}
+
 	private TypeMirror findConverter(Element property) {
 		AnnotationMirror dslAnn = getAnnotation(property, attributeType);
 		if (dslAnn != null) {
@@ -781,12 +978,19 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		boolean isMixin = element.getKind() == ElementKind.INTERFACE
 				|| element.getKind() == ElementKind.CLASS && element.getModifiers().contains(Modifier.ABSTRACT);
 		boolean isJsonObject = isJsonObject(element);
-		if (!isJsonObject && !isMixin && element.getKind() != ElementKind.ENUM && !hasEmptyCtor(element)) {
+		boolean hadError = options.hasError;
+		CreatorInfo creator = !isJsonObject && !isMixin && element.getKind() == ElementKind.CLASS || isRecord(element)
+				? findCreator(element, options)
+				: null;
+		if (creator == null && options.hasError && !hadError) {
+			return;
+		}
+		if (!isJsonObject && !isMixin && element.getKind() != ElementKind.ENUM && creator == null && !hasEmptyCtor(element)) {
 			options.hasError = true;
 			AnnotationMirror annotation = getAnnotation(element, compiledJsonType);
 			processingEnv.getMessager().printMessage(
 					Diagnostic.Kind.ERROR,
-					errorMessge + ", therefore '" + element.asType() + "' requires public no argument constructor",
+					errorMessge + ", therefore '" + element.asType() + "' requires public no argument constructor or @JsonCreator",
 					element,
 					annotation);
 		} else if (!element.getModifiers().contains(Modifier.PUBLIC)) {
@@ -836,6 +1040,15 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 				}
 			}
 			StructInfo info = new StructInfo(element, name, type, isJsonObject);
+			info.creator = creator;
+			String discriminator = getAnnotationString(element, "discriminator()");
+			if (discriminator != null && discriminator.length() > 0) {
+				info.discriminator = discriminator;
+			}
+			String typeName = getAnnotationString(element, "name()");
+			if (typeName != null && typeName.length() > 0) {
+				info.typeName = typeName;
+			}
 			structs.put(element.asType().toString(), info);
 			if (isMinified(element)) {
 				prepareMinifiedNames(info);
@@ -845,8 +1058,8 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 
 	private void prepareMinifiedNames(StructInfo info) {
 		Map<Character, Integer> counters = new HashMap<Character, Integer>();
-		Map<String, ExecutableElement> methods = getBeanProperties(info.element);
-		Map<String, VariableElement> fields = getPublicFields(info.element);
+		Map<String, ExecutableElement> methods = getBeanProperties(info);
+		Map<String, VariableElement> fields = getPublicFields(info);
 		Set<String> processedProperties = new HashSet<String>();
 		Set<String> names = new HashSet<String>();
 		for (Map.Entry<String, ExecutableElement> p : methods.entrySet()) {
@@ -908,6 +1121,208 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		return shortName;
 	}
 
+	private static boolean isRecord(Element element) {
+		//compare by name since records are not available in older Java versions
+		return "RECORD".equals(element.getKind().name());
+	}
+
+	private boolean hasCreatorAnnotation(Element element) {
+		for (AnnotationMirror ann : element.getAnnotationMirrors()) {
+			if (Creators.contains(ann.getAnnotationType().toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private CreatorInfo findCreator(TypeElement element, CompileOptions options) {
+		List<ExecutableElement> annotated = new ArrayList<ExecutableElement>();
+		for (Element inner : element.getEnclosedElements()) {
+			if ((inner.getKind() == ElementKind.CONSTRUCTOR || inner.getKind() == ElementKind.METHOD) && hasCreatorAnnotation(inner)) {
+				annotated.add((ExecutableElement) inner);
+			}
+		}
+		if (annotated.size() > 1) {
+			options.hasError = true;
+			processingEnv.getMessager().printMessage(
+					Diagnostic.Kind.ERROR,
+					"Multiple creators found on '" + element.getQualifiedName() + "'. Only one constructor or method can be annotated with @JsonCreator",
+					element);
+			return null;
+		}
+		ExecutableElement method;
+		if (annotated.size() == 1) {
+			method = annotated.get(0);
+		} else if (isRecord(element)) {
+			method = findCanonicalConstructor(element);
+		} else {
+			return null;
+		}
+		if (method == null) {
+			return null;
+		}
+		if (!method.getModifiers().contains(Modifier.PUBLIC)
+				|| method.getKind() == ElementKind.METHOD && !method.getModifiers().contains(Modifier.STATIC)) {
+			options.hasError = true;
+			processingEnv.getMessager().printMessage(
+					Diagnostic.Kind.ERROR,
+					"Creator '" + method.getSimpleName() + "' on '" + element.getQualifiedName() + "' must be public" +
+							(method.getKind() == ElementKind.METHOD ? " and static" : ""),
+					method);
+			return null;
+		}
+		CreatorInfo creator = new CreatorInfo(method);
+		Types types = processingEnv.getTypeUtils();
+		if (method.getKind() == ElementKind.METHOD
+				&& !types.isSameType(types.erasure(method.getReturnType()), types.erasure(element.asType()))) {
+			return findBuilder(element, creator, options);
+		}
+		for (VariableElement argument : method.getParameters()) {
+			String property = argument.getSimpleName().toString();
+			Element accessor = findAccessor(element, property);
+			if (accessor == null) {
+				options.hasError = true;
+				processingEnv.getMessager().printMessage(
+						Diagnostic.Kind.ERROR,
+						"Creator argument '" + property + "' on '" + element.getQualifiedName() + "' doesn't have a matching getter or public field",
+						argument);
+				return null;
+			}
+			if (!types.isSameType(accessorType(accessor), argument.asType())) {
+				options.hasError = true;
+				processingEnv.getMessager().printMessage(
+						Diagnostic.Kind.ERROR,
+						"Creator argument '" + property + "' on '" + element.getQualifiedName() + "' must be of the same type as the matching property: '" +
+								accessorType(accessor) + "'",
+						argument);
+				return null;
+			}
+			creator.arguments.add(argument);
+			creator.addAccessor(property, accessor);
+		}
+		return creator;
+	}
+
+	private CreatorInfo findBuilder(TypeElement element, CreatorInfo creator, CompileOptions options) {
+		Types types = processingEnv.getTypeUtils();
+		Element builder = types.asElement(creator.method.getReturnType());
+		if (!creator.method.getParameters().isEmpty() || !(builder instanceof TypeElement)) {
+			options.hasError = true;
+			processingEnv.getMessager().printMessage(
+					Diagnostic.Kind.ERROR,
+					"Creator '" + creator.method.getSimpleName() + "' on '" + element.getQualifiedName() + "' must return '" +
+							element.getQualifiedName() + "' or be a builder method without arguments",
+					creator.method);
+			return null;
+		}
+		TypeMirror builderType = types.erasure(builder.asType());
+		TypeMirror targetType = types.erasure(element.asType());
+		for (TypeElement inheritance : getTypeHierarchy((TypeElement) builder)) {
+			for (ExecutableElement method : ElementFilter.methodsIn(inheritance.getEnclosedElements())) {
+				if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) {
+					continue;
+				}
+				TypeMirror returnType = types.erasure(method.getReturnType());
+				if (method.getParameters().isEmpty() && types.isSameType(returnType, targetType)) {
+					if (creator.build == null || "build".equals(method.getSimpleName().toString())) {
+						creator.build = method;
+					}
+				} else if (method.getParameters().size() == 1 && types.isSameType(returnType, builderType)) {
+					String property = builderProperty(method.getSimpleName().toString());
+					Element accessor = findAccessor(element, property);
+					if (accessor != null
+							&& !creator.builderMethods.containsKey(property)
+							&& types.isSameType(accessorType(accessor), method.getParameters().get(0).asType())) {
+						creator.builderMethods.put(property, method);
+						creator.addAccessor(property, accessor);
+					}
+				}
+			}
+		}
+		if (creator.build == null) {
+			options.hasError = true;
+			processingEnv.getMessager().printMessage(
+					Diagnostic.Kind.ERROR,
+					"Builder '" + builder + "' doesn't have a public method without arguments which returns '" + element.getQualifiedName() + "'",
+					creator.method);
+			return null;
+		}
+		return creator;
+	}
+
+	private static String builderProperty(String name) {
+		for (String prefix : new String[]{"set", "with"}) {
+			if (name.length() > prefix.length() && name.startsWith(prefix)
+					&& Character.isUpperCase(name.charAt(prefix.length()))) {
+				return Character.toLowerCase(name.charAt(prefix.length())) + name.substring(prefix.length() + 1);
+			}
+		}
+		return name;
+	}
+
+	private static ExecutableElement findCanonicalConstructor(TypeElement element) {
+		List<TypeMirror> components = new ArrayList<TypeMirror>();
+		for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+			if (!field.getModifiers().contains(Modifier.STATIC)) {
+				components.add(field.asType());
+			}
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+			List<? extends VariableElement> parameters = constructor.getParameters();
+			if (parameters.size() != components.size()) {
+				continue;
+			}
+			boolean matches = true;
+			for (int i = 0; i < parameters.size() && matches; i++) {
+				matches = parameters.get(i).asType().toString().equals(components.get(i).toString());
+			}
+			if (matches) {
+				return constructor;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Getter (get/is prefixed or with the same name as the property, eg. record accessor) or public field
+	 * which is used for reading property value during serialization.
+	 */
+	private Element findAccessor(TypeElement element, String property) {
+		String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+		for (TypeElement inheritance : getTypeHierarchy(element)) {
+			for (ExecutableElement method : ElementFilter.methodsIn(inheritance.getEnclosedElements())) {
+				String name = method.getSimpleName().toString();
+				if (!method.getModifiers().contains(Modifier.PUBLIC)
+						|| method.getModifiers().contains(Modifier.STATIC)
+						|| !method.getParameters().isEmpty()
+						|| method.getReturnType().getKind() == TypeKind.VOID) {
+					continue;
+				}
+				if (name.equals("get" + suffix)
+						|| name.equals(property)
+						|| name.equals("is" + suffix) && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+					return method;
+				}
+			}
+		}
+		for (TypeElement inheritance : getTypeHierarchy(element)) {
+			for (VariableElement field : ElementFilter.fieldsIn(inheritance.getEnclosedElements())) {
+				if (field.getSimpleName().contentEquals(property)
+						&& field.getModifiers().contains(Modifier.PUBLIC)
+						&& !field.getModifiers().contains(Modifier.STATIC)) {
+					return field;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static TypeMirror accessorType(Element accessor) {
+		return accessor instanceof ExecutableElement
+				? ((ExecutableElement) accessor).getReturnType()
+				: accessor.asType();
+	}
+
 	private static boolean hasEmptyCtor(Element element) {
 		for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
 			List<? extends VariableElement> parameters = constructor.getParameters();
@@ -988,6 +1403,14 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		return false;
 	}
 
+	private Map<String, ExecutableElement> getBeanProperties(StructInfo info) {
+		return info.creator != null ? info.creator.methods : getBeanProperties(info.element);
+	}
+
+	private Map<String, VariableElement> getPublicFields(StructInfo info) {
+		return info.creator != null ? info.creator.fields : getPublicFields(info.element);
+	}
+
 	private Map<String, ExecutableElement> getBeanProperties(TypeElement element) {
 		Map<String, VariableElement> setters = new HashMap<String, VariableElement>();
 		Map<String, ExecutableElement> getters = new HashMap<String, ExecutableElement>();
@@ -1128,10 +1551,829 @@ public class CompiledJsonProcessor extends AbstractProcessor {
 		return structs.get(type.toString());
 	}
 
+	private static final String DEFAULT_DISCRIMINATOR = "$type";
+	private static final String JSON_READER = "com.dslplatform.json.JsonReader";
+	private static final String JSON_WRITER = "com.dslplatform.json.JsonWriter";
+	private static final String IO_EXCEPTION = "java.io.IOException";
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static class JavaSource {
+		final StringBuilder code = new StringBuilder();
+		final Map<String, String> sharedConverters = new LinkedHashMap<String, String>();
+		final StringBuilder shared = new StringBuilder();
+		boolean usesArrays;
+	}
+
+	private static class StructSource {
+		final StringBuilder fields = new StringBuilder();
+		final StringBuilder init = new StringBuilder();
+	}
+
+	private static class GeneratedSource {
+		final String name;
+		final String content;
+		final Element[] originatingElements;
+
+		GeneratedSource(String name, String content, Element... originatingElements) {
+			this.name = name;
+			this.content = content;
+			this.originatingElements = originatingElements;
+		}
+	}
+
+	private static List<StructInfo> sortedStructs(Collection<StructInfo> structs) {
+		List<StructInfo> sorted = new ArrayList<StructInfo>(structs);
+		Collections.sort(sorted, new Comparator<StructInfo>() {
+			@Override
+			public int compare(StructInfo left, StructInfo right) {
+				return left.element.getQualifiedName().toString().compareTo(right.element.getQualifiedName().toString());
+			}
+		});
+		return sorted;
+	}
+
+	private static Element[] originatingElements(Map<String, StructInfo> structs) {
+		List<StructInfo> sorted = sortedStructs(structs.values());
+		Element[] elements = new Element[sorted.size()];
+		for (int i = 0; i < sorted.size(); i++) {
+			elements[i] = sorted.get(i).element;
+		}
+		return elements;
+	}
+
+	private static boolean hasGeneratedConverter(StructInfo info) {
+		return info.type == ObjectType.ENUM
+				|| info.type == ObjectType.MIXIN
+				|| info.type == ObjectType.CLASS && info.converter == null;
+	}
+
+	/**
+	 * Name of the converter generated for the struct.
+	 * Converter is placed in the same package, so nested classes are flattened with _.
+	 * Classes can't be generated in java packages, so converters for such types are placed in the namespace.
+	 */
+	private String converterName(StructInfo info) {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(info.element);
+		String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		String className = info.element.getQualifiedName().toString();
+		if (packageName.startsWith("java.") || packageName.startsWith("javax.")) {
+			return namespace + ".json." + className.replace('.', '_') + "_DslJsonConverter";
+		}
+		String simpleName = packageName.isEmpty() ? className : className.substring(packageName.length() + 1);
+		String name = simpleName.replace('.', '_') + "_DslJsonConverter";
+		return packageName.isEmpty() ? name : packageName + "." + name;
+	}
+
+	/**
+	 * Each struct gets its own converter class, so changes in one type don't require
+	 * regeneration of the others. Converters are registered through the index class
+	 * which only maps type names to converter names, so converters are loaded on first use.
+	 */
+	private List<GeneratedSource> buildJavaSources(Map<String, StructInfo> structs) {
+		List<StructInfo> sorted = sortedStructs(structs.values());
+		List<GeneratedSource> sources = new ArrayList<GeneratedSource>();
+		for (StructInfo info : sorted) {
+			if (hasGeneratedConverter(info)) {
+				String name = converterName(info);
+				sources.add(new GeneratedSource(name, buildConverterSource(name, info, structs), info.element));
+			}
+		}
+		StringBuilder code = new StringBuilder();
+		code.append("package ").append(namespace).append(".json;\n\n");
+		code.append("public class ExternalSerialization implements com.dslplatform.json.Configuration {\n\n");
+		code.append("\t@Override\n");
+		code.append("\tpublic void configure(final com.dslplatform.json.DslJson json) {\n");
+		code.append("\t\tfinal ClassLoader loader = ExternalSerialization.class.getClassLoader();\n");
+		for (StructInfo info : sorted) {
+			if (hasGeneratedConverter(info)) {
+				code.append("\t\tjson.registerLazy(\"").append(processingEnv.getElementUtils().getBinaryName(info.element));
+				code.append("\", \"").append(converterName(info)).append("\", loader);\n");
+			} else if (info.converter.length() > 0) {
+				String className = info.element.getQualifiedName().toString();
+				code.append("\t\tjson.registerReader(").append(className).append(".class, ").append(info.converter).append(".JSON_READER);\n");
+				code.append("\t\tjson.registerWriter(").append(className).append(".class, ").append(info.converter).append(".JSON_WRITER);\n");
+			}
+		}
+		code.append("\t}\n");
+		code.append("}\n");
+		sources.add(new GeneratedSource(namespace + ".json.ExternalSerialization", code.toString(), originatingElements(structs)));
+		return sources;
+	}
+
+	private String buildConverterSource(String name, StructInfo info, Map<String, StructInfo> structs) {
+		String className = info.element.getQualifiedName().toString();
+		int dot = name.lastIndexOf('.');
+		JavaSource source = new JavaSource();
+		StringBuilder code = source.code;
+		if (dot != -1) {
+			code.append("package ").append(name.substring(0, dot)).append(";\n\n");
+		}
+		code.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		code.append("public final class ").append(name.substring(dot + 1)).append(" implements com.dslplatform.json.Configuration {\n\n");
+		code.append("\t@Override\n");
+		code.append("\tpublic void configure(final com.dslplatform.json.DslJson json) {\n");
+		code.append("\t\tfinal Converter converter = new Converter(");
+		if (info.type == ObjectType.CLASS) {
+			code.append("json");
+		} else if (info.type == ObjectType.MIXIN) {
+			code.append("json");
+			for (StructInfo impl : generatedImplementations(info)) {
+				code.append(", new ").append(converterName(impl)).append(".Converter(json)");
+			}
+		}
+		code.append(");\n");
+		code.append("\t\tjson.registerReader(").append(className).append(".class, converter);\n");
+		code.append("\t\tjson.registerWriter(").append(className).append(".class, converter);\n");
+		code.append("\t}\n");
+		if (info.type == ObjectType.ENUM) {
+			buildEnumConverter(code, info);
+		} else if (info.type == ObjectType.MIXIN) {
+			buildMixinConverter(code, info);
+		} else {
+			buildClassConverter(source, info, structs);
+		}
+		code.append(source.shared);
+		if (source.usesArrays) {
+			code.append("\n");
+			code.append("\tprivate static ").append(JSON_READER).append(" startArray(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+			code.append("\t\tif (reader.last() != '[') {\n");
+			code.append("\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Expecting '[' at position \" + reader.positionInStream() + \". Found \" + (char) reader.last());\n");
+			code.append("\t\t}\n");
+			code.append("\t\treader.getNextToken();\n");
+			code.append("\t\treturn reader;\n");
+			code.append("\t}\n\n");
+			code.append("\tprivate static <T, C extends java.util.Collection<T>> C readCollection(\n");
+			code.append("\t\t\tfinal ").append(JSON_READER).append(" reader,\n");
+			code.append("\t\t\tfinal ").append(JSON_READER).append(".ReadObject<T> element,\n");
+			code.append("\t\t\tfinal C result) throws ").append(IO_EXCEPTION).append(" {\n");
+			code.append("\t\tif (startArray(reader).last() != ']') {\n");
+			code.append("\t\t\treader.deserializeNullableCollection(element, result);\n");
+			code.append("\t\t}\n");
+			code.append("\t\treturn result;\n");
+			code.append("\t}\n");
+		}
+		code.append("}\n");
+		return code.toString();
+	}
+
+	private static List<StructInfo> generatedImplementations(StructInfo mixin) {
+		List<StructInfo> result = new ArrayList<StructInfo>();
+		for (StructInfo impl : mixin.implementations) {
+			if (impl.type == ObjectType.CLASS && impl.converter == null) {
+				result.add(impl);
+			}
+		}
+		return sortedStructs(result);
+	}
+
+	private static void buildEnumConverter(StringBuilder code, StructInfo info) {
+		String className = info.element.getQualifiedName().toString();
+		code.append("\n\tpublic static final class Converter implements ");
+		code.append(JSON_READER).append(".ReadObject<").append(className).append(">, ");
+		code.append(JSON_WRITER).append(".WriteObject<").append(className).append("> {\n\n");
+		code.append("\t\t@Override\n");
+		code.append("\t\tpublic ").append(className).append(" read(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+		code.append("\t\t\tswitch (reader.calcHash()) {\n");
+		Map<Integer, List<String>> hashes = new TreeMap<Integer, List<String>>();
+		for (String constant : getEnumConstants(info.element)) {
+			int hash = calcHash(constant);
+			List<String> group = hashes.get(hash);
+			if (group == null) {
+				group = new ArrayList<String>();
+				hashes.put(hash, group);
+			}
+			group.add(constant);
+		}
+		for (Map.Entry<Integer, List<String>> kv : hashes.entrySet()) {
+			code.append("\t\t\t\tcase ").append(kv.getKey()).append(":\n");
+			for (String constant : kv.getValue()) {
+				code.append("\t\t\t\t\tif (").append(nameMatch(constant)).append(") return ");
+				code.append(className).append(".").append(constant).append(";\n");
+			}
+			code.append("\t\t\t\t\tbreak;\n");
+		}
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Unknown value for ").append(className);
+		code.append(": '\" + reader.getLastName() + \"' at position \" + reader.positionInStream());\n");
+		code.append("\t\t}\n\n");
+		code.append("\t\t@Override\n");
+		code.append("\t\tpublic void write(final ").append(JSON_WRITER).append(" writer, final ").append(className).append(" value) {\n");
+		code.append("\t\t\tif (value == null) {\n");
+		code.append("\t\t\t\twriter.writeNull();\n");
+		code.append("\t\t\t} else {\n");
+		code.append("\t\t\t\twriter.writeString(value.name());\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t}\n");
+		code.append("\t}\n");
+	}
+
+	private void buildMixinConverter(StringBuilder code, StructInfo info) {
+		String className = info.element.getQualifiedName().toString();
+		String discriminator = info.discriminator;
+		String escaped = quote(discriminator).substring(1, quote(discriminator).length() - 1);
+		List<StructInfo> implementations = generatedImplementations(info);
+		code.append("\n\tpublic static final class Converter implements ");
+		code.append(JSON_READER).append(".ReadObject<").append(className).append(">, ");
+		code.append(JSON_WRITER).append(".WriteObject<").append(className).append("> {\n\n");
+		code.append("\t\tprivate final com.dslplatform.json.DslJson json;\n");
+		for (int i = 0; i < implementations.size(); i++) {
+			StructInfo impl = implementations.get(i);
+			code.append("\t\tprivate static final byte[] type_").append(i).append(" = ");
+			appendBytes(code, "{" + quote(discriminator) + ":" + quote(impl.typeName));
+			code.append(";\n");
+			code.append("\t\tprivate final ").append(converterName(impl)).append(".Converter impl_").append(i).append(";\n");
+		}
+		code.append("\n\t\tpublic Converter(final com.dslplatform.json.DslJson json");
+		for (int i = 0; i < implementations.size(); i++) {
+			code.append(", final ").append(converterName(implementations.get(i))).append(".Converter impl_").append(i);
+		}
+		code.append(") {\n");
+		code.append("\t\t\tthis.json = json;\n");
+		for (int i = 0; i < implementations.size(); i++) {
+			code.append("\t\t\tthis.impl_").append(i).append(" = impl_").append(i).append(";\n");
+		}
+		code.append("\t\t}\n\n");
+		code.append("\t\tprivate static int findType(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+		code.append("\t\t\tswitch (reader.calcHash()) {\n");
+		Map<Integer, List<Integer>> hashes = new TreeMap<Integer, List<Integer>>();
+		for (int i = 0; i < implementations.size(); i++) {
+			int hash = calcHash(implementations.get(i).typeName);
+			List<Integer> group = hashes.get(hash);
+			if (group == null) {
+				group = new ArrayList<Integer>();
+				hashes.put(hash, group);
+			}
+			group.add(i);
+		}
+		for (Map.Entry<Integer, List<Integer>> kv : hashes.entrySet()) {
+			code.append("\t\t\t\tcase ").append(kv.getKey()).append(":\n");
+			for (int i : kv.getValue()) {
+				code.append("\t\t\t\t\tif (").append(nameMatch(implementations.get(i).typeName)).append(") return ").append(i).append(";\n");
+			}
+			code.append("\t\t\t\t\tbreak;\n");
+		}
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Unknown ").append(escaped);
+		code.append(" for ").append(className).append(": '\" + reader.getLastName() + \"' at position \" + reader.positionInStream());\n");
+		code.append("\t\t}\n\n");
+		code.append("\t\tprivate static boolean isDiscriminator(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+		code.append("\t\t\treader.calcHash();\n");
+		code.append("\t\t\tfinal boolean found = ").append(nameMatch(discriminator)).append(";\n");
+		code.append("\t\t\tif (reader.getNextToken() != ':') {\n");
+		code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Expecting ':' at position \" + reader.positionInStream() + \". Found \" + (char) reader.last());\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\treturn found;\n");
+		code.append("\t\t}\n\n");
+		code.append("\t\t@Override\n");
+		code.append("\t\tpublic ").append(className).append(" read(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+		code.append("\t\t\tif (reader.last() != '{') {\n");
+		code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Expecting '{' at position \" + reader.positionInStream() + \". Found \" + (char) reader.last());\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\treader.startCapture();\n");
+		code.append("\t\t\tif (reader.getNextToken() == '}') {\n");
+		code.append("\t\t\t\treader.cancelCapture();\n");
+		code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Missing ").append(escaped);
+		code.append(" property for ").append(className).append(" at position \" + reader.positionInStream());\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tif (!isDiscriminator(reader)) {\n");
+		code.append("\t\t\t\treturn readBuffered(reader);\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\treader.cancelCapture();\n");
+		code.append("\t\t\treader.getNextToken();\n");
+		code.append("\t\t\tfinal int type = findType(reader);\n");
+		code.append("\t\t\tif (reader.getNextToken() == ',') {\n");
+		code.append("\t\t\t\treader.getNextToken();\n");
+		List<String> results = new ArrayList<String>();
+		for (int i = 0; i < implementations.size(); i++) {
+			results.add("impl_" + i + ".readContent(reader)");
+		}
+		appendTypeSwitch(code, "\t\t\t\t", results, className);
+		code.append("\t\t\t} else if (reader.last() != '}') {\n");
+		code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Expecting '}' or ',' at position \" + reader.positionInStream() + \". Found \" + (char) reader.last());\n");
+		code.append("\t\t\t}\n");
+		results.clear();
+		for (StructInfo impl : implementations) {
+			results.add(newInstance(impl, true));
+		}
+		appendTypeSwitch(code, "\t\t\t", results, className);
+		code.append("\t\t}\n\n");
+		code.append("\t\tprivate ").append(className).append(" readBuffered(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+		code.append("\t\t\tint type = -1;\n");
+		code.append("\t\t\tboolean isType = false;\n");
+		code.append("\t\t\twhile (true) {\n");
+		code.append("\t\t\t\treader.getNextToken();\n");
+		code.append("\t\t\t\tif (isType) {\n");
+		code.append("\t\t\t\t\ttype = findType(reader);\n");
+		code.append("\t\t\t\t\treader.getNextToken();\n");
+		code.append("\t\t\t\t} else {\n");
+		code.append("\t\t\t\t\treader.skip();\n");
+		code.append("\t\t\t\t}\n");
+		code.append("\t\t\t\tif (reader.last() != ',') {\n");
+		code.append("\t\t\t\t\tbreak;\n");
+		code.append("\t\t\t\t}\n");
+		code.append("\t\t\t\treader.getNextToken();\n");
+		code.append("\t\t\t\tisType = isDiscriminator(reader);\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tif (reader.last() != '}') {\n");
+		code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Expecting '}' or ',' at position \" + reader.positionInStream() + \". Found \" + (char) reader.last());\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tif (type == -1) {\n");
+		code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Missing ").append(escaped);
+		code.append(" property for ").append(className).append(" at position \" + reader.positionInStream());\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tfinal ").append(JSON_READER).append(" buffered = json.newReader(reader.endCapture());\n");
+		code.append("\t\t\tbuffered.getNextToken();\n");
+		results.clear();
+		for (int i = 0; i < implementations.size(); i++) {
+			results.add("impl_" + i + ".read(buffered)");
+		}
+		appendTypeSwitch(code, "\t\t\t", results, className);
+		code.append("\t\t}\n\n");
+		code.append("\t\t@Override\n");
+		code.append("\t\tpublic void write(final ").append(JSON_WRITER).append(" writer, final ").append(className).append(" value) {\n");
+		code.append("\t\t\tif (value == null) {\n");
+		code.append("\t\t\t\twriter.writeNull();\n");
+		code.append("\t\t\t\treturn;\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tfinal Class<?> manifest = value.getClass();\n");
+		for (int i = 0; i < implementations.size(); i++) {
+			String implName = implementations.get(i).element.getQualifiedName().toString();
+			code.append("\t\t\tif (manifest == ").append(implName).append(".class) {\n");
+			code.append("\t\t\t\twriter.writeAscii(type_").append(i).append(");\n");
+			code.append("\t\t\t\timpl_").append(i).append(".writeContent(writer, (").append(implName).append(") value, true);\n");
+			code.append("\t\t\t\twriter.writeByte(").append(JSON_WRITER).append(".OBJECT_END);\n");
+			code.append("\t\t\t\treturn;\n");
+			code.append("\t\t\t}\n");
+		}
+		code.append("\t\t\tthrow new IllegalStateException(\"Unable to serialize \" + manifest + \" as ").append(className);
+		code.append(". Only implementations annotated with @CompiledJson are supported\");\n");
+		code.append("\t\t}\n");
+		code.append("\t}\n");
+	}
+
+	private static void appendTypeSwitch(StringBuilder code, String indent, List<String> results, String className) {
+		if (results.isEmpty()) {
+			code.append(indent).append("throw new IllegalStateException(\"There are no implementations of ").append(className);
+			code.append(" annotated with @CompiledJson\");\n");
+			return;
+		}
+		code.append(indent).append("switch (type) {\n");
+		for (int i = 0; i < results.size(); i++) {
+			code.append(indent).append(i == results.size() - 1 ? "\tdefault:\n" : "\tcase " + i + ":\n");
+			code.append(indent).append("\t\treturn ").append(results.get(i)).append(";\n");
+		}
+		code.append(indent).append("}\n");
+	}
+
+	private void buildClassConverter(JavaSource source, StructInfo info, Map<String, StructInfo> structs) {
+		StringBuilder code = source.code;
+		String className = info.element.getQualifiedName().toString();
+		StructSource struct = new StructSource();
+		StringBuilder read = new StringBuilder();
+		StringBuilder write = new StringBuilder();
+		Map<Integer, List<String>> hashes = new TreeMap<Integer, List<String>>();
+		Map<String, AttributeInfo> byName = new HashMap<String, AttributeInfo>();
+		for (AttributeInfo attr : info.attributes) {
+			List<String> names = new ArrayList<String>();
+			names.add(attr.serializedName);
+			if (attr.alternativeNames != null) {
+				names.addAll(Arrays.asList(attr.alternativeNames));
+			}
+			for (String name : names) {
+				if (byName.containsKey(name)) {
+					continue;
+				}
+				byName.put(name, attr);
+				int hash = calcHash(name);
+				List<String> group = hashes.get(hash);
+				if (group == null) {
+					group = new ArrayList<String>();
+					hashes.put(hash, group);
+				}
+				group.add(name);
+			}
+			struct.fields.append("\t\tprivate static final byte[] quoted_").append(attr.name).append(" = ");
+			appendBytes(struct.fields, quote(attr.serializedName) + ":");
+			struct.fields.append(";\n");
+			buildAttributeWrite(source, struct, write, attr, structs);
+		}
+		for (Map.Entry<Integer, List<String>> kv : hashes.entrySet()) {
+			read.append("\t\t\t\t\tcase ").append(kv.getKey()).append(":\n");
+			List<String> names = kv.getValue();
+			if (names.size() == 1 && !byName.get(names.get(0)).fullMatch) {
+				buildAttributeRead(info, source, struct, read, byName.get(names.get(0)), structs, "\t\t\t\t\t\t");
+			} else {
+				for (int i = 0; i < names.size(); i++) {
+					read.append(i == 0 ? "\t\t\t\t\t\tif (" : " else if (").append(nameMatch(names.get(i))).append(") {\n");
+					buildAttributeRead(info, source, struct, read, byName.get(names.get(i)), structs, "\t\t\t\t\t\t\t");
+					read.append("\t\t\t\t\t\t}");
+				}
+				read.append(" else {\n");
+				read.append("\t\t\t\t\t\t\treader.skip();\n");
+				read.append("\t\t\t\t\t\t}\n");
+			}
+			read.append("\t\t\t\t\t\tbreak;\n");
+		}
+		code.append("\n\tpublic static final class Converter implements ");
+		code.append(JSON_READER).append(".ReadObject<").append(className).append(">, ");
+		code.append(JSON_WRITER).append(".WriteObject<").append(className).append("> {\n\n");
+		code.append("\t\tprivate final com.dslplatform.json.DslJson json;\n");
+		code.append("\t\tprivate final boolean omitDefaults;\n");
+		code.append(struct.fields);
+		code.append("\n\t\tpublic Converter(final com.dslplatform.json.DslJson json) {\n");
+		code.append("\t\t\tthis.json = json;\n");
+		code.append("\t\t\tthis.omitDefaults = json.omitDefaults;\n");
+		code.append(struct.init);
+		code.append("\t\t}\n\n");
+		code.append("\t\t@Override\n");
+		code.append("\t\tpublic ").append(className).append(" read(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+		code.append("\t\t\tif (reader.last() != '{') {\n");
+		code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Expecting '{' at position \" + reader.positionInStream() + \". Found \" + (char) reader.last());\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tif (reader.getNextToken() == '}') {\n");
+		code.append("\t\t\t\treturn ").append(newInstance(info, true)).append(";\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\treturn readContent(reader);\n");
+		code.append("\t\t}\n\n");
+		code.append("\t\tpublic ").append(className).append(" readContent(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+		if (info.creator == null) {
+			code.append("\t\t\tfinal ").append(className).append(" instance = ").append(newInstance(info, true)).append(";\n");
+		} else if (info.creator.isBuilder()) {
+			String builderType = processingEnv.getTypeUtils().erasure(info.creator.method.getReturnType()).toString();
+			code.append("\t\t\t").append(builderType).append(" builder = ").append(className).append(".");
+			code.append(info.creator.method.getSimpleName()).append("();\n");
+		} else {
+			for (AttributeInfo attr : info.attributes) {
+				code.append("\t\t\t").append(attr.type).append(" _").append(attr.name).append(" = ").append(defaultValue(attr.type, false)).append(";\n");
+			}
+		}
+		//nested objects are read recursively, so depth is tracked to prevent stack overflow on deeply nested input
+		code.append("\t\t\treader.startNesting();\n");
+		code.append("\t\t\twhile (true) {\n");
+		code.append("\t\t\t\tfinal int hash = reader.fillName();\n");
+		code.append("\t\t\t\treader.getNextToken();\n");
+		code.append("\t\t\t\tswitch (hash) {\n");
+		code.append(read);
+		code.append("\t\t\t\t\tdefault:\n");
+		code.append("\t\t\t\t\t\treader.skip();\n");
+		code.append("\t\t\t\t}\n");
+		code.append("\t\t\t\tif (reader.last() != ',') {\n");
+		code.append("\t\t\t\t\tbreak;\n");
+		code.append("\t\t\t\t}\n");
+		code.append("\t\t\t\treader.getNextToken();\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\treader.endNesting();\n");
+		code.append("\t\t\tif (reader.last() != '}') {\n");
+		code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Expecting '}' or ',' at position \" + reader.positionInStream() + \". Found \" + (char) reader.last());\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\treturn ").append(info.creator == null ? "instance" : newInstance(info, false)).append(";\n");
+		code.append("\t\t}\n\n");
+		code.append("\t\t@Override\n");
+		code.append("\t\tpublic void write(final ").append(JSON_WRITER).append(" writer, final ").append(className).append(" value) {\n");
+		code.append("\t\t\tif (value == null) {\n");
+		code.append("\t\t\t\twriter.writeNull();\n");
+		code.append("\t\t\t\treturn;\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\twriter.writeByte(").append(JSON_WRITER).append(".OBJECT_START);\n");
+		code.append("\t\t\twriteContent(writer, value, false);\n");
+		code.append("\t\t\twriter.writeByte(").append(JSON_WRITER).append(".OBJECT_END);\n");
+		code.append("\t\t}\n\n");
+		code.append("\t\tpublic boolean writeContent(final ").append(JSON_WRITER).append(" writer, final ").append(className).append(" value, boolean hasPrevious) {\n");
+		code.append(write);
+		code.append("\t\t\treturn hasPrevious;\n");
+		code.append("\t\t}\n");
+		code.append("\t}\n");
+	}
+
+	private void buildAttributeRead(
+			StructInfo info,
+			JavaSource source,
+			StructSource struct,
+			StringBuilder read,
+			AttributeInfo attr,
+			Map<String, StructInfo> structs,
+			String indent) {
+		String expression = readExpression(source, struct, attr, structs);
+		if (attr.type.getKind().isPrimitive()) {
+			read.append(indent).append(assignValue(info, attr, expression)).append(";\n");
+		} else {
+			read.append(indent).append("if (reader.wasNull()) {\n");
+			if (attr.notNull) {
+				read.append(indent).append("\tthrow new ").append(IO_EXCEPTION).append("(\"Property '").append(attr.name);
+				read.append("' is not allowed to be null at position \" + reader.positionInStream());\n");
+			} else {
+				read.append(indent).append("\t").append(assignValue(info, attr, "null")).append(";\n");
+			}
+			read.append(indent).append("} else {\n");
+			read.append(indent).append("\t").append(assignValue(info, attr, expression)).append(";\n");
+			read.append(indent).append("}\n");
+		}
+		read.append(indent).append("reader.getNextToken();\n");
+	}
+
+	private void buildAttributeWrite(
+			JavaSource source,
+			StructSource struct,
+			StringBuilder write,
+			AttributeInfo attr,
+			Map<String, StructInfo> structs) {
+		String local = "_" + attr.name;
+		write.append("\t\t\tfinal ").append(attr.type).append(" ").append(local).append(" = ").append(attr.readValue("value")).append(";\n");
+		String statement = writeStatement(source, struct, attr, structs, local);
+		if (attr.type.getKind().isPrimitive()) {
+			String check = attr.type.getKind() == TypeKind.BOOLEAN ? local : local + " != 0";
+			write.append("\t\t\tif (!omitDefaults || ").append(check).append(") {\n");
+			appendAttributeWrite(write, attr, statement);
+			write.append("\t\t\t}\n");
+		} else {
+			write.append("\t\t\tif (").append(local).append(" != null) {\n");
+			appendAttributeWrite(write, attr, statement);
+			write.append("\t\t\t} else if (!omitDefaults) {\n");
+			appendAttributeWrite(write, attr, "writer.writeNull();");
+			write.append("\t\t\t}\n");
+		}
+	}
+
+	private static String assignValue(StructInfo info, AttributeInfo attr, String value) {
+		if (info.creator == null) {
+			return attr.assignValue("instance", value);
+		} else if (info.creator.isBuilder()) {
+			//only properties found in JSON are passed to the builder, so it can keep its own defaults
+			return "builder = builder." + info.creator.builderMethods.get(attr.name).getSimpleName() + "(" + value + ")";
+		}
+		return "_" + attr.name + " = " + value;
+	}
+
+	/**
+	 * Expression for creating new instance.
+	 * Creator arguments are taken from the locals, or default values are used for missing properties.
+	 * Builder properties are applied while reading, so only the build method is called on the builder local.
+	 */
+	private String newInstance(StructInfo info, boolean empty) {
+		String className = info.element.getQualifiedName().toString();
+		CreatorInfo creator = info.creator;
+		if (creator == null) {
+			return "new " + className + "()";
+		}
+		Set<String> read = new HashSet<String>();
+		if (!empty) {
+			for (AttributeInfo attr : info.attributes) {
+				read.add(attr.name);
+			}
+		}
+		StringBuilder sb = new StringBuilder();
+		if (creator.method.getKind() == ElementKind.CONSTRUCTOR) {
+			sb.append("new ").append(className).append("(");
+		} else {
+			sb.append(className).append(".").append(creator.method.getSimpleName()).append("(");
+		}
+		if (creator.isBuilder()) {
+			return (empty ? sb.append(")").toString() : "builder") + "." + creator.build.getSimpleName() + "()";
+		}
+		for (int i = 0; i < creator.arguments.size(); i++) {
+			VariableElement argument = creator.arguments.get(i);
+			if (i > 0) sb.append(", ");
+			String property = argument.getSimpleName().toString();
+			sb.append(read.contains(property) ? "_" + property : defaultValue(argument.asType(), true));
+		}
+		return sb.append(")").toString();
+	}
+
+	private String defaultValue(TypeMirror type, boolean cast) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "false";
+			case BYTE:
+				return "(byte) 0";
+			case SHORT:
+				return "(short) 0";
+			case CHAR:
+				return "(char) 0";
+			case INT:
+				return "0";
+			case LONG:
+				return "0L";
+			case FLOAT:
+				return "0f";
+			case DOUBLE:
+				return "0d";
+			default:
+				return cast ? "(" + processingEnv.getTypeUtils().erasure(type) + ") null" : "null";
+		}
+	}
+
+	private static void appendAttributeWrite(StringBuilder write, AttributeInfo attr, String statement) {
+		write.append("\t\t\t\tif (hasPrevious) {\n");
+		write.append("\t\t\t\t\twriter.writeByte(").append(JSON_WRITER).append(".COMMA);\n");
+		write.append("\t\t\t\t}\n");
+		write.append("\t\t\t\twriter.writeAscii(quoted_").append(attr.name).append(");\n");
+		write.append("\t\t\t\t").append(statement).append("\n");
+		write.append("\t\t\t\thasPrevious = true;\n");
+	}
+
+	private String readExpression(JavaSource source, StructSource struct, AttributeInfo attr, Map<String, StructInfo> structs) {
+		if (attr.converter != null) {
+			return attr.converter + ".JSON_READER.read(reader)";
+		}
+		TypeMirror type = attr.type;
+		String direct = JavaReaders.get(type.toString());
+		if (direct != null) {
+			return direct;
+		}
+		if (type instanceof ArrayType) {
+			TypeMirror component = ((ArrayType) type).getComponentType();
+			String primitive = PrimitiveArrayReaders.get(component.toString());
+			source.usesArrays = true;
+			if (primitive != null) {
+				return primitive;
+			}
+			String element = converterFor(source, struct, attr, component, structs, true);
+			String erased = processingEnv.getTypeUtils().erasure(component).toString();
+			return "readCollection(reader, " + element + ", new java.util.ArrayList<" + component + ">(4)).toArray(new " + erased + "[0])";
+		}
+		String collection = collectionImplementation(type);
+		if (collection != null) {
+			TypeMirror elementType = ((DeclaredType) type).getTypeArguments().get(0);
+			String element = converterFor(source, struct, attr, elementType, structs, true);
+			source.usesArrays = true;
+			return "readCollection(reader, " + element + ", new " + collection + "<" + elementType + ">())";
+		}
+		return converterFor(source, struct, attr, type, structs, true) + ".read(reader)";
+	}
+
+	private String writeStatement(JavaSource source, StructSource struct, AttributeInfo attr, Map<String, StructInfo> structs, String value) {
+		if (attr.converter != null) {
+			return attr.converter + ".JSON_WRITER.write(writer, " + value + ");";
+		}
+		TypeMirror type = attr.type;
+		String direct = JavaWriters.get(type.toString());
+		if (direct != null) {
+			return String.format(direct, value);
+		}
+		if (type instanceof ArrayType) {
+			TypeMirror component = ((ArrayType) type).getComponentType();
+			String primitive = PrimitiveArrayWriters.get(component.toString());
+			if (primitive != null) {
+				return String.format(primitive, value);
+			}
+			return "writer.serialize(" + value + ", " + converterFor(source, struct, attr, component, structs, false) + ");";
+		}
+		if (collectionImplementation(type) != null) {
+			TypeMirror elementType = ((DeclaredType) type).getTypeArguments().get(0);
+			return "writer.serialize(" + value + ", " + converterFor(source, struct, attr, elementType, structs, false) + ");";
+		}
+		return converterFor(source, struct, attr, type, structs, false) + ".write(writer, " + value + ");";
+	}
+
+	private static String collectionImplementation(TypeMirror type) {
+		String name = type.toString();
+		if (!(type instanceof DeclaredType) || ((DeclaredType) type).getTypeArguments().size() != 1) {
+			return null;
+		}
+		if (name.startsWith("java.util.List<") || name.startsWith("java.util.Collection<")) {
+			return "java.util.ArrayList";
+		} else if (name.startsWith("java.util.Set<")) {
+			return "java.util.LinkedHashSet";
+		} else if (name.startsWith("java.util.LinkedList<") || name.startsWith("java.util.Queue<")) {
+			return "java.util.LinkedList";
+		} else if (name.startsWith("java.util.Stack<")) {
+			return "java.util.Stack";
+		} else if (name.startsWith("java.util.Vector<")) {
+			return "java.util.Vector";
+		}
+		return null;
+	}
+
+	/**
+	 * Expression for reader/writer of specified type.
+	 * Library types and JsonObject types are converted through shared converters,
+	 * while everything else is looked up in DslJson on first use.
+	 */
+	private String converterFor(
+			JavaSource source,
+			StructSource struct,
+			AttributeInfo attr,
+			TypeMirror type,
+			Map<String, StructInfo> structs,
+			boolean reader) {
+		String typeName = type.toString();
+		String prefix = reader ? "reader_" : "writer_";
+		String direct = reader ? JavaReaders.get(typeName) : JavaWriters.get(typeName);
+		StructInfo target = structs.get(typeName);
+		if (direct != null) {
+			return sharedConverter(source, typeName, reader);
+		} else if (target != null && target.converter != null && target.converter.length() == 0) {
+			if (!reader) {
+				String name = prefix + attr.name;
+				struct.fields.append("\t\tprivate final ").append(JSON_WRITER).append(".WriteObject<").append(typeName).append("> ").append(name).append(";\n");
+				struct.init.append("\t\t\tthis.").append(name).append(" = new ").append(JSON_WRITER).append(".WriteObject<").append(typeName).append(">() {\n");
+				struct.init.append("\t\t\t\t@Override\n");
+				struct.init.append("\t\t\t\tpublic void write(final ").append(JSON_WRITER).append(" writer, final ").append(typeName).append(" value) {\n");
+				struct.init.append("\t\t\t\t\tvalue.serialize(writer, omitDefaults);\n");
+				struct.init.append("\t\t\t\t}\n");
+				struct.init.append("\t\t\t};\n");
+				return name;
+			}
+			return sharedConverter(source, typeName, true);
+		}
+		String name = prefix + attr.name;
+		String converter = (reader ? JSON_READER + ".ReadObject<" : JSON_WRITER + ".WriteObject<") + typeName + ">";
+		String manifest = processingEnv.getTypeUtils().erasure(type) + ".class";
+		struct.fields.append("\t\tprivate ").append(converter).append(" ").append(name).append(";\n");
+		struct.fields.append("\n\t\tprivate ").append(converter).append(" ").append(name).append("()");
+		if (reader) {
+			struct.fields.append(" throws ").append(IO_EXCEPTION);
+		}
+		struct.fields.append(" {\n");
+		struct.fields.append("\t\t\tif (").append(name).append(" == null) {\n");
+		struct.fields.append("\t\t\t\t").append(name).append(" = (").append(converter).append(") json.");
+		struct.fields.append(reader ? "tryFindReader(" : "tryFindWriter(").append(manifest).append(");\n");
+		struct.fields.append("\t\t\t\tif (").append(name).append(" == null) {\n");
+		if (reader) {
+			struct.fields.append("\t\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Unable to find reader for \" + ").append(manifest).append(");\n");
+		} else {
+			struct.fields.append("\t\t\t\t\tthrow new IllegalStateException(\"Unable to find writer for \" + ").append(manifest).append(");\n");
+		}
+		struct.fields.append("\t\t\t\t}\n");
+		struct.fields.append("\t\t\t}\n");
+		struct.fields.append("\t\t\treturn ").append(name).append(";\n");
+		struct.fields.append("\t\t}\n");
+		return name + "()";
+	}
+
+	private static String sharedConverter(JavaSource source, String typeName, boolean reader) {
+		String key = (reader ? "reader:" : "writer:") + typeName;
+		String name = source.sharedConverters.get(key);
+		if (name != null) {
+			return name;
+		}
+		name = (reader ? "READER_" : "WRITER_") + source.sharedConverters.size();
+		source.sharedConverters.put(key, name);
+		StringBuilder code = source.shared;
+		code.append("\n");
+		if (reader) {
+			String direct = JavaReaders.get(typeName);
+			code.append("\tstatic final ").append(JSON_READER).append(".ReadObject<").append(typeName).append("> ").append(name);
+			code.append(" = new ").append(JSON_READER).append(".ReadObject<").append(typeName).append(">() {\n");
+			code.append("\t\t@Override\n");
+			code.append("\t\tpublic ").append(typeName).append(" read(final ").append(JSON_READER).append(" reader) throws ").append(IO_EXCEPTION).append(" {\n");
+			if (direct != null) {
+				code.append("\t\t\treturn ").append(direct).append(";\n");
+			} else {
+				code.append("\t\t\tif (reader.last() != '{') {\n");
+				code.append("\t\t\t\tthrow new ").append(IO_EXCEPTION).append("(\"Expecting '{' at position \" + reader.positionInStream() + \". Found \" + (char) reader.last());\n");
+				code.append("\t\t\t}\n");
+				code.append("\t\t\treader.getNextToken();\n");
+				code.append("\t\t\treturn ").append(typeName).append(".JSON_READER.deserialize(reader);\n");
+			}
+		} else {
+			code.append("\tstatic final ").append(JSON_WRITER).append(".WriteObject<").append(typeName).append("> ").append(name);
+			code.append(" = new ").append(JSON_WRITER).append(".WriteObject<").append(typeName).append(">() {\n");
+			code.append("\t\t@Override\n");
+			code.append("\t\tpublic void write(final ").append(JSON_WRITER).append(" writer, final ").append(typeName).append(" value) {\n");
+			code.append("\t\t\t").append(String.format(JavaWriters.get(typeName), "value")).append("\n");
+		}
+		code.append("\t\t}\n");
+		code.append("\t};\n");
+		return name;
+	}
+
+	private static String nameMatch(String name) {
+		byte[] bytes = name.getBytes(UTF_8);
+		return bytes.length == name.length()
+				? "reader.wasLastName(" + quote(name) + ")"
+				: quote(name) + ".equals(reader.getLastName())";
+	}
+
+	private static String quote(String value) {
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 32) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	private static void appendBytes(StringBuilder code, String value) {
+		byte[] bytes = value.getBytes(UTF_8);
+		code.append("{");
+		for (int i = 0; i < bytes.length; i++) {
+			if (i > 0) code.append(", ");
+			code.append(bytes[i]);
+		}
+		code.append("}");
+	}
+
 	private static int calcHash(String name) {
 		long hash = 0x811c9dc5;
-		for (int i = 0; i < name.length(); i++) {
-			byte b = (byte)name.charAt(i);
+		for (byte b : name.getBytes(UTF_8)) {
 			hash ^= b;
 			hash *= 0x1000193;
 		}
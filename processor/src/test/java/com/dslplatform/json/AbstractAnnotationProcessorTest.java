@@ -126,7 +126,16 @@ public abstract class AbstractAnnotationProcessorTest {
 				COMPILER.getStandardFileManager(diagnosticCollector, null, null);
 
 		ArrayList<String> compileArgs = new ArrayList<String>();
-		compileArgs.add("-proc:only");
+		//when output folder is specified, sources (including generated ones) are compiled too
+		if (!arguments.contains("-d")) {
+			compileArgs.add("-proc:only");
+			File output = new File(classpathRoot().getParentFile(), "processor-output");
+			output.mkdirs();
+			compileArgs.add("-d");
+			compileArgs.add(output.getAbsolutePath());
+			compileArgs.add("-s");
+			compileArgs.add(output.getAbsolutePath());
+		}
 		compileArgs.addAll(arguments);
         /*
          * Call the compiler with the "-proc:only" option. The "class names"
@@ -158,12 +167,15 @@ public abstract class AbstractAnnotationProcessorTest {
 		return diagnostics;
 	}
 
+	private static File classpathRoot() {
+		ClassLoader cl = Thread.currentThread().getContextClassLoader();
+		return new File(cl.getResource("").getPath());
+	}
+
 	private static Collection<File> findClasspathFiles(String[] filenames) throws IOException {
 		Collection<File> classpathFiles = new ArrayList<File>(filenames.length);
 
-		ClassLoader cl = Thread.currentThread().getContextClassLoader();
-		File classpathRoot = new File(cl.getResource("").getPath());
-		File projectRoot = classpathRoot.getParentFile().getParentFile();
+		File projectRoot = classpathRoot().getParentFile().getParentFile();
 		File javaRoot = new File(new File(new File(projectRoot, "src"), "test"), "java");
 
 		for (String filename : filenames) {
@@ -0,0 +1,350 @@
+package com.dslplatform.json;
+
+import com.dslplatform.json.models.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.processing.Processor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+
+public class GeneratedCodeTest extends AbstractAnnotationProcessorTest {
+
+	private final List<File> outputs = new ArrayList<File>();
+
+	protected Collection<Processor> getProcessors() {
+		return Collections.<Processor>singletonList(new CompiledJsonProcessor());
+	}
+
+	private DslJson<Object> compile(boolean omitDefaults, Class<?>... models) throws Exception {
+		return compile("dsl_json.json.ExternalSerialization", omitDefaults, models);
+	}
+
+	private DslJson<Object> compile(String configuration, boolean omitDefaults, Class<?>... models) throws Exception {
+		return new DslJson<Object>(null, false, null, omitDefaults, null, Collections.singletonList(configuration(configuration, models)));
+	}
+
+	private Configuration configuration(String configuration, Class<?>... models) throws Exception {
+		File output = File.createTempFile("generated", "");
+		Assert.assertTrue(output.delete() && output.mkdir());
+		outputs.add(output);
+		assertCompilationSuccessful(
+				compileTestCase(
+						Arrays.asList("-d", output.getAbsolutePath(), "-classpath", System.getProperty("java.class.path")),
+						models));
+		URLClassLoader loader = new URLClassLoader(new URL[]{output.toURI().toURL()}, getClass().getClassLoader());
+		return (Configuration) loader.loadClass(configuration).newInstance();
+	}
+
+	@After
+	public void cleanup() {
+		for (File output : outputs) {
+			delete(output);
+		}
+		outputs.clear();
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	private static String serialize(DslJson<Object> json, Object value) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		json.serialize(value, os);
+		return os.toString("UTF-8");
+	}
+
+	private static <T> T deserialize(DslJson<Object> json, Class<T> manifest, String input) throws IOException {
+		byte[] bytes = input.getBytes("UTF-8");
+		return json.deserialize(manifest, bytes, bytes.length);
+	}
+
+	@Test
+	public void allTypesCompile() throws Exception {
+		DslJson<Object> json = compile(false, AllTypes.class);
+		AllTypes value = new AllTypes();
+		value.setPropInt(5);
+		value.setPropIntArr(new int[]{1, 2});
+		value.setPropOptUuidArr(new UUID[]{UUID.randomUUID(), null});
+		AllTypes result = deserialize(json, AllTypes.class, serialize(json, value));
+		Assert.assertEquals(5, result.getPropInt());
+		Assert.assertArrayEquals(new int[]{1, 2}, result.getPropIntArr());
+		Assert.assertArrayEquals(value.getPropOptUuidArr(), result.getPropOptUuidArr());
+	}
+
+	@Test
+	public void beanPropertiesAndFields() throws Exception {
+		DslJson<Object> json = compile(true, ReferenceListType.class);
+		ValidType item = new ValidType();
+		item.setProp(3);
+		item.setURI(7);
+		item.simpleField = "abc";
+		item.listField = Arrays.asList("x", null);
+		ReferenceListType value = new ReferenceListType();
+		value.setList(Arrays.asList(item, null));
+		String result = serialize(json, value);
+		Assert.assertTrue(result.contains("\"test\":3"));
+		Assert.assertFalse(result.contains("\"u\""));
+		ReferenceListType copy = deserialize(json, ReferenceListType.class, result);
+		Assert.assertEquals(2, copy.getList().size());
+		Assert.assertNull(copy.getList().get(1));
+		ValidType first = copy.getList().get(0);
+		Assert.assertEquals(3, first.getProp());
+		Assert.assertEquals(7, first.getURI());
+		Assert.assertEquals("abc", first.simpleField);
+		Assert.assertEquals(Arrays.asList("x", null), first.listField);
+	}
+
+	@Test
+	public void unknownPropertiesAreSkipped() throws Exception {
+		DslJson<Object> json = compile(false, ValidType.class);
+		ValidType value = deserialize(json, ValidType.class, "{\"a\":[1,{\"b\":null}],\"test\":2,\"c\":\"d\",\"simpleField\":null}");
+		Assert.assertEquals(2, value.getProp());
+		Assert.assertNull(value.simpleField);
+		try {
+			deserialize(json, ValidType.class, "{\"simpleField\":\"a\" \"u\":3}");
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Expecting '}' or ','"));
+		}
+	}
+
+	@Test
+	public void aliasesAndHashCollisions() throws Exception {
+		DslJson<Object> json = compile(false, PropertyAlias.class, DuplicateHashAllowed.class);
+		Assert.assertEquals("old", deserialize(json, PropertyAlias.class, "{\"old_prop\":\"old\"}").getProp());
+		Assert.assertEquals("new", deserialize(json, PropertyAlias.class, "{\"X\":\"new\",\"y\":2}").getProp());
+		DuplicateHashAllowed collision = deserialize(json, DuplicateHashAllowed.class, "{\"n3307663\":1,\"n519524\":2}");
+		Assert.assertEquals(1, collision.n3307663);
+		Assert.assertEquals(2, collision.n519524);
+	}
+
+	@Test
+	public void enumsAndNonNullable() throws Exception {
+		DslJson<Object> json = compile(false, NonNullableReferenceProperty.class);
+		NonNullableReferenceProperty value = deserialize(
+				json,
+				NonNullableReferenceProperty.class,
+				"{\"prop\":\"x\",\"enum\":\"SECOND\",\"ref\":[{},null],\"uuid\":[]}");
+		Assert.assertEquals(SimpleEnum.SECOND, value.getEnum());
+		Assert.assertEquals(2, value.getRef().length);
+		Assert.assertTrue(value.getUuid().isEmpty());
+		Assert.assertTrue(serialize(json, value).contains("\"enum\":\"SECOND\""));
+		try {
+			deserialize(json, NonNullableReferenceProperty.class, "{\"enum\":\"THIRD\"}");
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Unknown value"));
+		}
+		try {
+			deserialize(json, NonNullableReferenceProperty.class, "{\"prop\":null}");
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("'prop' is not allowed to be null"));
+		}
+	}
+
+	@Test
+	public void interfaceWithTypeProperty() throws Exception {
+		DslJson<Object> json = compile(false, UsesInterfaceType.class, Implements1Type.class);
+		UsesInterfaceType value = new UsesInterfaceType();
+		Implements1Type impl = new Implements1Type();
+		impl.x = "abc";
+		value.iface = impl;
+		String result = serialize(json, value);
+		Assert.assertEquals("{\"iface\":{\"$type\":\"com.dslplatform.json.models.Implements1Type\",\"x\":\"abc\"}}", result);
+		UsesInterfaceType copy = deserialize(json, UsesInterfaceType.class, result);
+		Assert.assertEquals("abc", ((Implements1Type) copy.iface).x);
+	}
+
+	@Test
+	public void discriminatorAfterOtherProperties() throws Exception {
+		DslJson<Object> json = compile(false, UsesInterfaceType.class, Implements1Type.class, Implements2Type.class);
+		UsesInterfaceType copy = deserialize(json, UsesInterfaceType.class,
+				"{\"iface\":{\"x\":5,\"y\":[{\"$type\":\"z\"}],\"$type\":\"com.dslplatform.json.models.Implements2Type\"}}");
+		Assert.assertEquals(5, ((Implements2Type) copy.iface).x);
+		try {
+			deserialize(json, UsesInterfaceType.class, "{\"iface\":{\"x\":5}}");
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Missing $type property for com.dslplatform.json.models.InterfaceType"));
+		}
+		try {
+			deserialize(json, UsesInterfaceType.class, "{\"iface\":{\"$type\":\"Unknown\"}}");
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Unknown $type for com.dslplatform.json.models.InterfaceType: 'Unknown'"));
+		}
+	}
+
+	@Test
+	public void mixinWithoutImplementations() throws Exception {
+		DslJson<Object> json = compile(false, LonelyType.class);
+		Assert.assertNotNull(json.tryFindReader(LonelyType.class));
+		for (String input : new String[]{"{\"$type\":\"x\"}", "{\"x\":1,\"$type\":\"x\"}"}) {
+			try {
+				deserialize(json, LonelyType.class, input);
+				Assert.fail("Expecting exception");
+			} catch (IOException ex) {
+				Assert.assertTrue(ex.getMessage().contains("Unknown $type for com.dslplatform.json.models.LonelyType: 'x'"));
+			}
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void customDiscriminatorAndTypeNames() throws Exception {
+		DslJson<Object> json = compile(false, Shape.class, Circle.class, Square.class);
+		Square square = new Square();
+		square.side = 3;
+		square.color = "red";
+		JsonWriter writer = json.newWriter();
+		JsonWriter.WriteObject<Shape> shapeWriter = (JsonWriter.WriteObject<Shape>) json.tryFindWriter(Shape.class);
+		shapeWriter.write(writer, square);
+		Assert.assertTrue(writer.toString().startsWith("{\"kind\":\"square\","));
+		Assert.assertTrue(writer.toString().contains("\"side\":3"));
+		writer.reset();
+		shapeWriter.write(writer, new Circle());
+		Assert.assertTrue(writer.toString().startsWith("{\"kind\":\"circle\""));
+		Square first = (Square) deserialize(json, Shape.class, "{\"kind\":\"square\",\"side\":4,\"color\":\"blue\"}");
+		Assert.assertEquals(4, first.side);
+		Assert.assertEquals("blue", first.color);
+		Square last = (Square) deserialize(json, Shape.class, "{\"color\":\"green\",\"side\":5,\"kind\":\"square\"}");
+		Assert.assertEquals(5, last.side);
+		Assert.assertEquals("green", last.color);
+		Circle empty = (Circle) deserialize(json, Shape.class, "{\"kind\":\"circle\"}");
+		Assert.assertEquals(0, empty.radius, 0);
+		StringBuilder large = new StringBuilder("[");
+		for (int i = 0; i < 100; i++) {
+			if (i > 0) large.append(',');
+			large.append("{\"color\":\"color ").append(i).append("\",\"side\":").append(i).append(",\"kind\":\"square\"}");
+		}
+		byte[] bytes = large.append(']').toString().getBytes("UTF-8");
+		List<Shape> shapes = json.deserializeList(Shape.class, new ByteArrayInputStream(bytes), new byte[64]);
+		Assert.assertEquals(100, shapes.size());
+		Assert.assertEquals("color 99", ((Square) shapes.get(99)).color);
+		Assert.assertEquals(99, ((Square) shapes.get(99)).side);
+	}
+
+	@Test
+	public void converterPerClass() throws Exception {
+		DslJson<Object> json = compile("com.dslplatform.json.models.ValidType_DslJsonConverter", false, ValidType.class, SimpleEnum.class);
+		Assert.assertNotNull(json.tryFindReader(ValidType.class));
+		Assert.assertNull(json.tryFindReader(SimpleEnum.class));
+		ValidType value = new ValidType();
+		value.setProp(3);
+		value.simpleField = "abc";
+		ValidType result = deserialize(json, ValidType.class, serialize(json, value));
+		Assert.assertEquals(3, result.getProp());
+		Assert.assertEquals("abc", result.simpleField);
+	}
+
+	@Test
+	public void converterForJavaTypeInNamespace() throws Exception {
+		DslJson<Object> json = compile("dsl_json.json.java_util_Date_DslJsonConverter", false, ReferenceToImplicitWithJavaType.class);
+		Assert.assertNotNull(json.tryFindReader(Date.class));
+		Assert.assertNull(json.tryFindReader(ReferenceToImplicitWithJavaType.class));
+	}
+
+	@Test
+	public void convertersAreLoadedOnFirstUse() throws Exception {
+		DslJson<Object> json = compile(false, ValidType.class, SimpleEnum.class);
+		Assert.assertNotNull(json.tryFindReader(ValidType.class));
+		ClassLoader loader = json.tryFindReader(ValidType.class).getClass().getClassLoader();
+		Method findLoaded = ClassLoader.class.getDeclaredMethod("findLoadedClass", String.class);
+		findLoaded.setAccessible(true);
+		Assert.assertNotNull(findLoaded.invoke(loader, "com.dslplatform.json.models.ValidType_DslJsonConverter"));
+		Assert.assertNull(findLoaded.invoke(loader, "com.dslplatform.json.models.SimpleEnum_DslJsonConverter"));
+		Assert.assertNotNull(json.tryFindWriter(SimpleEnum.class));
+		Assert.assertNotNull(findLoaded.invoke(loader, "com.dslplatform.json.models.SimpleEnum_DslJsonConverter"));
+	}
+
+	@Test
+	public void constructorAndFactoryCreators() throws Exception {
+		DslJson<Object> json = compile(false, ImmutableFactory.class);
+		ImmutableFactory value = ImmutableFactory.of(42, new ImmutableCtor(5, "abc", Arrays.asList("x", "y"), true));
+		String result = serialize(json, value);
+		ImmutableFactory copy = deserialize(json, ImmutableFactory.class, result);
+		Assert.assertEquals(42, copy.id);
+		Assert.assertEquals(5, copy.ctor.getNumber());
+		Assert.assertEquals("abc", copy.ctor.getName());
+		Assert.assertEquals(Arrays.asList("x", "y"), copy.ctor.getTags());
+		Assert.assertTrue(copy.ctor.isActive());
+		ImmutableCtor partial = deserialize(json, ImmutableCtor.class, "{\"name\":\"n\",\"unknown\":1}");
+		Assert.assertEquals("n", partial.getName());
+		Assert.assertEquals(0, partial.getNumber());
+		Assert.assertNull(partial.getTags());
+		ImmutableCtor empty = deserialize(json, ImmutableCtor.class, "{}");
+		Assert.assertNull(empty.getName());
+	}
+
+	@Test
+	public void builderCreator() throws Exception {
+		DslJson<Object> json = compile(true, ImmutableBuilder.class);
+		ImmutableBuilder value = ImmutableBuilder.builder().withName("abc").value(2.5).build();
+		String result = serialize(json, value);
+		ImmutableBuilder copy = deserialize(json, ImmutableBuilder.class, result);
+		Assert.assertEquals("abc", copy.getName());
+		Assert.assertEquals(2.5, copy.getValue(), 0);
+		Assert.assertEquals(3, deserialize(json, ImmutableBuilder.class, "{}").getValue(), 0);
+		ImmutableBuilder partial = deserialize(json, ImmutableBuilder.class, "{\"name\":\"x\"}");
+		Assert.assertEquals("x", partial.getName());
+		Assert.assertEquals(3, partial.getValue(), 0);
+		ImmutableBuilder unknown = deserialize(json, ImmutableBuilder.class, "{\"other\":1}");
+		Assert.assertEquals("unknown", unknown.getName());
+		Assert.assertEquals(3, unknown.getValue(), 0);
+		Assert.assertNull(deserialize(json, ImmutableBuilder.class, "{\"name\":null}").getName());
+	}
+	private static String recursive(int depth) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < depth; i++) {
+			sb.append("{\"value\":").append(i).append(",\"child\":");
+		}
+		sb.append("null");
+		for (int i = 0; i < depth; i++) {
+			sb.append('}');
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void deeplyNestedInputRespectsMaxDepth() throws Exception {
+		Configuration config = configuration("dsl_json.json.ExternalSerialization", RecursiveType.class);
+		DslJson<Object> json = new DslJson<Object>(new DslJson.Settings<Object>()
+				.withConfiguration(config)
+				.withLimits(new JsonReader.Limits(100, Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE)));
+		RecursiveType value = deserialize(json, RecursiveType.class, recursive(100));
+		for (int i = 0; i < 99; i++) {
+			value = value.getChild();
+		}
+		Assert.assertEquals(99, value.getValue());
+		Assert.assertNull(value.getChild());
+		try {
+			// without depth tracking this would overflow the stack
+			deserialize(json, RecursiveType.class, recursive(100000));
+			Assert.fail("Expecting exception");
+		} catch (IOException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Maximum nesting depth of 100 exceeded"));
+		}
+		// siblings don't accumulate depth
+		StringBuilder list = new StringBuilder("[");
+		for (int i = 0; i < 200; i++) {
+			list.append(i == 0 ? "" : ",").append(recursive(50));
+		}
+		byte[] bytes = list.append(']').toString().getBytes("UTF-8");
+		Assert.assertEquals(200, json.deserializeList(RecursiveType.class, bytes, bytes.length).size());
+	}
+}
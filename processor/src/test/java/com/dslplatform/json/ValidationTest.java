@@ -25,6 +25,21 @@ public class ValidationTest extends AbstractAnnotationProcessorTest {
 		assertCompilationReturned(Diagnostic.Kind.ERROR, 5, compileTestCase(MissingEmptyCtor.class));
 	}
 
+	@Test
+	public void testCreators() {
+		assertCompilationSuccessful(compileTestCase(ImmutableCtor.class, ImmutableFactory.class, ImmutableBuilder.class));
+	}
+
+	@Test
+	public void testCreatorWithoutProperty() {
+		assertCompilationReturned(Diagnostic.Kind.ERROR, 11, compileTestCase(InvalidCreator.class));
+	}
+
+	@Test
+	public void testDuplicateTypeName() {
+		assertCompilationReturned(Diagnostic.Kind.ERROR, 5, compileTestCase(Shape.class, Circle.class, DuplicateTypeName.class));
+	}
+
 	@Test
 	public void testNonPublicClass() {
 		assertCompilationReturned(Diagnostic.Kind.ERROR, 3, compileTestCase(NonPublicClass.class));
@@ -0,0 +1,8 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+
+@CompiledJson(name = "circle")
+public class Circle implements Shape {
+	public double radius;
+}
@@ -0,0 +1,47 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+import com.dslplatform.json.JsonCreator;
+
+@CompiledJson
+public class ImmutableBuilder {
+	private final String name;
+	private final double value;
+
+	private ImmutableBuilder(String name, double value) {
+		this.name = name;
+		this.value = value;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	@JsonCreator
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static class Builder {
+		private String name = "unknown";
+		private double value = 3;
+
+		public Builder withName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public Builder value(double value) {
+			this.value = value;
+			return this;
+		}
+
+		public ImmutableBuilder build() {
+			return new ImmutableBuilder(name, value);
+		}
+	}
+}
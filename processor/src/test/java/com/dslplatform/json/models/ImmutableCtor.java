@@ -0,0 +1,38 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+import com.dslplatform.json.JsonCreator;
+
+import java.util.List;
+
+@CompiledJson
+public class ImmutableCtor {
+	private final int number;
+	private final String name;
+	private final List<String> tags;
+	private final boolean active;
+
+	@JsonCreator
+	public ImmutableCtor(int number, String name, List<String> tags, boolean active) {
+		this.number = number;
+		this.name = name;
+		this.tags = tags;
+		this.active = active;
+	}
+
+	public int getNumber() {
+		return number;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public List<String> getTags() {
+		return tags;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+}
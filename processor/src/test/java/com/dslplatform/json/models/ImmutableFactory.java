@@ -0,0 +1,20 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+@CompiledJson
+public class ImmutableFactory {
+	public final long id;
+	public final ImmutableCtor ctor;
+
+	private ImmutableFactory(long id, ImmutableCtor ctor) {
+		this.id = id;
+		this.ctor = ctor;
+	}
+
+	@JsonCreator
+	public static ImmutableFactory of(long id, ImmutableCtor ctor) {
+		return new ImmutableFactory(id, ctor);
+	}
+}
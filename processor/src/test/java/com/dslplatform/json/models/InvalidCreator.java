@@ -0,0 +1,18 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+import com.dslplatform.json.JsonCreator;
+
+@CompiledJson
+public class InvalidCreator {
+	private final String name;
+
+	@JsonCreator
+	public InvalidCreator(String value) {
+		this.name = value;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,8 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+
+@CompiledJson
+public interface LonelyType {
+	int getX();
+}
@@ -0,0 +1,25 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+
+@CompiledJson
+public class RecursiveType {
+	private int value;
+	private RecursiveType child;
+
+	public int getValue() {
+		return value;
+	}
+
+	public void setValue(int value) {
+		this.value = value;
+	}
+
+	public RecursiveType getChild() {
+		return child;
+	}
+
+	public void setChild(RecursiveType value) {
+		child = value;
+	}
+}
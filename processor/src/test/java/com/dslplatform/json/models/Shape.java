@@ -0,0 +1,7 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+
+@CompiledJson(discriminator = "kind")
+public interface Shape {
+}
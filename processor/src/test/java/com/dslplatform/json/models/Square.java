@@ -0,0 +1,9 @@
+package com.dslplatform.json.models;
+
+import com.dslplatform.json.CompiledJson;
+
+@CompiledJson(name = "square")
+public class Square implements Shape {
+	public int side;
+	public String color;
+}
@@ -0,0 +1,63 @@
+package com.dslplatform.json;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Exposes {@link JsonPublisher} as a Reactive Streams publisher.
+ * Adapter only delegates the signals, so demand, cancellation and the single subscriber rule
+ * are those of the wrapped publisher.
+ * <p>
+ * On Java 9+ java.util.concurrent.Flow consumers can use the adapter from Reactive Streams:
+ * <pre>
+ * Flow.Publisher&lt;T&gt; flow = FlowAdapters.toFlowPublisher(ReactiveStreams.toReactive(publisher));
+ * </pre>
+ */
+public abstract class ReactiveStreams {
+
+	public static <T> Publisher<T> toReactive(final JsonPublisher<T> publisher) {
+		if (publisher == null) {
+			throw new NullPointerException("publisher provided as null.");
+		}
+		return new Publisher<T>() {
+			@Override
+			public void subscribe(final Subscriber<? super T> subscriber) {
+				if (subscriber == null) {
+					throw new NullPointerException("subscriber provided as null.");
+				}
+				publisher.subscribe(new JsonPublisher.Subscriber<T>() {
+					@Override
+					public void onSubscribe(final JsonPublisher.Subscription subscription) {
+						subscriber.onSubscribe(new Subscription() {
+							@Override
+							public void request(final long n) {
+								subscription.request(n);
+							}
+
+							@Override
+							public void cancel() {
+								subscription.cancel();
+							}
+						});
+					}
+
+					@Override
+					public void onNext(final T item) {
+						subscriber.onNext(item);
+					}
+
+					@Override
+					public void onError(final Throwable throwable) {
+						subscriber.onError(throwable);
+					}
+
+					@Override
+					public void onComplete() {
+						subscriber.onComplete();
+					}
+				});
+			}
+		};
+	}
+}
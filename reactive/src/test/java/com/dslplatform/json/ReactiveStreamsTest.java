@@ -0,0 +1,129 @@
+package com.dslplatform.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class ReactiveStreamsTest {
+
+	private static final Executor DIRECT = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private final DslJson<Object> json = new DslJson<Object>();
+
+	private static class Recorder implements Subscriber<Number> {
+		final List<Number> items = new ArrayList<Number>();
+		Subscription subscription;
+		Throwable error;
+		boolean completed;
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(Number item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+
+	private Publisher<Long> longs(int size) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) sb.append(',');
+			sb.append(i);
+		}
+		byte[] input = sb.append(']').toString().getBytes();
+		return ReactiveStreams.toReactive(json.publishOver(Long.class, new ByteArrayInputStream(input), new byte[64], DIRECT));
+	}
+
+	@Test
+	public void respectsDemand() {
+		Recorder recorder = new Recorder();
+		longs(10).subscribe(recorder);
+		Assert.assertEquals(0, recorder.items.size());
+		recorder.subscription.request(4);
+		Assert.assertEquals(4, recorder.items.size());
+		Assert.assertEquals(3L, recorder.items.get(3));
+		Assert.assertFalse(recorder.completed);
+		recorder.subscription.request(100);
+		Assert.assertEquals(10, recorder.items.size());
+		Assert.assertTrue(recorder.completed);
+		Assert.assertNull(recorder.error);
+	}
+
+	@Test
+	public void errorsAreSignaled() {
+		Recorder recorder = new Recorder();
+		byte[] input = "[1,2,x]".getBytes();
+		ReactiveStreams.toReactive(json.publishOver(Long.class, new ByteArrayInputStream(input), new byte[64], DIRECT))
+				.subscribe(recorder);
+		recorder.subscription.request(10);
+		Assert.assertEquals(2, recorder.items.size());
+		Assert.assertTrue(recorder.error instanceof IOException);
+		Assert.assertFalse(recorder.completed);
+	}
+
+	@Test
+	public void invalidRequestIsAnError() {
+		Recorder recorder = new Recorder();
+		longs(10).subscribe(recorder);
+		recorder.subscription.request(-1);
+		Assert.assertTrue(recorder.error instanceof IllegalArgumentException);
+		recorder.subscription.request(1);
+		Assert.assertEquals(0, recorder.items.size());
+	}
+
+	@Test
+	public void cancelStopsEmission() {
+		Recorder recorder = new Recorder();
+		longs(10).subscribe(recorder);
+		recorder.subscription.request(2);
+		recorder.subscription.cancel();
+		recorder.subscription.request(2);
+		Assert.assertEquals(2, recorder.items.size());
+		Assert.assertFalse(recorder.completed);
+		Assert.assertNull(recorder.error);
+	}
+
+	@Test
+	public void singleSubscriber() {
+		Publisher<Long> publisher = longs(10);
+		Recorder first = new Recorder();
+		Recorder second = new Recorder();
+		publisher.subscribe(first);
+		publisher.subscribe(second);
+		Assert.assertTrue(second.error instanceof IllegalStateException);
+		first.subscription.request(100);
+		Assert.assertEquals(10, first.items.size());
+		Assert.assertTrue(first.completed);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullSubscriberIsRejected() {
+		longs(1).subscribe(null);
+	}
+}